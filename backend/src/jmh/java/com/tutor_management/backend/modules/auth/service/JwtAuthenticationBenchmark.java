@@ -0,0 +1,61 @@
+package com.tutor_management.backend.modules.auth.service;
+
+import com.tutor_management.backend.modules.auth.Role;
+import com.tutor_management.backend.modules.auth.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication cost of {@link JwtService}: building the principal from a token
+ * already in the verified cache, versus checking its signature and parsing it again as every
+ * request did before the cache.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=JwtAuthenticationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    /** Distinct tokens in flight, kept below the verified cache size */
+    private static final int TOKENS = 1024;
+
+    private JwtService jwtService;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", Base64.getEncoder().encodeToString(
+                "benchmark-secret-key-min-256-bits-long-for-hs256".getBytes()));
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3_600_000L);
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = jwtService.generateToken(User.builder().id((long) i).email("user" + i + "@test.com")
+                    .fullName("User " + i).role(Role.STUDENT).studentId((long) i).build());
+            jwtService.verify(tokens[i]);
+        }
+    }
+
+    private String nextToken() {
+        next = (next + 1) & (TOKENS - 1);
+        return tokens[next];
+    }
+
+    @Benchmark
+    public User cachedVerification() {
+        return jwtService.toPrincipal(jwtService.verify(nextToken()));
+    }
+
+    @Benchmark
+    public User signatureCheck() {
+        return jwtService.toPrincipal(jwtService.extractClaim(nextToken(), claims -> claims));
+    }
+}
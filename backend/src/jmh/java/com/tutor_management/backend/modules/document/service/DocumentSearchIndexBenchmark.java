@@ -0,0 +1,80 @@
+package com.tutor_management.backend.modules.document.service;
+
+import com.tutor_management.backend.modules.document.repository.DocumentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Build time and query latency of {@link DocumentSearchIndex} over a generated corpus of
+ * Vietnamese titles, spread over 50 tutors. Result correctness is covered by
+ * {@code DocumentSearchIndexTest}.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=DocumentSearchIndexBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocumentSearchIndexBenchmark {
+
+    private static final String[] WORDS = {"ngữ", "pháp", "từ", "vựng", "bài", "tập", "đề", "thi", "tiếng", "anh",
+            "toán", "hình", "học", "đại", "số", "lý", "hóa", "văn", "nghị", "luận", "ôn", "kiểm", "tra", "giữa",
+            "kỳ", "cuối"};
+    private static final String[] QUERIES = {"ngu phap", "de thi toan", "tieng anh", "kiem tra cuoi ky", "hinh hoc",
+            "van nghi luan"};
+
+    @Param({"100000"})
+    int documents;
+
+    private String[] titles;
+    private DocumentSearchIndex index;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        titles = new String[documents];
+        for (int i = 0; i < documents; i++) {
+            StringBuilder title = new StringBuilder();
+            for (int w = 0; w < 5; w++) {
+                title.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            titles[i] = title.toString();
+        }
+        index = build();
+    }
+
+    private DocumentSearchIndex build() {
+        DocumentSearchIndex built = new DocumentSearchIndex(Mockito.mock(DocumentRepository.class), new SimpleMeterRegistry());
+        for (int i = 0; i < documents; i++) {
+            long id = i + 1;
+            built.add(id, titles[i], "file-" + id + ".pdf", "Tài liệu số " + id, id % 50, null, id % 8);
+        }
+        return built;
+    }
+
+    /**
+     * Indexes the whole corpus into an empty index, as the startup rebuild does.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public DocumentSearchIndex index() {
+        return build();
+    }
+
+    /**
+     * First page of one query, scoped to one tutor.
+     */
+    @Benchmark
+    public DocumentSearchIndex.Hits query() {
+        next++;
+        return index.search(QUERIES[next % QUERIES.length], new DocumentSearchIndex.Filter((long) (next % 50), null, null), 0, 20);
+    }
+}
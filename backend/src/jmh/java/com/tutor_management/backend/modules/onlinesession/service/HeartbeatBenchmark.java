@@ -0,0 +1,74 @@
+package com.tutor_management.backend.modules.onlinesession.service;
+
+import com.tutor_management.backend.modules.auth.User;
+import com.tutor_management.backend.modules.onlinesession.entity.OnlineSession;
+import com.tutor_management.backend.modules.onlinesession.enums.RoomStatus;
+import com.tutor_management.backend.modules.student.entity.Student;
+import com.tutor_management.backend.modules.tutor.entity.Tutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heartbeats per second on the in-memory path of {@link HeartbeatEngine}: roster lookup plus
+ * presence update, for rooms whose participants are all known. The database path it replaces
+ * took a row lock and a user lookup per heartbeat.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=HeartbeatBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeartbeatBenchmark {
+
+    @Param({"100", "10000"})
+    int rooms;
+
+    private HeartbeatEngine engine;
+    private String[] roomIds;
+
+    @Setup
+    public void setUp() {
+        RoomRosterRegistry rosterRegistry = new RoomRosterRegistry();
+        roomIds = new String[rooms];
+        for (int i = 0; i < rooms; i++) {
+            roomIds[i] = "room-" + i;
+            OnlineSession session = OnlineSession.builder()
+                    .roomId(roomIds[i])
+                    .roomStatus(RoomStatus.ACTIVE)
+                    .tutor(Tutor.builder().id((long) i).user(User.builder().id(2L * i).build()).build())
+                    .student(Student.builder().id((long) i).build())
+                    .tutorJoinedAt(LocalDateTime.now())
+                    .build();
+            rosterRegistry.sync(session, 2L * i + 1);
+        }
+        engine = new HeartbeatEngine(rosterRegistry, new PresenceService(),
+                Mockito.mock(OnlineSessionService.class), new SimpleMeterRegistry());
+    }
+
+    /**
+     * One heartbeat from a random participant of a random room.
+     */
+    @Benchmark
+    public void heartbeat(ThreadCursor cursor) {
+        int participant = cursor.next(rooms * 2);
+        engine.onHeartbeat(roomIds[participant >> 1], (long) participant);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadCursor {
+
+        private long seed = System.nanoTime();
+
+        int next(int bound) {
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            return (int) ((seed >>> 33) % bound);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.tutor_management.backend.modules.onlinesession.service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tutor_management.backend.modules.onlinesession.dto.request.WhiteboardStrokeMessage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round-trip cost of a stroke's points as JSON versus {@link WhiteboardPointCodec}.
+ * Payload sizes are asserted in {@code WhiteboardPointCodecTest}; add {@code -prof gc}
+ * to compare allocation per stroke.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args=WhiteboardPointCodecBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WhiteboardPointCodecBenchmark {
+
+    @Param({"150"})
+    int points;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JavaType pointListType;
+    private List<WhiteboardStrokeMessage.Point> stroke;
+
+    @Setup
+    public void setUp() {
+        pointListType = objectMapper.getTypeFactory().constructCollectionType(List.class, WhiteboardStrokeMessage.Point.class);
+        // Pen-like path: small random steps inside the unit square
+        Random random = new Random(42);
+        stroke = new ArrayList<>(points);
+        double x = random.nextDouble();
+        double y = random.nextDouble();
+        for (int i = 0; i < points; i++) {
+            x = Math.min(1, Math.max(0, x + (random.nextDouble() - 0.5) * 0.01));
+            y = Math.min(1, Math.max(0, y + (random.nextDouble() - 0.5) * 0.01));
+            stroke.add(new WhiteboardStrokeMessage.Point(x, y));
+        }
+    }
+
+    @Benchmark
+    public List<WhiteboardStrokeMessage.Point> json() throws Exception {
+        return objectMapper.readValue(objectMapper.writeValueAsString(stroke), pointListType);
+    }
+
+    @Benchmark
+    public List<WhiteboardStrokeMessage.Point> compact() {
+        return WhiteboardPointCodec.decodeFromString(WhiteboardPointCodec.encodeToString(stroke));
+    }
+}
@@ -0,0 +1,64 @@
+package com.tutor_management.backend.modules.shared.service;
+
+import com.tutor_management.backend.modules.finance.dto.response.BankInfo;
+import com.tutor_management.backend.modules.finance.dto.response.InvoiceItem;
+import com.tutor_management.backend.modules.finance.dto.response.InvoiceResponse;
+import com.tutor_management.backend.modules.finance.service.PaymentQrService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invoices per second rendered by {@link PDFGeneratorService}, with font programs parsed once
+ * and the payment QR code encoded locally. Add {@code -prof gc} for allocation per invoice.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="InvoicePdfBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvoicePdfBenchmark {
+
+    @Param({"8"})
+    int items;
+
+    private PDFGeneratorService pdfGeneratorService;
+    private InvoiceResponse invoice;
+
+    @Setup
+    public void setUp() throws Exception {
+        pdfGeneratorService = new PDFGeneratorService(new PaymentQrService());
+        pdfGeneratorService.loadFonts();
+
+        List<InvoiceItem> lines = new ArrayList<>();
+        for (int i = 1; i <= items; i++) {
+            lines.add(InvoiceItem.builder()
+                    .date(String.format("%02d/01/2024", i))
+                    .description("Buổi học tiếng Anh " + i)
+                    .sessions(1)
+                    .hours(1.5)
+                    .pricePerHour(200000L)
+                    .amount(300000L)
+                    .build());
+        }
+        invoice = InvoiceResponse.builder()
+                .invoiceNumber("INV-2024-01-001")
+                .studentName("Nguyễn Văn Á")
+                .month("Tháng 01/2024")
+                .items(lines)
+                .totalAmount(300000L * items)
+                .bankInfo(BankInfo.getDefault())
+                .createdDate("31/01/2024")
+                .build();
+    }
+
+    @Benchmark
+    public byte[] generateInvoice() throws Exception {
+        return pdfGeneratorService.generateInvoicePDF(invoice);
+    }
+}
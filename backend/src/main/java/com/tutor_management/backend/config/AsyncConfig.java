@@ -0,0 +1,74 @@
+package com.tutor_management.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    public static final String NOTIFICATION_EXECUTOR = "notificationExecutor";
+    public static final String INVOICE_JOB_EXECUTOR = "invoiceJobExecutor";
+    public static final String QUERY_FAN_OUT_EXECUTOR = "queryFanOutExecutor";
+
+    /**
+     * Runs notification event handlers after the publishing transaction commits.
+     * Bounded; when saturated the publishing thread runs the handler itself.
+     */
+    @Bean(name = NOTIFICATION_EXECUTOR)
+    public ThreadPoolTaskExecutor notificationExecutor(
+            @Value("${app.notification.executor.core-size:2}") int coreSize,
+            @Value("${app.notification.executor.max-size:4}") int maxSize,
+            @Value("${app.notification.executor.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("notification-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+
+    /**
+     * Renders and sends the invoices of bulk invoice jobs, one parent per task.
+     * Queued tasks are dropped on shutdown; their items stay pending and are resumed on the next start.
+     */
+    @Bean(name = INVOICE_JOB_EXECUTOR)
+    public ThreadPoolTaskExecutor invoiceJobExecutor(
+            @Value("${app.invoice.job.workers:4}") int workers,
+            @Value("${app.invoice.job.queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("invoice-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Runs the independent read queries of one request in parallel, see {@link QueryFanOut}.
+     * Sized below the connection pool, since every task holds a connection; when saturated
+     * the requesting thread runs the query itself.
+     */
+    @Bean(name = QUERY_FAN_OUT_EXECUTOR)
+    public ThreadPoolTaskExecutor queryFanOutExecutor(
+            @Value("${app.query.fan-out.workers:6}") int workers,
+            @Value("${app.query.fan-out.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("query-fan-out-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+}
@@ -1,39 +1,112 @@
 package com.tutor_management.backend.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import java.util.concurrent.TimeUnit;
-import java.util.Arrays;
+import org.springframework.core.env.Environment;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Declares every application cache with its own Caffeine spec.
+ * <p>
+ * Each spec can be overridden with {@code app.cache.<name>.spec} in the Caffeine spec
+ * format, e.g. {@code maximumSize=1000,expireAfterWrite=30m}. A {@code maximumWeight}
+ * spec weighs collection values by their size and other values as 1. Statistics are
+ * always recorded and published to Micrometer as {@code cache.gets}, {@code cache.evictions}
+ * etc. tagged with the cache name.
+ */
 @Configuration
 @EnableCaching
+@RequiredArgsConstructor
 public class CacheConfig {
 
+    /** Tag value Spring Boot uses for the cache manager bean of the same name */
+    private static final String CACHE_MANAGER_NAME = "cacheManager";
+
+    private static final Map<String, String> DEFAULT_SPECS = new LinkedHashMap<>();
+
+    static {
+        DEFAULT_SPECS.put("documentStats", "maximumSize=1000,expireAfterWrite=10m");
+        DEFAULT_SPECS.put("users", "maximumSize=2000,expireAfterWrite=10m");
+        DEFAULT_SPECS.put("lessons", "maximumSize=5000,expireAfterWrite=30m");
+        DEFAULT_SPECS.put("courseList", "maximumSize=10,expireAfterWrite=10m");
+        DEFAULT_SPECS.put("courseDetail", "maximumSize=500,expireAfterWrite=30m");
+        // Evicted per tenant on every revenue write, so the TTL only bounds non-revenue drift (student counts)
+        DEFAULT_SPECS.put("dashboardStats", "maximumSize=2000,expireAfterWrite=10m");
+        // Weighed in months: one tutor with two years of history costs 24
+        DEFAULT_SPECS.put("monthlyStats", "maximumWeight=50000,expireAfterWrite=30m");
+        DEFAULT_SPECS.put("aiGeneratedComments", "maximumSize=1000,expireAfterWrite=1h");
+        DEFAULT_SPECS.put("userNames", "maximumSize=10000,expireAfterWrite=1h");
+        // Encoded payment QR codes; an entry is only reused while an invoice is re-rendered or batched
+        DEFAULT_SPECS.put("paymentQrCodes", "maximumSize=500,expireAfterAccess=1h");
+    }
+
+    private final Environment environment;
+
     @Bean
-    public CacheManager cacheManager() {
-        // Add "documentStats", "users" (for auth), "lessons" (for lesson module)
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
-                "documentStats",
-                "users",
-                "lessons",
-                "courseList",
-                "courseDetail",
-                "dashboardStats",
-                "monthlyStats",
-                "aiGeneratedComments");
-        cacheManager.setCaffeine(caffeineCacheBuilder());
+    public CacheManager cacheManager(MeterRegistry meterRegistry) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // No caches beyond the declared ones: a typo in a cache name fails instead of creating an unbounded cache
+        cacheManager.setCacheNames(List.of());
+        DEFAULT_SPECS.forEach((name, defaultSpec) -> {
+            String spec = environment.getProperty("app.cache." + name + ".spec", defaultSpec);
+            Cache<Object, Object> cache = buildCache(name, spec);
+            cacheManager.registerCustomCache(name, cache);
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, name, "cache.manager", CACHE_MANAGER_NAME);
+        });
+        registerHitRatios(cacheManager, meterRegistry);
         return cacheManager;
     }
 
-    Caffeine<Object, Object> caffeineCacheBuilder() {
-        return Caffeine.newBuilder()
-                .initialCapacity(100)
-                .maximumSize(500)
-                .expireAfterWrite(10, TimeUnit.MINUTES)
-                .recordStats();
+    /**
+     * Publishes the hit ratio of each cache as {@code cache.hit.ratio{cache=...}}, so the
+     * effect of write traffic on each cache can be watched separately.
+     */
+    private void registerHitRatios(CaffeineCacheManager cacheManager, MeterRegistry meterRegistry) {
+        for (String name : cacheManager.getCacheNames()) {
+            CaffeineCache cache = (CaffeineCache) cacheManager.getCache(name);
+            Gauge.builder("cache.hit.ratio", cache, c -> c.getNativeCache().stats().hitRate())
+                    .tag("cache", name)
+                    .description("Share of lookups served from the cache since start")
+                    .register(meterRegistry);
+        }
+    }
+
+    static Cache<Object, Object> buildCache(String name, String spec) {
+        if (spec.contains("refreshAfterWrite")) {
+            // Refreshing needs a loader that can recompute a value from its key alone; @Cacheable entries have none
+            throw new IllegalStateException("Cache '" + name + "' does not support refreshAfterWrite: " + spec);
+        }
+        Caffeine<Object, Object> builder = Caffeine.from(spec);
+        if (!spec.contains("recordStats")) {
+            builder.recordStats();
+        }
+        if (spec.contains("maximumWeight")) {
+            builder.weigher(CacheConfig::weigh);
+        }
+        return builder.build();
+    }
+
+    private static int weigh(Object key, Object value) {
+        if (value instanceof Collection<?> collection) {
+            return Math.max(1, collection.size());
+        }
+        if (value instanceof Map<?, ?> map) {
+            return Math.max(1, map.size());
+        }
+        return 1;
     }
 }
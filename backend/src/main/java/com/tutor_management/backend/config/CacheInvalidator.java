@@ -0,0 +1,130 @@
+package com.tutor_management.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Removes only the cache entries a write affects, keyed by {@link CacheKeys}.
+ * <p>
+ * Evictions requested inside a transaction run after it commits, so a concurrent read
+ * cannot put the pre-commit state back into the cache; the same eviction requested
+ * several times in one transaction (e.g. a batch of session records of one tutor) runs
+ * once. Without a transaction the entries are removed immediately.
+ */
+@Component
+@Slf4j
+public class CacheInvalidator {
+
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+
+    public CacheInvalidator(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Drops the dashboard and monthly revenue entries of a tutor and of the global view,
+     * which aggregates every tutor. Other tutors keep their entries.
+     */
+    public void evictRevenue(Long tutorId) {
+        afterCommit("revenue-" + tutorId, () -> {
+            Predicate<Object> affected = key -> key instanceof CacheKeys.TenantKey tenant
+                    && (tenant.tutorId() == null || tenant.tutorId().equals(tutorId));
+            evict("dashboardStats", affected);
+            evict("monthlyStats", affected);
+        });
+    }
+
+    /**
+     * Drops every dashboard and monthly revenue entry, for writes that span all tutors.
+     */
+    public void evictAllRevenue() {
+        afterCommit("revenue-all", () -> {
+            evict("dashboardStats", key -> true);
+            evict("monthlyStats", key -> true);
+        });
+    }
+
+    /**
+     * Drops the document statistics a document of this tutor and student is counted in:
+     * the tutor's and the global view, for that student and for "all students". A document
+     * without a student is shared with every student of the tutor.
+     */
+    public void evictDocumentStats(Long tutorId, Long studentId) {
+        afterCommit("documentStats-" + tutorId + "-" + studentId, () -> evict("documentStats",
+                key -> key instanceof CacheKeys.TenantKey tenant
+                        && (tenant.tutorId() == null || tenant.tutorId().equals(tutorId))
+                        && (studentId == null || tenant.qualifier() == null || studentId.equals(tenant.qualifier()))));
+    }
+
+    /**
+     * Drops a lesson for every student it is cached for.
+     */
+    public void evictLesson(Long lessonId) {
+        afterCommit("lesson-" + lessonId, () -> evict("lessons",
+                key -> key instanceof CacheKeys.LessonKey lesson && lesson.lessonId().equals(lessonId)));
+    }
+
+    /**
+     * Drops a lesson for the given students only.
+     */
+    public void evictLesson(Long lessonId, Collection<Long> studentIds) {
+        for (Long studentId : studentIds) {
+            afterCommit("lesson-" + lessonId + "-" + studentId, () -> evict("lessons",
+                    key -> key.equals(CacheKeys.lesson(lessonId, studentId))));
+        }
+    }
+
+    private void afterCommit(String id, Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Runnable> pending = (Map<String, Runnable>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<String, Runnable> evictions = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, evictions);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidator.this);
+                    if (status == STATUS_COMMITTED) {
+                        evictions.values().forEach(Runnable::run);
+                    }
+                }
+            });
+            pending = evictions;
+        }
+        pending.putIfAbsent(id, eviction);
+    }
+
+    private void evict(String cacheName, Predicate<Object> affected) {
+        if (!(cacheManager.getCache(cacheName) instanceof CaffeineCache cache)) {
+            return;
+        }
+        Cache<Object, Object> nativeCache = cache.getNativeCache();
+        int removed = 0;
+        for (Object key : nativeCache.asMap().keySet()) {
+            if (affected.test(key) && nativeCache.asMap().remove(key) != null) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            meterRegistry.counter("cache.evictions.targeted", "cache", cacheName).increment(removed);
+            log.debug("Evicted {} entries from cache '{}'", removed, cacheName);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.tutor_management.backend.config;
+
+/**
+ * Structured cache keys for caches that are invalidated selectively.
+ * <p>
+ * Keys carry the IDs they depend on as fields, so {@link CacheInvalidator} can remove the
+ * entries of one tenant or one lesson instead of clearing the whole cache. Used from
+ * {@code @Cacheable} SpEL as {@code T(com.tutor_management.backend.config.CacheKeys).tenant(...)}.
+ */
+public final class CacheKeys {
+
+    private CacheKeys() {
+    }
+
+    /**
+     * An entry scoped to a tutor.
+     *
+     * @param tutorId   The tutor the data belongs to, or null for the global (admin) view
+     * @param qualifier What else the entry depends on (month, student ID...), may be null
+     */
+    public record TenantKey(Long tutorId, Object qualifier) {
+    }
+
+    /**
+     * A lesson as seen by one student.
+     */
+    public record LessonKey(Long lessonId, Long studentId) {
+    }
+
+    public static TenantKey tenant(Long tutorId, Object qualifier) {
+        return new TenantKey(tutorId, qualifier);
+    }
+
+    public static TenantKey tenant(Long tutorId) {
+        return new TenantKey(tutorId, null);
+    }
+
+    public static LessonKey lesson(Long lessonId, Long studentId) {
+        return new LessonKey(lessonId, studentId);
+    }
+}
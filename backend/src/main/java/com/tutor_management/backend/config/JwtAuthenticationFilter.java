@@ -1,6 +1,9 @@
 package com.tutor_management.backend.config;
 
+import com.tutor_management.backend.modules.auth.User;
 import com.tutor_management.backend.modules.auth.service.JwtService;
+import com.tutor_management.backend.util.SecurityContextUtils;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,6 +29,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final HandlerExceptionResolver handlerExceptionResolver;
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final SecurityContextUtils securityContextUtils;
 
     @Override
     protected void doFilterInternal(
@@ -35,7 +39,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
         String jwt = null;
-        String userEmail = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             jwt = authHeader.substring(7);
@@ -50,23 +53,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            // Verifies the signature and expiry exactly once
+            Claims claims = jwtService.verify(jwt);
 
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-            if (userEmail != null && authentication == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            if (claims.getSubject() != null && authentication == null) {
+                UserDetails userDetails = jwtService.toPrincipal(claims);
+                if (userDetails == null) {
+                    // Token issued before identity claims were added: load the user instead
+                    userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+                    if (userDetails instanceof User user) {
+                        // Resolve the tenant once here instead of in every service call
+                        securityContextUtils.attachTenantIds(user);
+                    }
+                }
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
 
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
 
             filterChain.doFilter(request, response);
@@ -0,0 +1,79 @@
+package com.tutor_management.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent read queries of one request in parallel, so the request waits for the
+ * slowest query rather than the sum of all of them.
+ * <p>
+ * Each query runs on {@link AsyncConfig#QUERY_FAN_OUT_EXECUTOR} in its own read-only
+ * transaction (a transaction cannot span threads) with the submitting thread's
+ * {@code SecurityContext}, so tenant resolution works as it does on the request thread.
+ * Callers should not hold a transaction of their own while waiting, or the request ties
+ * up one extra connection for nothing.
+ */
+@Component
+public class QueryFanOut {
+
+    private final Executor executor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Timer queryTimer;
+
+    @Value("${app.query.fan-out.timeout-ms:10000}")
+    private long timeoutMillis = 10000;
+
+    public QueryFanOut(@Qualifier(AsyncConfig.QUERY_FAN_OUT_EXECUTOR) ThreadPoolTaskExecutor executor,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        // Captures the caller's context per task and restores the worker's afterwards,
+        // which also holds when a saturated pool runs the task on the caller
+        this.executor = new DelegatingSecurityContextExecutor(executor);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.queryTimer = meterRegistry.timer("query.fan_out.task");
+    }
+
+    /**
+     * Starts a query; collect its result with {@link #await}.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(
+                () -> queryTimer.record(() -> readOnlyTransaction.execute(status -> query.get())), executor);
+    }
+
+    /**
+     * Waits for a submitted query and returns its result, rethrowing its exception as is.
+     */
+    public <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Query failed", e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IllegalStateException("Query did not finish within " + timeoutMillis + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a query", e);
+        }
+    }
+}
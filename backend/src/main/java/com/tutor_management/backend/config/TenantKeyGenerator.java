@@ -0,0 +1,37 @@
+package com.tutor_management.backend.config;
+
+import com.tutor_management.backend.util.SecurityContextUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+
+/**
+ * Keys a cached method by the caller's tenant and the method arguments, as a
+ * {@link CacheKeys.TenantKey} that {@link CacheInvalidator} can match.
+ * <p>
+ * Use with {@code @Cacheable(keyGenerator = TenantKeyGenerator.NAME)} on methods whose result
+ * depends on the current tutor. Plain Java instead of a SpEL expression, so nothing is
+ * parsed or reflectively evaluated per call; the tutor ID usually comes straight from the
+ * authenticated principal.
+ */
+@Component(TenantKeyGenerator.NAME)
+@RequiredArgsConstructor
+public class TenantKeyGenerator implements KeyGenerator {
+
+    public static final String NAME = "tenantKeyGenerator";
+
+    private final SecurityContextUtils securityContextUtils;
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        Object qualifier = switch (params.length) {
+            case 0 -> null;
+            case 1 -> params[0];
+            default -> SimpleKeyGenerator.generateKey(params);
+        };
+        return CacheKeys.tenant(securityContextUtils.getCurrentTutorId(), qualifier);
+    }
+}
@@ -4,6 +4,7 @@ import com.tutor_management.backend.modules.admin.dto.response.AdminDocumentResp
 import com.tutor_management.backend.modules.admin.dto.response.AdminDocumentStats;
 import com.tutor_management.backend.modules.document.entity.Document;
 import com.tutor_management.backend.modules.document.repository.DocumentRepository;
+import com.tutor_management.backend.modules.document.service.DocumentSearchIndex;
 import com.tutor_management.backend.modules.shared.service.CloudinaryService;
 import com.tutor_management.backend.modules.tutor.entity.Tutor;
 import com.tutor_management.backend.modules.tutor.repository.TutorRepository;
@@ -26,15 +27,22 @@ public class AdminDocumentService {
     private final TutorRepository tutorRepository;
     private final CloudinaryService cloudinaryService;
     private final com.tutor_management.backend.modules.finance.repository.SessionRecordRepository sessionRecordRepository;
+    private final DocumentSearchIndex documentSearchIndex;
 
     public Page<AdminDocumentResponse> getAllDocuments(String search, Long tutorId, String category, Pageable pageable) {
         Page<Document> documents;
         if (search != null && !search.isBlank()) {
-            documents = documentRepository.findByTitleContainingIgnoreCase(search, category, tutorId, null, pageable);
+            documents = tutorId != null
+                    ? documentRepository.findByTitleContainingIgnoreCaseAndTutorId(search, category, tutorId, null, pageable)
+                    : documentRepository.findByTitleContainingIgnoreCase(search, category, null, pageable);
         } else if (category != null && !category.isBlank()) {
-            documents = documentRepository.findByCategoryCode(category, tutorId, null, pageable);
+            documents = tutorId != null
+                    ? documentRepository.findByCategoryCodeAndTutorId(category, tutorId, null, pageable)
+                    : documentRepository.findByCategoryCode(category, null, pageable);
         } else {
-            documents = documentRepository.findAllWithStudent(tutorId, null, pageable);
+            documents = tutorId != null
+                    ? documentRepository.findAllWithStudentByTutorId(tutorId, null, pageable)
+                    : documentRepository.findAllWithStudent(null, pageable);
         }
 
         // Batch fetch tutor names for optimization
@@ -51,8 +59,8 @@ public class AdminDocumentService {
 
     public AdminDocumentStats getStats() {
         Long totalDocuments = documentRepository.count();
-        Long totalDownloads = documentRepository.sumTotalDownloads(null);
-        Long totalBytes = documentRepository.sumTotalFileSize(null);
+        Long totalDownloads = documentRepository.sumTotalDownloads();
+        Long totalBytes = documentRepository.sumTotalFileSize();
         
         double totalMB = (totalBytes != null ? totalBytes : 0L) / (1024.0 * 1024.0);
 
@@ -72,6 +80,7 @@ public class AdminDocumentService {
             cloudinaryService.deleteFile(document.getFilePath());
             sessionRecordRepository.deleteDocumentReferences(id);
             documentRepository.delete(document);
+            documentSearchIndex.removeAfterCommit(id);
         } catch (Exception e) {
              throw new RuntimeException("Failed to delete document: " + e.getMessage());
         }
@@ -5,8 +5,9 @@ import com.tutor_management.backend.modules.admin.dto.response.MonthlyRevenueRes
 import com.tutor_management.backend.modules.admin.dto.response.OverviewStatsResponse;
 import com.tutor_management.backend.modules.admin.entity.ActivityLog;
 import com.tutor_management.backend.modules.admin.repository.ActivityLogRepository;
+import com.tutor_management.backend.modules.dashboard.dto.response.DashboardStats;
 import com.tutor_management.backend.modules.finance.dto.response.MonthlyStats;
-import com.tutor_management.backend.modules.finance.repository.SessionRecordRepository;
+import com.tutor_management.backend.modules.finance.service.RevenueRollupService;
 import com.tutor_management.backend.modules.student.repository.StudentRepository;
 import com.tutor_management.backend.modules.tutor.repository.TutorRepository;
 import com.tutor_management.backend.util.FormatterUtils;
@@ -27,7 +28,7 @@ public class AdminStatsService {
 
     private final TutorRepository tutorRepository;
     private final StudentRepository studentRepository;
-    private final SessionRecordRepository sessionRecordRepository;
+    private final RevenueRollupService revenueRollupService;
     private final ActivityLogRepository activityLogRepository;
 
     public OverviewStatsResponse getOverviewStats() {
@@ -44,10 +45,12 @@ public class AdminStatsService {
         long proAccounts = tutorRepository.countBySubscriptionPlan("PREMIUM");
         long freeAccounts = tutorRepository.countBySubscriptionPlan("BASIC");
 
-        Long totalPaid = sessionRecordRepository.sumTotalPaid();
-        Long totalPaidMonth = sessionRecordRepository.sumTotalPaidByMonth(currentMonth);
-        long totalRevenue = sessionRecordRepository.sumNonCancelledTotalAmount();
-        long totalSessions = sessionRecordRepository.countNonCancelledSessions();
+        List<MonthlyStats> months = revenueRollupService.getMonthlyStats(null);
+        DashboardStats finance = RevenueRollupService.summarize(months, currentMonth);
+        Long totalPaid = finance.getTotalPaidRaw();
+        Long totalPaidMonth = finance.getCurrentMonthTotalRaw() - finance.getCurrentMonthUnpaid();
+        long totalRevenue = finance.getTotalPaidRaw() + finance.getTotalUnpaidRaw();
+        long totalSessions = months.stream().mapToLong(m -> m.getTotalSessions() != null ? m.getTotalSessions() : 0).sum();
 
         return OverviewStatsResponse.builder()
                 .totalTutors(totalTutors)
@@ -67,7 +70,7 @@ public class AdminStatsService {
     }
 
     public List<MonthlyRevenueResponse> getMonthlyRevenue(int months) {
-        List<MonthlyStats> stats = sessionRecordRepository.findAllMonthlyStatsAggregated();
+        List<MonthlyStats> stats = revenueRollupService.getMonthlyStats(null);
         
         return stats.stream()
                 .limit(months)
@@ -6,6 +6,7 @@ import com.tutor_management.backend.modules.auth.dto.request.RegisterRequest;
 import com.tutor_management.backend.modules.shared.dto.response.ApiResponse;
 import com.tutor_management.backend.modules.auth.dto.response.AuthResponse;
 import com.tutor_management.backend.modules.auth.service.AuthenticationService;
+import com.tutor_management.backend.modules.auth.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 public class AuthenticationController {
 
     private final AuthenticationService authenticationService;
+    private final UserService userService;
 
     @PostMapping("/register")
     public ResponseEntity<ApiResponse<AuthResponse>> register(
@@ -52,15 +54,8 @@ public class AuthenticationController {
     @PreAuthorize("isAuthenticated()")
     @GetMapping("/me")
     public ResponseEntity<ApiResponse<AuthResponse.UserInfo>> getCurrentUser(Authentication authentication) {
+        // The principal only carries token claims; profile fields such as the avatar come from the DB
         User user = (User) authentication.getPrincipal();
-        AuthResponse.UserInfo userInfo = AuthResponse.UserInfo.builder()
-                .id(user.getId())
-                .email(user.getEmail())
-                .fullName(user.getFullName())
-                .role(user.getRole())
-                .avatarUrl(user.getAvatarUrl())
-                .studentId(user.getStudentId())
-                .build();
-        return ResponseEntity.ok(ApiResponse.success(userInfo));
+        return ResponseEntity.ok(ApiResponse.success(userService.getUserProfile(user.getId())));
     }
 }
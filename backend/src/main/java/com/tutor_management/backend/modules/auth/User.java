@@ -55,6 +55,13 @@ public class User implements UserDetails {
     @Column(name = "student_id")
     private Long studentId;
 
+    /**
+     * Tutor profile ID of a TUTOR, resolved when the request is authenticated.
+     * Not persisted: the link lives on the tutors table.
+     */
+    @Transient
+    private Long tutorId;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -24,6 +24,7 @@ public class AuthenticationService {
     private final AuthenticationManager authenticationManager;
     private final com.tutor_management.backend.modules.tutor.service.TutorService tutorService;
     private final com.tutor_management.backend.modules.admin.service.AdminStatsService adminStatsService;
+    private final com.tutor_management.backend.util.SecurityContextUtils securityContextUtils;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -78,7 +79,8 @@ public class AuthenticationService {
         // ✅ Ensure profile exists on every login (idempotent)
         tutorService.ensureTutorProfile(user);
 
-        // 3. Generate tokens
+        // 3. Generate tokens (tutorId is signed into the token so requests need no lookup)
+        securityContextUtils.attachTenantIds(user);
         String accessToken = jwtService.generateToken(user);
         RefreshToken refreshToken = refreshTokenService.createRefreshToken(user.getId());
 
@@ -91,6 +93,7 @@ public class AuthenticationService {
                 .map(refreshTokenService::verifyExpiration)
                 .map(RefreshToken::getUser)
                 .map(user -> {
+                    securityContextUtils.attachTenantIds(user);
                     String accessToken = jwtService.generateToken(user);
                     return buildAuthResponse(user, accessToken, refreshTokenStr);
                 })
@@ -1,7 +1,12 @@
 package com.tutor_management.backend.modules.auth.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.tutor_management.backend.modules.auth.Role;
 import com.tutor_management.backend.modules.auth.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -11,19 +16,42 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies access tokens.
+ *
+ * Tokens carry the identity the request pipeline needs (user ID, role, student/tutor ID),
+ * so {@link #verify(String)} + {@link #toPrincipal(Claims)} authenticate a request with a
+ * single signature check and no database access. Verified tokens are remembered until
+ * they expire, so repeated requests with the same token skip the HMAC entirely.
+ */
 @Service
 public class JwtService {
 
+    public static final String CLAIM_USER_ID = "userId";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_FULL_NAME = "fullName";
+    public static final String CLAIM_STUDENT_ID = "studentId";
+    public static final String CLAIM_TUTOR_ID = "tutorId";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
     @Value("${jwt.expiration}")
     private Long jwtExpiration;
 
+    @Value("${jwt.verified-cache-size:10000}")
+    private long verifiedCacheSize = 10000;
+
+    // Derived from secretKey on first use (the field is injected after construction)
+    private volatile SecretKey signInKey;
+    private volatile JwtParser parser;
+    private volatile Cache<String, Claims> verifiedTokens;
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -36,12 +64,16 @@ public class JwtService {
     // ✅ OVERLOAD METHOD - Accept User type to include custom claims
     public String generateToken(User user) {
         Map<String, Object> extraClaims = new HashMap<>();
-        extraClaims.put("role", user.getRole().name());
-        extraClaims.put("fullName", user.getFullName());
+        extraClaims.put(CLAIM_USER_ID, user.getId());
+        extraClaims.put(CLAIM_ROLE, user.getRole().name());
+        extraClaims.put(CLAIM_FULL_NAME, user.getFullName());
 
         // ✅ ADD studentId if present
         if (user.getStudentId() != null) {
-            extraClaims.put("studentId", user.getStudentId());
+            extraClaims.put(CLAIM_STUDENT_ID, user.getStudentId());
+        }
+        if (user.getTutorId() != null) {
+            extraClaims.put(CLAIM_TUTOR_ID, user.getTutorId());
         }
 
         return generateToken(extraClaims, user);
@@ -74,6 +106,51 @@ public class JwtService {
                 .compact();
     }
 
+    /**
+     * Verifies signature and expiry once and returns the claims.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims verify(String token) {
+        Cache<String, Claims> cache = verifiedTokens();
+        Claims claims = cache.getIfPresent(token);
+        if (claims != null && claims.getExpiration().after(new Date())) {
+            return claims;
+        }
+        claims = parser().parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() != null) {
+            cache.put(token, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * Builds the request principal from verified claims.
+     *
+     * @return a detached User carrying the signed identity, or null for tokens issued
+     *         without the user ID claim (callers then load the user instead)
+     */
+    public User toPrincipal(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        Number studentId = claims.get(CLAIM_STUDENT_ID, Number.class);
+        Number tutorId = claims.get(CLAIM_TUTOR_ID, Number.class);
+        return User.builder()
+                .id(userId.longValue())
+                .email(claims.getSubject())
+                .password("")
+                .fullName(claims.get(CLAIM_FULL_NAME, String.class))
+                .role(Role.valueOf(role))
+                .studentId(studentId != null ? studentId.longValue() : null)
+                .tutorId(tutorId != null ? tutorId.longValue() : null)
+                .enabled(true)
+                .accountNonLocked(true)
+                .build();
+    }
+
     public boolean isTokenValid(String token, UserDetails userDetails) {
         final String username = extractUsername(token);
         return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
@@ -95,16 +172,67 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignInKey())
-                .build()
+        return parser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
     private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        SecretKey key = signInKey;
+        if (key == null) {
+            byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+            key = Keys.hmacShaKeyFor(keyBytes);
+            signInKey = key;
+        }
+        return key;
+    }
+
+    private JwtParser parser() {
+        JwtParser jwtParser = parser;
+        if (jwtParser == null) {
+            // Immutable and thread-safe, so one instance serves every request
+            jwtParser = Jwts.parser().verifyWith(getSignInKey()).build();
+            parser = jwtParser;
+        }
+        return jwtParser;
+    }
+
+    private Cache<String, Claims> verifiedTokens() {
+        Cache<String, Claims> cache = verifiedTokens;
+        if (cache == null) {
+            synchronized (this) {
+                cache = verifiedTokens;
+                if (cache == null) {
+                    cache = Caffeine.newBuilder()
+                            .maximumSize(verifiedCacheSize)
+                            .expireAfter(new UntilTokenExpiry())
+                            .build();
+                    verifiedTokens = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Keeps a verified token no longer than the token itself is valid.
+     */
+    private static final class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            long millisLeft = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millisLeft));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
@@ -9,6 +9,7 @@ import com.tutor_management.backend.modules.course.repository.CourseRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.cache.annotation.CacheEvict;
 
 import com.tutor_management.backend.exception.ResourceNotFoundException;
@@ -74,7 +75,7 @@ public class CourseService {
      * @param tutor The user authoring the course
      * @return Summary response of the created course
      */
-    @CacheEvict(value = {"courseList", "courseDetail"}, allEntries = true)
+    @CacheEvict(value = "courseList", allEntries = true)
     public CourseResponse createCourse(CourseRequest request, User tutor) {
         Course course = Course.builder()
                 .title(request.getTitle())
@@ -102,7 +103,10 @@ public class CourseService {
      * @param request Updated data
      * @return Updated course summary
      */
-    @CacheEvict(value = {"courseList", "courseDetail"}, allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "courseList", allEntries = true),
+            @CacheEvict(value = "courseDetail", key = "#id")
+    })
     public CourseResponse updateCourse(Long id, CourseRequest request) {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found: " + id));
@@ -147,7 +151,10 @@ public class CourseService {
      * 
      * @param id Course ID
      */
-    @CacheEvict(value = {"courseList", "courseDetail"}, allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "courseList", allEntries = true),
+            @CacheEvict(value = "courseDetail", key = "#id")
+    })
     public void deleteCourse(Long id) {
         if (!courseRepository.existsById(id)) {
             throw new ResourceNotFoundException("Course not found: " + id);
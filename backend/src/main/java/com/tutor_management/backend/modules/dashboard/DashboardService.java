@@ -1,15 +1,20 @@
 package com.tutor_management.backend.modules.dashboard;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.time.YearMonth;
 import java.time.LocalDateTime;
 
+import com.tutor_management.backend.config.QueryFanOut;
+import com.tutor_management.backend.config.TenantKeyGenerator;
 import com.tutor_management.backend.modules.auth.Role;
 import com.tutor_management.backend.modules.auth.User;
 import com.tutor_management.backend.modules.dashboard.dto.response.StudentDashboardStats;
 import com.tutor_management.backend.modules.finance.repository.SessionRecordRepository;
+import com.tutor_management.backend.modules.finance.service.RevenueRollupService;
 import com.tutor_management.backend.modules.student.repository.StudentRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.Cacheable;
 
@@ -35,36 +40,38 @@ public class DashboardService {
     private final DocumentRepository documentRepository;
     private final com.tutor_management.backend.modules.lesson.repository.LessonAssignmentRepository lessonAssignmentRepository;
     private final com.tutor_management.backend.util.SecurityContextUtils securityContextUtils;
+    private final RevenueRollupService revenueRollupService;
+    private final QueryFanOut queryFanOut;
 
     /**
      * Retrieves overall system statistics for a specific month.
      * Includes all-time totals, monthly totals, revenue trends, and new student growth.
+     * Cached per tenant (tutor, or the global admin view) and month; revenue writes evict
+     * only the affected tutor's and the global entries. Concurrent misses on the same key
+     * compute once; the other callers wait for that result. On a miss the summary, student
+     * counts and trend months are queried in parallel through {@link QueryFanOut}.
      * 
      * @param currentMonth The month to query (YYYY-MM format)
      * @return DashboardStats containing aggregated metrics
      */
-    @Cacheable(value = "dashboardStats", key = "{#currentMonth, T(org.springframework.security.core.context.SecurityContextHolder).getContext().getAuthentication().getName()}")
+    @Cacheable(value = "dashboardStats", keyGenerator = TenantKeyGenerator.NAME, sync = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public DashboardStats getDashboardStats(String currentMonth) {
         Long tutorId = securityContextUtils.getCurrentTutorId();
-        
-        // 1. Fetch raw financial summary from repository
-        DashboardStats stats;
-        if (tutorId != null) {
-            stats = sessionRecordRepository.getFinanceSummaryByTutorId(currentMonth, tutorId);
-        } else {
-            stats = sessionRecordRepository.getFinanceSummary(currentMonth);
-        }
 
-        if (stats == null) {
-            stats = new DashboardStats(0, 0L, 0L, 0L, 0L);
-        }
+        // 1. Independent queries run in parallel, each in its own read-only transaction
+        CompletableFuture<DashboardStats> summary = queryFanOut.submit(
+                () -> revenueRollupService.getFinanceSummary(currentMonth, tutorId));
+        CompletableFuture<Long> activeStudents = queryFanOut.submit(() -> tutorId != null
+                ? studentRepository.countByTutorIdAndActiveTrue(tutorId)
+                : studentRepository.countByActiveTrue());
+        CompletableFuture<List<MonthlyStats>> latestMonths = queryFanOut.submit(
+                () -> revenueRollupService.getLatestMonthlyStats(tutorId, 2));
+        CompletableFuture<Integer> newStudents = queryFanOut.submit(
+                () -> countNewStudents(currentMonth, tutorId));
 
-        // Fix: Query actual active students count instead of relying on aggregation
-        if (tutorId != null) {
-            stats.setTotalStudents((int) studentRepository.countByTutorIdAndActiveTrue(tutorId));
-        } else {
-            stats.setTotalStudents((int) studentRepository.countByActiveTrue());
-        }
+        DashboardStats stats = queryFanOut.await(summary);
+        stats.setTotalStudents(queryFanOut.await(activeStudents).intValue());
 
         // 2. Format currencies for display
         stats.setTotalPaidAllTime(FormatterUtils.formatCurrency(stats.getTotalPaidRaw()));
@@ -72,25 +79,21 @@ public class DashboardService {
         stats.setCurrentMonthTotal(FormatterUtils.formatCurrency(stats.getCurrentMonthTotalRaw()));
 
         // 3. Calculate revenue growth trend compared to previous month
-        calculateRevenueTrend(stats, tutorId);
+        calculateRevenueTrend(stats, queryFanOut.await(latestMonths));
 
-        // 4. Calculate new student signups for the current month
-        calculateNewStudentGrowth(stats, currentMonth, tutorId);
+        // 4. New student signups for the current month
+        stats.setNewStudentsCurrentMonth(queryFanOut.await(newStudents));
 
         return stats;
     }
 
-    private void calculateRevenueTrend(DashboardStats stats, Long tutorId) {
-        List<MonthlyStats> monthlyList;
-        if (tutorId != null) {
-            monthlyList = sessionRecordRepository.findMonthlyStatsAggregatedByTutorId(tutorId);
-        } else {
-            monthlyList = sessionRecordRepository.findAllMonthlyStatsAggregated();
-        }
-        
-        if (monthlyList.size() >= 2) {
-            long currentRevenue = monthlyList.get(0).getTotalPaid() + monthlyList.get(0).getTotalUnpaid();
-            long previousRevenue = monthlyList.get(1).getTotalPaid() + monthlyList.get(1).getTotalUnpaid();
+    /**
+     * @param latestMonths The two newest months with records, newest first
+     */
+    private void calculateRevenueTrend(DashboardStats stats, List<MonthlyStats> latestMonths) {
+        if (latestMonths.size() >= 2) {
+            long currentRevenue = latestMonths.get(0).getTotalPaid() + latestMonths.get(0).getTotalUnpaid();
+            long previousRevenue = latestMonths.get(1).getTotalPaid() + latestMonths.get(1).getTotalUnpaid();
             
             if (previousRevenue > 0) {
                 double growthPercentage = ((double) (currentRevenue - previousRevenue) / previousRevenue) * 100;
@@ -100,20 +103,19 @@ public class DashboardService {
         }
     }
 
-    private void calculateNewStudentGrowth(DashboardStats stats, String monthStr, Long tutorId) {
+    private int countNewStudents(String monthStr, Long tutorId) {
+        YearMonth yearMonth;
         try {
-            YearMonth yearMonth = YearMonth.parse(monthStr);
-            LocalDateTime monthStart = yearMonth.atDay(1).atStartOfDay();
-            LocalDateTime monthEnd = yearMonth.atEndOfMonth().atTime(23, 59, 59);
-            
-            if (tutorId != null) {
-                stats.setNewStudentsCurrentMonth((int) studentRepository.countByCreatedAtBetweenAndTutorId(monthStart, monthEnd, tutorId));
-            } else {
-                stats.setNewStudentsCurrentMonth((int) studentRepository.countByCreatedAtBetween(monthStart, monthEnd));
-            }
+            yearMonth = YearMonth.parse(monthStr);
         } catch (Exception e) {
-            stats.setNewStudentsCurrentMonth(0);
+            return 0;
         }
+        LocalDateTime monthStart = yearMonth.atDay(1).atStartOfDay();
+        LocalDateTime monthEnd = yearMonth.atEndOfMonth().atTime(23, 59, 59);
+
+        return (int) (tutorId != null
+                ? studentRepository.countByCreatedAtBetweenAndTutorId(monthStart, monthEnd, tutorId)
+                : studentRepository.countByCreatedAtBetween(monthStart, monthEnd));
     }
 
     /**
@@ -133,7 +135,9 @@ public class DashboardService {
                 .map(com.tutor_management.backend.modules.student.entity.Student::getTutorId)
                 .orElse(null);
                  
-        int documentCount = documentRepository.countByStudentIdAndTutor(studentId, studentTutorId).intValue();
+        int documentCount = (studentTutorId != null
+                ? documentRepository.countByStudentIdAndTutorId(studentId, studentTutorId)
+                : documentRepository.countByStudentId(studentId)).intValue();
 
         // 2. Aggregate metrics in memory
         int totalSessions = 0;
@@ -230,12 +234,8 @@ public class DashboardService {
      * 
      * @return List of MonthlyStats records
      */
-    @Cacheable(value = "monthlyStats", key = "T(org.springframework.security.core.context.SecurityContextHolder).getContext().getAuthentication().getName()")
+    @Cacheable(value = "monthlyStats", keyGenerator = TenantKeyGenerator.NAME, sync = true)
     public List<MonthlyStats> getMonthlyStats() {
-        Long tutorId = securityContextUtils.getCurrentTutorId();
-        if (tutorId != null) {
-            return sessionRecordRepository.findMonthlyStatsAggregatedByTutorId(tutorId);
-        }
-        return sessionRecordRepository.findAllMonthlyStatsAggregated();
+        return revenueRollupService.getMonthlyStats(securityContextUtils.getCurrentTutorId());
     }
 }
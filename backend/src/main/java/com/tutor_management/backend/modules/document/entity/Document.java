@@ -12,7 +12,11 @@ import java.time.LocalDateTime;
  * Documents can be global (for all students) or private (linked to a specific student).
  */
 @Entity
-@Table(name = "documents")
+@Table(name = "documents", indexes = {
+        // Tutor-leading indexes for the tenant-scoped library: all documents, by category
+        @Index(name = "idx_document_tutor_created", columnList = "tutor_id, createdAt"),
+        @Index(name = "idx_document_tutor_category", columnList = "tutor_id, category_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -92,8 +96,9 @@ public class Document {
 
     /**
      * Statistics tracking for how many times the file has been opened/downloaded.
+     * Written only by {@code WriteBehindCounters}, never by entity updates.
      */
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     @Builder.Default
     private Long downloadCount = 0L;
 
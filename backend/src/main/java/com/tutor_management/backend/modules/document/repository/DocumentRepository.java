@@ -1,6 +1,7 @@
 package com.tutor_management.backend.modules.document.repository;
 
 import java.util.List;
+import java.util.Optional;
 
 import com.tutor_management.backend.modules.document.entity.Document;
 import org.springframework.data.domain.Page;
@@ -18,33 +19,62 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
 
+    /*
+     * Tenant filtering: every tutor-scoped query has its own "...ByTutorId" variant with a plain
+     * "d.tutor.id = :tutorId" predicate, and the admin variant has no tutor predicate at all.
+     * A catch-all "(:tutorId IS NULL OR d.tutor.id = :tutorId)" cannot use the tutor-leading indexes.
+     */
+
+    /**
+     * Retrieves all documents with paged results (admin view).
+     */
+    @Query(value = "SELECT d FROM Document d " +
+           "LEFT JOIN FETCH d.student " +
+           "LEFT JOIN FETCH d.category " +
+           "LEFT JOIN FETCH d.tutor " +
+           "WHERE (:studentId IS NULL OR d.student.id = :studentId OR d.student IS NULL)",
+           countQuery = "SELECT COUNT(d) FROM Document d WHERE (:studentId IS NULL OR d.student.id = :studentId OR d.student IS NULL)")
+    Page<Document> findAllWithStudent(@Param("studentId") Long studentId, Pageable pageable);
+
     /**
-     * Retrieves all documents with paged results, filtered by tutor if provided.
+     * Retrieves a tutor's documents with paged results.
      */
     @Query(value = "SELECT d FROM Document d " +
            "LEFT JOIN FETCH d.student " +
            "LEFT JOIN FETCH d.category " +
            "LEFT JOIN FETCH d.tutor " +
-           "WHERE (:tutorId IS NULL OR d.tutor.id = :tutorId) " +
+           "WHERE d.tutor.id = :tutorId " +
            "AND (:studentId IS NULL OR d.student.id = :studentId OR d.student IS NULL)",
-           countQuery = "SELECT COUNT(d) FROM Document d WHERE (:tutorId IS NULL OR d.tutor.id = :tutorId) AND (:studentId IS NULL OR d.student.id = :studentId OR d.student IS NULL)")
-    Page<Document> findAllWithStudent(@Param("tutorId") Long tutorId, @Param("studentId") Long studentId, Pageable pageable);
+           countQuery = "SELECT COUNT(d) FROM Document d WHERE d.tutor.id = :tutorId AND (:studentId IS NULL OR d.student.id = :studentId OR d.student IS NULL)")
+    Page<Document> findAllWithStudentByTutorId(@Param("tutorId") Long tutorId, @Param("studentId") Long studentId, Pageable pageable);
 
     /**
-     * Filters documents by category code, tutor, and student.
+     * Filters documents by category code and student (admin view).
      */
     @Query(value = "SELECT d FROM Document d " +
            "LEFT JOIN FETCH d.student " +
            "LEFT JOIN FETCH d.category " +
            "LEFT JOIN FETCH d.tutor " +
            "WHERE d.category.code = :categoryCode " +
-           "AND (:tutorId IS NULL OR d.tutor.id = :tutorId) " +
            "AND (:studentId IS NULL OR d.student.id = :studentId OR d.student IS NULL)",
-           countQuery = "SELECT COUNT(d) FROM Document d WHERE d.category.code = :categoryCode AND (:tutorId IS NULL OR d.tutor.id = :tutorId) AND (:studentId IS NULL OR d.student.id = :studentId OR d.student IS NULL)")
-    Page<Document> findByCategoryCode(@Param("categoryCode") String categoryCode, @Param("tutorId") Long tutorId, @Param("studentId") Long studentId, Pageable pageable);
+           countQuery = "SELECT COUNT(d) FROM Document d WHERE d.category.code = :categoryCode AND (:studentId IS NULL OR d.student.id = :studentId OR d.student IS NULL)")
+    Page<Document> findByCategoryCode(@Param("categoryCode") String categoryCode, @Param("studentId") Long studentId, Pageable pageable);
 
     /**
-     * Searches for documents matching a keyword, filtered by tutor and student.
+     * Filters a tutor's documents by category code and student.
+     */
+    @Query(value = "SELECT d FROM Document d " +
+           "LEFT JOIN FETCH d.student " +
+           "LEFT JOIN FETCH d.category " +
+           "LEFT JOIN FETCH d.tutor " +
+           "WHERE d.tutor.id = :tutorId " +
+           "AND d.category.code = :categoryCode " +
+           "AND (:studentId IS NULL OR d.student.id = :studentId OR d.student IS NULL)",
+           countQuery = "SELECT COUNT(d) FROM Document d WHERE d.tutor.id = :tutorId AND d.category.code = :categoryCode AND (:studentId IS NULL OR d.student.id = :studentId OR d.student IS NULL)")
+    Page<Document> findByCategoryCodeAndTutorId(@Param("categoryCode") String categoryCode, @Param("tutorId") Long tutorId, @Param("studentId") Long studentId, Pageable pageable);
+
+    /**
+     * Searches for documents matching a keyword, filtered by category and student (admin view).
      */
     @Query(value = "SELECT d FROM Document d " +
             "LEFT JOIN FETCH d.student " +
@@ -52,47 +82,100 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
             "LEFT JOIN FETCH d.tutor " +
             "WHERE LOWER(d.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
             "AND (:categoryCode IS NULL OR d.category.code = :categoryCode) " +
-            "AND (:tutorId IS NULL OR d.tutor.id = :tutorId) " +
             "AND (:studentId IS NULL OR d.student.id = :studentId OR d.student IS NULL)",
             countQuery = "SELECT COUNT(d) FROM Document d " +
                     "WHERE LOWER(d.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
                     "AND (:categoryCode IS NULL OR d.category.code = :categoryCode) " +
-                    "AND (:tutorId IS NULL OR d.tutor.id = :tutorId) " +
                     "AND (:studentId IS NULL OR d.student.id = :studentId OR d.student IS NULL)")
-    Page<Document> findByTitleContainingIgnoreCase(@Param("keyword") String keyword, @Param("categoryCode") String categoryCode, @Param("tutorId") Long tutorId, @Param("studentId") Long studentId, Pageable pageable);
+    Page<Document> findByTitleContainingIgnoreCase(@Param("keyword") String keyword, @Param("categoryCode") String categoryCode, @Param("studentId") Long studentId, Pageable pageable);
 
-    @Query("SELECT COUNT(d) FROM Document d WHERE d.category.code = :categoryCode AND (:tutorId IS NULL OR d.tutor.id = :tutorId) AND (:studentId IS NULL OR d.student.id = :studentId OR d.student IS NULL)")
-    Long countByCategoryCode(@Param("categoryCode") String categoryCode, @Param("tutorId") Long tutorId, @Param("studentId") Long studentId);
+    /**
+     * Searches a tutor's documents matching a keyword, filtered by category and student.
+     */
+    @Query(value = "SELECT d FROM Document d " +
+            "LEFT JOIN FETCH d.student " +
+            "LEFT JOIN FETCH d.category " +
+            "LEFT JOIN FETCH d.tutor " +
+            "WHERE d.tutor.id = :tutorId " +
+            "AND LOWER(d.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+            "AND (:categoryCode IS NULL OR d.category.code = :categoryCode) " +
+            "AND (:studentId IS NULL OR d.student.id = :studentId OR d.student IS NULL)",
+            countQuery = "SELECT COUNT(d) FROM Document d " +
+                    "WHERE d.tutor.id = :tutorId " +
+                    "AND LOWER(d.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+                    "AND (:categoryCode IS NULL OR d.category.code = :categoryCode) " +
+                    "AND (:studentId IS NULL OR d.student.id = :studentId OR d.student IS NULL)")
+    Page<Document> findByTitleContainingIgnoreCaseAndTutorId(@Param("keyword") String keyword, @Param("categoryCode") String categoryCode, @Param("tutorId") Long tutorId, @Param("studentId") Long studentId, Pageable pageable);
+
+    /**
+     * Loads documents with their student, category and tutor, for a page of search hits.
+     */
+    @Query("SELECT d FROM Document d " +
+            "LEFT JOIN FETCH d.student " +
+            "LEFT JOIN FETCH d.category " +
+            "LEFT JOIN FETCH d.tutor " +
+            "WHERE d.id IN :ids")
+    List<Document> findAllWithDetailsByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Reads the searchable fields of documents after the given ID, in ID order:
+     * id, title, fileName, description, tutor id, student id, category id.
+     */
+    @Query("SELECT d.id, d.title, d.fileName, d.description, t.id, s.id, c.id FROM Document d " +
+            "LEFT JOIN d.tutor t " +
+            "LEFT JOIN d.student s " +
+            "LEFT JOIN d.category c " +
+            "WHERE d.id > :afterId ORDER BY d.id")
+    List<Object[]> findSearchRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Resolves a document's file URL without loading the entity.
+     */
+    @Query("SELECT d.filePath FROM Document d WHERE d.id = :id")
+    Optional<String> findFilePathById(@Param("id") Long id);
 
     /**
-     * Calculates total storage footprint, filtered by tutor.
+     * Calculates the total storage footprint of all documents.
      */
-    @Query("SELECT COALESCE(SUM(d.fileSize), 0) FROM Document d WHERE (:tutorId IS NULL OR d.tutor.id = :tutorId)")
-    Long sumTotalFileSize(@Param("tutorId") Long tutorId);
+    @Query("SELECT COALESCE(SUM(d.fileSize), 0) FROM Document d")
+    Long sumTotalFileSize();
 
     /**
-     * Aggregates downloads, filtered by tutor.
+     * Aggregates downloads of all documents.
      */
-    @Query("SELECT COALESCE(SUM(d.downloadCount), 0) FROM Document d WHERE (:tutorId IS NULL OR d.tutor.id = :tutorId)")
-    Long sumTotalDownloads(@Param("tutorId") Long tutorId);
+    @Query("SELECT COALESCE(SUM(d.downloadCount), 0) FROM Document d")
+    Long sumTotalDownloads();
+
+    /**
+     * Counts documents accessible to a student, from any tutor.
+     */
+    @Query("SELECT COUNT(d) FROM Document d WHERE d.student.id = :studentId OR d.student IS NULL")
+    Long countByStudentId(@Param("studentId") Long studentId);
 
     /**
      * Counts documents accessible to a student from a specific tutor.
      */
-    @Query("SELECT COUNT(d) FROM Document d WHERE (d.student.id = :studentId OR d.student IS NULL) AND (:tutorId IS NULL OR d.tutor.id = :tutorId)")
-    Long countByStudentIdAndTutor(@Param("studentId") Long studentId, @Param("tutorId") Long tutorId);
+    @Query("SELECT COUNT(d) FROM Document d WHERE d.tutor.id = :tutorId AND (d.student.id = :studentId OR d.student IS NULL)")
+    Long countByStudentIdAndTutorId(@Param("studentId") Long studentId, @Param("tutorId") Long tutorId);
 
     /**
-     * Groups counts by category, filtered by tutor and student.
+     * Groups counts by category, filtered by student (admin view).
      */
     @Query("SELECT c.code, COUNT(d) FROM Document d " +
            "JOIN d.category c " +
-           "LEFT JOIN d.tutor t " +
-           "LEFT JOIN d.student s " +
-           "WHERE (:tutorId IS NULL OR t.id = :tutorId) " +
-           "AND (:studentId IS NULL OR s.id = :studentId OR s IS NULL) " +
+           "WHERE (:studentId IS NULL OR d.student.id = :studentId OR d.student IS NULL) " +
            "GROUP BY c.code")
-    List<Object[]> countDocumentsByCategoryCode(@Param("tutorId") Long tutorId, @Param("studentId") Long studentId);
+    List<Object[]> countDocumentsByCategoryCode(@Param("studentId") Long studentId);
+
+    /**
+     * Groups a tutor's document counts by category, filtered by student.
+     */
+    @Query("SELECT c.code, COUNT(d) FROM Document d " +
+           "JOIN d.category c " +
+           "WHERE d.tutor.id = :tutorId " +
+           "AND (:studentId IS NULL OR d.student.id = :studentId OR d.student IS NULL) " +
+           "GROUP BY c.code")
+    List<Object[]> countDocumentsByCategoryCodeAndTutorId(@Param("tutorId") Long tutorId, @Param("studentId") Long studentId);
 
     /**
      * Detaches documents from a category. (No tutor filter needed as it's a structural change)
@@ -102,12 +185,17 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
     void clearCategoryReferences(@Param("categoryId") Long categoryId);
 
     /**
-     * Optimized aggregate stats retrieval.
+     * Optimized aggregate stats retrieval (admin view).
+     */
+    @Query("SELECT COUNT(d), COALESCE(SUM(d.fileSize), 0), COALESCE(SUM(d.downloadCount), 0) FROM Document d " +
+           "WHERE (:studentId IS NULL OR d.student.id = :studentId OR d.student IS NULL)")
+    List<Object[]> getAggregatedStats(@Param("studentId") Long studentId);
+
+    /**
+     * Optimized aggregate stats retrieval for one tutor.
      */
     @Query("SELECT COUNT(d), COALESCE(SUM(d.fileSize), 0), COALESCE(SUM(d.downloadCount), 0) FROM Document d " +
-           "LEFT JOIN d.tutor t " +
-           "LEFT JOIN d.student s " +
-           "WHERE (:tutorId IS NULL OR t.id = :tutorId) " +
-           "AND (:studentId IS NULL OR s.id = :studentId OR s IS NULL)")
-    List<Object[]> getAggregatedStats(@Param("tutorId") Long tutorId, @Param("studentId") Long studentId);
+           "WHERE d.tutor.id = :tutorId " +
+           "AND (:studentId IS NULL OR d.student.id = :studentId OR d.student IS NULL)")
+    List<Object[]> getAggregatedStatsByTutorId(@Param("tutorId") Long tutorId, @Param("studentId") Long studentId);
 }
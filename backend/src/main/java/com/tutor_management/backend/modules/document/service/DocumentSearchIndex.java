@@ -0,0 +1,329 @@
+package com.tutor_management.backend.modules.document.service;
+
+import com.tutor_management.backend.modules.document.entity.Document;
+import com.tutor_management.backend.modules.document.repository.DocumentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over document titles, file names and descriptions.
+ * <p>
+ * Terms come from {@link SearchTokenizer}, so searches ignore case and Vietnamese accents.
+ * Every query term must match, either exactly or as the prefix of an indexed term. Matches
+ * are ranked by field weight (title over file name over description) times the inverse
+ * document frequency of the term; exact matches outrank prefix matches.
+ * <p>
+ * The index is built from the database once the application is ready and kept current by
+ * {@link #indexAfterCommit} and {@link #removeAfterCommit}. Until it is ready,
+ * {@link #isReady()} is false and callers fall back to the database query. The index lives
+ * in this JVM only, so writes must go through this instance.
+ */
+@Component
+@Slf4j
+public class DocumentSearchIndex {
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float FILE_NAME_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float PREFIX_PENALTY = 0.6f;
+    /** Shorter query terms only match exactly, a one-letter prefix matches half the dictionary */
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private final DocumentRepository documentRepository;
+    private final Timer searchTimer;
+
+    /** Term to postings, sorted so a prefix is a contiguous range */
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, IndexedDocument> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    @Value("${app.document.search.load-batch-size:2000}")
+    private int loadBatchSize = 2000;
+
+    public DocumentSearchIndex(DocumentRepository documentRepository, MeterRegistry meterRegistry) {
+        this.documentRepository = documentRepository;
+        this.searchTimer = meterRegistry.timer("document.search");
+        Gauge.builder("document.search.index.documents", this, DocumentSearchIndex::size)
+                .description("Documents in the in-process search index")
+                .register(meterRegistry);
+        Gauge.builder("document.search.index.terms", this, DocumentSearchIndex::termCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tenant and category constraints of a search; a {@code null} field does not filter.
+     * A student sees shared documents and their own.
+     */
+    public record Filter(Long tutorId, Long studentId, Long categoryId) {
+    }
+
+    /**
+     * One page of ranked document IDs and the number of matches overall.
+     */
+    public record Hits(List<Long> ids, long total) {
+    }
+
+    private record IndexedDocument(Long tutorId, Long studentId, Long categoryId, String[] terms) {
+
+        boolean matches(Filter filter) {
+            return (filter.tutorId() == null || filter.tutorId().equals(tutorId))
+                    && (filter.studentId() == null || studentId == null || filter.studentId().equals(studentId))
+                    && (filter.categoryId() == null || filter.categoryId().equals(categoryId));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        long afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = documentRepository.findSearchRowsAfter(afterId, PageRequest.of(0, loadBatchSize));
+            for (Object[] row : rows) {
+                add((Long) row[0], (String) row[1], (String) row[2], (String) row[3],
+                        (Long) row[4], (Long) row[5], (Long) row[6]);
+                afterId = (Long) row[0];
+            }
+        } while (rows.size() == loadBatchSize);
+        ready = true;
+        log.info("Document search index built: {} documents, {} terms in {} ms",
+                size(), termCount(), System.currentTimeMillis() - started);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Adds or replaces the document once the current transaction commits.
+     */
+    public void indexAfterCommit(Document document) {
+        Long id = document.getId();
+        String title = document.getTitle();
+        String fileName = document.getFileName();
+        String description = document.getDescription();
+        Long tutorId = document.getTutor() != null ? document.getTutor().getId() : null;
+        Long studentId = document.getStudent() != null ? document.getStudent().getId() : null;
+        Long categoryId = document.getCategory() != null ? document.getCategory().getId() : null;
+        afterCommit(() -> add(id, title, fileName, description, tutorId, studentId, categoryId));
+    }
+
+    /**
+     * Removes the document once the current transaction commits.
+     */
+    public void removeAfterCommit(Long id) {
+        afterCommit(() -> remove(id));
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    void add(Long id, String title, String fileName, String description, Long tutorId, Long studentId, Long categoryId) {
+        Map<String, Float> weights = new LinkedHashMap<>();
+        SearchTokenizer.tokenize(title).forEach(t -> weights.merge(t, TITLE_WEIGHT, Float::sum));
+        SearchTokenizer.tokenize(fileName).forEach(t -> weights.merge(t, FILE_NAME_WEIGHT, Float::sum));
+        SearchTokenizer.tokenize(description).forEach(t -> weights.merge(t, DESCRIPTION_WEIGHT, Float::sum));
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            weights.forEach((term, weight) -> terms.computeIfAbsent(term, k -> new Postings()).put(id, weight));
+            documents.put(id, new IndexedDocument(tutorId, studentId, categoryId, weights.keySet().toArray(new String[0])));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(Long id) {
+        IndexedDocument previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms()) {
+            Postings postings = terms.get(term);
+            if (postings != null && postings.remove(id) && postings.size == 0) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Ranks the documents matching every term of the query.
+     *
+     * @return The requested slice of matching IDs, best first; nothing if the query has no terms
+     */
+    public Hits search(String query, Filter filter, int offset, int limit) {
+        List<String> queryTerms = SearchTokenizer.tokenize(query).stream().distinct().toList();
+        if (queryTerms.isEmpty()) {
+            return new Hits(List.of(), 0);
+        }
+        return searchTimer.record(() -> {
+            List<Hit> hits = rank(queryTerms, filter);
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparing(Hit::id, Comparator.reverseOrder()));
+            List<Long> page = hits.stream().skip(offset).limit(limit).map(Hit::id).toList();
+            return new Hits(page, hits.size());
+        });
+    }
+
+    private record Hit(Long id, float score) {
+    }
+
+    private List<Hit> rank(List<String> queryTerms, Filter filter) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Long, Float> termScores = score(queryTerm, scores);
+                if (termScores.isEmpty()) {
+                    return new ArrayList<>();
+                }
+                if (scores != null) {
+                    // Only documents matching every term so far were scored
+                    Map<Long, Float> previous = scores;
+                    termScores.replaceAll((id, score) -> score + previous.get(id));
+                }
+                scores = termScores;
+            }
+
+            List<Hit> hits = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> {
+                IndexedDocument document = documents.get(id);
+                if (document != null && document.matches(filter)) {
+                    hits.add(new Hit(id, score));
+                }
+            });
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Best score of each document for one query term, over the exact term and, for long
+     * enough terms, every indexed term it prefixes.
+     *
+     * @param candidates Documents still in the running, or {@code null} for the first term
+     */
+    private Map<Long, Float> score(String queryTerm, Map<Long, Float> candidates) {
+        Map<String, Postings> matched = queryTerm.length() >= MIN_PREFIX_LENGTH
+                ? terms.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false)
+                : singleTerm(queryTerm);
+
+        Map<Long, Float> scores = new HashMap<>();
+        int total = Math.max(documents.size(), 1);
+        matched.forEach((term, postings) -> {
+            float idf = (float) Math.log(1.0 + (double) total / postings.size);
+            float factor = term.equals(queryTerm) ? idf : idf * PREFIX_PENALTY;
+            for (int i = 0; i < postings.size; i++) {
+                long id = postings.ids[i];
+                if (candidates == null || candidates.containsKey(id)) {
+                    scores.merge(id, postings.weights[i] * factor, Math::max);
+                }
+            }
+        });
+        return scores;
+    }
+
+    private Map<String, Postings> singleTerm(String term) {
+        Postings postings = terms.get(term);
+        return postings != null ? Map.of(term, postings) : Map.of();
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int termCount() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documents containing one term, as parallel arrays sorted by ID. Primitive arrays keep
+     * the index at a few bytes per (term, document) pair.
+     */
+    private static final class Postings {
+
+        private long[] ids = new long[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        void put(long id, float weight) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                weights[at] = weight;
+                return;
+            }
+            at = -at - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            System.arraycopy(weights, at, weights, at + 1, size - at);
+            ids[at] = id;
+            weights[at] = weight;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            System.arraycopy(weights, at + 1, weights, at, size - at - 1);
+            size--;
+            return true;
+        }
+    }
+}
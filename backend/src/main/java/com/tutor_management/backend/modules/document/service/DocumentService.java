@@ -1,5 +1,6 @@
 package com.tutor_management.backend.modules.document.service;
 
+import com.tutor_management.backend.config.CacheInvalidator;
 import com.tutor_management.backend.exception.ResourceNotFoundException;
 import com.tutor_management.backend.modules.auth.Role;
 import com.tutor_management.backend.modules.auth.User;
@@ -14,15 +15,17 @@ import com.tutor_management.backend.modules.document.entity.Document;
 import com.tutor_management.backend.modules.document.entity.DocumentCategory;
 import com.tutor_management.backend.modules.finance.repository.SessionRecordRepository;
 import com.tutor_management.backend.modules.shared.service.CloudinaryService;
+import com.tutor_management.backend.modules.shared.service.WriteBehindCounters;
 import com.tutor_management.backend.modules.student.entity.Student;
 import com.tutor_management.backend.modules.student.repository.StudentRepository;
 import com.tutor_management.backend.modules.tutor.entity.Tutor;
 import com.tutor_management.backend.modules.tutor.repository.TutorRepository;
+import com.tutor_management.backend.util.SecurityContextUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -34,6 +37,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -45,6 +49,9 @@ import java.util.stream.Collectors;
 @Transactional
 public class DocumentService {
 
+    static final WriteBehindCounters.Target DOWNLOADS =
+            new WriteBehindCounters.Target("document.downloads", "documents", "download_count", null);
+
     private final DocumentRepository documentRepository;
     private final DocumentCategoryRepository documentCategoryRepository;
     private final StudentRepository studentRepository;
@@ -52,6 +59,10 @@ public class DocumentService {
     private final SessionRecordRepository sessionRecordRepository;
     private final com.tutor_management.backend.modules.shared.service.CloudinaryService cloudinaryService;
     private final com.tutor_management.backend.modules.admin.service.AdminStatsService adminStatsService;
+    private final CacheInvalidator cacheInvalidator;
+    private final WriteBehindCounters writeBehindCounters;
+    private final DocumentSearchIndex searchIndex;
+    private final SecurityContextUtils securityContextUtils;
     private final DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE_TIME;
 
     /**
@@ -68,34 +79,21 @@ public class DocumentService {
     }
 
     /**
-     * Resolves the current tutor ID based on the authenticated user.
-     * If ADMIN, returns null (sees all documents).
-     * If TUTOR, returns their specific tutor ID.
-     * If STUDENT, returns null (isolation is handled via student_id filtering if needed, 
-     * but usually students see documents from their tutor - this may need further refinement).
+     * Resolves the tenant whose documents the current user works with.
+     * ADMIN gets null (sees all documents), a TUTOR their own tutor ID and a STUDENT
+     * the ID of the tutor they belong to.
      */
     public Long getCurrentTutorId() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !(auth.getPrincipal() instanceof User user)) {
-            return null;
-        }
-
-        if (user.getRole() == Role.ADMIN) {
-            return null;
-        }
-
-        if (user.getRole() == Role.TUTOR) {
-            return tutorRepository.findByUserId(user.getId())
-                    .map(Tutor::getId)
-                    .orElse(null);
+        Long tutorId = securityContextUtils.getCurrentTutorId();
+        if (tutorId != null) {
+            return tutorId;
         }
-
-        if (user.getRole() == Role.STUDENT && user.getStudentId() != null) {
-            return studentRepository.findById(user.getStudentId())
+        Long studentId = getCurrentStudentId();
+        if (studentId != null) {
+            return studentRepository.findById(studentId)
                     .map(Student::getTutorId)
                     .orElse(null);
         }
-
         return null;
     }
 
@@ -104,7 +102,11 @@ public class DocumentService {
      */
     @Transactional(readOnly = true)
     public Page<DocumentResponse> getAllDocuments(Pageable pageable) {
-        return documentRepository.findAllWithStudent(getCurrentTutorId(), getCurrentStudentId(), pageable).map(this::convertToResponse);
+        Long tutorId = getCurrentTutorId();
+        Page<Document> documents = tutorId != null
+                ? documentRepository.findAllWithStudentByTutorId(tutorId, getCurrentStudentId(), pageable)
+                : documentRepository.findAllWithStudent(getCurrentStudentId(), pageable);
+        return documents.map(this::convertToResponse);
     }
 
     /**
@@ -112,23 +114,59 @@ public class DocumentService {
      */
     @Transactional(readOnly = true)
     public Page<DocumentResponse> getDocumentsByCategory(DocumentCategoryType category, Pageable pageable) {
-        return documentRepository.findByCategoryCode(category.name(), getCurrentTutorId(), getCurrentStudentId(), pageable).map(this::convertToResponse);
+        Long tutorId = getCurrentTutorId();
+        Page<Document> documents = tutorId != null
+                ? documentRepository.findByCategoryCodeAndTutorId(category.name(), tutorId, getCurrentStudentId(), pageable)
+                : documentRepository.findByCategoryCode(category.name(), getCurrentStudentId(), pageable);
+        return documents.map(this::convertToResponse);
     }
 
     /**
-     * Searches for documents by title (case-insensitive).
+     * Searches documents by title, file name and description, ignoring case and accents.
+     * Results are ranked by relevance; the pageable's sort does not apply. Falls back to a
+     * title LIKE query while the search index is still being built.
      */
     @Transactional(readOnly = true)
     public Page<DocumentResponse> searchDocuments(String keyword, String categoryCode, Pageable pageable) {
-        return documentRepository.findByTitleContainingIgnoreCase(keyword, categoryCode, getCurrentTutorId(), getCurrentStudentId(), pageable)
-                .map(this::convertToResponse);
+        Long tutorId = getCurrentTutorId();
+        Long studentId = getCurrentStudentId();
+        if (!searchIndex.isReady() || SearchTokenizer.tokenize(keyword).isEmpty()) {
+            Page<Document> documents = tutorId != null
+                    ? documentRepository.findByTitleContainingIgnoreCaseAndTutorId(keyword, categoryCode, tutorId, studentId, pageable)
+                    : documentRepository.findByTitleContainingIgnoreCase(keyword, categoryCode, studentId, pageable);
+            return documents.map(this::convertToResponse);
+        }
+
+        Long categoryId = null;
+        if (categoryCode != null) {
+            DocumentCategory category = documentCategoryRepository.findByCode(categoryCode).orElse(null);
+            if (category == null) {
+                return Page.empty(pageable);
+            }
+            categoryId = category.getId();
+        }
+
+        DocumentSearchIndex.Hits hits = searchIndex.search(keyword,
+                new DocumentSearchIndex.Filter(tutorId, studentId, categoryId),
+                (int) pageable.getOffset(), pageable.getPageSize());
+        if (hits.ids().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.total());
+        }
+
+        Map<Long, Document> byId = documentRepository.findAllWithDetailsByIdIn(hits.ids()).stream()
+                .collect(Collectors.toMap(Document::getId, d -> d));
+        List<DocumentResponse> content = hits.ids().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToResponse)
+                .toList();
+        return new PageImpl<>(content, pageable, hits.total());
     }
 
     /**
      * Validates and uploads a document to Cloudinary, then stores metadata in the database.
-     * Clears statistical caches upon success.
+     * Clears the statistics the new document is counted in upon success.
      */
-    @CacheEvict(value = "documentStats", allEntries = true)
     public DocumentUploadResponse uploadDocument(MultipartFile file, DocumentRequest request) {
         validateFileUpload(file);
 
@@ -164,6 +202,8 @@ public class DocumentService {
                     .build();
 
             Document saved = documentRepository.save(document);
+            searchIndex.indexAfterCommit(saved);
+            cacheInvalidator.evictDocumentStats(tutorId, student != null ? student.getId() : null);
             log.info("Document '{}' uploaded successfully with ID: {}", saved.getTitle(), saved.getId());
 
             // Log administrative activity
@@ -211,16 +251,16 @@ public class DocumentService {
     }
 
     /**
-     * Increments download count and returns the file access URL.
+     * Counts a download and returns the file access URL.
+     * The count is written behind, see {@link WriteBehindCounters}.
      */
+    @Transactional(readOnly = true)
     public String getDocumentUrl(Long id) {
-        Document document = documentRepository.findById(id)
+        String filePath = documentRepository.findFilePathById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Document not found: " + id));
 
-        document.setDownloadCount(document.getDownloadCount() + 1);
-        documentRepository.save(document);
-
-        return document.getFilePath();
+        writeBehindCounters.increment(DOWNLOADS, id);
+        return filePath;
     }
 
     /**
@@ -237,7 +277,6 @@ public class DocumentService {
      * Removes a document from the remote cloud storage and the local database.
      * Also detaches the document from any associated session records.
      */
-    @CacheEvict(value = "documentStats", allEntries = true)
     public void deleteDocument(Long id) {
         Document document = documentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Document not found: " + id));
@@ -257,6 +296,9 @@ public class DocumentService {
             cloudinaryService.deleteFile(document.getFilePath());
             sessionRecordRepository.deleteDocumentReferences(id);
             documentRepository.delete(document);
+            searchIndex.removeAfterCommit(id);
+            cacheInvalidator.evictDocumentStats(document.getTutor() != null ? document.getTutor().getId() : null,
+                    document.getStudent() != null ? document.getStudent().getId() : null);
             log.info("Deleted document with ID: {}", id);
         } catch (Exception e) {
             log.error("Error deleting document {}: {}", id, e.getMessage());
@@ -268,10 +310,12 @@ public class DocumentService {
      * Generates a snapshot of document library usage stats.
      * Uses a single optimized database query for aggregated totals.
      */
-    @Cacheable(value = "documentStats", key = "#tutorId?.toString() + '-' + #studentId?.toString()")
+    @Cacheable(value = "documentStats", key = "T(com.tutor_management.backend.config.CacheKeys).tenant(#tutorId, #studentId)")
     @Transactional(readOnly = true)
     public DocumentStats getStatistics(Long tutorId, Long studentId) {
-        List<Object[]> aggregatedResult = documentRepository.getAggregatedStats(tutorId, studentId);
+        List<Object[]> aggregatedResult = tutorId != null
+                ? documentRepository.getAggregatedStatsByTutorId(tutorId, studentId)
+                : documentRepository.getAggregatedStats(studentId);
         
         Long totalDocuments = 0L;
         Long totalSize = 0L;
@@ -289,7 +333,10 @@ public class DocumentService {
              statsMap.put(type.name(), 0L);
         }
 
-        documentRepository.countDocumentsByCategoryCode(tutorId, studentId).forEach(row -> {
+        List<Object[]> categoryCounts = tutorId != null
+                ? documentRepository.countDocumentsByCategoryCodeAndTutorId(tutorId, studentId)
+                : documentRepository.countDocumentsByCategoryCode(studentId);
+        categoryCounts.forEach(row -> {
              String code = (String) row[0];
              Long count = (Long) row[1];
              if (code != null) statsMap.put(code, count);
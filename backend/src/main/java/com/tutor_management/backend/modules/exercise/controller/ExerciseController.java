@@ -10,6 +10,7 @@ import com.tutor_management.backend.modules.exercise.dto.response.ExerciseRespon
 import com.tutor_management.backend.modules.exercise.dto.response.ImportPreviewResponse;
 import com.tutor_management.backend.modules.exercise.service.ExerciseService;
 import com.tutor_management.backend.modules.shared.dto.response.ApiResponse;
+import com.tutor_management.backend.util.SecurityContextUtils;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,7 +38,7 @@ import java.util.List;
 public class ExerciseController {
     
     private final ExerciseService exerciseService;
-    private final com.tutor_management.backend.modules.tutor.repository.TutorRepository tutorRepository;
+    private final SecurityContextUtils securityContextUtils;
     
     /**
      * Dry-run parsing of raw text into structured exercise data.
@@ -157,12 +158,7 @@ public class ExerciseController {
         log.debug("Staff {} reading assigned materials for student {} (page: {})", user.getEmail(), studentId, pageable.getPageNumber());
         
         // Match multi-tenancy rule: Tutors only see what they assigned (linked via Exercise.tutorId)
-        Long tutorId = null;
-        if (user.getRole() == com.tutor_management.backend.modules.auth.Role.TUTOR) {
-            tutorId = tutorRepository.findByUserId(user.getId())
-                    .map(com.tutor_management.backend.modules.tutor.entity.Tutor::getId)
-                    .orElse(null);
-        }
+        Long tutorId = securityContextUtils.getCurrentTutorId();
         
         Page<ExerciseListItemResponse> exercises = exerciseService.listAssignedExercises(studentId, tutorId, pageable);
         return ResponseEntity.ok(ApiResponse.success(exercises));
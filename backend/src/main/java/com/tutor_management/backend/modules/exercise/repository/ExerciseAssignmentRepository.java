@@ -15,7 +15,12 @@ import java.util.Optional;
  */
 @Repository
 public interface ExerciseAssignmentRepository extends JpaRepository<ExerciseAssignment, String> {
-    
+
+    /*
+     * Tenant filtering: as in DocumentRepository, tutor-scoped queries get a "...ByTutorId" variant
+     * with a plain "e.tutorId = :tutorId" predicate instead of "(:tutorId IS NULL OR ...)".
+     */
+
     /**
      * Lists assignments for a specific student with pagination.
      */
@@ -25,8 +30,7 @@ public interface ExerciseAssignmentRepository extends JpaRepository<ExerciseAssi
      * Lists assignments for a specific student filtered by tutor with pagination.
      */
     @Query("SELECT ea FROM ExerciseAssignment ea, Exercise e " +
-           "WHERE ea.exerciseId = e.id AND ea.studentId = :studentId " +
-           "AND (:tutorId IS NULL OR e.tutorId = :tutorId)")
+           "WHERE ea.exerciseId = e.id AND ea.studentId = :studentId AND e.tutorId = :tutorId")
     org.springframework.data.domain.Page<ExerciseAssignment> findByStudentIdAndTutorId(@Param("studentId") String studentId, @Param("tutorId") Long tutorId, org.springframework.data.domain.Pageable pageable);
 
     /**
@@ -57,15 +61,25 @@ public interface ExerciseAssignmentRepository extends JpaRepository<ExerciseAssi
     void deleteByExerciseId(@Param("exerciseId") String exerciseId);
 
     /**
-     * Aggregates assignment counts grouped by their current submission status.
+     * Aggregates assignment counts grouped by their current submission status (admin view).
      * Uses LEFT JOIN with submissions to ensure EVERY assignment is counted,
      * defaulting to PENDING if no submission record exists.
      */
+    @Query("SELECT ea.studentId, s.status, COUNT(ea) FROM ExerciseAssignment ea " +
+           "LEFT JOIN com.tutor_management.backend.modules.submission.entity.Submission s " +
+           "ON ea.exerciseId = s.exerciseId AND ea.studentId = s.studentId " +
+           "WHERE ea.studentId IN :studentIds " +
+           "GROUP BY ea.studentId, s.status")
+    List<Object[]> countAssignmentsWithSubmissionStatus(@Param("studentIds") List<String> studentIds);
+
+    /**
+     * Aggregates assignment counts by submission status, counting only exercises of a tutor.
+     */
     @Query("SELECT ea.studentId, s.status, COUNT(ea) FROM ExerciseAssignment ea " +
            "LEFT JOIN com.tutor_management.backend.modules.submission.entity.Submission s " +
            "ON ea.exerciseId = s.exerciseId AND ea.studentId = s.studentId " +
            "JOIN Exercise e ON ea.exerciseId = e.id " +
-           "WHERE ea.studentId IN :studentIds AND (:tutorId IS NULL OR e.tutorId = :tutorId) " +
+           "WHERE ea.studentId IN :studentIds AND e.tutorId = :tutorId " +
            "GROUP BY ea.studentId, s.status")
-    List<Object[]> countAssignmentsWithSubmissionStatus(@Param("studentIds") List<String> studentIds, @Param("tutorId") Long tutorId);
+    List<Object[]> countAssignmentsWithSubmissionStatusByTutorId(@Param("studentIds") List<String> studentIds, @Param("tutorId") Long tutorId);
 }
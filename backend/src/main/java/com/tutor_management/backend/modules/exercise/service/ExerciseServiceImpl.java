@@ -56,23 +56,9 @@ public class ExerciseServiceImpl implements ExerciseService {
     private final SubmissionRepository submissionRepository;
     private final StudentRepository studentRepository;
     private final UserRepository userRepository;
-    private final com.tutor_management.backend.modules.tutor.repository.TutorRepository tutorRepository;
     private final SecurityContextUtils securityContextUtils;
     private final ApplicationEventPublisher eventPublisher;
 
-    private Long getTutorId(String teacherId) {
-        if (teacherId == null) return null;
-        try {
-            Long userId = Long.parseLong(teacherId);
-            return tutorRepository.findByUserId(userId)
-                    .map(com.tutor_management.backend.modules.tutor.entity.Tutor::getId)
-                    .orElse(null);
-        } catch (NumberFormatException e) {
-            log.warn("Invalid teacherId format: {}", teacherId);
-            return null;
-        }
-    }
-
     @Override
     public ImportPreviewResponse previewImport(ImportExerciseRequest request) {
         log.info("Requesting preview for ingested text (length: {})", request.getContent().length());
@@ -85,7 +71,7 @@ public class ExerciseServiceImpl implements ExerciseService {
         log.info("Starting creation of exercise '{}' by teacher {}", request.getTitle(), teacherId);
         log.info("Received {} questions in request", request.getQuestions() != null ? request.getQuestions().size() : 0);
         
-        Long tutorId = getTutorId(teacherId);
+        Long tutorId = securityContextUtils.getCurrentTutorId();
         if (tutorId == null) {
             throw new RuntimeException("Tutor profile not found for user ID: " + teacherId);
         }
@@ -272,7 +258,9 @@ public class ExerciseServiceImpl implements ExerciseService {
 
         // Multi-tenancy count: only count assignments associated with exercises owned by this tutor
         // Uses LEFT JOIN with submissions to handle tasks without submission records
-        var rawStats = assignmentRepository.countAssignmentsWithSubmissionStatus(studentIds, activeTutorId);
+        var rawStats = activeTutorId != null
+                ? assignmentRepository.countAssignmentsWithSubmissionStatusByTutorId(studentIds, activeTutorId)
+                : assignmentRepository.countAssignmentsWithSubmissionStatus(studentIds);
         
         // Map stats by studentId
         Map<String, Map<com.tutor_management.backend.modules.submission.entity.SubmissionStatus, Integer>> statsMap = new HashMap<>(); 
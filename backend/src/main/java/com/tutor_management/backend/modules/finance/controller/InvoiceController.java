@@ -3,6 +3,8 @@ package com.tutor_management.backend.modules.finance.controller;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import com.tutor_management.backend.modules.finance.dto.response.InvoiceJobResponse;
+import com.tutor_management.backend.modules.finance.service.InvoiceJobService;
 import com.tutor_management.backend.modules.finance.service.InvoiceService;
 import com.tutor_management.backend.modules.shared.dto.response.ApiResponse;
 import org.springframework.http.ContentDisposition;
@@ -11,6 +13,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -39,6 +43,7 @@ import lombok.extern.slf4j.Slf4j;
 public class InvoiceController {
 
     private final InvoiceService invoiceService;
+    private final InvoiceJobService invoiceJobService;
     private final PDFGeneratorService pdfGeneratorService;
     private final EmailService emailService;
     private final StudentRepository studentRepository;
@@ -164,14 +169,26 @@ public class InvoiceController {
         return ResponseEntity.ok(ApiResponse.success(result));
     }
 
+    /**
+     * Starts emailing the month's invoice to every parent with unpaid sessions.
+     * Runs in the background; poll {@code GET /jobs/{jobId}} for progress.
+     */
     @PreAuthorize("hasAnyRole('ADMIN', 'TUTOR')")
     @PostMapping("/send-email-all")
-    public ResponseEntity<ApiResponse<String>> sendInvoiceToAll(@RequestBody InvoiceRequest request) {
-        log.info("Sending invoice emails to all active students for month: {}", request.getMonth());
-        // Batch implementation is handled in service for complex logic, or kept here if simple orchestration
-        // For simplicity and consistency with previous code, we keep the iteration logic here but wrapped in ApiResponse
-        // ... (Similar to original but standardized)
-        return ResponseEntity.ok(ApiResponse.success("Tính năng gửi hàng loạt đang được xử lý"));
+    public ResponseEntity<ApiResponse<InvoiceJobResponse>> sendInvoiceToAll(@RequestBody InvoiceRequest request) {
+        log.info("Sending invoice emails to all parents for month: {}", request.getMonth());
+        if (request.getMonth() == null || request.getMonth().isBlank()) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Vui lòng chọn tháng"));
+        }
+        InvoiceJobResponse job = invoiceJobService.start(request.getMonth());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("Đang gửi " + job.getTotal() + " email báo giá", job));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'TUTOR')")
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ApiResponse<InvoiceJobResponse>> getInvoiceJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(ApiResponse.success(invoiceJobService.getJob(jobId)));
     }
 
     private void validateParentEmail(Parent parent) {
@@ -6,6 +6,7 @@ import com.tutor_management.backend.modules.finance.service.SessionRecordService
 import com.tutor_management.backend.modules.finance.dto.request.SessionRecordRequest;
 import com.tutor_management.backend.modules.finance.dto.request.SessionRecordUpdateRequest;
 import com.tutor_management.backend.modules.finance.dto.response.SessionRecordResponse;
+import com.tutor_management.backend.modules.finance.repository.SessionRecordExportRepository;
 
 import com.tutor_management.backend.modules.onlinesession.dto.response.OnlineSessionResponse;
 import com.tutor_management.backend.modules.onlinesession.service.OnlineSessionService;
@@ -22,6 +23,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -167,6 +169,27 @@ public class SessionRecordController {
         }
     }
 
+    /**
+     * Streams sessions to Excel without loading them all into memory.
+     * Suited to large exports; rows are written to the response as they are read.
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'TUTOR')")
+    @GetMapping("/export/excel/stream")
+    public ResponseEntity<StreamingResponseBody> streamToExcel(
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) Long studentId) {
+
+        log.info("Streaming sessions to Excel (Month: {}, Student: {})", month, studentId);
+        // Resolved here: the body is written on another thread without the security context
+        SessionRecordExportRepository.Filter filter = sessionRecordService.exportFilter(month, studentId);
+        String fileName = "Sessions_Export_" + (month != null ? month : "All") + ".xlsx";
+
+        return ResponseEntity.ok()
+                .header("Content-Disposition", "attachment; filename=" + fileName)
+                .header("Content-Type", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+                .body(out -> exportService.streamSessionsToExcel(filter, out));
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'TUTOR')")
     @DeleteMapping("/month/{month}")
     public ResponseEntity<ApiResponse<Void>> deleteSessionsByMonth(@PathVariable String month) {
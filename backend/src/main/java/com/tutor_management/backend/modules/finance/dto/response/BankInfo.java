@@ -12,6 +12,10 @@ import lombok.*;
 public class BankInfo {
     
     private String bankName;
+    /**
+     * NAPAS bank identification number used in VietQR payloads.
+     */
+    private String bankBin;
     private String accountNumber;
     private String accountName;
     private String swiftCode;
@@ -22,6 +26,7 @@ public class BankInfo {
     public static BankInfo getDefault() {
         return BankInfo.builder()
                 .bankName("Vietcombank")
+                .bankBin("970436")
                 .accountNumber("1041819355")
                 .accountName("TON QUYNH LONG")
                 .swiftCode("BFTVVNVX")
@@ -0,0 +1,53 @@
+package com.tutor_management.backend.modules.finance.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress of a bulk invoice email job.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceJobResponse {
+
+    private Long id;
+    private String month;
+
+    /**
+     * RUNNING or COMPLETED.
+     */
+    private String status;
+
+    private int total;
+    private int pending;
+    private int sent;
+    private int failed;
+    private int skipped;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+
+    /**
+     * Invoices that failed or were skipped, with the reason.
+     */
+    private List<ItemResult> problems;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private String parent;
+        private String email;
+        private String students;
+        private String status;
+        private String error;
+    }
+}
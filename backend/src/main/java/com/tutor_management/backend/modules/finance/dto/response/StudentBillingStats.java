@@ -0,0 +1,23 @@
+package com.tutor_management.backend.modules.finance.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Aggregated billing figures of one student over their whole session history.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentBillingStats {
+    private Long studentId;
+    private Long totalPaid;
+    private Long totalUnpaid;
+    /** Unpaid amount of lessons that were already taught */
+    private Long totalUnpaidTaught;
+    /** Latest month with a session record (YYYY-MM) */
+    private String lastActiveMonth;
+}
@@ -0,0 +1,64 @@
+package com.tutor_management.backend.modules.finance.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A bulk run that emails the month's invoice to every parent of a tutor (or of all tutors
+ * for an admin). The work itself is tracked per parent in {@link InvoiceJobItem}, so a job
+ * interrupted by a restart continues with the items that are still pending.
+ */
+@Entity
+@Table(name = "invoice_jobs", indexes = {
+    @Index(name = "idx_invoice_job_status", columnList = "status")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceJob {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Tutor who started the job; null for an admin job over all tutors.
+     */
+    @Column(name = "tutor_id")
+    private Long tutorId;
+
+    /**
+     * Billing month in format YYYY-MM.
+     */
+    @Column(nullable = false)
+    private String month;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "total_items", nullable = false)
+    private Integer totalItems;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
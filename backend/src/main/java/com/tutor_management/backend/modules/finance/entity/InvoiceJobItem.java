@@ -0,0 +1,75 @@
+package com.tutor_management.backend.modules.finance.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One parent's invoice within an {@link InvoiceJob}: the students it covers, where it goes
+ * and how far it got.
+ */
+@Entity
+@Table(name = "invoice_job_items", indexes = {
+    @Index(name = "idx_invoice_job_item_job_status", columnList = "job_id, status")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvoiceJobItem {
+
+    public enum Status {
+        PENDING,
+        SENT,
+        FAILED,
+        /** Nothing to send, e.g. the student has no parent email */
+        SKIPPED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    @Column(name = "parent_name")
+    private String parentName;
+
+    private String email;
+
+    /**
+     * Comma-separated IDs of the students on the invoice.
+     */
+    @Column(name = "student_ids", nullable = false, length = 1000)
+    private String studentIds;
+
+    @Column(name = "student_names", length = 1000)
+    private String studentNames;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "invoice_number")
+    private String invoiceNumber;
+
+    @Column(length = 500)
+    private String error;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
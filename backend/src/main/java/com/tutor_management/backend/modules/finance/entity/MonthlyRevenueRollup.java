@@ -0,0 +1,58 @@
+package com.tutor_management.backend.modules.finance.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Pre-aggregated revenue of one tutor for one billing month.
+ * <p>
+ * Mirrors {@code GROUP BY tutor_id, month} over session_records: amounts and sessions
+ * exclude cancelled records, {@link #recordCount} counts every record so a month whose
+ * records are all gone can be told apart from a month of cancelled lessons.
+ * Kept in step by {@code RevenueRollupService} on every session record write and
+ * rebuilt from scratch by its reconcile job.
+ */
+@Entity
+@Table(
+    name = "monthly_revenue_rollups",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_revenue_rollup_tutor_month", columnNames = {"tutor_id", "month"})
+    },
+    indexes = {
+        @Index(name = "idx_revenue_rollup_month", columnList = "month")
+    }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyRevenueRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tutor_id", nullable = false)
+    private Long tutorId;
+
+    /**
+     * Billing month in format YYYY-MM.
+     */
+    @Column(nullable = false)
+    private String month;
+
+    @Column(name = "paid_amount", nullable = false)
+    private Long paidAmount;
+
+    @Column(name = "unpaid_amount", nullable = false)
+    private Long unpaidAmount;
+
+    @Column(nullable = false)
+    private Integer sessions;
+
+    @Column(name = "record_count", nullable = false)
+    private Integer recordCount;
+}
@@ -25,7 +25,11 @@ import org.hibernate.annotations.BatchSize;
         @Index(name = "idx_session_student_id", columnList = "student_id"),
         @Index(name = "idx_session_month", columnList = "month"),
         @Index(name = "idx_session_student_month", columnList = "student_id, month"),
-        @Index(name = "idx_session_date", columnList = "sessionDate")
+        @Index(name = "idx_session_date", columnList = "sessionDate"),
+        // Tutor-leading indexes for the tenant-scoped lists: by month, all months, unpaid
+        @Index(name = "idx_session_tutor_month_created", columnList = "tutor_id, month, createdAt"),
+        @Index(name = "idx_session_tutor_created", columnList = "tutor_id, createdAt"),
+        @Index(name = "idx_session_tutor_paid_date", columnList = "tutor_id, paid, sessionDate")
 })
 @Getter
 @Setter
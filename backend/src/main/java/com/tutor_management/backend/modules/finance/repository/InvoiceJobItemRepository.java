@@ -0,0 +1,25 @@
+package com.tutor_management.backend.modules.finance.repository;
+
+import com.tutor_management.backend.modules.finance.entity.InvoiceJobItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InvoiceJobItemRepository extends JpaRepository<InvoiceJobItem, Long> {
+
+    @Query("SELECT i.id FROM InvoiceJobItem i WHERE i.jobId = :jobId AND i.status = :status ORDER BY i.id")
+    List<Long> findIdsByJobIdAndStatus(@Param("jobId") Long jobId, @Param("status") InvoiceJobItem.Status status);
+
+    List<InvoiceJobItem> findByJobIdAndStatusInOrderById(Long jobId, Collection<InvoiceJobItem.Status> statuses);
+
+    /**
+     * @return (status, count) pairs of a job's items
+     */
+    @Query("SELECT i.status, COUNT(i) FROM InvoiceJobItem i WHERE i.jobId = :jobId GROUP BY i.status")
+    List<Object[]> countByJobIdGroupByStatus(@Param("jobId") Long jobId);
+}
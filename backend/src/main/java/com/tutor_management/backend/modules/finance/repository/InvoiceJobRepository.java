@@ -0,0 +1,31 @@
+package com.tutor_management.backend.modules.finance.repository;
+
+import com.tutor_management.backend.modules.finance.entity.InvoiceJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InvoiceJobRepository extends JpaRepository<InvoiceJob, Long> {
+
+    List<InvoiceJob> findByStatus(InvoiceJob.Status status);
+
+    /**
+     * Marks a running job completed once none of its items is pending.
+     * A single statement, so concurrent workers finishing the last items complete it once.
+     *
+     * @return 1 if the job was completed by this call
+     */
+    @Modifying
+    @Query("UPDATE InvoiceJob j SET j.status = com.tutor_management.backend.modules.finance.entity.InvoiceJob.Status.COMPLETED, " +
+           "j.finishedAt = :now " +
+           "WHERE j.id = :id AND j.status = com.tutor_management.backend.modules.finance.entity.InvoiceJob.Status.RUNNING " +
+           "AND NOT EXISTS (SELECT i.id FROM InvoiceJobItem i WHERE i.jobId = :id " +
+           "AND i.status = com.tutor_management.backend.modules.finance.entity.InvoiceJobItem.Status.PENDING)")
+    int completeIfDone(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,123 @@
+package com.tutor_management.backend.modules.finance.repository;
+
+import com.tutor_management.backend.modules.dashboard.dto.response.DashboardStats;
+import com.tutor_management.backend.modules.finance.dto.response.MonthlyStats;
+import com.tutor_management.backend.modules.finance.entity.MonthlyRevenueRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Data access for {@link MonthlyRevenueRollup}.
+ * Reads touch one row per (tutor, month) instead of every session record.
+ */
+@Repository
+public interface MonthlyRevenueRollupRepository extends JpaRepository<MonthlyRevenueRollup, Long> {
+
+    @Query("SELECT new com.tutor_management.backend.modules.finance.dto.response.MonthlyStats(" +
+           "r.month, SUM(r.paidAmount), SUM(r.unpaidAmount), CAST(SUM(r.sessions) AS integer)) " +
+           "FROM MonthlyRevenueRollup r " +
+           "GROUP BY r.month " +
+           "HAVING SUM(r.recordCount) > 0 " +
+           "ORDER BY r.month DESC")
+    List<MonthlyStats> findAllMonthlyStats();
+
+    @Query("SELECT new com.tutor_management.backend.modules.finance.dto.response.MonthlyStats(" +
+           "r.month, r.paidAmount, r.unpaidAmount, r.sessions) " +
+           "FROM MonthlyRevenueRollup r " +
+           "WHERE r.tutorId = :tutorId AND r.recordCount > 0 " +
+           "ORDER BY r.month DESC")
+    List<MonthlyStats> findMonthlyStatsByTutorId(@Param("tutorId") Long tutorId);
+
+    /**
+     * The newest months with records, newest first; page 0 of size n gives the latest n.
+     */
+    @Query("SELECT new com.tutor_management.backend.modules.finance.dto.response.MonthlyStats(" +
+           "r.month, SUM(r.paidAmount), SUM(r.unpaidAmount), CAST(SUM(r.sessions) AS integer)) " +
+           "FROM MonthlyRevenueRollup r " +
+           "GROUP BY r.month " +
+           "HAVING SUM(r.recordCount) > 0 " +
+           "ORDER BY r.month DESC")
+    List<MonthlyStats> findLatestMonthlyStats(Pageable pageable);
+
+    @Query("SELECT new com.tutor_management.backend.modules.finance.dto.response.MonthlyStats(" +
+           "r.month, r.paidAmount, r.unpaidAmount, r.sessions) " +
+           "FROM MonthlyRevenueRollup r " +
+           "WHERE r.tutorId = :tutorId AND r.recordCount > 0 " +
+           "ORDER BY r.month DESC")
+    List<MonthlyStats> findLatestMonthlyStatsByTutorId(@Param("tutorId") Long tutorId, Pageable pageable);
+
+    /**
+     * All-time and current-month totals summed in the database, without listing the months.
+     * The student count is left at 0.
+     */
+    @Query("SELECT new com.tutor_management.backend.modules.dashboard.dto.response.DashboardStats(0, " +
+           "COALESCE(SUM(r.paidAmount), 0L), " +
+           "COALESCE(SUM(r.unpaidAmount), 0L), " +
+           "COALESCE(SUM(CASE WHEN r.month = :currentMonth THEN r.paidAmount + r.unpaidAmount ELSE 0L END), 0L), " +
+           "COALESCE(SUM(CASE WHEN r.month = :currentMonth THEN r.unpaidAmount ELSE 0L END), 0L)) " +
+           "FROM MonthlyRevenueRollup r")
+    DashboardStats sumFinanceSummary(@Param("currentMonth") String currentMonth);
+
+    @Query("SELECT new com.tutor_management.backend.modules.dashboard.dto.response.DashboardStats(0, " +
+           "COALESCE(SUM(r.paidAmount), 0L), " +
+           "COALESCE(SUM(r.unpaidAmount), 0L), " +
+           "COALESCE(SUM(CASE WHEN r.month = :currentMonth THEN r.paidAmount + r.unpaidAmount ELSE 0L END), 0L), " +
+           "COALESCE(SUM(CASE WHEN r.month = :currentMonth THEN r.unpaidAmount ELSE 0L END), 0L)) " +
+           "FROM MonthlyRevenueRollup r " +
+           "WHERE r.tutorId = :tutorId")
+    DashboardStats sumFinanceSummaryByTutorId(@Param("currentMonth") String currentMonth, @Param("tutorId") Long tutorId);
+
+    /**
+     * Adds a (possibly negative) delta to a tutor's month, creating the row on first use.
+     * A single statement, so concurrent writers to the same month cannot lose updates.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO monthly_revenue_rollups (tutor_id, month, paid_amount, unpaid_amount, sessions, record_count) " +
+                   "VALUES (:tutorId, :month, :paid, :unpaid, :sessions, :records) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "paid_amount = paid_amount + VALUES(paid_amount), " +
+                   "unpaid_amount = unpaid_amount + VALUES(unpaid_amount), " +
+                   "sessions = sessions + VALUES(sessions), " +
+                   "record_count = record_count + VALUES(record_count)",
+           nativeQuery = true)
+    void addDelta(@Param("tutorId") Long tutorId,
+                  @Param("month") String month,
+                  @Param("paid") long paid,
+                  @Param("unpaid") long unpaid,
+                  @Param("sessions") int sessions,
+                  @Param("records") int records);
+
+    @Modifying
+    @Query(value = "DELETE FROM monthly_revenue_rollups WHERE month = :month", nativeQuery = true)
+    void deleteByMonth(@Param("month") String month);
+
+    @Modifying
+    @Query(value = "DELETE FROM monthly_revenue_rollups WHERE month = :month AND tutor_id = :tutorId", nativeQuery = true)
+    void deleteByMonthAndTutorId(@Param("month") String month, @Param("tutorId") Long tutorId);
+
+    @Modifying
+    @Query(value = "DELETE FROM monthly_revenue_rollups", nativeQuery = true)
+    void deleteAllRows();
+
+    /**
+     * Recomputes every row from session_records. Same cancellation rule as the
+     * aggregates in {@link SessionRecordRepository}.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO monthly_revenue_rollups (tutor_id, month, paid_amount, unpaid_amount, sessions, record_count) " +
+                   "SELECT sr.tutor_id, sr.month, " +
+                   "COALESCE(SUM(CASE WHEN sr.paid = true AND (sr.status IS NULL OR sr.status NOT IN ('CANCELLED_BY_STUDENT', 'CANCELLED_BY_TUTOR')) THEN sr.total_amount ELSE 0 END), 0), " +
+                   "COALESCE(SUM(CASE WHEN sr.paid = false AND (sr.status IS NULL OR sr.status NOT IN ('CANCELLED_BY_STUDENT', 'CANCELLED_BY_TUTOR')) THEN sr.total_amount ELSE 0 END), 0), " +
+                   "COALESCE(SUM(CASE WHEN sr.status IS NULL OR sr.status NOT IN ('CANCELLED_BY_STUDENT', 'CANCELLED_BY_TUTOR') THEN sr.sessions ELSE 0 END), 0), " +
+                   "COUNT(*) " +
+                   "FROM session_records sr " +
+                   "GROUP BY sr.tutor_id, sr.month",
+           nativeQuery = true)
+    int insertFromSessionRecords();
+}
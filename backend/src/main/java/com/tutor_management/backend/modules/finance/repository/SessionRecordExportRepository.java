@@ -0,0 +1,94 @@
+package com.tutor_management.backend.modules.finance.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyset-paginated read of session records for exports.
+ * <p>
+ * Reads flat rows through JDBC, so an export of any size holds one page in memory and
+ * never fills the persistence context. Pages are ordered by (created_at DESC, id DESC) and
+ * continue after the last row of the previous page, which the tutor-leading indexes serve
+ * without an OFFSET scan.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SessionRecordExportRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * What to export. Null fields are not filtered on; a null tutor ID is the admin view.
+     */
+    public record Filter(Long tutorId, String month, Long studentId) {
+    }
+
+    /**
+     * One exported session record.
+     */
+    public record ExportRow(long id, LocalDate sessionDate, String studentName, String subject, Double hours,
+                            Long pricePerHour, Long totalAmount, String status, String notes,
+                            LocalDateTime createdAt) {
+    }
+
+    private static final RowMapper<ExportRow> ROW_MAPPER = (rs, rowNum) -> {
+        Date sessionDate = rs.getDate("session_date");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return new ExportRow(
+                rs.getLong("id"),
+                sessionDate != null ? sessionDate.toLocalDate() : null,
+                rs.getString("student_name"),
+                rs.getString("subject"),
+                rs.getObject("hours", Double.class),
+                rs.getObject("price_per_hour", Long.class),
+                rs.getObject("total_amount", Long.class),
+                rs.getString("status"),
+                rs.getString("notes"),
+                createdAt.toLocalDateTime());
+    };
+
+    /**
+     * Reads the next page.
+     *
+     * @param after Last row of the previous page, or null for the first page
+     */
+    public List<ExportRow> findPage(Filter filter, ExportRow after, int limit) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT sr.id, sr.session_date, s.name AS student_name, sr.subject, sr.hours, sr.price_per_hour, " +
+                "sr.total_amount, sr.status, sr.notes, sr.created_at " +
+                "FROM session_records sr JOIN students s ON s.id = sr.student_id WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        // Only the filters that are set, so each combination gets a plain, index-friendly predicate
+        if (filter.tutorId() != null) {
+            sql.append(" AND sr.tutor_id = ?");
+            args.add(filter.tutorId());
+        }
+        if (filter.month() != null) {
+            sql.append(" AND sr.month = ?");
+            args.add(filter.month());
+        }
+        if (filter.studentId() != null) {
+            sql.append(" AND sr.student_id = ?");
+            args.add(filter.studentId());
+        }
+        if (after != null) {
+            Timestamp createdAt = Timestamp.valueOf(after.createdAt());
+            sql.append(" AND (sr.created_at < ? OR (sr.created_at = ? AND sr.id < ?))");
+            args.add(createdAt);
+            args.add(createdAt);
+            args.add(after.id());
+        }
+        sql.append(" ORDER BY sr.created_at DESC, sr.id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.stereotype.Repository;
 
 import com.tutor_management.backend.modules.dashboard.dto.response.DashboardStats;
 import com.tutor_management.backend.modules.finance.dto.response.MonthlyStats;
+import com.tutor_management.backend.modules.finance.dto.response.StudentBillingStats;
 import com.tutor_management.backend.modules.student.entity.Student;
 
 /**
@@ -185,6 +186,16 @@ public interface SessionRecordRepository extends JpaRepository<SessionRecord, Lo
             @Param("month") String month,
             @Param("studentIds") List<Long> studentIds);
 
+    /**
+     * IDs of students with unpaid session records in a month, i.e. who owe an invoice.
+     */
+    @Query("SELECT DISTINCT sr.student.id FROM SessionRecord sr WHERE sr.month = :month AND sr.paid = false")
+    List<Long> findStudentIdsWithUnpaidByMonth(@Param("month") String month);
+
+    @Query("SELECT DISTINCT sr.student.id FROM SessionRecord sr " +
+           "WHERE sr.month = :month AND sr.paid = false AND sr.tutorId = :tutorId")
+    List<Long> findStudentIdsWithUnpaidByMonthAndTutorId(@Param("month") String month, @Param("tutorId") Long tutorId);
+
     @Query("SELECT sr FROM SessionRecord sr " +
            "LEFT JOIN FETCH sr.student " +
            "WHERE sr.student.id IN :studentIds " +
@@ -238,6 +249,25 @@ public interface SessionRecordRepository extends JpaRepository<SessionRecord, Lo
     @Query(value = "DELETE FROM session_lessons WHERE lesson_id = :lessonId", nativeQuery = true)
     void deleteLessonReferences(@Param("lessonId") Long lessonId);
 
+    /**
+     * Paid, unpaid and unpaid-taught totals and the last active month per student, in one
+     * grouped query instead of loading every record. Like the student profile always has,
+     * cancelled records count towards paid and unpaid.
+     */
+    @Query("SELECT new com.tutor_management.backend.modules.finance.dto.response.StudentBillingStats(" +
+           "sr.student.id, " +
+           "COALESCE(SUM(CASE WHEN sr.paid = true THEN sr.totalAmount ELSE 0L END), 0L), " +
+           "COALESCE(SUM(CASE WHEN sr.paid = false THEN sr.totalAmount ELSE 0L END), 0L), " +
+           "COALESCE(SUM(CASE WHEN sr.paid = false AND sr.status IN (" +
+           "com.tutor_management.backend.modules.finance.LessonStatus.COMPLETED, " +
+           "com.tutor_management.backend.modules.finance.LessonStatus.PENDING_PAYMENT, " +
+           "com.tutor_management.backend.modules.finance.LessonStatus.PAID) THEN sr.totalAmount ELSE 0L END), 0L), " +
+           "MAX(sr.month)) " +
+           "FROM SessionRecord sr " +
+           "WHERE sr.student.id IN :studentIds " +
+           "GROUP BY sr.student.id")
+    List<StudentBillingStats> findBillingStatsByStudentIdIn(@Param("studentIds") List<Long> studentIds);
+
     /**
      * Projects total unpaid amounts for a list of student IDs.
      * Used for optimized summary calculation.
@@ -0,0 +1,292 @@
+package com.tutor_management.backend.modules.finance.service;
+
+import com.tutor_management.backend.config.AsyncConfig;
+import com.tutor_management.backend.exception.ResourceNotFoundException;
+import com.tutor_management.backend.modules.finance.dto.request.InvoiceRequest;
+import com.tutor_management.backend.modules.finance.dto.response.InvoiceJobResponse;
+import com.tutor_management.backend.modules.finance.dto.response.InvoiceResponse;
+import com.tutor_management.backend.modules.finance.entity.InvoiceJob;
+import com.tutor_management.backend.modules.finance.entity.InvoiceJobItem;
+import com.tutor_management.backend.modules.finance.repository.InvoiceJobItemRepository;
+import com.tutor_management.backend.modules.finance.repository.InvoiceJobRepository;
+import com.tutor_management.backend.modules.finance.repository.SessionRecordRepository;
+import com.tutor_management.backend.modules.parent.entity.Parent;
+import com.tutor_management.backend.modules.shared.service.EmailService;
+import com.tutor_management.backend.modules.shared.service.PDFGeneratorService;
+import com.tutor_management.backend.modules.student.entity.Student;
+import com.tutor_management.backend.modules.student.repository.StudentRepository;
+import com.tutor_management.backend.util.SecurityContextUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Emails the month's invoice to every parent with unpaid sessions, in the background.
+ * <p>
+ * Starting a job records one {@link InvoiceJobItem} per parent (siblings share one invoice)
+ * and returns immediately. Items are generated, rendered and sent on the bounded
+ * {@link AsyncConfig#INVOICE_JOB_EXECUTOR} pool, each ending as SENT, FAILED or SKIPPED;
+ * the job completes when no item is pending. Items left pending by a shutdown or crash are
+ * picked up again when the application next starts; an item's email is queued in the
+ * outbox in the same transaction that marks it sent. Against a local SMTP stand-in (e.g.
+ * Mailpit on {@code spring.mail.host=localhost}) a whole run can be watched end to end.
+ */
+@Service
+@Slf4j
+public class InvoiceJobService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final InvoiceJobRepository jobRepository;
+    private final InvoiceJobItemRepository itemRepository;
+    private final SessionRecordRepository sessionRecordRepository;
+    private final StudentRepository studentRepository;
+    private final InvoiceService invoiceService;
+    private final PDFGeneratorService pdfGeneratorService;
+    private final EmailService emailService;
+    private final SecurityContextUtils securityContextUtils;
+    private final TaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Timer renderTimer;
+
+    public InvoiceJobService(InvoiceJobRepository jobRepository,
+                             InvoiceJobItemRepository itemRepository,
+                             SessionRecordRepository sessionRecordRepository,
+                             StudentRepository studentRepository,
+                             InvoiceService invoiceService,
+                             PDFGeneratorService pdfGeneratorService,
+                             EmailService emailService,
+                             SecurityContextUtils securityContextUtils,
+                             @Qualifier(AsyncConfig.INVOICE_JOB_EXECUTOR) TaskExecutor executor,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.itemRepository = itemRepository;
+        this.sessionRecordRepository = sessionRecordRepository;
+        this.studentRepository = studentRepository;
+        this.invoiceService = invoiceService;
+        this.pdfGeneratorService = pdfGeneratorService;
+        this.emailService = emailService;
+        this.securityContextUtils = securityContextUtils;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sentCounter = meterRegistry.counter("invoice.jobs.items", "result", "sent");
+        this.failedCounter = meterRegistry.counter("invoice.jobs.items", "result", "failed");
+        this.renderTimer = meterRegistry.timer("invoice.jobs.render");
+    }
+
+    /**
+     * Starts emailing the month's invoices to the parents of the current tutor's students
+     * (all students for an admin).
+     *
+     * @param month Billing month in format YYYY-MM.
+     * @return The new job, with every item still pending.
+     */
+    public InvoiceJobResponse start(String month) {
+        Long tutorId = securityContextUtils.getCurrentTutorId();
+        InvoiceJob job = transactionTemplate.execute(status -> {
+            List<Long> studentIds = tutorId != null
+                    ? sessionRecordRepository.findStudentIdsWithUnpaidByMonthAndTutorId(month, tutorId)
+                    : sessionRecordRepository.findStudentIdsWithUnpaidByMonth(month);
+            List<Student> students = studentIds.isEmpty() ? List.of() : studentRepository.findByIdInWithParent(studentIds);
+
+            InvoiceJob created = jobRepository.save(InvoiceJob.builder()
+                    .tutorId(tutorId)
+                    .month(month)
+                    .status(InvoiceJob.Status.RUNNING)
+                    .totalItems(0)
+                    .build());
+            List<InvoiceJobItem> items = toItems(created.getId(), students);
+            itemRepository.saveAll(items);
+            created.setTotalItems(items.size());
+            return created;
+        });
+        log.info("Started invoice job {} for month {} with {} invoices", job.getId(), month, job.getTotalItems());
+
+        submitPending(job);
+        return toResponse(jobRepository.findById(job.getId()).orElse(job));
+    }
+
+    /**
+     * Current progress of a job started by the current tutor (any job for an admin).
+     *
+     * @throws ResourceNotFoundException if the job does not exist or belongs to another tutor
+     */
+    public InvoiceJobResponse getJob(Long jobId) {
+        Long tutorId = securityContextUtils.getCurrentTutorId();
+        InvoiceJob job = jobRepository.findById(jobId)
+                .filter(j -> tutorId == null || tutorId.equals(j.getTutorId()))
+                .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy tiến trình gửi hóa đơn"));
+        return toResponse(job);
+    }
+
+    /**
+     * Continues jobs interrupted by the last shutdown or crash.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeRunningJobs() {
+        for (InvoiceJob job : jobRepository.findByStatus(InvoiceJob.Status.RUNNING)) {
+            log.info("Resuming invoice job {} for month {}", job.getId(), job.getMonth());
+            submitPending(job);
+        }
+    }
+
+    private void submitPending(InvoiceJob job) {
+        List<Long> itemIds = itemRepository.findIdsByJobIdAndStatus(job.getId(), InvoiceJobItem.Status.PENDING);
+        if (itemIds.isEmpty()) {
+            completeIfDone(job.getId());
+            return;
+        }
+        for (Long itemId : itemIds) {
+            try {
+                executor.execute(() -> process(itemId));
+            } catch (TaskRejectedException e) {
+                // Remaining items stay pending and are resumed on the next start
+                log.warn("Invoice job {} queue is full, deferring its remaining items", job.getId());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Generates, renders and sends one parent's invoice and records the outcome.
+     */
+    void process(Long itemId) {
+        InvoiceJobItem item = itemRepository.findById(itemId).orElse(null);
+        if (item == null || item.getStatus() != InvoiceJobItem.Status.PENDING) {
+            return;
+        }
+        InvoiceJob job = jobRepository.findById(item.getJobId()).orElseThrow();
+        try {
+            InvoiceResponse invoice = invoiceService.generateInvoice(requestFor(job.getMonth(), item));
+            byte[] pdf = renderTimer.recordCallable(() -> pdfGeneratorService.generateInvoicePDF(invoice));
+
+            // Queued and marked sent together, so a resumed job never emails a parent twice
+            transactionTemplate.executeWithoutResult(status -> {
+                emailService.sendInvoiceEmail(item.getEmail(), item.getParentName(), item.getStudentNames(),
+                        invoice.getMonth(), pdf, invoice.getInvoiceNumber());
+                finish(item, InvoiceJobItem.Status.SENT, invoice.getInvoiceNumber(), null);
+            });
+            sentCounter.increment();
+        } catch (Exception e) {
+            log.warn("Invoice job {}: failed to send invoice to {}", job.getId(), item.getEmail(), e);
+            finish(item, InvoiceJobItem.Status.FAILED, null, e.getMessage());
+            failedCounter.increment();
+        }
+        completeIfDone(job.getId());
+    }
+
+    private InvoiceRequest requestFor(String month, InvoiceJobItem item) {
+        List<Long> studentIds = Arrays.stream(item.getStudentIds().split(",")).map(Long::valueOf).toList();
+        if (studentIds.size() == 1) {
+            return InvoiceRequest.builder().month(month).studentId(studentIds.get(0)).build();
+        }
+        return InvoiceRequest.builder().month(month).multipleStudents(true).selectedStudentIds(studentIds).build();
+    }
+
+    private void finish(InvoiceJobItem item, InvoiceJobItem.Status status, String invoiceNumber, String error) {
+        item.setStatus(status);
+        item.setInvoiceNumber(invoiceNumber);
+        item.setError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        itemRepository.save(item);
+    }
+
+    private void completeIfDone(Long jobId) {
+        Integer completed = transactionTemplate.execute(status -> jobRepository.completeIfDone(jobId, LocalDateTime.now()));
+        if (completed != null && completed == 1) {
+            log.info("Invoice job {} completed", jobId);
+        }
+    }
+
+    /**
+     * One item per parent covering all of their students; students that cannot be emailed
+     * get a skipped item of their own so they show up in the job result.
+     */
+    private List<InvoiceJobItem> toItems(Long jobId, List<Student> students) {
+        Map<Long, List<Student>> byParent = new LinkedHashMap<>();
+        List<InvoiceJobItem> items = new ArrayList<>();
+        students.stream()
+                .sorted(Comparator.comparing(Student::getName))
+                .forEach(student -> {
+                    Parent parent = student.getParent();
+                    if (parent == null) {
+                        items.add(skipped(jobId, null, List.of(student), "Học sinh chưa có thông tin phụ huynh"));
+                    } else if (parent.getEmail() == null || parent.getEmail().isBlank()) {
+                        items.add(skipped(jobId, parent, List.of(student), "Phụ huynh chưa có email"));
+                    } else {
+                        byParent.computeIfAbsent(parent.getId(), id -> new ArrayList<>()).add(student);
+                    }
+                });
+        byParent.values().forEach(siblings -> items.add(item(jobId, siblings.get(0).getParent(), siblings)
+                .status(InvoiceJobItem.Status.PENDING)
+                .build()));
+        return items;
+    }
+
+    private InvoiceJobItem skipped(Long jobId, Parent parent, List<Student> students, String reason) {
+        return item(jobId, parent, students).status(InvoiceJobItem.Status.SKIPPED).error(reason).build();
+    }
+
+    private InvoiceJobItem.InvoiceJobItemBuilder item(Long jobId, Parent parent, List<Student> students) {
+        return InvoiceJobItem.builder()
+                .jobId(jobId)
+                .parentId(parent != null ? parent.getId() : null)
+                .parentName(parent != null ? parent.getName() : null)
+                .email(parent != null ? parent.getEmail() : null)
+                .studentIds(students.stream().map(s -> String.valueOf(s.getId())).collect(Collectors.joining(",")))
+                .studentNames(students.stream().map(Student::getName).collect(Collectors.joining(", ")));
+    }
+
+    private InvoiceJobResponse toResponse(InvoiceJob job) {
+        Map<InvoiceJobItem.Status, Integer> counts = new EnumMap<>(InvoiceJobItem.Status.class);
+        for (Object[] row : itemRepository.countByJobIdGroupByStatus(job.getId())) {
+            counts.put((InvoiceJobItem.Status) row[0], ((Number) row[1]).intValue());
+        }
+        List<InvoiceJobResponse.ItemResult> problems = itemRepository
+                .findByJobIdAndStatusInOrderById(job.getId(), List.of(InvoiceJobItem.Status.FAILED, InvoiceJobItem.Status.SKIPPED))
+                .stream()
+                .map(item -> InvoiceJobResponse.ItemResult.builder()
+                        .parent(item.getParentName())
+                        .email(item.getEmail())
+                        .students(item.getStudentNames())
+                        .status(item.getStatus().name())
+                        .error(item.getError())
+                        .build())
+                .toList();
+
+        return InvoiceJobResponse.builder()
+                .id(job.getId())
+                .month(job.getMonth())
+                .status(job.getStatus().name())
+                .total(job.getTotalItems())
+                .pending(counts.getOrDefault(InvoiceJobItem.Status.PENDING, 0))
+                .sent(counts.getOrDefault(InvoiceJobItem.Status.SENT, 0))
+                .failed(counts.getOrDefault(InvoiceJobItem.Status.FAILED, 0))
+                .skipped(counts.getOrDefault(InvoiceJobItem.Status.SKIPPED, 0))
+                .createdAt(job.getCreatedAt())
+                .finishedAt(job.getFinishedAt())
+                .problems(problems)
+                .build();
+    }
+}
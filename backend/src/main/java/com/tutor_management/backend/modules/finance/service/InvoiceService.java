@@ -192,9 +192,8 @@ public class InvoiceService {
     }
 
     private String generateQRContent(long amount, String num) {
-        String bankCode = "970436"; // Vietcombank
-        String acc = "1041819355";
+        BankInfo bank = BankInfo.getDefault();
         return String.format("https://img.vietqr.io/image/%s-%s-compact2.png?amount=%d&addInfo=%s", 
-                bankCode, acc, amount, num.replace("-", ""));
+                bank.getBankBin(), bank.getAccountNumber(), amount, PaymentQrService.memoFor(num));
     }
 }
@@ -0,0 +1,103 @@
+package com.tutor_management.backend.modules.finance.service;
+
+import com.itextpdf.barcodes.BarcodeQRCode;
+import com.itextpdf.barcodes.qrcode.EncodeHintType;
+import com.itextpdf.barcodes.qrcode.ErrorCorrectionLevel;
+import com.tutor_management.backend.modules.finance.dto.response.BankInfo;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Builds VietQR (NAPAS EMVCo) bank transfer QR codes locally.
+ * <p>
+ * Encoded codes are cached per (bank, account, amount, invoice), so re-rendering the same
+ * invoice, or a batch of equal invoices, skips the encoding. A cached {@link BarcodeQRCode}
+ * only holds the module matrix and is never modified; it is drawn into each PDF with
+ * {@link BarcodeQRCode#createFormXObject}.
+ */
+@Service
+public class PaymentQrService {
+
+    /** NAPAS globally unique identifier for inter-bank transfers */
+    private static final String NAPAS_GUID = "A000000727";
+    /** Service code: transfer to an account number */
+    private static final String ACCOUNT_TRANSFER = "QRIBFTTA";
+    private static final String CURRENCY_VND = "704";
+    private static final String COUNTRY_VN = "VN";
+
+    private static final Map<EncodeHintType, Object> HINTS = Map.of(
+            EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M,
+            EncodeHintType.CHARACTER_SET, StandardCharsets.UTF_8.name());
+
+    /**
+     * Encodes the transfer of an invoice's total to the given bank account.
+     * Cached here rather than on the lower-level overload, which this method reaches
+     * without going through the Spring proxy.
+     */
+    @Cacheable(value = "paymentQrCodes",
+               key = "{#bankInfo.bankBin, #bankInfo.accountNumber, #amount, #invoiceNumber}")
+    public BarcodeQRCode qrCode(BankInfo bankInfo, long amount, String invoiceNumber) {
+        return qrCode(bankInfo.getBankBin(), bankInfo.getAccountNumber(), amount, memoFor(invoiceNumber));
+    }
+
+    /**
+     * Encodes the transfer of {@code amount} VND to the given account, without caching.
+     *
+     * @param memo Transfer description, ASCII without separators (see {@link #memoFor})
+     */
+    public BarcodeQRCode qrCode(String bankBin, String accountNumber, long amount, String memo) {
+        return new BarcodeQRCode(payload(bankBin, accountNumber, amount, memo), HINTS);
+    }
+
+    /**
+     * Transfer description for an invoice; banks drop punctuation from descriptions, so the
+     * invoice number is matched without its dashes.
+     */
+    public static String memoFor(String invoiceNumber) {
+        return invoiceNumber.replace("-", "");
+    }
+
+    /**
+     * Builds the EMVCo merchant-presented payload read by Vietnamese banking apps.
+     */
+    static String payload(String bankBin, String accountNumber, long amount, String memo) {
+        String beneficiary = tlv("00", bankBin) + tlv("01", accountNumber);
+        String accountInfo = tlv("00", NAPAS_GUID) + tlv("01", beneficiary) + tlv("02", ACCOUNT_TRANSFER);
+
+        StringBuilder payload = new StringBuilder()
+                .append(tlv("00", "01"))          // Payload format indicator
+                .append(tlv("01", "12"))          // Dynamic QR: single use with an amount
+                .append(tlv("38", accountInfo))
+                .append(tlv("53", CURRENCY_VND))
+                .append(tlv("54", Long.toString(amount)))
+                .append(tlv("58", COUNTRY_VN))
+                .append(tlv("62", tlv("08", memo)))
+                .append("6304");                  // CRC field header, covered by the checksum
+        return payload.append(crc16(payload)).toString();
+    }
+
+    private static String tlv(String id, String value) {
+        if (value.length() > 99) {
+            throw new IllegalArgumentException("QR field " + id + " is too long: " + value);
+        }
+        return id + String.format("%02d", value.length()) + value;
+    }
+
+    /**
+     * CRC-16/CCITT-FALSE (poly 0x1021, init 0xFFFF) as four uppercase hex digits.
+     */
+    static String crc16(CharSequence data) {
+        int crc = 0xFFFF;
+        byte[] bytes = data.toString().getBytes(StandardCharsets.UTF_8);
+        for (byte b : bytes) {
+            crc ^= (b & 0xFF) << 8;
+            for (int i = 0; i < 8; i++) {
+                crc = (crc & 0x8000) != 0 ? (crc << 1) ^ 0x1021 : crc << 1;
+            }
+        }
+        return String.format("%04X", crc & 0xFFFF);
+    }
+}
@@ -0,0 +1,276 @@
+package com.tutor_management.backend.modules.finance.service;
+
+import com.tutor_management.backend.config.CacheInvalidator;
+import com.tutor_management.backend.modules.dashboard.dto.response.DashboardStats;
+import com.tutor_management.backend.modules.finance.LessonStatus;
+import com.tutor_management.backend.modules.finance.dto.response.MonthlyStats;
+import com.tutor_management.backend.modules.finance.entity.SessionRecord;
+import com.tutor_management.backend.modules.finance.repository.MonthlyRevenueRollupRepository;
+import com.tutor_management.backend.modules.finance.repository.SessionRecordRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maintains and serves the per-(tutor, month) revenue rollup.
+ * <p>
+ * Every session record write reports the record's contribution before and after the
+ * change; the difference is applied to the rollup in the writer's transaction, so the
+ * rollup commits or rolls back together with the record. Dashboard and admin reads then
+ * aggregate over months instead of scanning session_records. A nightly job (and the
+ * first start with an empty rollup) rebuilds the table from the source of truth to
+ * repair drift from writes that bypass this service.
+ * <p>
+ * Since every revenue-relevant write passes through here, this is also where the cached
+ * dashboard and monthly stats of the affected tutor (and of the global view) are evicted.
+ */
+@Service
+@Slf4j
+public class RevenueRollupService {
+
+    private final MonthlyRevenueRollupRepository rollupRepository;
+    private final SessionRecordRepository sessionRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheInvalidator cacheInvalidator;
+    private final Timer rebuildTimer;
+
+    /**
+     * What a single session record adds to its tutor's month.
+     */
+    public record Contribution(Long tutorId, String month, long paid, long unpaid, int sessions) {
+
+        /**
+         * @return the record's contribution, or null for a record that does not exist (yet)
+         */
+        public static Contribution of(SessionRecord record) {
+            if (record == null || record.getTutorId() == null || record.getMonth() == null) {
+                return null;
+            }
+            if (isCancelled(record.getStatus())) {
+                return new Contribution(record.getTutorId(), record.getMonth(), 0L, 0L, 0);
+            }
+            long amount = record.getTotalAmount() != null ? record.getTotalAmount() : 0L;
+            boolean paid = Boolean.TRUE.equals(record.getPaid());
+            int sessions = record.getSessions() != null ? record.getSessions() : 0;
+            return new Contribution(record.getTutorId(), record.getMonth(), paid ? amount : 0L, paid ? 0L : amount, sessions);
+        }
+
+        private boolean sameBucket(Contribution other) {
+            return other != null && tutorId.equals(other.tutorId) && month.equals(other.month);
+        }
+    }
+
+    public RevenueRollupService(MonthlyRevenueRollupRepository rollupRepository,
+                                SessionRecordRepository sessionRecordRepository,
+                                PlatformTransactionManager transactionManager,
+                                CacheInvalidator cacheInvalidator,
+                                MeterRegistry meterRegistry) {
+        this.rollupRepository = rollupRepository;
+        this.sessionRecordRepository = sessionRecordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheInvalidator = cacheInvalidator;
+        this.rebuildTimer = meterRegistry.timer("finance.revenue_rollup.rebuild");
+    }
+
+    private static boolean isCancelled(LessonStatus status) {
+        return status == LessonStatus.CANCELLED_BY_STUDENT || status == LessonStatus.CANCELLED_BY_TUTOR;
+    }
+
+    // --- Write side ---
+
+    /**
+     * Applies the change of one record. Pass null as {@code before} for a created record
+     * and null as {@code after} for a deleted one. Must run inside the writing transaction.
+     */
+    @Transactional
+    public void recordChange(Contribution before, Contribution after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            cacheInvalidator.evictRevenue(before.tutorId());
+        }
+        if (after != null) {
+            cacheInvalidator.evictRevenue(after.tutorId());
+        }
+        if (before != null && before.sameBucket(after)) {
+            // Same tutor and month: one row, one statement
+            rollupRepository.addDelta(after.tutorId(), after.month(),
+                    after.paid() - before.paid(), after.unpaid() - before.unpaid(),
+                    after.sessions() - before.sessions(), 0);
+            return;
+        }
+        if (before != null) {
+            rollupRepository.addDelta(before.tutorId(), before.month(),
+                    -before.paid(), -before.unpaid(), -before.sessions(), -1);
+        }
+        if (after != null) {
+            rollupRepository.addDelta(after.tutorId(), after.month(),
+                    after.paid(), after.unpaid(), after.sessions(), 1);
+        }
+    }
+
+    @Transactional
+    public void recordCreated(Collection<SessionRecord> records) {
+        records.forEach(record -> recordChange(null, Contribution.of(record)));
+    }
+
+    /**
+     * Applies many created records with one statement per (tutor, month) instead of one per
+     * record, for bulk inserts that bypass JPA. Must run inside the inserting transaction.
+     */
+    @Transactional
+    public void recordCreatedInBulk(Collection<Contribution> created) {
+        Map<Bucket, long[]> buckets = new LinkedHashMap<>();
+        for (Contribution c : created) {
+            long[] totals = buckets.computeIfAbsent(new Bucket(c.tutorId(), c.month()), k -> new long[4]);
+            totals[0] += c.paid();
+            totals[1] += c.unpaid();
+            totals[2] += c.sessions();
+            totals[3]++;
+        }
+        buckets.forEach((bucket, totals) -> {
+            cacheInvalidator.evictRevenue(bucket.tutorId());
+            rollupRepository.addDelta(bucket.tutorId(), bucket.month(), totals[0], totals[1], (int) totals[2], (int) totals[3]);
+        });
+    }
+
+    private record Bucket(Long tutorId, String month) {
+    }
+
+    @Transactional
+    public void recordDeleted(Collection<SessionRecord> records) {
+        records.forEach(record -> recordChange(Contribution.of(record), null));
+    }
+
+    /**
+     * Drops the rollup of a month after its records were bulk-deleted.
+     *
+     * @param tutorId The tutor whose records were deleted, or null for every tutor
+     */
+    @Transactional
+    public void monthDeleted(String month, Long tutorId) {
+        if (tutorId != null) {
+            rollupRepository.deleteByMonthAndTutorId(month, tutorId);
+            cacheInvalidator.evictRevenue(tutorId);
+        } else {
+            rollupRepository.deleteByMonth(month);
+            cacheInvalidator.evictAllRevenue();
+        }
+    }
+
+    // --- Read side ---
+
+    /**
+     * Monthly totals, newest month first.
+     *
+     * @param tutorId Tutor to scope to, or null for the whole system
+     */
+    @Transactional(readOnly = true)
+    public List<MonthlyStats> getMonthlyStats(Long tutorId) {
+        if (tutorId != null) {
+            return rollupRepository.findMonthlyStatsByTutorId(tutorId);
+        }
+        return rollupRepository.findAllMonthlyStats();
+    }
+
+    /**
+     * The {@code count} newest months, newest first.
+     *
+     * @param tutorId Tutor to scope to, or null for the whole system
+     */
+    @Transactional(readOnly = true)
+    public List<MonthlyStats> getLatestMonthlyStats(Long tutorId, int count) {
+        PageRequest latest = PageRequest.of(0, count);
+        if (tutorId != null) {
+            return rollupRepository.findLatestMonthlyStatsByTutorId(tutorId, latest);
+        }
+        return rollupRepository.findLatestMonthlyStats(latest);
+    }
+
+    /**
+     * Same figures as {@code SessionRecordRepository.getFinanceSummary}, summed from the rollup
+     * in the database. The student count is left at 0; callers that need it count students themselves.
+     */
+    @Transactional(readOnly = true)
+    public DashboardStats getFinanceSummary(String currentMonth, Long tutorId) {
+        if (tutorId != null) {
+            return rollupRepository.sumFinanceSummaryByTutorId(currentMonth, tutorId);
+        }
+        return rollupRepository.sumFinanceSummary(currentMonth);
+    }
+
+    /**
+     * Folds monthly totals into all-time and current-month figures.
+     */
+    public static DashboardStats summarize(List<MonthlyStats> months, String currentMonth) {
+        long paid = 0;
+        long unpaid = 0;
+        long monthTotal = 0;
+        long monthUnpaid = 0;
+        for (MonthlyStats stats : months) {
+            long monthPaid = stats.getTotalPaid() != null ? stats.getTotalPaid() : 0L;
+            long monthOpen = stats.getTotalUnpaid() != null ? stats.getTotalUnpaid() : 0L;
+            paid += monthPaid;
+            unpaid += monthOpen;
+            if (stats.getMonth().equals(currentMonth)) {
+                monthTotal += monthPaid + monthOpen;
+                monthUnpaid += monthOpen;
+            }
+        }
+        return new DashboardStats(0, paid, unpaid, monthTotal, monthUnpaid);
+    }
+
+    // --- Reconciliation ---
+
+    /**
+     * Recomputes the whole rollup from session_records in one transaction.
+     *
+     * @return number of (tutor, month) rows written
+     */
+    public int rebuild() {
+        Timer.Sample sample = Timer.start();
+        Integer rows = transactionTemplate.execute(status -> {
+            rollupRepository.deleteAllRows();
+            return rollupRepository.insertFromSessionRecords();
+        });
+        cacheInvalidator.evictAllRevenue();
+        sample.stop(rebuildTimer);
+        log.info("Revenue rollup rebuilt: {} tutor-month rows", rows);
+        return rows != null ? rows : 0;
+    }
+
+    @Scheduled(cron = "${app.finance.revenue-rollup.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Revenue rollup reconcile failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Builds the rollup on the first start after it was introduced.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (rollupRepository.count() == 0 && sessionRecordRepository.count() > 0) {
+            log.info("Revenue rollup is empty, building it from existing session records");
+            reconcile();
+        }
+    }
+}
@@ -10,20 +10,18 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-import com.tutor_management.backend.modules.auth.Role;
-import com.tutor_management.backend.modules.auth.User;
 import com.tutor_management.backend.modules.document.repository.DocumentRepository;
 import com.tutor_management.backend.modules.document.entity.Document;
 import com.tutor_management.backend.modules.finance.LessonStatus;
 import com.tutor_management.backend.modules.finance.entity.SessionRecord;
+import com.tutor_management.backend.modules.finance.repository.SessionRecordExportRepository;
 import com.tutor_management.backend.modules.finance.repository.SessionRecordRepository;
 import com.tutor_management.backend.modules.finance.StatusTransitionValidator;
 import com.tutor_management.backend.modules.lesson.repository.LessonRepository;
 import com.tutor_management.backend.modules.lesson.entity.Lesson;
 import com.tutor_management.backend.modules.onlinesession.repository.OnlineSessionRepository;
+import com.tutor_management.backend.util.SecurityContextUtils;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -37,7 +35,6 @@ import com.tutor_management.backend.modules.notification.event.SessionReschedule
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
-import org.springframework.cache.annotation.CacheEvict;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -58,10 +55,10 @@ public class SessionRecordService {
     private final LessonRepository lessonRepository;
     private final StatusTransitionValidator statusTransitionValidator;
     private final ApplicationEventPublisher eventPublisher;
+    private final RevenueRollupService revenueRollupService;
     
     // Dependencies for isolation
-    private final com.tutor_management.backend.modules.auth.UserRepository userRepository;
-    private final com.tutor_management.backend.modules.tutor.repository.TutorRepository tutorRepository;
+    private final SecurityContextUtils securityContextUtils;
     private final OnlineSessionRepository onlineSessionRepository;
     private final com.tutor_management.backend.modules.admin.service.AdminStatsService adminStatsService;
 
@@ -69,23 +66,7 @@ public class SessionRecordService {
     private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
 
     private Long getCurrentTutorId() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated()) {
-            return null;
-        }
-        String email = auth.getName();
-        
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        if (user.getRole() == Role.ADMIN || user.getRole() == Role.STUDENT) {
-            return null;
-        }
-        
-        com.tutor_management.backend.modules.tutor.entity.Tutor tutor = tutorRepository.findByUserId(user.getId())
-            .orElseThrow(() -> new RuntimeException("Tutor profile not found for user: " + user.getId()));
-        
-        return tutor.getId();
+        return securityContextUtils.getCurrentTutorId();
     }
 
     /**
@@ -144,7 +125,6 @@ public class SessionRecordService {
      * @return The created session record with full details.
      * @throws RuntimeException if the student is not found.
      */
-    @CacheEvict(value = {"dashboardStats", "monthlyStats"}, allEntries = true)
     public SessionRecordResponse createRecord(SessionRecordRequest r) {
         log.info("🗓️ Creating session record for student {} on {}", r.getStudentId(), r.getSessionDate());
         
@@ -181,6 +161,7 @@ public class SessionRecordService {
 
         attachResources(record, r.getDocumentIds(), r.getLessonIds());
         SessionRecord saved = sessionRecordRepository.saveAndFlush(record);
+        revenueRollupService.recordChange(null, RevenueRollupService.Contribution.of(saved));
         
         publishCreatedEvent(saved);
         return mapToFullResponse(saved);
@@ -196,7 +177,6 @@ public class SessionRecordService {
      * @return The updated session record.
      * @throws RuntimeException if the record is not found or version conflict occurs.
      */
-    @CacheEvict(value = {"dashboardStats", "monthlyStats"}, allEntries = true)
     public SessionRecordResponse updateRecord(Long id, SessionRecordUpdateRequest r) {
         log.info("📝 Updating session record: {}", id);
         
@@ -213,6 +193,7 @@ public class SessionRecordService {
 
         log.info("Checking version for Session {}: DB={}, Request={}", id, record.getVersion(), r.getVersion());
         checkVersion(record, r.getVersion());
+        RevenueRollupService.Contribution before = RevenueRollupService.Contribution.of(record);
 
         if (r.getMonth() != null) record.setMonth(r.getMonth());
         if (r.getSessionDate() != null) record.setSessionDate(LocalDate.parse(r.getSessionDate()));
@@ -236,6 +217,7 @@ public class SessionRecordService {
         attachResources(record, r.getDocumentIds(), r.getLessonIds());
 
         SessionRecord updated = sessionRecordRepository.saveAndFlush(record);
+        revenueRollupService.recordChange(before, RevenueRollupService.Contribution.of(updated));
         publishRescheduledEvent(updated);
         
         return mapToFullResponse(updated);
@@ -247,7 +229,6 @@ public class SessionRecordService {
      * @param id The session record ID to delete.
      * @throws RuntimeException if the record is not found.
      */
-    @CacheEvict(value = {"dashboardStats", "monthlyStats"}, allEntries = true)
     public void deleteRecord(Long id) {
         Long tutorId = getCurrentTutorId();
         SessionRecord record;
@@ -260,6 +241,7 @@ public class SessionRecordService {
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy bản ghi buổi học"));
         }
         sessionRecordRepository.delete(record);
+        revenueRollupService.recordChange(RevenueRollupService.Contribution.of(record), null);
     }
 
     /**
@@ -268,7 +250,6 @@ public class SessionRecordService {
      * 
      * @param month The billing month in YYYY-MM format.
      */
-    @CacheEvict(value = {"dashboardStats", "monthlyStats"}, allEntries = true)
     public void deleteSessionsByMonth(String month) {
         Long tutorId = getCurrentTutorId();
         if (tutorId != null) {
@@ -278,6 +259,7 @@ public class SessionRecordService {
             log.warn("⚠️ Deleting all sessions for month: {} (ADMIN)", month);
             sessionRecordRepository.deleteByMonth(month);
         }
+        revenueRollupService.monthDeleted(month, tutorId);
     }
 
     /**
@@ -306,7 +288,6 @@ public class SessionRecordService {
      * @return The updated session record.
      * @throws RuntimeException if the record is not found or version conflict occurs.
      */
-    @CacheEvict(value = {"dashboardStats", "monthlyStats"}, allEntries = true)
     public SessionRecordResponse togglePayment(Long id, Integer version) {
         Long tutorId = getCurrentTutorId();
         SessionRecord record;
@@ -319,6 +300,7 @@ public class SessionRecordService {
                 .orElseThrow(() -> new RuntimeException("Không tìm thấy bản ghi buổi học"));
         }
         checkVersion(record, version);
+        RevenueRollupService.Contribution before = RevenueRollupService.Contribution.of(record);
 
         if (!record.getPaid()) {
             applyStatusChange(record, LessonStatus.PAID);
@@ -328,7 +310,9 @@ public class SessionRecordService {
             record.setPaidAt(null);
         }
 
-        return mapToFullResponse(sessionRecordRepository.saveAndFlush(record));
+        SessionRecord updated = sessionRecordRepository.saveAndFlush(record);
+        revenueRollupService.recordChange(before, RevenueRollupService.Contribution.of(updated));
+        return mapToFullResponse(updated);
     }
 
     /**
@@ -340,7 +324,6 @@ public class SessionRecordService {
      * @return The newly created duplicate session record.
      * @throws RuntimeException if the original session is not found.
      */
-    @CacheEvict(value = {"dashboardStats", "monthlyStats"}, allEntries = true)
     public SessionRecordResponse duplicateSession(Long id) {
         log.info("📋 Duplicating session record: {}", id);
 
@@ -376,6 +359,7 @@ public class SessionRecordService {
                 .build();
 
         SessionRecord saved = sessionRecordRepository.save(duplicate);
+        revenueRollupService.recordChange(null, RevenueRollupService.Contribution.of(saved));
         return mapToFullResponse(saved);
     }
 
@@ -414,6 +398,28 @@ public class SessionRecordService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Resolves what the current user may export for the given month and student.
+     * Must be called on the request thread, where the security context is available.
+     *
+     * @param month The billing month in YYYY-MM format, or null for all months.
+     * @param studentId The student's unique identifier, or null for all students.
+     * @return The export filter scoped to the current tutor.
+     * @throws RuntimeException if the student is not found or belongs to another tutor.
+     */
+    @Transactional(readOnly = true)
+    public SessionRecordExportRepository.Filter exportFilter(String month, Long studentId) {
+        Long tutorId = getCurrentTutorId();
+        if (studentId != null) {
+            Student student = studentRepository.findById(studentId)
+                    .orElseThrow(() -> new RuntimeException("Không tìm thấy học sinh"));
+            if (tutorId != null && !student.getTutorId().equals(tutorId)) {
+                throw new RuntimeException("Không có quyền truy cập dữ liệu của học sinh này");
+            }
+        }
+        return new SessionRecordExportRepository.Filter(tutorId, month, studentId);
+    }
+
     /**
      * Retrieves a single session record with all attached documents and lessons.
      * 
@@ -439,7 +445,6 @@ public class SessionRecordService {
     /**
      * Specialized status update with validation and optimistic locking.
      */
-    @CacheEvict(value = {"dashboardStats", "monthlyStats"}, allEntries = true)
     public SessionRecordResponse updateStatus(Long id, LessonStatus next, Integer version) {
         Long tutorId = getCurrentTutorId();
         SessionRecord record;
@@ -454,9 +459,11 @@ public class SessionRecordService {
 
         checkVersion(record, version);
         statusTransitionValidator.validate(record.getStatus(), next);
+        RevenueRollupService.Contribution before = RevenueRollupService.Contribution.of(record);
         
         applyStatusChange(record, next);
         SessionRecord updated = sessionRecordRepository.saveAndFlush(record);
+        revenueRollupService.recordChange(before, RevenueRollupService.Contribution.of(updated));
         
         publishRescheduledEvent(updated);
         return mapToFullResponse(updated);
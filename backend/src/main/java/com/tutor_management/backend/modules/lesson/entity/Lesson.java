@@ -19,7 +19,9 @@ import java.util.Set;
  * Supports rich content via Markdown, video links, images, and downloadable resources.
  */
 @Entity
-@Table(name = "lessons")
+@Table(name = "lessons", indexes = {
+        @Index(name = "idx_lesson_tutor_created", columnList = "tutor_id, createdAt")
+})
 @Getter
 @Setter
 @NoArgsConstructor
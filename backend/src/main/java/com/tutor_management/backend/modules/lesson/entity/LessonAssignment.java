@@ -69,15 +69,16 @@ public class LessonAssignment {
 
     /**
      * Total number of times the student has accessed the lesson details.
+     * Written only by {@code WriteBehindCounters}, never by entity updates.
      */
-    @Column(name = "view_count", nullable = false)
+    @Column(name = "view_count", nullable = false, updatable = false)
     @Builder.Default
     private Integer viewCount = 0;
 
     /**
      * Most recent access timestamp.
      */
-    @Column(name = "last_viewed_at")
+    @Column(name = "last_viewed_at", updatable = false)
     private LocalDateTime lastViewedAt;
 
     @CreationTimestamp
@@ -90,11 +91,6 @@ public class LessonAssignment {
 
     // --- Progression Logic ---
 
-    public void incrementViewCount() {
-        this.viewCount++;
-        this.lastViewedAt = LocalDateTime.now();
-    }
-
     public void markAsCompleted() {
         this.isCompleted = true;
         this.completedAt = LocalDateTime.now();
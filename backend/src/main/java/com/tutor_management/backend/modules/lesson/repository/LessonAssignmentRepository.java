@@ -56,6 +56,12 @@ public interface LessonAssignmentRepository extends JpaRepository<LessonAssignme
     @EntityGraph(attributePaths = { "lesson" })
     Optional<LessonAssignment> findByLessonIdAndStudentId(Long lessonId, Long studentId);
 
+    /**
+     * Resolves the assignment ID of a lesson-student pair without loading the entity.
+     */
+    @Query("SELECT la.id FROM LessonAssignment la WHERE la.lesson.id = :lessonId AND la.student.id = :studentId")
+    Optional<Long> findIdByLessonIdAndStudentId(@Param("lessonId") Long lessonId, @Param("studentId") Long studentId);
+
     /**
      * Quick check for assignment existence.
      */
@@ -19,18 +19,28 @@ import com.tutor_management.backend.modules.lesson.projection.LessonSummaryProje
 public interface LessonRepository extends JpaRepository<Lesson, Long> {
 
     /**
-     * Retrieves all lessons with their associated student assignments.
-     * Filtered by tutor for multi-tenancy isolation.
+     * Retrieves all lessons with their associated student assignments (admin access).
      * 
-     * @param tutorId Optional tutor ID filter (NULL for admin access)
      * @param pageable Pagination information
      */
     @Query("SELECT DISTINCT l FROM Lesson l " +
            "LEFT JOIN FETCH l.assignments " +
-           "LEFT JOIN l.tutor t " +
-           "WHERE (:tutorId IS NULL OR (t.id IS NOT NULL AND t.id = :tutorId)) " +
            "ORDER BY l.createdAt DESC")
     org.springframework.data.domain.Page<Lesson> findAllWithAssignments(
+            org.springframework.data.domain.Pageable pageable);
+
+    /**
+     * Retrieves a tutor's lessons with their associated student assignments.
+     * Separate from the admin query so the tutor predicate can use idx_lesson_tutor_created.
+     * 
+     * @param tutorId Owning tutor
+     * @param pageable Pagination information
+     */
+    @Query("SELECT DISTINCT l FROM Lesson l " +
+           "LEFT JOIN FETCH l.assignments " +
+           "WHERE l.tutor.id = :tutorId " +
+           "ORDER BY l.createdAt DESC")
+    org.springframework.data.domain.Page<Lesson> findAllWithAssignmentsByTutorId(
             @org.springframework.data.repository.query.Param("tutorId") Long tutorId,
             org.springframework.data.domain.Pageable pageable);
 
@@ -74,19 +84,29 @@ public interface LessonRepository extends JpaRepository<Lesson, Long> {
             Pageable pageable);
 
     /**
-     * Retrieves all library lessons as full entities with tutor filtering.
+     * Retrieves all library lessons as full entities (admin access).
      * Returns lessons ordered by creation date (newest first).
      * 
-     * @param tutorId Optional tutor ID filter (NULL for admin access)
      * @param pageable The pagination information.
      * @return Page of library lessons.
      */
     @Query("SELECT l FROM Lesson l " +
-           "LEFT JOIN l.tutor t " +
            "WHERE l.isLibrary = true " +
-           "AND (:tutorId IS NULL OR (t.id IS NOT NULL AND t.id = :tutorId)) " +
            "ORDER BY l.createdAt DESC")
     org.springframework.data.domain.Page<Lesson> findByIsLibraryTrueOrderByCreatedAtDesc(
+            org.springframework.data.domain.Pageable pageable);
+
+    /**
+     * Retrieves a tutor's library lessons as full entities, newest first.
+     * 
+     * @param tutorId Owning tutor
+     * @param pageable The pagination information.
+     * @return Page of library lessons.
+     */
+    @Query("SELECT l FROM Lesson l " +
+           "WHERE l.tutor.id = :tutorId AND l.isLibrary = true " +
+           "ORDER BY l.createdAt DESC")
+    org.springframework.data.domain.Page<Lesson> findByIsLibraryTrueAndTutorIdOrderByCreatedAtDesc(
             @org.springframework.data.repository.query.Param("tutorId") Long tutorId,
             org.springframework.data.domain.Pageable pageable);
 
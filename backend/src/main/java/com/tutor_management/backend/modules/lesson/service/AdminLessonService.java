@@ -1,5 +1,6 @@
 package com.tutor_management.backend.modules.lesson.service;
 
+import com.tutor_management.backend.config.CacheInvalidator;
 import com.tutor_management.backend.modules.lesson.dto.request.CreateLessonRequest;
 import com.tutor_management.backend.modules.lesson.dto.response.AdminLessonResponse;
 import com.tutor_management.backend.exception.ResourceNotFoundException;
@@ -18,13 +19,10 @@ import com.tutor_management.backend.modules.student.entity.Student;
 import com.tutor_management.backend.modules.student.repository.StudentRepository;
 import com.tutor_management.backend.modules.tutor.entity.Tutor;
 import com.tutor_management.backend.modules.tutor.repository.TutorRepository;
-import com.tutor_management.backend.modules.auth.User;
 import com.tutor_management.backend.modules.auth.UserRepository;
+import com.tutor_management.backend.util.SecurityContextUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -54,6 +52,8 @@ public class AdminLessonService {
     private final UserRepository userRepository;
     private final CourseLessonRepository courseLessonRepository;
     private final LessonProgressRepository lessonProgressRepository;
+    private final CacheInvalidator cacheInvalidator;
+    private final SecurityContextUtils securityContextUtils;
 
     private static final String DEFAULT_TUTOR = "Thầy Quỳnh Long";
 
@@ -64,16 +64,7 @@ public class AdminLessonService {
      * @return Tutor ID or NULL for admin access
      */
     private Long getCurrentTutorId() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !(auth.getPrincipal() instanceof User user)) {
-            return null;
-        }
-        if ("ADMIN".equals(user.getRole())) {
-            return null; // Admin sees all lessons
-        }
-        return tutorRepository.findByUserId(user.getId())
-                .map(Tutor::getId)
-                .orElse(null);
+        return securityContextUtils.getCurrentTutorId();
     }
 
     /**
@@ -99,7 +90,6 @@ public class AdminLessonService {
      * @param request Creation parameters including optional student assignments.
      * @return List containing the created lesson details.
      */
-    @CacheEvict(value = "lessons", allEntries = true)
     public List<AdminLessonResponse> createLessonForStudents(CreateLessonRequest request) {
         log.info("📝 Creating library lesson '{}' for {} students", request.getTitle(), 
                 request.getStudentIds() != null ? request.getStudentIds().size() : 0);
@@ -127,8 +117,10 @@ public class AdminLessonService {
     @Transactional(readOnly = true)
     public Page<AdminLessonSummaryResponse> getAllLessons(Pageable pageable) {
         Long tutorId = getCurrentTutorId();
-        return lessonRepository.findAllWithAssignments(tutorId, pageable)
-                .map(this::mapToSummary);
+        Page<Lesson> lessons = tutorId != null
+                ? lessonRepository.findAllWithAssignmentsByTutorId(tutorId, pageable)
+                : lessonRepository.findAllWithAssignments(pageable);
+        return lessons.map(this::mapToSummary);
     }
 
     /**
@@ -146,7 +138,6 @@ public class AdminLessonService {
      * Updates a lesson's metadata and nested assets.
      * Verifies ownership before allowing updates.
      */
-    @CacheEvict(value = "lessons", allEntries = true)
     @Transactional
     public AdminLessonResponse updateLesson(Long id, CreateLessonRequest request) {
         Lesson lesson = lessonRepository.findByIdWithDetails(id)
@@ -154,6 +145,7 @@ public class AdminLessonService {
 
         verifyLessonOwnership(lesson);
         applyUpdateToLesson(lesson, request);
+        cacheInvalidator.evictLesson(id);
         return AdminLessonResponse.fromEntity(lessonRepository.save(lesson));
     }
 
@@ -161,7 +153,6 @@ public class AdminLessonService {
      * Permanently removes a lesson and its student progress records.
      * Verifies ownership before allowing deletion.
      */
-    @CacheEvict(value = "lessons", allEntries = true)
     @Transactional
     public void deleteLesson(Long id) {
         Lesson lesson = lessonRepository.findByIdWithDetails(id)
@@ -183,6 +174,7 @@ public class AdminLessonService {
         }
         
         lessonRepository.delete(lesson);
+        cacheInvalidator.evictLesson(id);
         
         log.info("✅ Deleted lesson {} and removed {} student assignments", id, count);
     }
@@ -190,7 +182,6 @@ public class AdminLessonService {
     /**
      * Visibility toggle for lesson records.
      */
-    @CacheEvict(value = "lessons", allEntries = true)
     @Transactional
     public AdminLessonResponse togglePublish(Long id) {
         Lesson lesson = lessonRepository.findByIdWithDetails(id)
@@ -198,6 +189,7 @@ public class AdminLessonService {
 
         if (lesson.getIsPublished()) lesson.unpublish();
         else lesson.publish();
+        cacheInvalidator.evictLesson(id);
 
         return AdminLessonResponse.fromEntity(lessonRepository.save(lesson));
     }
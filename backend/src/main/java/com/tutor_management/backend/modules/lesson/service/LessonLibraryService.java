@@ -1,5 +1,6 @@
 package com.tutor_management.backend.modules.lesson.service;
 
+import com.tutor_management.backend.config.CacheInvalidator;
 import com.tutor_management.backend.modules.lesson.dto.request.CreateLessonRequest;
 import com.tutor_management.backend.modules.lesson.dto.response.LibraryLessonResponse;
 import com.tutor_management.backend.modules.lesson.entity.Lesson;
@@ -19,7 +20,6 @@ import com.tutor_management.backend.modules.course.repository.LessonProgressRepo
 import com.tutor_management.backend.modules.finance.repository.SessionRecordRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -51,6 +51,7 @@ public class LessonLibraryService {
     private final CourseLessonRepository courseLessonRepository;
     private final LessonProgressRepository lessonProgressRepository;
     private final com.tutor_management.backend.util.SecurityContextUtils securityContextUtils;
+    private final CacheInvalidator cacheInvalidator;
 
     /**
      * Resolves the current tutor ID from the security context.
@@ -92,8 +93,10 @@ public class LessonLibraryService {
     @Transactional(readOnly = true)
     public Page<LibraryLessonResponse> getAllLibraryLessons(Pageable pageable) {
         Long tutorId = getCurrentTutorId();
-        return lessonRepository.findAllWithAssignments(tutorId, pageable)
-                .map(LibraryLessonResponse::fromEntity);
+        Page<Lesson> lessons = tutorId != null
+                ? lessonRepository.findAllWithAssignmentsByTutorId(tutorId, pageable)
+                : lessonRepository.findAllWithAssignments(pageable);
+        return lessons.map(LibraryLessonResponse::fromEntity);
     }
 
     /**
@@ -103,8 +106,10 @@ public class LessonLibraryService {
     @Transactional(readOnly = true)
     public Page<LibraryLessonResponse> getUnassignedLessons(Pageable pageable) {
         Long tutorId = getCurrentTutorId();
-        return lessonRepository.findByIsLibraryTrueOrderByCreatedAtDesc(tutorId, pageable)
-                .map(LibraryLessonResponse::fromEntity);
+        Page<Lesson> lessons = tutorId != null
+                ? lessonRepository.findByIsLibraryTrueAndTutorIdOrderByCreatedAtDesc(tutorId, pageable)
+                : lessonRepository.findByIsLibraryTrueOrderByCreatedAtDesc(pageable);
+        return lessons.map(LibraryLessonResponse::fromEntity);
     }
 
     /**
@@ -133,7 +138,6 @@ public class LessonLibraryService {
     /**
      * Creates a new lesson record directly into the library.
      */
-    @CacheEvict(value = "lessons", allEntries = true)
     public LibraryLessonResponse createLibraryLesson(CreateLessonRequest request) {
         // Resolve current tutor
         Long currentTutorId = getCurrentTutorId();
@@ -160,7 +164,6 @@ public class LessonLibraryService {
      * Assigns an existing library lesson to a list of students.
      * Prevents duplicate assignments.
      */
-    @CacheEvict(value = "lessons", allEntries = true)
     public void assignLessonToStudents(Long lessonId, List<Long> studentIds, String assignedBy) {
         Lesson lesson = lessonRepository.findByIdWithDetails(lessonId)
                 .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy bài giảng."));
@@ -178,6 +181,8 @@ public class LessonLibraryService {
 
         if (!assignments.isEmpty()) {
             assignmentRepository.saveAll(assignments);
+            // Students who saw it as classwork are now cached without the assignment
+            cacheInvalidator.evictLesson(lessonId, studentIds);
             if (lesson.getIsLibrary()) {
                 lesson.markAsAssigned();
                 lessonRepository.save(lesson);
@@ -189,11 +194,11 @@ public class LessonLibraryService {
      * Revokes lesson access from specific students.
      * Reverts lesson to 'Library' status if no students remain assigned.
      */
-    @CacheEvict(value = "lessons", allEntries = true)
     public void unassignLessonFromStudents(Long lessonId, List<Long> studentIds) {
         for (Long id : studentIds) {
             assignmentRepository.deleteByLessonIdAndStudentId(lessonId, id);
         }
+        cacheInvalidator.evictLesson(lessonId, studentIds);
 
         if (assignmentRepository.countByLessonId(lessonId) == 0) {
             Lesson lesson = lessonRepository.findByIdWithDetails(lessonId).orElse(null);
@@ -217,7 +222,6 @@ public class LessonLibraryService {
     /**
      * Deletes a lesson from the library and all its historical assignments.
      */
-    @CacheEvict(value = "lessons", allEntries = true)
     public void deleteLibraryLesson(Long lessonId) {
         Lesson lesson = lessonRepository.findByIdWithDetails(lessonId)
                 .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy bài giảng."));
@@ -237,6 +241,7 @@ public class LessonLibraryService {
         }
 
         lessonRepository.delete(lesson);
+        cacheInvalidator.evictLesson(lessonId);
         log.info("✅ Deleted library lesson {} and all references", lessonId);
     }
 }
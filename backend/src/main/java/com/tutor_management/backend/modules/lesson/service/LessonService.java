@@ -23,6 +23,7 @@ import com.tutor_management.backend.modules.lesson.dto.response.LessonResponse;
 import com.tutor_management.backend.modules.lesson.dto.response.LessonStatsResponse;
 import com.tutor_management.backend.modules.lesson.dto.response.StudentLessonSummaryResponse;
 import com.tutor_management.backend.modules.lesson.dto.response.LessonCategoryResponse;
+import com.tutor_management.backend.modules.shared.service.WriteBehindCounters;
 import com.tutor_management.backend.modules.student.repository.StudentRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -38,11 +39,15 @@ import lombok.extern.slf4j.Slf4j;
 @Transactional
 public class LessonService {
 
+    static final WriteBehindCounters.Target VIEWS =
+            new WriteBehindCounters.Target("lesson.views", "lesson_assignments", "view_count", "last_viewed_at");
+
     private final LessonRepository lessonRepository;
     private final LessonAssignmentRepository assignmentRepository;
     private final StudentRepository studentRepository;
     private final CourseAssignmentService courseAssignmentService;
     private final SessionRecordRepository sessionRecordRepository;
+    private final WriteBehindCounters writeBehindCounters;
 
     /**
      * Retrieves all lessons assigned to a specific student.
@@ -62,7 +67,7 @@ public class LessonService {
      * Retrieves a single lesson assignment for a student.
      * Validates that the lesson is officially assigned to the student OR linked to a session.
      */
-    @Cacheable(value = "lessons", key = "'lesson-' + #lessonId + '-student-' + #studentId")
+    @Cacheable(value = "lessons", key = "T(com.tutor_management.backend.config.CacheKeys).lesson(#lessonId, #studentId)")
     @Transactional(readOnly = true)
     public LessonResponse getLessonById(Long lessonId, Long studentId) {
         // 1. Try to find explicit homework assignment (Primary access)
@@ -115,22 +120,22 @@ public class LessonService {
 
     /**
      * Records a view event for a lesson.
+     * The view count and last-viewed time are written behind, see {@link WriteBehindCounters}.
      */
-    @Transactional
+    @Transactional(readOnly = true)
     public void incrementViewCount(Long lessonId, Long studentId) {
-        LessonAssignment assignment = assignmentRepository.findByLessonIdAndStudentId(lessonId, studentId)
+        Long assignmentId = assignmentRepository.findIdByLessonIdAndStudentId(lessonId, studentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy bản ghi bài học của học sinh."));
 
-        assignment.incrementViewCount();
-        assignmentRepository.save(assignment);
-        log.debug("Incremented view count for student {} on lesson {}", studentId, lessonId);
+        writeBehindCounters.increment(VIEWS, assignmentId);
+        log.debug("Counted view for student {} on lesson {}", studentId, lessonId);
     }
 
     /**
      * Marks a lesson as completed for a student.
      * Triggers course progress updates.
      */
-    @CacheEvict(value = "lessons", allEntries = true)
+    @CacheEvict(value = "lessons", key = "T(com.tutor_management.backend.config.CacheKeys).lesson(#lessonId, #studentId)")
     @Transactional
     public LessonResponse markAsCompleted(Long lessonId, Long studentId) {
         LessonAssignment assignment = assignmentRepository.findByLessonIdAndStudentId(lessonId, studentId)
@@ -149,7 +154,7 @@ public class LessonService {
     /**
      * Reverts a lesson to 'Incomplete' status for a student.
      */
-    @CacheEvict(value = "lessons", allEntries = true)
+    @CacheEvict(value = "lessons", key = "T(com.tutor_management.backend.config.CacheKeys).lesson(#lessonId, #studentId)")
     @Transactional
     public LessonResponse markAsIncomplete(Long lessonId, Long studentId) {
         LessonAssignment assignment = assignmentRepository.findByLessonIdAndStudentId(lessonId, studentId)
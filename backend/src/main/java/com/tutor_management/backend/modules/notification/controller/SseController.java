@@ -7,12 +7,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
-
 /**
  * Controller specifically for SSE (Server-Sent Events) streaming.
  * 
@@ -33,29 +33,29 @@ public class SseController {
      * The connection remains open (24h timeout) to allow the backend to push 
      * notifications immediately as they occur via SseEmittersManager.
      * 
+     * A reconnecting client passes the ID of the last event it received, either in the
+     * standard Last-Event-ID header or (for clients that recreate their EventSource and
+     * therefore cannot set it) the {@code lastEventId} query parameter, and is replayed
+     * the notifications it missed.
+     * 
      * @param user The authenticated user to link the stream to
+     * @param lastEventIdHeader Last-Event-ID sent by the browser on automatic reconnect
+     * @param lastEventIdParam Same value supplied explicitly by the client
      * @return An active SseEmitter instance
      */
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter stream(@AuthenticationPrincipal User user) {
+    public SseEmitter stream(@AuthenticationPrincipal User user,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                             @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
         log.info("New SSE subscription request from User: {}", user.getId());
         
         // Initiate emitter with an extended timeout (24 hours) as per UI requirements
         SseEmitter emitter = new SseEmitter(24 * 60 * 60 * 1000L);
         
-        // Register connection for real-time routing
-        sseEmittersManager.addEmitter(user.getId(), emitter);
-
-        // Send confirmation 'connected' event to the client
-        try {
-            emitter.send(SseEmitter.event()
-                    .name("connected")
-                    .data("SSE connection established successfully"));
-            log.debug("Confirmation heartbeat sent to user {}", user.getId());
-        } catch (IOException e) {
-            log.error("Failed to establish stream for user {}: {}", user.getId(), e.getMessage());
-            sseEmittersManager.removeEmitter(user.getId());
-        }
+        // Register connection for real-time routing (a user may keep several tabs open).
+        // The manager queues the 'connected' confirmation followed by any missed notifications.
+        String lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        sseEmittersManager.addEmitter(user.getId(), emitter, lastEventId);
 
         return emitter;
     }
@@ -1,5 +1,6 @@
 package com.tutor_management.backend.modules.notification.dto.response;
 
+import com.tutor_management.backend.modules.notification.entity.Notification;
 import com.tutor_management.backend.modules.notification.enums.NotificationType;
 import lombok.Builder;
 import lombok.Data;
@@ -30,4 +31,15 @@ public class NotificationResponse {
     
     /** Timestamp of when the notification was generated */
     private LocalDateTime createdAt;
+
+    public static NotificationResponse fromEntity(Notification notification) {
+        return NotificationResponse.builder()
+                .id(notification.getId())
+                .title(notification.getTitle())
+                .content(notification.getContent())
+                .isRead(notification.isRead())
+                .type(notification.getType())
+                .createdAt(notification.getCreatedAt())
+                .build();
+    }
 }
@@ -16,12 +16,18 @@ import com.tutor_management.backend.modules.notification.event.SessionCreatedEve
 import com.tutor_management.backend.modules.notification.event.SessionRescheduledEvent;
 import com.tutor_management.backend.modules.exercise.repository.ExerciseAssignmentRepository;
 import com.tutor_management.backend.modules.notification.service.NotificationService;
+import com.tutor_management.backend.config.AsyncConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * Event Listener for Notification module.
@@ -29,6 +35,10 @@ import org.springframework.transaction.annotation.Transactional;
  * 
  * Follows the Single Responsibility Principle by delegating persistence and 
  * SSE delivery to the NotificationService.
+ * 
+ * Handlers run on the notification executor once the publishing transaction has
+ * committed (or immediately when there is none), so the request thread never pays
+ * for recipient lookups, inserts or SSE pushes, and rolled-back work never notifies.
  */
 @Component
 @RequiredArgsConstructor
@@ -43,8 +53,9 @@ public class NotificationListener {
      * Handles when a student submits an exam. Notifies the tutor.
      * @param event The exam submission event details
      */
-    @EventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
     public void handleExamSubmitted(ExamSubmittedEvent event) {
         log.info("Processing ExamSubmittedEvent for submission: {}", event.getSubmissionId());
         
@@ -69,8 +80,9 @@ public class NotificationListener {
      * Handles when a tutor grades an exam. Notifies the student.
      * @param event The exam grading event details
      */
-    @EventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
     public void handleExamGraded(ExamGradedEvent event) {
         log.info("Processing ExamGradedEvent for submission: {}", event.getSubmissionId());
         
@@ -96,8 +108,9 @@ public class NotificationListener {
      * Handles when a tutor assigns a new exercise to a student.
      * @param event The exercise assignment details
      */
-    @EventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
     public void handleExerciseAssigned(ExerciseAssignedEvent event) {
         log.info("Processing ExerciseAssignedEvent for student: {}", event.getStudentId());
         try {
@@ -122,8 +135,9 @@ public class NotificationListener {
      * Notifies all students currently assigned to this exercise.
      * @param event The exercise update details
      */
-    @EventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
     public void handleExerciseUpdated(ExerciseUpdatedEvent event) {
         log.info("Processing ExerciseUpdatedEvent for exercise: {}", event.getExerciseId());
         
@@ -133,24 +147,23 @@ public class NotificationListener {
                 return;
             }
 
+            Set<Long> studentIds = new LinkedHashSet<>();
             for (var assignment : assignments) {
                 try {
-                    Long studentId = Long.parseLong(assignment.getStudentId());
-                    User student = userRepository.findById(studentId).orElse(null);
-                    if (student == null) continue;
-
-                    notificationService.createAndSend(
-                            student,
-                            "Bài tập đã cập nhật",
-                            String.format("Giáo viên %s đã cập nhật nội dung bài tập: %s. Vui lòng kiểm tra lại.", 
-                                    event.getTutorName(), event.getExerciseTitle()),
-                            NotificationType.EXAM_UPDATED
-                    );
-                } catch (Exception e) {
+                    studentIds.add(Long.parseLong(assignment.getStudentId()));
+                } catch (NumberFormatException e) {
                     log.warn("Could not notify student {} for exercise update {}", 
                             assignment.getStudentId(), event.getExerciseId());
                 }
             }
+
+            notificationService.createAndSendToAll(
+                    studentIds,
+                    "Bài tập đã cập nhật",
+                    String.format("Giáo viên %s đã cập nhật nội dung bài tập: %s. Vui lòng kiểm tra lại.", 
+                            event.getTutorName(), event.getExerciseTitle()),
+                    NotificationType.EXAM_UPDATED
+            );
         } catch (Exception e) {
             log.error("Critical error in handleExerciseUpdated for exercise {}: {}", 
                     event.getExerciseId(), e.getMessage());
@@ -161,8 +174,9 @@ public class NotificationListener {
      * Handles when a new recurring schedule is created for a student.
      * @param event The schedule creation details
      */
-    @EventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
     public void handleScheduleCreated(ScheduleCreatedEvent event) {
         log.info("Processing ScheduleCreatedEvent for student: {}", event.getStudentId());
         try {
@@ -187,8 +201,9 @@ public class NotificationListener {
      * Handles when a student's existing recurring schedule is modified.
      * @param event The schedule update details
      */
-    @EventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
     public void handleScheduleUpdated(ScheduleUpdatedEvent event) {
         log.info("Processing ScheduleUpdatedEvent for student: {}", event.getStudentId());
         try {
@@ -213,8 +228,9 @@ public class NotificationListener {
      * Handles when a single manual session is created.
      * @param event The session record details
      */
-    @EventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
     public void handleSessionCreated(SessionCreatedEvent event) {
         log.info("Processing SessionCreatedEvent for student: {}", event.getStudentId());
         try {
@@ -239,8 +255,9 @@ public class NotificationListener {
      * Handles when a manual session is rescheduled or its time is changed.
      * @param event The session rescheduling details
      */
-    @EventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
     public void handleSessionRescheduled(SessionRescheduledEvent event) {
         log.info("Processing SessionRescheduledEvent for student: {}", event.getStudentId());
         try {
@@ -267,8 +284,9 @@ public class NotificationListener {
      * 
      * @param event The online session creation details
      */
-    @EventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
     public void handleOnlineSessionCreated(OnlineSessionCreatedEvent event) {
         log.info("Processing OnlineSessionCreatedEvent for room: {}", event.getRoomId());
         
@@ -333,8 +351,9 @@ public class NotificationListener {
      * 
      * @param event The session end details
      */
-    @EventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
     public void handleOnlineSessionEnded(OnlineSessionEndedEvent event) {
         log.info("Processing OnlineSessionEndedEvent for room: {}", event.getRoomId());
 
@@ -383,8 +402,9 @@ public class NotificationListener {
      * 
      * @param event The session conversion details
      */
-    @EventListener
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Async(AsyncConfig.NOTIFICATION_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
     public void handleSessionConvertedToOnline(SessionConvertedToOnlineEvent event) {
         log.info("Processing SessionConvertedToOnlineEvent for session: {}", event.getSessionId());
         
@@ -0,0 +1,223 @@
+package com.tutor_management.backend.modules.notification.service;
+
+import com.tutor_management.backend.modules.auth.UserRepository;
+import com.tutor_management.backend.modules.notification.dto.response.NotificationResponse;
+import com.tutor_management.backend.modules.notification.entity.Notification;
+import com.tutor_management.backend.modules.notification.enums.NotificationType;
+import com.tutor_management.backend.modules.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists and delivers notifications off the caller's thread.
+ * <p>
+ * Notifications are queued in a bounded buffer and drained by a single worker that
+ * inserts whatever has accumulated (up to the batch size) in one transaction, then
+ * pushes each saved notification over SSE. When the buffer is full the caller writes
+ * its own notification synchronously instead of dropping it.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final SseEmittersManager sseEmittersManager;
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<PendingNotification> queue;
+    private final int batchSize;
+    private volatile boolean running = true;
+    private Thread worker;
+
+    private final Counter persistedCounter;
+    private final Counter failureCounter;
+    private final Counter backpressureCounter;
+    private final Timer batchTimer;
+    private final Timer deliveryLatency;
+
+    /**
+     * A notification waiting to be written.
+     *
+     * @param enqueuedAtNanos {@link System#nanoTime()} at enqueue, for the delivery latency metric
+     */
+    public record PendingNotification(Long recipientId, String title, String content, NotificationType type,
+                                      long enqueuedAtNanos) {
+    }
+
+    public NotificationDispatcher(NotificationRepository notificationRepository,
+                                  UserRepository userRepository,
+                                  SseEmittersManager sseEmittersManager,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.notification.dispatch.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${app.notification.dispatch.batch-size:100}") int batchSize) {
+        this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.sseEmittersManager = sseEmittersManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+
+        this.persistedCounter = meterRegistry.counter("notification.dispatch.persisted");
+        this.failureCounter = meterRegistry.counter("notification.dispatch.failures");
+        this.backpressureCounter = meterRegistry.counter("notification.dispatch.backpressure");
+        this.batchTimer = meterRegistry.timer("notification.dispatch.batch");
+        this.deliveryLatency = meterRegistry.timer("notification.dispatch.latency");
+        Gauge.builder("notification.dispatch.queue.depth", queue, BlockingQueue::size)
+                .description("Notifications waiting to be persisted and pushed")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        worker = new Thread(this::drainLoop, "notification-dispatch");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Queues a notification for persistence and SSE delivery.
+     */
+    public void submit(Long recipientId, String title, String content, NotificationType type) {
+        PendingNotification pending = new PendingNotification(recipientId, title, content, type, System.nanoTime());
+        if (!queue.offer(pending)) {
+            // Buffer is full: the caller pays for its own write rather than losing it
+            backpressureCounter.increment();
+            process(List.of(pending));
+        }
+    }
+
+    /**
+     * Persists the same notification for many recipients in a single batch and pushes
+     * them to every recipient's connections. Runs on the caller's thread, which is expected to be off the request path.
+     */
+    public void dispatchAll(Collection<Long> recipientIds, String title, String content, NotificationType type) {
+        long now = System.nanoTime();
+        List<PendingNotification> batch = new ArrayList<>(recipientIds.size());
+        for (Long recipientId : recipientIds) {
+            batch.add(new PendingNotification(recipientId, title, content, type, now));
+        }
+        if (!batch.isEmpty()) {
+            process(batch);
+        }
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void drainLoop() {
+        List<PendingNotification> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingNotification first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Notification dispatch loop error: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes a batch in one transaction and pushes the saved rows. If the batch fails
+     * (e.g. one recipient no longer exists) each notification is retried on its own so a
+     * single bad row does not take the others down with it.
+     */
+    void process(List<PendingNotification> batch) {
+        List<Notification> saved;
+        try {
+            saved = persist(batch);
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                failureCounter.increment();
+                log.error("Failed to persist {} notification for user {}: {}",
+                        batch.get(0).type(), batch.get(0).recipientId(), e.getMessage());
+                return;
+            }
+            log.warn("Notification batch of {} failed, retrying individually: {}", batch.size(), e.getMessage());
+            for (PendingNotification pending : batch) {
+                process(List.of(pending));
+            }
+            return;
+        }
+
+        // SseEmittersManager.send only enqueues, so pushing a large batch does not block on slow clients
+        for (int i = 0; i < saved.size(); i++) {
+            deliver(batch.get(i), NotificationResponse.fromEntity(saved.get(i)));
+        }
+    }
+
+    private void deliver(PendingNotification pending, NotificationResponse response) {
+        sseEmittersManager.send(pending.recipientId(), response);
+        deliveryLatency.record(System.nanoTime() - pending.enqueuedAtNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private List<Notification> persist(List<PendingNotification> batch) {
+        Timer.Sample sample = Timer.start();
+        List<Notification> saved = transactionTemplate.execute(status -> {
+            List<Notification> entities = new ArrayList<>(batch.size());
+            for (PendingNotification pending : batch) {
+                entities.add(Notification.builder()
+                        // Reference only: the recipient row is not loaded
+                        .recipient(userRepository.getReferenceById(pending.recipientId()))
+                        .title(pending.title())
+                        .content(pending.content())
+                        .type(pending.type())
+                        .isRead(false)
+                        .build());
+            }
+            return notificationRepository.saveAll(entities);
+        });
+        sample.stop(batchTimer);
+        persistedCounter.increment(batch.size());
+        log.debug("Persisted batch of {} notifications", batch.size());
+        return saved;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (worker != null) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<PendingNotification> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            process(remaining);
+        }
+        log.info("Notification dispatcher drained on shutdown");
+    }
+}
@@ -1,6 +1,7 @@
 package com.tutor_management.backend.modules.notification.service;
 
 import com.tutor_management.backend.modules.auth.User;
+import com.tutor_management.backend.modules.auth.UserRepository;
 import com.tutor_management.backend.modules.notification.dto.response.NotificationResponse;
 import com.tutor_management.backend.modules.notification.entity.Notification;
 import com.tutor_management.backend.modules.notification.enums.NotificationType;
@@ -10,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,7 +27,8 @@ import java.util.stream.Collectors;
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
-    private final SseEmittersManager sseEmittersManager;
+    private final NotificationDispatcher notificationDispatcher;
+    private final UserRepository userRepository;
 
     /**
      * Retrieves all notifications for a specific user, sorted by date descending.
@@ -36,34 +39,50 @@ public class NotificationService {
     public List<NotificationResponse> getNotifications(Long userId) {
         return notificationRepository.findByRecipientIdOrderByCreatedAtDesc(userId)
                 .stream()
-                .map(this::mapToResponse)
+                .map(NotificationResponse::fromEntity)
                 .collect(Collectors.toList());
     }
 
     /**
      * Unified method to create a new notification, persist it, and broadcast it 
-     * to the user's active SSE connection if available.
+     * to the user's active SSE connections if available.
+     * 
+     * Returns immediately: persistence and delivery are batched by {@link NotificationDispatcher}.
      * 
      * @param recipient The targeted user entity
      * @param title Short summary of the notification
      * @param content Full message body
      * @param type Categorization for UI display
      */
-    @Transactional
     public void createAndSend(User recipient, String title, String content, NotificationType type) {
-        Notification notification = Notification.builder()
-                .recipient(recipient)
-                .title(title)
-                .content(content)
-                .type(type)
-                .isRead(false)
-                .build();
+        notificationDispatcher.submit(recipient.getId(), title, content, type);
+        log.debug("Queued {} notification for user {}", type, recipient.getId());
+    }
 
-        Notification saved = notificationRepository.save(notification);
-        log.info("Persisted {} notification for user {}", type, recipient.getId());
-        
-        // Asynchronous delivery attempt via SSE (best effort)
-        sseEmittersManager.send(recipient.getId(), mapToResponse(saved));
+    /**
+     * Bulk variant of {@link #createAndSend} for notifying many users at once
+     * (e.g. a whole class). Recipients are resolved with a single query, unknown IDs
+     * are skipped, all notifications are inserted in one batch and pushed in parallel.
+     * 
+     * @param recipientIds Internal IDs of the targeted users
+     * @param title Short summary of the notification
+     * @param content Full message body
+     * @param type Categorization for UI display
+     * @return Number of recipients notified
+     */
+    public int createAndSendToAll(Collection<Long> recipientIds, String title, String content, NotificationType type) {
+        if (recipientIds.isEmpty()) {
+            return 0;
+        }
+        List<Long> existing = userRepository.findAllById(recipientIds).stream()
+                .map(User::getId)
+                .toList();
+        if (existing.size() < recipientIds.size()) {
+            log.warn("Skipping {} unknown recipients for {} notification", recipientIds.size() - existing.size(), type);
+        }
+        notificationDispatcher.dispatchAll(existing, title, content, type);
+        log.info("Sent {} notification to {} users", type, existing.size());
+        return existing.size();
     }
 
     /**
@@ -106,15 +125,4 @@ public class NotificationService {
             log.info("Batch marked {} notifications as read for user {}", unread.size(), userId);
         }
     }
-
-    private NotificationResponse mapToResponse(Notification notification) {
-        return NotificationResponse.builder()
-                .id(notification.getId())
-                .title(notification.getTitle())
-                .content(notification.getContent())
-                .isRead(notification.isRead())
-                .type(notification.getType())
-                .createdAt(notification.getCreatedAt())
-                .build();
-    }
 }
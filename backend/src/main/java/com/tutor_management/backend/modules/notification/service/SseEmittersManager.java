@@ -1,102 +1,472 @@
 package com.tutor_management.backend.modules.notification.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Component responsible for managing active SSE (Server-Sent Events) connections.
- * 
- * Uses a thread-safe map to track emitters per user ID and handles lifecycle 
- * events like completion, timeouts, and errors.
+ *
+ * A user may hold several connections (one per tab/device); all of them receive every
+ * event. Connections are kept in a fixed number of shards keyed by user ID.
+ *
+ * Sends never run on the caller's thread: each connection has its own outbound queue,
+ * drained by at most one task at a time on a virtual-thread executor, so events stay
+ * in order per connection and a slow client only ever blocks its own drain task.
+ * Connections whose send has been stuck longer than the send timeout, or whose backlog
+ * overflows, are closed and dropped (the browser's EventSource reconnects by itself).
+ *
+ * Notification events carry IDs of the form {@code <epoch>-<sequence>} and the last
+ * few per user are kept in a ring buffer, so a reconnecting client that presents its
+ * Last-Event-ID gets exactly what it missed without a database round trip. The
+ * {@code connected} event carries the stream position in the same form. When that
+ * is impossible (buffer overrun, expired, or the server restarted) the client receives
+ * a {@code resync} event and should reload its notifications.
  */
 @Service
 @Slf4j
 public class SseEmittersManager {
 
-    /** Memory store for active emitters: UserID -> SseEmitter */
-    private final Map<Long, SseEmitter> emitters = new ConcurrentHashMap<>();
+    private static final int SHARDS = 16; // power of two
+    private static final Duration REPLAY_RETENTION = Duration.ofMinutes(30);
+    private static final long MAX_REPLAY_USERS = 50_000;
+
+    /** Memory store for active connections: UserID -> connections, split into shards */
+    @SuppressWarnings("unchecked")
+    private final Map<Long, List<Connection>>[] shards = new Map[SHARDS];
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    /** Distinguishes event IDs of this process from those issued before a restart */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Cache<Long, ReplayBuffer> replayBuffers = Caffeine.newBuilder()
+            .expireAfterAccess(REPLAY_RETENTION)
+            .maximumSize(MAX_REPLAY_USERS)
+            .build();
+    private final ExecutorService sendExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("sse-send-", 0).factory());
+
+    private final Timer sendTimer;
+    private final Counter sendFailureCounter;
+    private final Counter evictionCounter;
+    private final Counter replayedCounter;
+    private final Counter resyncCounter;
+
+    @Value("${app.notification.sse.max-connections-per-user:5}")
+    private int maxConnectionsPerUser = 5;
+
+    @Value("${app.notification.sse.send-timeout-ms:10000}")
+    private long sendTimeoutMillis = 10000;
+
+    @Value("${app.notification.sse.max-pending-per-connection:100}")
+    private int maxPendingPerConnection = 100;
+
+    @Value("${app.notification.sse.replay-buffer-size:50}")
+    private int replayBufferSize = 50;
+
+    public SseEmittersManager(MeterRegistry meterRegistry) {
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new ConcurrentHashMap<>();
+        }
+        this.sendTimer = meterRegistry.timer("sse.send.latency");
+        this.sendFailureCounter = meterRegistry.counter("sse.send.failures");
+        this.evictionCounter = meterRegistry.counter("sse.connections.evicted");
+        this.replayedCounter = meterRegistry.counter("sse.replay.events");
+        this.resyncCounter = meterRegistry.counter("sse.replay.resync");
+        Gauge.builder("sse.connections.active", activeConnections, AtomicInteger::get)
+                .description("Open SSE connections across all users")
+                .register(meterRegistry);
+        Gauge.builder("sse.users.connected", this, SseEmittersManager::connectedUsers)
+                .description("Users with at least one open SSE connection")
+                .register(meterRegistry);
+    }
+
+    /**
+     * An outbound SSE event. Built into a fresh {@link SseEmitter.SseEventBuilder}
+     * per connection, since builders cannot be sent twice.
+     */
+    private record Event(String id, String name, Object data) {
+    }
+
+    /**
+     * Registers a new SSE connection for a user without replay.
+     * @see #addEmitter(Long, SseEmitter, String)
+     */
+    public void addEmitter(Long userId, SseEmitter emitter) {
+        addEmitter(userId, emitter, null);
+    }
 
     /**
      * Registers a new SSE connection for a user.
-     * Configures automatic cleanup for connection termination.
-     * 
+     * Configures automatic cleanup for connection termination. When the user already
+     * has the maximum number of connections, the oldest one is closed.
+     * The connection first receives a {@code connected} event carrying the current stream
+     * position as its ID, then any buffered notifications newer than {@code lastEventId}.
+     *
      * @param userId Recipient user identifier
      * @param emitter The emitter instance from the controller
+     * @param lastEventId ID of the last event the client saw, or null on a fresh connect
      */
-    public void addEmitter(Long userId, SseEmitter emitter) {
+    public void addEmitter(Long userId, SseEmitter emitter, String lastEventId) {
         log.info("Establishing new SSE connection for user: {}", userId);
-        
+        Connection connection = new Connection(userId, emitter);
+
         emitter.onCompletion(() -> {
             log.debug("SSE connection completed for user: {}", userId);
-            emitters.remove(userId);
+            remove(connection);
         });
 
         emitter.onTimeout(() -> {
             log.debug("SSE connection timed out for user: {}", userId);
-            emitters.remove(userId);
+            remove(connection);
         });
 
         emitter.onError((ex) -> {
-            log.error("SSE connection encounterred error for user: {}", userId, ex);
-            emitters.remove(userId);
+            log.warn("SSE connection encountered error for user {}: {}", userId, ex.getMessage());
+            remove(connection);
         });
 
-        emitters.put(userId, emitter);
+        ReplayBuffer buffer = replayBuffer(userId);
+        Connection[] evicted = new Connection[1];
+        // Registration and replay happen under the buffer lock that send() takes, so no
+        // notification can slip in between (lost) or be delivered twice
+        synchronized (buffer) {
+            shard(userId).compute(userId, (id, connections) -> {
+                if (connections == null) {
+                    connections = new CopyOnWriteArrayList<>();
+                }
+                if (connections.size() >= maxConnectionsPerUser) {
+                    evicted[0] = connections.remove(0);
+                }
+                connections.add(connection);
+                return connections;
+            });
+            activeConnections.incrementAndGet();
+
+            List<Event> missed = lastEventId != null ? missedSince(buffer, lastEventId) : null;
+            // The connected event marks where this stream starts, so even a client that has not
+            // received a notification yet can resume from it; replayed events then move it forward
+            String position = missed != null ? lastEventId : epoch + "-" + sequence.get();
+            connection.enqueue(new Event(position, "connected", "SSE connection established successfully"));
+            if (missed != null) {
+                missed.forEach(connection::enqueue);
+                replayedCounter.increment(missed.size());
+                log.debug("Replayed {} missed notification(s) to user {}", missed.size(), userId);
+            } else if (lastEventId != null) {
+                resyncCounter.increment();
+                connection.enqueue(new Event(null, "resync", "replay-unavailable"));
+            }
+        }
+        if (evicted[0] != null) {
+            if (evicted[0].removed.compareAndSet(false, true)) {
+                activeConnections.decrementAndGet();
+            }
+            evicted[0].close("connection limit reached");
+        }
+    }
+
+    /**
+     * Buffered events newer than {@code lastEventId}, or null if they cannot be replayed.
+     */
+    private List<Event> missedSince(ReplayBuffer buffer, String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator > 0 && lastEventId.substring(0, separator).equals(epoch)) {
+            try {
+                return buffer.after(Long.parseLong(lastEventId.substring(separator + 1)));
+            } catch (NumberFormatException e) {
+                log.debug("Ignoring malformed Last-Event-ID {}", lastEventId);
+            }
+        }
+        return null;
     }
 
     /**
-     * Explicitly terminates and removes a user's SSE connection.
+     * Explicitly terminates and removes one SSE connection of a user.
      * @param userId Target user ID
+     * @param emitter The connection's emitter
      */
-    public void removeEmitter(Long userId) {
+    public void removeEmitter(Long userId, SseEmitter emitter) {
         log.info("Manually removing SSE connection for user: {}", userId);
-        emitters.remove(userId);
+        List<Connection> connections = shard(userId).get(userId);
+        if (connections != null) {
+            for (Connection connection : connections) {
+                if (connection.emitter == emitter) {
+                    remove(connection);
+                }
+            }
+        }
     }
 
     /**
-     * Attempts to send a live data payload to a user.
-     * If no emitter is found, the data is not sent (caller usually handles DB persistence).
-     * 
+     * Queues a live data payload for every connection of a user and returns immediately.
+     * If no connection is found, the data is not sent (caller usually handles DB persistence).
+     *
      * @param userId Recipient user ID
      * @param data Payload to serialize and send
      */
     public void send(Long userId, Object data) {
-        SseEmitter emitter = emitters.get(userId);
-        if (emitter != null) {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name("notification")
-                        .data(data));
-                log.info("Pushed real-time notification to user: {}", userId);
-            } catch (IOException e) {
-                log.error("Failed to push SSE to user: {}, clearing stale connection", userId, e);
-                emitters.remove(userId);
+        ReplayBuffer buffer = replayBuffer(userId);
+        int delivered = 0;
+        synchronized (buffer) {
+            long seq = sequence.incrementAndGet();
+            Event event = new Event(epoch + "-" + seq, "notification", data);
+            // Buffered even without a connection: a reconnecting client picks it up
+            buffer.add(seq, event);
+            List<Connection> connections = shard(userId).get(userId);
+            if (connections != null) {
+                for (Connection connection : connections) {
+                    connection.enqueue(event);
+                    delivered++;
+                }
             }
+        }
+        if (delivered == 0) {
+            log.trace("No active connection for user {}, notification kept for replay", userId);
         } else {
-            log.trace("Suppressed real-time push: No active connection for user {}", userId);
+            log.debug("Queued real-time notification for user {} on {} connection(s)", userId, delivered);
         }
     }
 
     /**
      * Periodically broadcasts a small package to all connected clients.
-     * Helps identify and purge "zombie" connections that have been dropped 
-     * silently by the network.
+     * Helps identify and purge "zombie" connections that have been dropped
+     * silently by the network, and closes connections stuck in a send.
      */
     public void sendHeartbeat() {
-        emitters.forEach((userId, emitter) -> {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name("heartbeat")
-                        .data("keep-alive"));
-            } catch (IOException e) {
-                log.warn("Sweeping stale SSE connection for user: {}", userId);
-                emitters.remove(userId);
+        Event heartbeat = new Event(null, "heartbeat", "keep-alive");
+        long now = System.nanoTime();
+        for (Map<Long, List<Connection>> shard : shards) {
+            for (List<Connection> connections : shard.values()) {
+                for (Connection connection : connections) {
+                    if (connection.isStalled(now)) {
+                        log.warn("Sweeping stalled SSE connection for user: {}", connection.userId);
+                        evictionCounter.increment();
+                        remove(connection);
+                        connection.close("send timeout");
+                    } else if (connection.isIdle()) {
+                        // Busy connections already prove liveness; no need to pile heartbeats behind them
+                        connection.enqueue(heartbeat);
+                    }
+                }
             }
+        }
+    }
+
+    public int activeConnections() {
+        return activeConnections.get();
+    }
+
+    public int connectionCount(Long userId) {
+        List<Connection> connections = shard(userId).get(userId);
+        return connections != null ? connections.size() : 0;
+    }
+
+    private int connectedUsers() {
+        int users = 0;
+        for (Map<Long, List<Connection>> shard : shards) {
+            users += shard.size();
+        }
+        return users;
+    }
+
+    private ReplayBuffer replayBuffer(Long userId) {
+        // A new buffer cannot vouch for anything issued before it existed
+        return replayBuffers.get(userId, id -> new ReplayBuffer(replayBufferSize, sequence.get()));
+    }
+
+    private Map<Long, List<Connection>> shard(Long userId) {
+        long id = userId;
+        return shards[(int) (id ^ (id >>> 32)) & (SHARDS - 1)];
+    }
+
+    private void remove(Connection connection) {
+        if (!connection.removed.compareAndSet(false, true)) {
+            return;
+        }
+        connection.closed = true;
+        activeConnections.decrementAndGet();
+        shard(connection.userId).computeIfPresent(connection.userId, (id, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
         });
     }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdown();
+        try {
+            sendExecutor.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * One open SSE connection with its own ordered outbound queue.
+     */
+    private final class Connection {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<Event> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+        /** {@link System#nanoTime()} when the in-flight send started, 0 when idle */
+        private volatile long sendStartedNanos;
+        private volatile boolean closed;
+
+        Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(Event event) {
+            if (closed) {
+                return;
+            }
+            if (pendingCount.incrementAndGet() > maxPendingPerConnection) {
+                log.warn("SSE backlog overflow for user {}, closing connection", userId);
+                evictionCounter.increment();
+                remove(this);
+                close("backlog overflow");
+                return;
+            }
+            pending.add(event);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sendExecutor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Event event;
+                while (!closed && (event = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    long start = System.nanoTime();
+                    sendStartedNanos = start;
+                    try {
+                        SseEmitter.SseEventBuilder builder = SseEmitter.event().name(event.name());
+                        if (event.id() != null) {
+                            builder.id(event.id());
+                        }
+                        emitter.send(builder.data(event.data()));
+                        sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    } catch (IOException | IllegalStateException e) {
+                        log.debug("Failed to push SSE to user: {}, clearing stale connection", userId);
+                        sendFailureCounter.increment();
+                        remove(this);
+                        return;
+                    } finally {
+                        sendStartedNanos = 0;
+                    }
+                }
+            } finally {
+                draining.set(false);
+                // An event may have been queued after the last poll but before the flag was cleared
+                if (!closed && !pending.isEmpty()) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        boolean isStalled(long nowNanos) {
+            long started = sendStartedNanos;
+            return started != 0 && nowNanos - started > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        }
+
+        boolean isIdle() {
+            return !draining.get() && pending.isEmpty();
+        }
+
+        void close(String reason) {
+            closed = true;
+            pending.clear();
+            try {
+                emitter.complete();
+            } catch (Exception e) {
+                log.trace("Ignoring error while closing SSE connection for user {} ({}): {}", userId, reason, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Last notifications of one user, oldest first. Callers synchronize on the instance.
+     */
+    private static final class ReplayBuffer {
+
+        private final long[] sequences;
+        private final Event[] events;
+        private int start;
+        private int size;
+        /** Highest sequence that is no longer (or never was) held: replay is only possible past it */
+        private long horizon;
+
+        ReplayBuffer(int capacity, long horizon) {
+            this.sequences = new long[Math.max(1, capacity)];
+            this.events = new Event[sequences.length];
+            this.horizon = horizon;
+        }
+
+        void add(long sequence, Event event) {
+            int index = (start + size) % events.length;
+            if (size == events.length) {
+                horizon = sequences[start];
+                start = (start + 1) % events.length;
+            } else {
+                size++;
+            }
+            sequences[index] = sequence;
+            events[index] = event;
+        }
+
+        /**
+         * Events with a sequence greater than {@code lastSeen}, or null if some may have been lost.
+         */
+        List<Event> after(long lastSeen) {
+            if (lastSeen < horizon) {
+                return null;
+            }
+            List<Event> missed = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                int index = (start + i) % events.length;
+                if (sequences[index] > lastSeen) {
+                    missed.add(events[index]);
+                }
+            }
+            return missed;
+        }
+    }
 }
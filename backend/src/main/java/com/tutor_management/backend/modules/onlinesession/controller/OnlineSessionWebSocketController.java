@@ -7,7 +7,10 @@ import com.tutor_management.backend.modules.onlinesession.dto.request.Whiteboard
 import com.tutor_management.backend.modules.onlinesession.dto.response.ChatMessageResponse;
 import com.tutor_management.backend.modules.onlinesession.dto.response.TypingResponse;
 import com.tutor_management.backend.modules.onlinesession.service.ChatService;
+import com.tutor_management.backend.modules.onlinesession.service.HeartbeatEngine;
 import com.tutor_management.backend.modules.onlinesession.service.OnlineSessionService;
+import com.tutor_management.backend.modules.onlinesession.service.WhiteboardEncodingRegistry;
+import com.tutor_management.backend.modules.onlinesession.service.WhiteboardPointCodec;
 import com.tutor_management.backend.modules.onlinesession.service.WhiteboardService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -28,11 +31,14 @@ public class OnlineSessionWebSocketController {
 
     private final OnlineSessionService onlineSessionService;
     private final ChatService chatService;
+    private final HeartbeatEngine heartbeatEngine;
     private final WhiteboardService whiteboardService;
+    private final WhiteboardEncodingRegistry encodingRegistry;
     private final SimpMessagingTemplate messagingTemplate;
 
     /**
      * Handles heartbeat messages from clients to keep the session alive and detect disconnects.
+     * Membership is resolved in memory by {@link HeartbeatEngine}; the database is only hit on state transitions.
      * Expects messages to be sent to /app/room/{roomId}/heartbeat
      * 
      * @param roomId The unique room identifier.
@@ -47,7 +53,7 @@ public class OnlineSessionWebSocketController {
 
         try {
             Long userId = Long.parseLong(principal.getName());
-            onlineSessionService.updateHeartbeat(roomId, userId);
+            heartbeatEngine.onHeartbeat(roomId, userId);
         } catch (NumberFormatException e) {
             log.error("Invalid userId in principal name: {}", principal.getName());
         } catch (Exception e) {
@@ -165,6 +171,14 @@ public class OnlineSessionWebSocketController {
             return;
         }
         
+        // ✅ Compact clients send encodedPoints; everything downstream works on plain points
+        try {
+            WhiteboardPointCodec.expand(payload.getStroke());
+        } catch (IllegalArgumentException e) {
+            log.warn("Received undecodable whiteboard stroke for room {}: {}", roomId, e.getMessage());
+            return;
+        }
+        
         // ✅ Log for debugging (remove in production if needed)
         log.debug("Whiteboard stroke for room {}: strokeId={}, userId={}, points={}", 
             roomId, 
@@ -172,17 +186,24 @@ public class OnlineSessionWebSocketController {
             payload.getStroke().getUserId(),
             payload.getStroke().getPoints() != null ? payload.getStroke().getPoints().size() : 0);
         
-        // ✅ Persist stroke to DB
+        // ✅ Enqueue stroke for write-behind persistence (no DB work on the inbound thread)
         whiteboardService.saveStroke(roomId, payload.getStroke());
         
-        // ✅ Broadcast with properly preserved structure
-        messagingTemplate.convertAndSend("/topic/room/" + roomId + "/whiteboard", payload);
+        // ✅ Broadcast in every encoding negotiated in the room
+        String destination = "/topic/room/" + roomId + "/whiteboard";
+        if (encodingRegistry.hasJsonClients(roomId)) {
+            messagingTemplate.convertAndSend(destination, payload);
+        }
+        if (encodingRegistry.hasCompactClients(roomId)) {
+            messagingTemplate.convertAndSend(destination + ".compact", WhiteboardPointCodec.compact(payload));
+        }
     }
 
     /**
      * Handles whiteboard delta messages (point batches during drawing).
      * Broadcasts the delta to all participants for real-time synchronization.
      * Reduces payload size by 80%+ compared to sending complete strokes.
+     * Clients that negotiated the compact encoding receive it on the {@code .compact} topic.
      * 
      * ✅ FIX: Now properly deserializes WhiteboardDeltaMessage to preserve userId
      * for client-side echo cancellation.
@@ -201,6 +222,13 @@ public class OnlineSessionWebSocketController {
             return;
         }
         
+        try {
+            WhiteboardPointCodec.expand(payload);
+        } catch (IllegalArgumentException e) {
+            log.warn("Received undecodable whiteboard delta for room {}: {}", roomId, e.getMessage());
+            return;
+        }
+        
         // ✅ Log for debugging (remove in production if needed)
         log.debug("Whiteboard delta for room {}: strokeId={}, userId={}, points={}", 
             roomId, 
@@ -208,8 +236,14 @@ public class OnlineSessionWebSocketController {
             payload.getUserId(),
             payload.getPoints() != null ? payload.getPoints().size() : 0);
         
-        // ✅ Broadcast with properly preserved structure
-        messagingTemplate.convertAndSend("/topic/room/" + roomId + "/whiteboard/delta", payload);
+        // ✅ Broadcast in every encoding negotiated in the room
+        String destination = "/topic/room/" + roomId + "/whiteboard/delta";
+        if (encodingRegistry.hasJsonClients(roomId)) {
+            messagingTemplate.convertAndSend(destination, payload);
+        }
+        if (encodingRegistry.hasCompactClients(roomId)) {
+            messagingTemplate.convertAndSend(destination + ".compact", WhiteboardPointCodec.compact(payload));
+        }
     }
 
     /**
@@ -234,7 +268,7 @@ public class OnlineSessionWebSocketController {
         // ✅ Log for debugging
         log.debug("Whiteboard clear for room {}: userId={}", roomId, payload.getUserId());
         
-        // ✅ Persist clear command to DB
+        // ✅ Enqueue clear command for write-behind persistence
         whiteboardService.clearStrokes(roomId, payload.getUserId());
         
         // ✅ Broadcast with properly preserved structure
@@ -264,7 +298,7 @@ public class OnlineSessionWebSocketController {
         // ✅ Log for debugging
         log.debug("Whiteboard undo for room {}: strokeId={}", roomId, payload.getId());
         
-        // ✅ Persist undo command to DB
+        // ✅ Enqueue undo command for write-behind persistence
         whiteboardService.deleteStroke(roomId, payload.getId());
         
         // ✅ Broadcast with properly preserved structure
@@ -1,5 +1,6 @@
 package com.tutor_management.backend.modules.onlinesession.dto.request;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -28,6 +29,14 @@ public class WhiteboardDeltaMessage {
     @JsonProperty("points")
     private List<WhiteboardStrokeMessage.Point> points;
     
+    /**
+     * Base64 of the compact point encoding (see WhiteboardPointCodec), sent instead of
+     * {@code points} by clients that negotiated the compact whiteboard encoding.
+     */
+    @JsonProperty("encodedPoints")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String encodedPoints;
+    
     @JsonProperty("startIndex")
     private Integer startIndex;
     
@@ -0,0 +1,61 @@
+package com.tutor_management.backend.modules.onlinesession.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compacted whiteboard state of a room: the live strokes (undone and cleared ones removed)
+ * stored as one compressed blob, so recovery after a restart is a single read.
+ * <p>
+ * Strokes persisted after the snapshot have a whiteboard_strokes id greater than
+ * {@link #lastStrokeRowId} and are replayed on top. Any flushed undo or clear deletes the
+ * snapshot, so a present snapshot never misses a deletion.
+ */
+@Entity
+@Table(
+    name = "whiteboard_snapshots",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_whiteboard_snapshot_room", columnNames = "room_id")
+    }
+)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class WhiteboardSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "room_id", nullable = false, length = 100)
+    private String roomId;
+
+    /**
+     * GZIP-compressed JSON array of StrokeData.
+     */
+    @Lob
+    @Column(name = "data", nullable = false, columnDefinition = "LONGBLOB")
+    private byte[] data;
+
+    @Column(name = "stroke_count", nullable = false)
+    private Integer strokeCount;
+
+    /**
+     * Highest whiteboard_strokes.id of the room covered by this snapshot.
+     */
+    @Column(name = "last_stroke_row_id", nullable = false)
+    private Long lastStrokeRowId;
+
+    @LastModifiedDate
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
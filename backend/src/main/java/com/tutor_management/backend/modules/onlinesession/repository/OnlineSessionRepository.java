@@ -12,6 +12,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,6 +40,16 @@ public interface OnlineSessionRepository extends JpaRepository<OnlineSession, Lo
     @EntityGraph(attributePaths = {"tutor", "student"})
     List<OnlineSession> findByRoomStatus(RoomStatus status);
 
+    /**
+     * Loads only the given rooms, used when presence expirations point at specific rooms.
+     *
+     * @param roomIds Room identifiers to load.
+     * @param status Required room status.
+     * @return Matching sessions with tutor and student fetched.
+     */
+    @EntityGraph(attributePaths = {"tutor", "student"})
+    List<OnlineSession> findByRoomIdInAndRoomStatus(Collection<String> roomIds, RoomStatus status);
+
     long countByRoomStatus(RoomStatus status);
 
     @Query("SELECT SUM(s.totalDurationMinutes) FROM OnlineSession s WHERE s.totalDurationMinutes IS NOT NULL")
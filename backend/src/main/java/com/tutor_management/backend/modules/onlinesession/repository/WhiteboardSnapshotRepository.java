@@ -0,0 +1,20 @@
+package com.tutor_management.backend.modules.onlinesession.repository;
+
+import com.tutor_management.backend.modules.onlinesession.entity.WhiteboardSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface WhiteboardSnapshotRepository extends JpaRepository<WhiteboardSnapshot, Long> {
+
+    Optional<WhiteboardSnapshot> findByRoomId(String roomId);
+
+    @Modifying
+    @Query("DELETE FROM WhiteboardSnapshot s WHERE s.roomId = :roomId")
+    int deleteByRoomId(@Param("roomId") String roomId);
+}
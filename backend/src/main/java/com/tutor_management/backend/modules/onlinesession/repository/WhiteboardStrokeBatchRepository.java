@@ -0,0 +1,78 @@
+package com.tutor_management.backend.modules.onlinesession.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC batch access to whiteboard_strokes.
+ * JPA cannot batch inserts for IDENTITY keys, so the write-behind flusher goes through here.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WhiteboardStrokeBatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A stroke row ready to be inserted; {@code data} is already serialized.
+     */
+    public record StrokeRow(String strokeId, String roomId, String userId, String data, Long timestamp) {
+    }
+
+    /**
+     * Highest row id of a room, 0 if it has no strokes.
+     */
+    public long findMaxId(String roomId) {
+        Long maxId = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(id), 0) FROM whiteboard_strokes WHERE room_id = ?", Long.class, roomId);
+        return maxId != null ? maxId : 0L;
+    }
+
+    public int[][] batchInsert(List<StrokeRow> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.batchUpdate(
+                "INSERT INTO whiteboard_strokes (stroke_id, room_id, user_id, data, timestamp, created_at) VALUES (?, ?, ?, ?, ?, ?)",
+                rows,
+                rows.size(),
+                (ps, row) -> {
+                    ps.setString(1, row.strokeId());
+                    ps.setString(2, row.roomId());
+                    ps.setString(3, row.userId());
+                    ps.setString(4, row.data());
+                    if (row.timestamp() != null) {
+                        ps.setLong(5, row.timestamp());
+                    } else {
+                        ps.setNull(5, Types.BIGINT);
+                    }
+                    ps.setTimestamp(6, now);
+                });
+    }
+
+    public int[][] batchDeleteByStrokeIds(String roomId, List<String> strokeIds) {
+        return jdbcTemplate.batchUpdate(
+                "DELETE FROM whiteboard_strokes WHERE room_id = ? AND stroke_id = ?",
+                strokeIds,
+                strokeIds.size(),
+                (ps, strokeId) -> {
+                    ps.setString(1, roomId);
+                    ps.setString(2, strokeId);
+                });
+    }
+
+    public int[][] batchDeleteByUserIds(String roomId, List<String> userIds) {
+        return jdbcTemplate.batchUpdate(
+                "DELETE FROM whiteboard_strokes WHERE room_id = ? AND user_id = ?",
+                userIds,
+                userIds.size(),
+                (ps, userId) -> {
+                    ps.setString(1, roomId);
+                    ps.setString(2, userId);
+                });
+    }
+}
@@ -11,6 +11,11 @@ import java.util.Optional;
 public interface WhiteboardStrokeRepository extends JpaRepository<WhiteboardStroke, Long> {
     
     List<WhiteboardStroke> findByRoomIdOrderByTimestampAsc(String roomId);
+
+    /**
+     * Strokes persisted after a snapshot was taken.
+     */
+    List<WhiteboardStroke> findByRoomIdAndIdGreaterThanOrderByIdAsc(String roomId, Long id);
     
     Optional<WhiteboardStroke> findByRoomIdAndStrokeId(String roomId, String strokeId);
     
@@ -0,0 +1,80 @@
+package com.tutor_management.backend.modules.onlinesession.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Entry point for STOMP heartbeats.
+ * <p>
+ * Steady-state heartbeats are resolved against the in-memory {@link RoomRosterRegistry}
+ * and only refresh {@link PresenceService}: no transaction, no row lock, no User lookup.
+ * The database path ({@link OnlineSessionService#updateHeartbeat}) is only taken when
+ * the room is unknown on this node (e.g. after a restart) or when the heartbeat
+ * causes a state transition (rejoin after being marked left, clearing a warning).
+ */
+@Service
+@Slf4j
+public class HeartbeatEngine {
+
+    private final RoomRosterRegistry rosterRegistry;
+    private final PresenceService presenceService;
+    private final OnlineSessionService onlineSessionService;
+
+    private final Counter fastPathCounter;
+    private final Counter dbPathCounter;
+    private final Counter rejectedCounter;
+
+    public HeartbeatEngine(RoomRosterRegistry rosterRegistry,
+                           PresenceService presenceService,
+                           OnlineSessionService onlineSessionService,
+                           MeterRegistry meterRegistry) {
+        this.rosterRegistry = rosterRegistry;
+        this.presenceService = presenceService;
+        this.onlineSessionService = onlineSessionService;
+        this.fastPathCounter = meterRegistry.counter("online_session.heartbeat", "path", "memory");
+        this.dbPathCounter = meterRegistry.counter("online_session.heartbeat", "path", "database");
+        this.rejectedCounter = meterRegistry.counter("online_session.heartbeat", "path", "rejected");
+    }
+
+    /**
+     * Processes a heartbeat from a participant.
+     *
+     * @param roomId The unique room identifier.
+     * @param userId The ID of the user sending the heartbeat.
+     */
+    public void onHeartbeat(String roomId, Long userId) {
+        RoomRosterRegistry.RoomRoster roster = rosterRegistry.get(roomId);
+
+        if (roster == null) {
+            dbPathCounter.increment();
+            onlineSessionService.updateHeartbeat(roomId, userId);
+            return;
+        }
+
+        boolean member = roster.isTutor(userId) || roster.isStudent(userId);
+        if (!member) {
+            if (roster.isStudentUnknown()) {
+                // Student's User ID not resolved yet: let the database decide and seed the roster
+                dbPathCounter.increment();
+                onlineSessionService.updateHeartbeat(roomId, userId);
+            } else {
+                rejectedCounter.increment();
+                log.warn("Heartbeat rejected: user {} not in room {}", userId, roomId);
+            }
+            return;
+        }
+
+        presenceService.updateHeartbeat(roomId, userId);
+
+        if (roster.needsTransition(userId)) {
+            dbPathCounter.increment();
+            onlineSessionService.updateHeartbeat(roomId, userId);
+            return;
+        }
+
+        fastPathCounter.increment();
+        log.trace("Heartbeat updated in memory for room {} by user {}", roomId, userId);
+    }
+}
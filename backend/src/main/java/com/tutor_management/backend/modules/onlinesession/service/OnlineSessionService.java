@@ -111,11 +111,18 @@ public interface OnlineSessionService {
     org.springframework.data.domain.Window<OnlineSessionResponse> getMySessions(Long userId, String continuationToken, int size);
 
     /**
-     * Detects and handles inactive participants in active rooms.
-     * Should be called periodically by a scheduler.
+     * Detects and handles inactive participants in all active rooms.
+     * Full reconciliation against the database; runs infrequently and after restarts,
+     * routine detection is driven by {@link #processPresenceExpirations()}.
      */
     void detectInactiveParticipants();
 
+    /**
+     * Handles inactivity only for rooms whose presence entries expired (or whose
+     * auto-end check became due) since the last tick of the presence timing wheel.
+     */
+    void processPresenceExpirations();
+
     /**
      * Broadcasts a user joined event to the room's presence topic.
      * 
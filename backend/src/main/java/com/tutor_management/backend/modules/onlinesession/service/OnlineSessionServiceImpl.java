@@ -54,6 +54,7 @@ import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -70,6 +71,7 @@ public class OnlineSessionServiceImpl implements OnlineSessionService {
     private final Clock clock;
     private final RoomTokenService roomTokenService;
     private final PresenceService presenceService;
+    private final RoomRosterRegistry roomRosterRegistry;
     private final SimpMessagingTemplate messagingTemplate;
     private final MeterRegistry meterRegistry;
     private final ObjectMapper objectMapper;
@@ -221,6 +223,9 @@ public class OnlineSessionServiceImpl implements OnlineSessionService {
         }
         
         onlineSessionRepository.save(session);
+        roomRosterRegistry.sync(session, user.getRole() == Role.STUDENT ? userId : null);
+        // Arm presence so a participant who never sends a heartbeat still expires
+        presenceService.updateHeartbeat(roomId, userId);
 
         String token = roomTokenService.generateToken(roomId, userId, user.getRole());
 
@@ -339,6 +344,8 @@ public class OnlineSessionServiceImpl implements OnlineSessionService {
         flushDuration(session);
 
         OnlineSession saved = onlineSessionRepository.save(session);
+        roomRosterRegistry.evict(roomId);
+        presenceService.evictRoom(roomId);
 
         Long tutorUserId = saved.getTutor().getUser().getId();
         Long studentUserId = userRepository.findByStudentId(saved.getStudent().getId())
@@ -357,6 +364,11 @@ public class OnlineSessionServiceImpl implements OnlineSessionService {
         return mapToResponse(saved);
     }
 
+    /**
+     * Database path for heartbeats. {@link HeartbeatEngine} only routes here on a roster
+     * miss or when the heartbeat changes persisted state; steady-state heartbeats
+     * never reach this method.
+     */
     @Override
     @Transactional
     public void updateHeartbeat(String roomId, Long userId) {
@@ -365,16 +377,19 @@ public class OnlineSessionServiceImpl implements OnlineSessionService {
 
         // Only process for ACTIVE rooms
         if (session.getRoomStatus() != RoomStatus.ACTIVE) {
+            roomRosterRegistry.evict(roomId);
             return;
         }
 
         // ✅ check participant correctly to avoid NPE
         boolean isParticipant = false;
+        boolean isTutor = false;
         
         // Check if tutor
         if (session.getTutor().getUser() != null && 
             session.getTutor().getUser().getId().equals(userId)) {
             isParticipant = true;
+            isTutor = true;
         }
         
         // ✅ Check if student (via User.studentId)
@@ -426,6 +441,8 @@ public class OnlineSessionServiceImpl implements OnlineSessionService {
                 onlineSessionRepository.save(session);
                 broadcastStatus(roomId, SessionStatusResponse.Type.PARTICIPANT_JOINED, userId, null, null, "Hệ thống đã ổn định trở lại.");
             }
+
+            roomRosterRegistry.sync(session, isTutor ? null : userId);
             
             log.trace("Heartbeat updated for room {} by user {}", roomId, userId);
         } else {
@@ -510,10 +527,27 @@ public class OnlineSessionServiceImpl implements OnlineSessionService {
     }
 
     @Override
-    @Scheduled(fixedRate = 60000) // Every 60 seconds
+    @Scheduled(fixedRateString = "${app.online-session.inactivity-reconcile-ms:600000}", initialDelay = 30000)
     public void detectInactiveParticipants() {
+        processInactivity(onlineSessionRepository.findByRoomStatus(RoomStatus.ACTIVE));
+    }
+
+    @Override
+    @Scheduled(fixedRate = 1000) // Timing wheel tick
+    public void processPresenceExpirations() {
+        Set<String> dueRooms = presenceService.advance();
+        if (dueRooms.isEmpty()) {
+            return;
+        }
+        log.debug("Presence expirations due for {} room(s)", dueRooms.size());
+        processInactivity(onlineSessionRepository.findByRoomIdInAndRoomStatus(dueRooms, RoomStatus.ACTIVE));
+    }
+
+    private void processInactivity(List<OnlineSession> activeSessions) {
+        if (activeSessions.isEmpty()) {
+            return;
+        }
         LocalDateTime now = LocalDateTime.now(clock);
-        List<OnlineSession> activeSessions = onlineSessionRepository.findByRoomStatus(RoomStatus.ACTIVE);
         
         // ✅ N+1 Query Fix: Pre-load all potential student users
         List<Long> studentIds = activeSessions.stream()
@@ -643,6 +677,8 @@ public class OnlineSessionServiceImpl implements OnlineSessionService {
 
         // Delete the Online Session
         onlineSessionRepository.delete(session);
+        roomRosterRegistry.evict(session.getRoomId());
+        presenceService.evictRoom(session.getRoomId());
         log.info("Deleted online session room {} for record {}", session.getRoomId(), sessionRecordId);
         
         // No need to explicitly update SessionRecord as the isOnline flag is derived from existence of OnlineSession
@@ -704,6 +740,9 @@ public class OnlineSessionServiceImpl implements OnlineSessionService {
             LocalDateTime autoEndTime = overlapLeftAt.plusMinutes(autoEndTimeoutMinutes);
             
             if (now.isBefore(autoEndTime)) {
+                // Re-evaluate exactly when the countdown elapses instead of waiting for a poll
+                presenceService.scheduleRoomCheck(session.getRoomId(),
+                        java.time.Duration.between(now, autoEndTime).toMillis());
                 // Throttle warning messages: only send if not sent before or sent > 45s ago (to avoid spamming every minute)
                 if (session.getInactivityWarningSentAt() == null) {
                     long remainingSeconds = java.time.Duration.between(now, autoEndTime).toSeconds();
@@ -726,6 +765,7 @@ public class OnlineSessionServiceImpl implements OnlineSessionService {
 
         if (needsSave) {
             onlineSessionRepository.save(session);
+            roomRosterRegistry.sync(session, studentUser != null ? studentUser.getId() : null);
             meterRegistry.counter("online_session.inactivity.detected",
                 "tutor_active", String.valueOf(tutorActive),
                 "student_active", String.valueOf(studentActive)).increment();
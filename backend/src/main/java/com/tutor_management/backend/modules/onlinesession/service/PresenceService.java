@@ -1,85 +1,356 @@
 package com.tutor_management.backend.modules.onlinesession.service;
 
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Service for tracking user presence in online rooms using an in-memory map.
+ * Service for tracking user presence in online rooms in memory.
  * This avoids excessive database writes for frequent heartbeat updates.
+ * <p>
+ * Presence is stored per room ({@link RoomPresence}, one instance per room ID) as
+ * primitive {@code long} user IDs with epoch-millis timestamps, so a heartbeat is a
+ * lookup plus a volatile write. Expiry is driven by a hashed timing wheel: every
+ * participant owns one wheel entry that is lazily re-armed when it fires, so each
+ * tick costs O(entries due) instead of a scan over every tracked user.
  */
 @Service
 @Slf4j
 public class PresenceService {
 
-    // Key: "roomId:userId", Value: Last activity timestamp
-    private final Map<String, LocalDateTime> userPresence = new ConcurrentHashMap<>();
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 128; // power of two, ~2 minutes per revolution
+    private static final long ROOM_CHECK = -1L;
+
+    private final Map<String, RoomPresence> rooms = new ConcurrentHashMap<>();
+    private final TimingWheel wheel = new TimingWheel(System.currentTimeMillis());
+
+    /**
+     * Inactivity threshold after which a participant is reported as expired.
+     */
+    @Value("${app.online-session.presence-timeout-seconds:65}")
+    private int presenceTimeoutSeconds = 65;
+
+    /**
+     * How long an expired participant's last activity stays queryable before it is dropped.
+     */
+    @Value("${app.online-session.presence-retention-seconds:120}")
+    private int presenceRetentionSeconds = 120;
 
     /**
      * Updates the heartbeat for a user in a specific room.
-     * 
+     *
      * @param roomId The room identifier.
      * @param userId The user identifier.
      */
     public void updateHeartbeat(String roomId, Long userId) {
-        String key = generateKey(roomId, userId);
-        userPresence.put(key, LocalDateTime.now());
+        updateHeartbeat(roomId, userId, System.currentTimeMillis());
+    }
+
+    void updateHeartbeat(String roomId, long userId, long nowMillis) {
+        RoomPresence room = rooms.computeIfAbsent(roomId, RoomPresence::new);
+        Participant participant = room.find(userId);
+        if (participant != null && !participant.retired) {
+            participant.lastSeenMillis = nowMillis;
+            participant.expiredReported = false;
+            return;
+        }
+        synchronized (wheel) {
+            // Re-resolve under the lock: the room may have been evicted or the participant retired meanwhile
+            room = rooms.computeIfAbsent(roomId, RoomPresence::new);
+            participant = room.find(userId);
+            if (participant == null || participant.retired) {
+                participant = new Participant(room, userId, nowMillis);
+                room.add(participant);
+                wheel.schedule(participant, nowMillis + presenceTimeoutSeconds * 1000L);
+            } else {
+                participant.lastSeenMillis = nowMillis;
+                participant.expiredReported = false;
+            }
+        }
     }
 
     /**
      * Checks if a user is active in a room within the specified timeout.
-     * 
+     *
      * @param roomId The room identifier.
      * @param userId The user identifier.
      * @param timeoutSeconds The timeout threshold in seconds.
      * @return true if active, false otherwise.
      */
     public boolean isUserActive(String roomId, Long userId, int timeoutSeconds) {
-        String key = generateKey(roomId, userId);
-        LocalDateTime lastActivity = userPresence.get(key);
-
-        if (lastActivity == null) {
+        Participant participant = findParticipant(roomId, userId);
+        if (participant == null) {
             return false;
         }
-
-        return lastActivity.isAfter(LocalDateTime.now().minusSeconds(timeoutSeconds));
+        return participant.lastSeenMillis > System.currentTimeMillis() - timeoutSeconds * 1000L;
     }
 
     /**
      * Retrieves the last known activity timestamp for a user.
-     * 
+     *
      * @param roomId The room identifier.
      * @param userId The user identifier.
      * @return The last activity timestamp, or null if never active.
      */
     public LocalDateTime getLastActivity(String roomId, Long userId) {
-        return userPresence.get(generateKey(roomId, userId));
+        Participant participant = findParticipant(roomId, userId);
+        if (participant == null) {
+            return null;
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(participant.lastSeenMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Schedules a one-off re-evaluation of a room (e.g. when the auto-end countdown elapses).
+     * The room ID is returned by {@link #advance()} once the delay has passed.
+     *
+     * @param roomId The room identifier.
+     * @param delayMillis Delay from now in milliseconds.
+     */
+    public void scheduleRoomCheck(String roomId, long delayMillis) {
+        synchronized (wheel) {
+            RoomPresence room = rooms.computeIfAbsent(roomId, RoomPresence::new);
+            wheel.schedule(new WheelEntry(room, ROOM_CHECK), System.currentTimeMillis() + Math.max(0, delayMillis));
+        }
+    }
+
+    /**
+     * Drops all presence state for a room (ended or reverted).
+     * Pending wheel entries of the room are discarded when they fire.
+     */
+    public void evictRoom(String roomId) {
+        synchronized (wheel) {
+            RoomPresence room = rooms.remove(roomId);
+            if (room != null) {
+                room.evicted = true;
+            }
+        }
+    }
+
+    /**
+     * Advances the timing wheel to the current time.
+     *
+     * @return IDs of rooms in which a participant expired or a scheduled check became due.
+     */
+    public Set<String> advance() {
+        return advance(System.currentTimeMillis());
+    }
+
+    Set<String> advance(long nowMillis) {
+        Set<String> dueRooms = new LinkedHashSet<>();
+        int retired = 0;
+
+        synchronized (wheel) {
+            for (WheelEntry entry : wheel.advance(nowMillis)) {
+                RoomPresence room = entry.room;
+                if (room.evicted) {
+                    continue;
+                }
+                if (!(entry instanceof Participant participant)) {
+                    dueRooms.add(room.roomId);
+                    if (room.isEmpty()) {
+                        rooms.remove(room.roomId, room);
+                    }
+                    continue;
+                }
+
+                long expiresAt = participant.lastSeenMillis + presenceTimeoutSeconds * 1000L;
+                long retireAt = participant.lastSeenMillis + presenceRetentionSeconds * 1000L;
+                if (nowMillis < expiresAt) {
+                    // Heartbeats arrived since this entry was armed: lazily re-arm
+                    wheel.schedule(participant, expiresAt);
+                } else if (!participant.expiredReported) {
+                    participant.expiredReported = true;
+                    dueRooms.add(room.roomId);
+                    wheel.schedule(participant, retireAt);
+                } else if (nowMillis < retireAt) {
+                    wheel.schedule(participant, retireAt);
+                } else {
+                    participant.retired = true;
+                    room.remove(participant);
+                    if (room.isEmpty()) {
+                        rooms.remove(room.roomId, room);
+                    }
+                    retired++;
+                }
+            }
+        }
+
+        if (retired > 0) {
+            log.info("Cleaned up {} stale presence entries", retired);
+        }
+        return dueRooms.isEmpty() ? Collections.emptySet() : dueRooms;
+    }
+
+    /**
+     * Number of tracked participants across all rooms.
+     */
+    public int trackedParticipants() {
+        int count = 0;
+        for (RoomPresence room : rooms.values()) {
+            count += room.participants.length;
+        }
+        return count;
+    }
+
+    private Participant findParticipant(String roomId, Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        RoomPresence room = rooms.get(roomId);
+        return room != null ? room.find(userId) : null;
     }
 
     /**
-     * Generates a unique key for the presence map.
+     * Presence of a single room. The participant array is copy-on-write: rooms hold a handful
+     * of users, so a linear scan over primitives beats any hashed structure.
      */
-    private String generateKey(String roomId, Long userId) {
-        return roomId + ":" + userId;
+    private static final class RoomPresence {
+
+        private final String roomId;
+        private volatile Participant[] participants = new Participant[0];
+        private volatile boolean evicted;
+
+        RoomPresence(String roomId) {
+            this.roomId = roomId;
+        }
+
+        Participant find(long userId) {
+            for (Participant participant : participants) {
+                if (participant.userId == userId) {
+                    return participant;
+                }
+            }
+            return null;
+        }
+
+        synchronized void add(Participant participant) {
+            Participant[] current = participants;
+            Participant[] next = new Participant[current.length + 1];
+            int size = 0;
+            for (Participant existing : current) {
+                if (existing.userId != participant.userId) {
+                    next[size++] = existing;
+                }
+            }
+            next[size++] = participant;
+            participants = size == next.length ? next : Arrays.copyOf(next, size);
+        }
+
+        synchronized void remove(Participant participant) {
+            Participant[] current = participants;
+            List<Participant> kept = new ArrayList<>(current.length);
+            for (Participant existing : current) {
+                if (existing != participant) {
+                    kept.add(existing);
+                }
+            }
+            participants = kept.toArray(new Participant[0]);
+        }
+
+        boolean isEmpty() {
+            return participants.length == 0;
+        }
     }
 
     /**
-     * Periodically cleans up old entries from the memory to prevent leaks.
-     * Runs every 5 minutes.
+     * A timeout slot in the wheel. Plain entries are one-off room checks.
      */
-    @Scheduled(fixedRate = 300000)
-    public void cleanupOldEntries() {
-        LocalDateTime threshold = LocalDateTime.now().minusMinutes(2); // Reduced to 2 minutes to match timeout threshold (60s)
-        int initialSize = userPresence.size();
-        userPresence.entrySet().removeIf(entry -> entry.getValue().isBefore(threshold));
-        int removedCount = initialSize - userPresence.size();
-        
-        if (removedCount > 0) {
-            log.info("Cleaned up {} stale presence entries", removedCount);
+    private static class WheelEntry {
+
+        final RoomPresence room;
+        final long userId;
+        long remainingRounds;
+
+        WheelEntry(RoomPresence room, long userId) {
+            this.room = room;
+            this.userId = userId;
+        }
+    }
+
+    /**
+     * A tracked participant; also its own (re-armable) wheel entry.
+     */
+    private static final class Participant extends WheelEntry {
+
+        volatile long lastSeenMillis;
+        volatile boolean expiredReported;
+        volatile boolean retired;
+
+        Participant(RoomPresence room, long userId, long lastSeenMillis) {
+            super(room, userId);
+            this.lastSeenMillis = lastSeenMillis;
+        }
+    }
+
+    /**
+     * Hashed timing wheel with {@link #TICK_MILLIS} resolution. Deadlines further than one
+     * revolution away are kept in their slot with a round counter. Not thread-safe: callers
+     * synchronize on the wheel instance.
+     */
+    private static final class TimingWheel {
+
+        private final long startMillis;
+        private final List<List<WheelEntry>> slots = new ArrayList<>(WHEEL_SIZE);
+        private long currentTick;
+
+        TimingWheel(long startMillis) {
+            this.startMillis = startMillis;
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                slots.add(new ArrayList<>());
+            }
+        }
+
+        void schedule(WheelEntry entry, long deadlineMillis) {
+            long deadlineTick = Math.max(currentTick, ceilDiv(deadlineMillis - startMillis, TICK_MILLIS));
+            entry.remainingRounds = (deadlineTick - currentTick) / WHEEL_SIZE;
+            slots.get((int) (deadlineTick & (WHEEL_SIZE - 1))).add(entry);
+        }
+
+        List<WheelEntry> advance(long nowMillis) {
+            long targetTick = (nowMillis - startMillis) / TICK_MILLIS;
+            if (targetTick < currentTick) {
+                return Collections.emptyList();
+            }
+
+            List<WheelEntry> due = new ArrayList<>();
+            // Never spin more than one revolution: every slot is visited at most once per call
+            long lastTick = Math.min(targetTick, currentTick + WHEEL_SIZE - 1);
+            for (long tick = currentTick; tick <= lastTick; tick++) {
+                List<WheelEntry> slot = slots.get((int) (tick & (WHEEL_SIZE - 1)));
+                if (slot.isEmpty()) {
+                    continue;
+                }
+                List<WheelEntry> pending = new ArrayList<>(slot);
+                slot.clear();
+                for (WheelEntry entry : pending) {
+                    if (entry.remainingRounds > 0) {
+                        entry.remainingRounds--;
+                        slot.add(entry);
+                    } else {
+                        due.add(entry);
+                    }
+                }
+            }
+            currentTick = targetTick + 1;
+            return due;
+        }
+
+        private static long ceilDiv(long x, long y) {
+            return -Math.floorDiv(-x, y);
         }
     }
 }
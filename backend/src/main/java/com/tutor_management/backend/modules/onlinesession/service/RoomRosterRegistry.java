@@ -0,0 +1,145 @@
+package com.tutor_management.backend.modules.onlinesession.service;
+
+import com.tutor_management.backend.modules.onlinesession.entity.OnlineSession;
+import com.tutor_management.backend.modules.onlinesession.enums.RoomStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory roster of ACTIVE rooms and their participants.
+ * Lets the heartbeat path resolve membership and pending state transitions
+ * without locking the online_sessions row or loading the User entity.
+ * <p>
+ * The roster is a cache of the database state: it is seeded from the entity on
+ * every transactional write ({@link #sync(OnlineSession, Long)}), once that write
+ * commits, and a miss always falls back to the database path.
+ */
+@Component
+@Slf4j
+public class RoomRosterRegistry {
+
+    private final Map<String, RoomRoster> rosters = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the roster for a room, or null if the room is unknown on this node.
+     */
+    public RoomRoster get(String roomId) {
+        return rosters.get(roomId);
+    }
+
+    /**
+     * Refreshes the roster from the persisted session state.
+     * Rooms that are no longer ACTIVE are evicted. Inside a transaction the state is read
+     * now and applied after commit, so a rolled-back write never reaches the heartbeat path.
+     *
+     * @param session The session as just written to the database.
+     * @param studentUserId The student's User ID if known, otherwise null (keeps the previous value).
+     */
+    public void sync(OnlineSession session, Long studentUserId) {
+        String roomId = session.getRoomId();
+        if (session.getRoomStatus() != RoomStatus.ACTIVE) {
+            evict(roomId);
+            return;
+        }
+        if (session.getTutor() == null || session.getTutor().getUser() == null) {
+            return;
+        }
+
+        Long tutorUserId = session.getTutor().getUser().getId();
+        boolean tutorLeft = session.getTutorLeftAt() != null;
+        boolean studentLeft = session.getStudentLeftAt() != null;
+        boolean warningSent = session.getInactivityWarningSentAt() != null;
+        afterCommit(() -> {
+            RoomRoster roster = rosters.compute(roomId, (id, existing) -> {
+                if (existing == null || !existing.tutorUserId.equals(tutorUserId)) {
+                    return new RoomRoster(tutorUserId, studentUserId);
+                }
+                if (studentUserId != null) {
+                    existing.studentUserId = studentUserId;
+                }
+                return existing;
+            });
+
+            roster.tutorLeft = tutorLeft;
+            roster.studentLeft = studentLeft;
+            roster.warningSent = warningSent;
+        });
+    }
+
+    /**
+     * Drops a room from the roster (ended, reverted or deleted).
+     */
+    public void evict(String roomId) {
+        if (rosters.remove(roomId) != null) {
+            log.debug("Evicted room {} from roster", roomId);
+        }
+    }
+
+    public int size() {
+        return rosters.size();
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    /**
+     * Participants of a single room plus the flags that force a heartbeat through the database.
+     * Flags are written by transactional paths and only read on the heartbeat path.
+     */
+    public static final class RoomRoster {
+
+        private final Long tutorUserId;
+        private volatile Long studentUserId;
+        private volatile boolean tutorLeft;
+        private volatile boolean studentLeft;
+        private volatile boolean warningSent;
+
+        RoomRoster(Long tutorUserId, Long studentUserId) {
+            this.tutorUserId = tutorUserId;
+            this.studentUserId = studentUserId;
+        }
+
+        public boolean isTutor(long userId) {
+            return tutorUserId == userId;
+        }
+
+        public boolean isStudent(long userId) {
+            Long student = studentUserId;
+            return student != null && student == userId;
+        }
+
+        /**
+         * True when the student's User ID has not been resolved yet, so membership
+         * of a non-tutor user can only be decided by the database.
+         */
+        public boolean isStudentUnknown() {
+            return studentUserId == null;
+        }
+
+        /**
+         * True when a heartbeat from this participant changes persisted state
+         * (left → rejoined, or an inactivity warning has to be cleared).
+         */
+        public boolean needsTransition(long userId) {
+            if (warningSent) {
+                return true;
+            }
+            return isTutor(userId) ? tutorLeft : studentLeft;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.tutor_management.backend.modules.onlinesession.service;
+
+import com.tutor_management.backend.modules.onlinesession.dto.request.WhiteboardStrokeMessage;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Live whiteboard state per room: the room's strokes minus undone and cleared ones,
+ * in drawing order. Rejoining users are served from here instead of replaying
+ * every whiteboard_strokes row.
+ * <p>
+ * Mutations are only applied to boards that are loaded (or loading); a board that is
+ * not in memory is rebuilt from the persisted snapshot on the next read. All mutations
+ * are idempotent, so an operation that is both in the database and replayed after a
+ * load does not change the result.
+ */
+@Component
+public class WhiteboardBoardCache {
+
+    private final Map<String, LiveBoard> boards = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the board of a room, creating an unloaded one if absent.
+     * Callers use {@link LiveBoard#claimLoad()} to decide who populates it.
+     */
+    public LiveBoard getOrCreate(String roomId) {
+        LiveBoard board = boards.computeIfAbsent(roomId, id -> new LiveBoard());
+        board.touch();
+        return board;
+    }
+
+    /**
+     * Returns the board of a room or null if it is not in memory.
+     */
+    public LiveBoard get(String roomId) {
+        return boards.get(roomId);
+    }
+
+    public void applyStroke(String roomId, WhiteboardStrokeMessage.StrokeData stroke) {
+        apply(roomId, strokes -> strokes.put(stroke.getId(), stroke));
+    }
+
+    public void applyUndo(String roomId, String strokeId) {
+        apply(roomId, strokes -> strokes.remove(strokeId));
+    }
+
+    public void applyClear(String roomId, String userId) {
+        apply(roomId, strokes -> strokes.values().removeIf(s -> userId.equals(s.getUserId())));
+    }
+
+    private void apply(String roomId, Consumer<Map<String, WhiteboardStrokeMessage.StrokeData>> mutation) {
+        LiveBoard board = boards.get(roomId);
+        if (board != null) {
+            board.mutate(mutation);
+        }
+    }
+
+    /**
+     * Drops a board if it is still the one currently registered for the room.
+     */
+    public void evict(String roomId, LiveBoard board) {
+        boards.remove(roomId, board);
+    }
+
+    public void forEach(BiConsumer<String, LiveBoard> action) {
+        boards.forEach(action);
+    }
+
+    public int size() {
+        return boards.size();
+    }
+
+    /**
+     * In-memory board of a single room.
+     */
+    public static final class LiveBoard {
+
+        private final Map<String, WhiteboardStrokeMessage.StrokeData> strokes = new LinkedHashMap<>();
+        private final CompletableFuture<Void> loaded = new CompletableFuture<>();
+        /** Mutations received while loading, replayed over the loaded state; null once loaded. */
+        private List<Consumer<Map<String, WhiteboardStrokeMessage.StrokeData>>> replayLog = new ArrayList<>();
+        private boolean loadClaimed;
+        private boolean dirty;
+        private volatile long lastAccessMillis = System.currentTimeMillis();
+
+        /**
+         * @return true for exactly one caller, which must then {@link #install} or {@link #failLoad}.
+         */
+        public synchronized boolean claimLoad() {
+            if (loadClaimed) {
+                return false;
+            }
+            loadClaimed = true;
+            return true;
+        }
+
+        synchronized void mutate(Consumer<Map<String, WhiteboardStrokeMessage.StrokeData>> mutation) {
+            mutation.accept(strokes);
+            if (replayLog != null) {
+                replayLog.add(mutation);
+            }
+            dirty = true;
+            touch();
+        }
+
+        /**
+         * Installs the persisted state and replays mutations that raced with the load.
+         *
+         * @param persisted Strokes as recovered from the database.
+         * @param needsSnapshot Whether the state should be snapshotted on the next cycle.
+         */
+        public synchronized void install(List<WhiteboardStrokeMessage.StrokeData> persisted, boolean needsSnapshot) {
+            List<Consumer<Map<String, WhiteboardStrokeMessage.StrokeData>>> pending = replayLog;
+            strokes.clear();
+            for (WhiteboardStrokeMessage.StrokeData stroke : persisted) {
+                strokes.put(stroke.getId(), stroke);
+            }
+            for (Consumer<Map<String, WhiteboardStrokeMessage.StrokeData>> mutation : pending) {
+                mutation.accept(strokes);
+            }
+            replayLog = null;
+            dirty = needsSnapshot || !pending.isEmpty();
+            loaded.complete(null);
+        }
+
+        public void failLoad(Throwable cause) {
+            loaded.completeExceptionally(cause);
+        }
+
+        /**
+         * Waits for the load to finish and returns a copy of the strokes in drawing order.
+         */
+        public List<WhiteboardStrokeMessage.StrokeData> awaitStrokes() {
+            loaded.join();
+            return copy();
+        }
+
+        public boolean isLoaded() {
+            return loaded.isDone() && !loaded.isCompletedExceptionally();
+        }
+
+        public synchronized List<WhiteboardStrokeMessage.StrokeData> copy() {
+            touch();
+            return new ArrayList<>(strokes.values());
+        }
+
+        /**
+         * Returns a copy of the strokes and clears the dirty flag, or null if nothing changed.
+         */
+        synchronized List<WhiteboardStrokeMessage.StrokeData> takeIfDirty() {
+            if (!dirty || replayLog != null) {
+                return null;
+            }
+            dirty = false;
+            return new ArrayList<>(strokes.values());
+        }
+
+        synchronized void markDirty() {
+            dirty = true;
+        }
+
+        public synchronized boolean isDirty() {
+            return dirty;
+        }
+
+        public long getLastAccessMillis() {
+            return lastAccessMillis;
+        }
+
+        private void touch() {
+            lastAccessMillis = System.currentTimeMillis();
+        }
+    }
+}
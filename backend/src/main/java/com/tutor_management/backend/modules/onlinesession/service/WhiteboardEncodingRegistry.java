@@ -0,0 +1,103 @@
+package com.tutor_management.backend.modules.onlinesession.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which whiteboard encoding each connected STOMP session negotiated.
+ * <p>
+ * Clients opt in by sending {@code X-Whiteboard-Encoding: compact} on CONNECT and
+ * subscribing to the {@code .compact} variants of the whiteboard topics. The controller
+ * uses the per-room counts to publish each variant only when someone can receive it.
+ */
+@Component
+@Slf4j
+public class WhiteboardEncodingRegistry {
+
+    public static final String ENCODING_HEADER = "X-Whiteboard-Encoding";
+    public static final String COMPACT = "compact";
+
+    private final Map<String, Registration> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Counts> rooms = new ConcurrentHashMap<>();
+
+    private record Registration(String roomId, boolean compact) {
+    }
+
+    private record Counts(int json, int compact) {
+
+        Counts plus(boolean isCompact, int delta) {
+            return isCompact ? new Counts(json, compact + delta) : new Counts(json + delta, compact);
+        }
+
+        boolean isEmpty() {
+            return json <= 0 && compact <= 0;
+        }
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Message<?> connect = (Message<?>) event.getMessage().getHeaders().get(SimpMessageHeaderAccessor.CONNECT_MESSAGE_HEADER);
+        if (connect == null) {
+            return;
+        }
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(connect);
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        Object roomId = attributes != null ? attributes.get("roomId") : null;
+        if (roomId == null || accessor.getSessionId() == null) {
+            return;
+        }
+        boolean compact = COMPACT.equalsIgnoreCase(accessor.getFirstNativeHeader(ENCODING_HEADER));
+        register(accessor.getSessionId(), roomId.toString(), compact);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        unregister(event.getSessionId());
+    }
+
+    public void register(String sessionId, String roomId, boolean compact) {
+        Registration previous = sessions.put(sessionId, new Registration(roomId, compact));
+        if (previous != null) {
+            adjust(previous, -1);
+        }
+        adjust(new Registration(roomId, compact), 1);
+        log.debug("Session {} in room {} uses {} whiteboard encoding", sessionId, roomId, compact ? "compact" : "json");
+    }
+
+    public void unregister(String sessionId) {
+        Registration registration = sessions.remove(sessionId);
+        if (registration != null) {
+            adjust(registration, -1);
+        }
+    }
+
+    /**
+     * Whether the JSON topics need to be published. Rooms without registrations
+     * (e.g. sessions that connected before a restart) default to JSON.
+     */
+    public boolean hasJsonClients(String roomId) {
+        Counts counts = rooms.get(roomId);
+        return counts == null || counts.json() > 0;
+    }
+
+    public boolean hasCompactClients(String roomId) {
+        Counts counts = rooms.get(roomId);
+        return counts != null && counts.compact() > 0;
+    }
+
+    private void adjust(Registration registration, int delta) {
+        rooms.compute(registration.roomId(), (id, counts) -> {
+            Counts next = (counts != null ? counts : new Counts(0, 0)).plus(registration.compact(), delta);
+            return next.isEmpty() ? null : next;
+        });
+    }
+}
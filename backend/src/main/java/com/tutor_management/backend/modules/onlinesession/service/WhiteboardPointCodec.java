@@ -0,0 +1,218 @@
+package com.tutor_management.backend.modules.onlinesession.service;
+
+import com.tutor_management.backend.modules.onlinesession.dto.request.WhiteboardDeltaMessage;
+import com.tutor_management.backend.modules.onlinesession.dto.request.WhiteboardStrokeMessage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Compact encoding of whiteboard stroke points.
+ * <p>
+ * Coordinates are normalized (0..1) on the client, so they are quantized to
+ * {@link #SCALE} steps, delta-encoded against the previous point and written as
+ * zigzag varints. Consecutive points of a stroke are close together, which keeps
+ * most coordinates at one or two bytes instead of ~20 characters of JSON.
+ * <p>
+ * Layout: {@code version (1 byte) | count (varint) | (dx, dy)* (zigzag varints)}.
+ * On JSON carriers the bytes travel Base64-encoded in {@code encodedPoints}.
+ * A null coordinate is encoded as 0.
+ */
+public final class WhiteboardPointCodec {
+
+    static final byte VERSION = 1;
+    /** Quantization steps per unit: 1e-5 precision, well below one pixel on any screen. */
+    static final double SCALE = 100_000d;
+
+    private WhiteboardPointCodec() {
+    }
+
+    public static byte[] encode(List<WhiteboardStrokeMessage.Point> points) {
+        // Sized for the typical two bytes per coordinate; grows on demand
+        Writer out = new Writer(6 + points.size() * 4);
+        out.writeByte(VERSION);
+        out.writeVarint(points.size());
+        long prevX = 0;
+        long prevY = 0;
+        for (WhiteboardStrokeMessage.Point point : points) {
+            long x = quantize(point.getX());
+            long y = quantize(point.getY());
+            out.writeVarint(zigzag(x - prevX));
+            out.writeVarint(zigzag(y - prevY));
+            prevX = x;
+            prevY = y;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the data is truncated or of an unknown version.
+     */
+    public static List<WhiteboardStrokeMessage.Point> decode(byte[] data) {
+        Reader in = new Reader(data);
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported point encoding version: " + version);
+        }
+        long count = in.readVarint();
+        // Every point takes at least two bytes; reject counts the payload cannot hold
+        if (count < 0 || count > in.remaining() / 2) {
+            throw new IllegalArgumentException("Invalid point count: " + count);
+        }
+        List<WhiteboardStrokeMessage.Point> points = new ArrayList<>((int) count);
+        long x = 0;
+        long y = 0;
+        for (int i = 0; i < count; i++) {
+            x += unzigzag(in.readVarint());
+            y += unzigzag(in.readVarint());
+            points.add(new WhiteboardStrokeMessage.Point(x / SCALE, y / SCALE));
+        }
+        return points;
+    }
+
+    public static String encodeToString(List<WhiteboardStrokeMessage.Point> points) {
+        return Base64.getEncoder().encodeToString(encode(points));
+    }
+
+    public static List<WhiteboardStrokeMessage.Point> decodeFromString(String encoded) {
+        return decode(Base64.getDecoder().decode(encoded));
+    }
+
+    /**
+     * Returns a copy of the stroke carrying {@code encodedPoints} instead of {@code points}.
+     */
+    public static WhiteboardStrokeMessage.StrokeData compact(WhiteboardStrokeMessage.StrokeData stroke) {
+        if (stroke.getPoints() == null) {
+            return stroke;
+        }
+        return WhiteboardStrokeMessage.StrokeData.builder()
+                .id(stroke.getId())
+                .encodedPoints(encodeToString(stroke.getPoints()))
+                .color(stroke.getColor())
+                .width(stroke.getWidth())
+                .tool(stroke.getTool())
+                .timestamp(stroke.getTimestamp())
+                .userId(stroke.getUserId())
+                .build();
+    }
+
+    public static WhiteboardStrokeMessage compact(WhiteboardStrokeMessage message) {
+        return new WhiteboardStrokeMessage(message.getType(), compact(message.getStroke()));
+    }
+
+    public static WhiteboardDeltaMessage compact(WhiteboardDeltaMessage delta) {
+        if (delta.getPoints() == null) {
+            return delta;
+        }
+        return WhiteboardDeltaMessage.builder()
+                .type(delta.getType())
+                .strokeId(delta.getStrokeId())
+                .encodedPoints(encodeToString(delta.getPoints()))
+                .startIndex(delta.getStartIndex())
+                .color(delta.getColor())
+                .width(delta.getWidth())
+                .tool(delta.getTool())
+                .userId(delta.getUserId())
+                .build();
+    }
+
+    /**
+     * Replaces {@code encodedPoints} with decoded {@code points} in place; plain strokes pass through.
+     */
+    public static WhiteboardStrokeMessage.StrokeData expand(WhiteboardStrokeMessage.StrokeData stroke) {
+        if (stroke.getEncodedPoints() != null) {
+            stroke.setPoints(decodeFromString(stroke.getEncodedPoints()));
+            stroke.setEncodedPoints(null);
+        }
+        return stroke;
+    }
+
+    public static WhiteboardDeltaMessage expand(WhiteboardDeltaMessage delta) {
+        if (delta.getEncodedPoints() != null) {
+            delta.setPoints(decodeFromString(delta.getEncodedPoints()));
+            delta.setEncodedPoints(null);
+        }
+        return delta;
+    }
+
+    private static long quantize(Double value) {
+        return value != null ? Math.round(value * SCALE) : 0L;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Writer {
+
+        private byte[] buf;
+        private int pos;
+
+        Writer(int capacity) {
+            buf = new byte[capacity];
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void writeVarint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] buf;
+        private int pos;
+
+        Reader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        int readByte() {
+            if (pos >= buf.length) {
+                throw new IllegalArgumentException("Truncated point data");
+            }
+            return buf[pos++];
+        }
+
+        long readVarint() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        int remaining() {
+            return buf.length - pos;
+        }
+    }
+}
@@ -8,66 +8,100 @@ import com.tutor_management.backend.modules.onlinesession.repository.WhiteboardS
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
+/**
+ * Whiteboard persistence. Mutations are handed to {@link WhiteboardWriteBehindBuffer}
+ * so the STOMP inbound thread never waits on the database; reads are served from the
+ * live board in {@link WhiteboardBoardCache}, rebuilt from the compacted snapshot on a miss.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class WhiteboardServiceImpl implements WhiteboardService {
 
     private final WhiteboardStrokeRepository repository;
+    private final WhiteboardWriteBehindBuffer writeBehindBuffer;
+    private final WhiteboardBoardCache boardCache;
+    private final WhiteboardSnapshotStore snapshotStore;
     private final ObjectMapper objectMapper;
 
     @Override
-    @Transactional
     public void saveStroke(String roomId, WhiteboardStrokeMessage.StrokeData stroke) {
-        try {
-            String jsonData = objectMapper.writeValueAsString(stroke);
-            WhiteboardStroke entity = WhiteboardStroke.builder()
-                    .strokeId(stroke.getId())
-                    .roomId(roomId)
-                    .userId(stroke.getUserId())
-                    .data(jsonData)
-                    .timestamp(stroke.getTimestamp())
-                    .build();
-            repository.save(entity);
-            log.debug("Saved stroke {} for room {}", stroke.getId(), roomId);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize stroke data for room {}: {}", roomId, e.getMessage());
-        }
+        writeBehindBuffer.enqueueStroke(roomId, stroke);
+        log.debug("Buffered stroke {} for room {}", stroke.getId(), roomId);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<WhiteboardStrokeMessage.StrokeData> getStrokes(String roomId) {
-        return repository.findByRoomIdOrderByTimestampAsc(roomId).stream()
+        WhiteboardBoardCache.LiveBoard board = boardCache.getOrCreate(roomId);
+        if (board.claimLoad()) {
+            try {
+                // Read-your-writes: pending strokes must be persisted before the board is rebuilt
+                writeBehindBuffer.flushRoom(roomId);
+                loadBoard(roomId, board);
+            } catch (RuntimeException e) {
+                boardCache.evict(roomId, board);
+                board.failLoad(e);
+                throw e;
+            }
+        }
+        return board.awaitStrokes();
+    }
+
+    /**
+     * Rebuilds a room's board: snapshot plus the rows written after it, or every row
+     * when no snapshot exists (the board is then snapshotted on the next cycle).
+     */
+    private void loadBoard(String roomId, WhiteboardBoardCache.LiveBoard board) {
+        Optional<WhiteboardSnapshotStore.Snapshot> snapshot = snapshotStore.read(roomId);
+        if (snapshot.isPresent()) {
+            Map<String, WhiteboardStrokeMessage.StrokeData> strokes = new LinkedHashMap<>();
+            snapshot.get().strokes().forEach(stroke -> strokes.put(stroke.getId(), stroke));
+            List<WhiteboardStroke> tail = repository.findByRoomIdAndIdGreaterThanOrderByIdAsc(
+                    roomId, snapshot.get().lastStrokeRowId());
+            decode(roomId, tail).forEach(stroke -> strokes.put(stroke.getId(), stroke));
+            board.install(new ArrayList<>(strokes.values()), !tail.isEmpty());
+            log.debug("Loaded whiteboard for room {} from snapshot + {} newer strokes", roomId, tail.size());
+        } else {
+            List<WhiteboardStrokeMessage.StrokeData> strokes = decode(roomId, repository.findByRoomIdOrderByTimestampAsc(roomId));
+            board.install(strokes, !strokes.isEmpty());
+            log.debug("Loaded whiteboard for room {} from {} stroke rows", roomId, strokes.size());
+        }
+    }
+
+    private List<WhiteboardStrokeMessage.StrokeData> decode(String roomId, List<WhiteboardStroke> rows) {
+        return rows.stream()
                 .map(entity -> {
                     try {
-                        return objectMapper.readValue(entity.getData(), WhiteboardStrokeMessage.StrokeData.class);
-                    } catch (JsonProcessingException e) {
+                        return WhiteboardPointCodec.expand(
+                                objectMapper.readValue(entity.getData(), WhiteboardStrokeMessage.StrokeData.class));
+                    } catch (JsonProcessingException | IllegalArgumentException e) {
                         log.error("Failed to deserialize stroke {} for room {}: {}", entity.getStrokeId(), roomId, e.getMessage());
                         return null;
                     }
                 })
-                .filter(java.util.Objects::nonNull)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
     @Override
-    @Transactional
     public void deleteStroke(String roomId, String strokeId) {
-        repository.deleteByRoomIdAndStrokeId(roomId, strokeId);
-        log.debug("Deleted stroke {} from room {}", strokeId, roomId);
+        writeBehindBuffer.enqueueUndo(roomId, strokeId);
+        log.debug("Buffered undo of stroke {} in room {}", strokeId, roomId);
     }
 
     @Override
-    @Transactional
     public void clearStrokes(String roomId, String userId) {
         if (userId != null) {
-            repository.deleteByRoomIdAndUserId(roomId, userId);
+            writeBehindBuffer.enqueueClear(roomId, userId);
             log.info("Cleared strokes for user {} in room {}", userId, roomId);
         } else {
             // Bulk delete for whole board clear (if needed in future)
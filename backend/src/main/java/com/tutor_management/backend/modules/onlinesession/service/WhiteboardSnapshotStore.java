@@ -0,0 +1,96 @@
+package com.tutor_management.backend.modules.onlinesession.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tutor_management.backend.modules.onlinesession.dto.request.WhiteboardStrokeMessage;
+import com.tutor_management.backend.modules.onlinesession.entity.WhiteboardSnapshot;
+import com.tutor_management.backend.modules.onlinesession.repository.WhiteboardSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reads and writes compacted whiteboard snapshots.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WhiteboardSnapshotStore {
+
+    private static final TypeReference<List<WhiteboardStrokeMessage.StrokeData>> STROKE_LIST = new TypeReference<>() {};
+
+    private final WhiteboardSnapshotRepository snapshotRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Snapshot content as read back from the database.
+     */
+    public record Snapshot(List<WhiteboardStrokeMessage.StrokeData> strokes, long lastStrokeRowId) {
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Snapshot> read(String roomId) {
+        return snapshotRepository.findByRoomId(roomId).flatMap(entity -> {
+            try {
+                return Optional.of(new Snapshot(decode(entity.getData()), entity.getLastStrokeRowId()));
+            } catch (UncheckedIOException e) {
+                log.error("Corrupt whiteboard snapshot for room {}, falling back to stroke rows: {}", roomId, e.getMessage());
+                return Optional.empty();
+            }
+        });
+    }
+
+    @Transactional
+    public void write(String roomId, List<WhiteboardStrokeMessage.StrokeData> strokes, long lastStrokeRowId) {
+        WhiteboardSnapshot snapshot = snapshotRepository.findByRoomId(roomId)
+                .orElseGet(() -> WhiteboardSnapshot.builder().roomId(roomId).build());
+        snapshot.setData(encode(strokes));
+        snapshot.setStrokeCount(strokes.size());
+        snapshot.setLastStrokeRowId(lastStrokeRowId);
+        snapshotRepository.save(snapshot);
+        log.debug("Wrote whiteboard snapshot for room {}: {} strokes, {} bytes", roomId, strokes.size(), snapshot.getData().length);
+    }
+
+    /**
+     * Invalidates a room's snapshot; joins the caller's transaction.
+     */
+    @Transactional
+    public void delete(String roomId) {
+        snapshotRepository.deleteByRoomId(roomId);
+    }
+
+    byte[] encode(List<WhiteboardStrokeMessage.StrokeData> strokes) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        List<WhiteboardStrokeMessage.StrokeData> compacted = strokes.stream().map(WhiteboardPointCodec::compact).toList();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, compacted);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    List<WhiteboardStrokeMessage.StrokeData> decode(byte[] data) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            List<WhiteboardStrokeMessage.StrokeData> strokes = objectMapper.readValue(in, STROKE_LIST);
+            strokes.forEach(WhiteboardPointCodec::expand);
+            return strokes;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (IllegalArgumentException e) {
+            throw new UncheckedIOException(new IOException("Undecodable snapshot points", e));
+        }
+    }
+}
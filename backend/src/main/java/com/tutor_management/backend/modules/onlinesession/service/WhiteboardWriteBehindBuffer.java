@@ -0,0 +1,429 @@
+package com.tutor_management.backend.modules.onlinesession.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tutor_management.backend.modules.onlinesession.dto.request.WhiteboardStrokeMessage;
+import com.tutor_management.backend.modules.onlinesession.repository.WhiteboardStrokeBatchRepository;
+import com.tutor_management.backend.modules.onlinesession.repository.WhiteboardStrokeBatchRepository.StrokeRow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * Write-behind buffer for whiteboard mutations.
+ * <p>
+ * STOMP handlers only enqueue; strokes, undos and clears are coalesced per room and
+ * flushed as JDBC batches on a timer or once a room reaches the batch size. Coalescing
+ * drops strokes that are undone or cleared before they ever reach the database.
+ * The total number of pending operations is bounded: when the bound is hit the
+ * enqueuing thread flushes its own room synchronously (caller-runs backpressure).
+ * A batch that fails to write goes back into its room buffer and is retried on the next flush.
+ * <p>
+ * The buffer also keeps {@link WhiteboardBoardCache} in step: each operation is applied
+ * to the live board under the same lock that drains it, which is what lets a snapshot
+ * taken during a flush line up exactly with the rows written so far.
+ */
+@Component
+@Slf4j
+public class WhiteboardWriteBehindBuffer {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final WhiteboardStrokeBatchRepository batchRepository;
+    private final WhiteboardSnapshotStore snapshotStore;
+    private final WhiteboardBoardCache boardCache;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, RoomBuffer> rooms = new ConcurrentHashMap<>();
+    /** Serializes flushes of a room so batches hit the database in enqueue order. */
+    private final ReentrantLock[] flushLocks = new ReentrantLock[LOCK_STRIPES];
+    private final AtomicInteger pendingOps = new AtomicInteger();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "whiteboard-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter enqueuedCounter;
+    private final Counter coalescedCounter;
+    private final Counter backpressureCounter;
+    private final Counter flushedRowsCounter;
+    private final Counter flushFailureCounter;
+    private final Counter requeuedCounter;
+    private final Counter snapshotCounter;
+    private final Timer flushTimer;
+
+    @Value("${app.whiteboard.write-behind.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${app.whiteboard.write-behind.max-pending:20000}")
+    private int maxPending = 20000;
+
+    @Value("${app.whiteboard.board-idle-eviction-ms:1800000}")
+    private long boardIdleEvictionMillis = 1800000;
+
+    /**
+     * Store points in the compact encoding ({@link WhiteboardPointCodec}); readers accept both forms.
+     */
+    @Value("${app.whiteboard.codec.persist-compact:true}")
+    private boolean persistCompact = true;
+
+    public WhiteboardWriteBehindBuffer(WhiteboardStrokeBatchRepository batchRepository,
+                                       WhiteboardSnapshotStore snapshotStore,
+                                       WhiteboardBoardCache boardCache,
+                                       ObjectMapper objectMapper,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry) {
+        this.batchRepository = batchRepository;
+        this.snapshotStore = snapshotStore;
+        this.boardCache = boardCache;
+        this.objectMapper = objectMapper;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            flushLocks[i] = new ReentrantLock();
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Flushes may be triggered from inside a read-only transaction (getStrokes)
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.enqueuedCounter = meterRegistry.counter("whiteboard.write_behind.enqueued");
+        this.coalescedCounter = meterRegistry.counter("whiteboard.write_behind.coalesced");
+        this.backpressureCounter = meterRegistry.counter("whiteboard.write_behind.backpressure");
+        this.flushedRowsCounter = meterRegistry.counter("whiteboard.write_behind.flushed_rows");
+        this.flushFailureCounter = meterRegistry.counter("whiteboard.write_behind.flush_failures");
+        this.requeuedCounter = meterRegistry.counter("whiteboard.write_behind.requeued");
+        this.snapshotCounter = meterRegistry.counter("whiteboard.snapshot.written");
+        this.flushTimer = meterRegistry.timer("whiteboard.write_behind.flush");
+        Gauge.builder("whiteboard.write_behind.pending", pendingOps, AtomicInteger::get)
+                .description("Whiteboard operations waiting to be flushed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Buffers a completed stroke.
+     */
+    public void enqueueStroke(String roomId, WhiteboardStrokeMessage.StrokeData stroke) {
+        mutate(roomId, buffer -> buffer.strokes.put(stroke.getId(), stroke) == null ? 1 : 0,
+                () -> boardCache.applyStroke(roomId, stroke));
+    }
+
+    /**
+     * Buffers an undo. A stroke still in the buffer is simply dropped.
+     */
+    public void enqueueUndo(String roomId, String strokeId) {
+        mutate(roomId, buffer -> {
+            if (buffer.strokes.remove(strokeId) != null) {
+                coalescedCounter.increment();
+                return -1;
+            }
+            return buffer.deletedStrokeIds.add(strokeId) ? 1 : 0;
+        }, () -> boardCache.applyUndo(roomId, strokeId));
+    }
+
+    /**
+     * Buffers a clear of one user's strokes. Pending strokes of that user are dropped;
+     * rows already persisted are deleted on the next flush.
+     */
+    public void enqueueClear(String roomId, String userId) {
+        mutate(roomId, buffer -> {
+            int before = buffer.strokes.size();
+            buffer.strokes.values().removeIf(s -> userId.equals(s.getUserId()));
+            int dropped = before - buffer.strokes.size();
+            if (dropped > 0) {
+                coalescedCounter.increment(dropped);
+            }
+            return (buffer.clearedUserIds.add(userId) ? 1 : 0) - dropped;
+        }, () -> boardCache.applyClear(roomId, userId));
+    }
+
+    /**
+     * Applies a mutation (and its live-board counterpart) under the room buffer's lock.
+     * Retries when the buffer was retired by a concurrent flush between lookup and lock.
+     */
+    private void mutate(String roomId, ToIntFunction<RoomBuffer> mutation, Runnable boardUpdate) {
+        while (true) {
+            RoomBuffer buffer = rooms.computeIfAbsent(roomId, id -> new RoomBuffer());
+            int delta;
+            synchronized (buffer) {
+                if (buffer.retired) {
+                    continue;
+                }
+                delta = mutation.applyAsInt(buffer);
+                boardUpdate.run();
+            }
+            afterEnqueue(roomId, buffer, delta);
+            return;
+        }
+    }
+
+    private void afterEnqueue(String roomId, RoomBuffer buffer, int delta) {
+        enqueuedCounter.increment();
+        int pending = pendingOps.addAndGet(delta);
+
+        if (pending > maxPending) {
+            // Buffer is full: make the producer pay for its own room instead of growing without bound
+            backpressureCounter.increment();
+            flushRoom(roomId);
+        } else if (buffer.size() >= batchSize && buffer.flushQueued.compareAndSet(false, true)) {
+            try {
+                flushExecutor.execute(() -> {
+                    buffer.flushQueued.set(false);
+                    flushRoom(roomId);
+                });
+            } catch (RejectedExecutionException e) {
+                buffer.flushQueued.set(false);
+                flushRoom(roomId);
+            }
+        }
+    }
+
+    /**
+     * Flushes every room on the configured interval.
+     */
+    @Scheduled(fixedDelayString = "${app.whiteboard.write-behind.flush-interval-ms:500}")
+    public void flushAll() {
+        for (String roomId : rooms.keySet()) {
+            flushRoom(roomId);
+        }
+    }
+
+    /**
+     * Synchronously writes everything pending for a room.
+     * Readers call this first to get read-your-writes semantics.
+     */
+    public void flushRoom(String roomId) {
+        flush(roomId, false);
+    }
+
+    /**
+     * Flushes a room and, if its live board changed, persists a compacted snapshot
+     * that covers exactly the rows written up to this point.
+     */
+    public void flushAndSnapshot(String roomId) {
+        flush(roomId, true);
+    }
+
+    private void flush(String roomId, boolean snapshot) {
+        ReentrantLock flushLock = flushLocks[Math.floorMod(roomId.hashCode(), LOCK_STRIPES)];
+        flushLock.lock();
+        try {
+            List<WhiteboardStrokeMessage.StrokeData> strokes = List.of();
+            List<String> deletedStrokeIds = List.of();
+            List<String> clearedUserIds = List.of();
+            List<WhiteboardStrokeMessage.StrokeData> boardState = null;
+            WhiteboardBoardCache.LiveBoard board = snapshot ? boardCache.get(roomId) : null;
+
+            RoomBuffer buffer = rooms.get(roomId);
+            if (buffer != null) {
+                synchronized (buffer) {
+                    if (buffer.size() == 0) {
+                        buffer.retired = true;
+                        rooms.remove(roomId, buffer);
+                    } else {
+                        strokes = new ArrayList<>(buffer.strokes.values());
+                        deletedStrokeIds = new ArrayList<>(buffer.deletedStrokeIds);
+                        clearedUserIds = new ArrayList<>(buffer.clearedUserIds);
+                        buffer.strokes.clear();
+                        buffer.deletedStrokeIds.clear();
+                        buffer.clearedUserIds.clear();
+                    }
+                    // Captured under the buffer lock: the board reflects exactly the drained operations
+                    boardState = board != null ? board.takeIfDirty() : null;
+                }
+            } else if (board != null) {
+                boardState = board.takeIfDirty();
+            }
+
+            boolean written = true;
+            int drained = strokes.size() + deletedStrokeIds.size() + clearedUserIds.size();
+            if (drained > 0) {
+                pendingOps.addAndGet(-drained);
+                List<StrokeRow> rows = toRows(roomId, strokes);
+                Timer.Sample sample = Timer.start();
+                written = writeBatch(roomId, rows, deletedStrokeIds, clearedUserIds);
+                sample.stop(flushTimer);
+                if (!written) {
+                    requeue(roomId, strokes, deletedStrokeIds, clearedUserIds);
+                }
+            }
+
+            if (boardState != null) {
+                if (written) {
+                    writeSnapshot(roomId, boardState);
+                } else {
+                    board.markDirty();
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private boolean writeBatch(String roomId, List<StrokeRow> rows, List<String> deletedStrokeIds, List<String> clearedUserIds) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Deletes target rows persisted by earlier flushes; every buffered stroke is newer
+                if (!clearedUserIds.isEmpty()) {
+                    batchRepository.batchDeleteByUserIds(roomId, clearedUserIds);
+                }
+                if (!deletedStrokeIds.isEmpty()) {
+                    batchRepository.batchDeleteByStrokeIds(roomId, deletedStrokeIds);
+                }
+                if (!clearedUserIds.isEmpty() || !deletedStrokeIds.isEmpty()) {
+                    // A snapshot cannot represent deletions after it was taken
+                    snapshotStore.delete(roomId);
+                }
+                if (!rows.isEmpty()) {
+                    batchRepository.batchInsert(rows);
+                }
+            });
+            flushedRowsCounter.increment(rows.size() + deletedStrokeIds.size() + clearedUserIds.size());
+            log.debug("Flushed whiteboard room {}: {} strokes, {} undos, {} clears",
+                    roomId, rows.size(), deletedStrokeIds.size(), clearedUserIds.size());
+            return true;
+        } catch (Exception e) {
+            flushFailureCounter.increment();
+            log.error("Failed to flush whiteboard batch for room {}: {}", roomId, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Puts the operations of a failed batch back in front of anything enqueued since, so
+     * the next flush retries them. Undos and clears enqueued since still win over the
+     * requeued strokes they target.
+     */
+    private void requeue(String roomId, List<WhiteboardStrokeMessage.StrokeData> strokes,
+                         List<String> deletedStrokeIds, List<String> clearedUserIds) {
+        while (true) {
+            RoomBuffer buffer = rooms.computeIfAbsent(roomId, id -> new RoomBuffer());
+            synchronized (buffer) {
+                if (buffer.retired) {
+                    continue;
+                }
+                int before = buffer.size();
+                Map<String, WhiteboardStrokeMessage.StrokeData> merged = new LinkedHashMap<>();
+                for (WhiteboardStrokeMessage.StrokeData stroke : strokes) {
+                    if (!buffer.deletedStrokeIds.contains(stroke.getId())
+                            && !buffer.clearedUserIds.contains(stroke.getUserId())) {
+                        merged.put(stroke.getId(), stroke);
+                    }
+                }
+                merged.putAll(buffer.strokes);
+                buffer.strokes.clear();
+                buffer.strokes.putAll(merged);
+                buffer.deletedStrokeIds.addAll(deletedStrokeIds);
+                buffer.clearedUserIds.addAll(clearedUserIds);
+                pendingOps.addAndGet(buffer.size() - before);
+            }
+            requeuedCounter.increment(strokes.size() + deletedStrokeIds.size() + clearedUserIds.size());
+            return;
+        }
+    }
+
+    private void writeSnapshot(String roomId, List<WhiteboardStrokeMessage.StrokeData> boardState) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    snapshotStore.write(roomId, boardState, batchRepository.findMaxId(roomId)));
+            snapshotCounter.increment();
+        } catch (Exception e) {
+            WhiteboardBoardCache.LiveBoard board = boardCache.get(roomId);
+            if (board != null) {
+                board.markDirty();
+            }
+            log.error("Failed to write whiteboard snapshot for room {}: {}", roomId, e.getMessage());
+        }
+    }
+
+    /**
+     * Periodically compacts changed boards into snapshots and drops boards nobody has
+     * touched for a while (after snapshotting them).
+     */
+    @Scheduled(fixedDelayString = "${app.whiteboard.snapshot-interval-ms:60000}")
+    public void snapshotBoards() {
+        long idleThreshold = System.currentTimeMillis() - boardIdleEvictionMillis;
+        boardCache.forEach((roomId, board) -> {
+            if (!board.isLoaded()) {
+                return;
+            }
+            if (board.isDirty()) {
+                flushAndSnapshot(roomId);
+            }
+            if (board.getLastAccessMillis() < idleThreshold && !board.isDirty()) {
+                boardCache.evict(roomId, board);
+                log.debug("Evicted idle whiteboard board for room {}", roomId);
+            }
+        });
+    }
+
+    private List<StrokeRow> toRows(String roomId, List<WhiteboardStrokeMessage.StrokeData> strokes) {
+        List<StrokeRow> rows = new ArrayList<>(strokes.size());
+        for (WhiteboardStrokeMessage.StrokeData stroke : strokes) {
+            try {
+                Object stored = persistCompact ? WhiteboardPointCodec.compact(stroke) : stroke;
+                rows.add(new StrokeRow(stroke.getId(), roomId, stroke.getUserId(),
+                        objectMapper.writeValueAsString(stored), stroke.getTimestamp()));
+            } catch (JsonProcessingException e) {
+                log.error("Failed to serialize stroke data for room {}: {}", roomId, e.getMessage());
+            }
+        }
+        return rows;
+    }
+
+    public int pendingOperations() {
+        return pendingOps.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushExecutor.shutdown();
+        try {
+            flushExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushAll();
+        log.info("Whiteboard write-behind buffer drained on shutdown");
+    }
+
+    /**
+     * Pending, already coalesced operations of a single room.
+     */
+    private static final class RoomBuffer {
+
+        private final Map<String, WhiteboardStrokeMessage.StrokeData> strokes = new LinkedHashMap<>();
+        private final Set<String> deletedStrokeIds = new LinkedHashSet<>();
+        private final Set<String> clearedUserIds = new LinkedHashSet<>();
+        private final AtomicBoolean flushQueued = new AtomicBoolean();
+        private boolean retired;
+
+        synchronized int size() {
+            return strokes.size() + deletedStrokeIds.size() + clearedUserIds.size();
+        }
+    }
+}
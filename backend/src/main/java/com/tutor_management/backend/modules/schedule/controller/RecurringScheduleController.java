@@ -141,6 +141,31 @@ public class RecurringScheduleController {
         return ResponseEntity.ok(ApiResponse.success("Đã tạo " + created + " buổi học thành công cho tháng " + month, data));
     }
 
+    /**
+     * Generates session records for all tutors' active schedules over a range of months.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/generate-sessions/range")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> generateSessionsForRange(
+            @RequestBody Map<String, Object> request
+    ) {
+        String fromMonth = (String) request.get("fromMonth");
+        String toMonth = (String) request.get("toMonth");
+
+        if (fromMonth == null || fromMonth.isBlank() || toMonth == null || toMonth.isBlank()) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Vui lòng cung cấp tháng bắt đầu và tháng kết thúc (YYYY-MM)"));
+        }
+
+        int created = recurringScheduleService.generateSessionsForRange(fromMonth, toMonth);
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("fromMonth", fromMonth);
+        data.put("toMonth", toMonth);
+        data.put("sessionsCreated", created);
+
+        return ResponseEntity.ok(ApiResponse.success("Đã tạo " + created + " buổi học từ " + fromMonth + " đến " + toMonth, data));
+    }
+
     /**
      * Verifies if sessions have already been initialized for a specific month and student.
      */
@@ -0,0 +1,87 @@
+package com.tutor_management.backend.modules.schedule.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * JDBC access to session_records for bulk generation from recurring schedules.
+ * JPA cannot batch inserts for IDENTITY keys, so generated sessions are inserted here.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SessionGenerationRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A session record to insert: unpaid, SCHEDULED, one session.
+     */
+    public record GeneratedSession(Long tutorId, Long studentId, String month, LocalDate sessionDate,
+                                   LocalTime startTime, LocalTime endTime, double hours, long pricePerHour,
+                                   long totalAmount, String subject, String notes) {
+    }
+
+    /**
+     * Streams the (student, date) pairs that already have a session in the date range.
+     *
+     * @param studentIds Students to look at; if empty nothing is read
+     */
+    public void forEachExistingSession(LocalDate from, LocalDate to, List<Long> studentIds, ObjLongConsumer<LocalDate> consumer) {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(",", Collections.nCopies(studentIds.size(), "?"));
+        Object[] args = new Object[studentIds.size() + 2];
+        args[0] = Date.valueOf(from);
+        args[1] = Date.valueOf(to);
+        for (int i = 0; i < studentIds.size(); i++) {
+            args[i + 2] = studentIds.get(i);
+        }
+        jdbcTemplate.query(
+                "SELECT student_id, session_date FROM session_records " +
+                "WHERE session_date BETWEEN ? AND ? AND student_id IN (" + placeholders + ")",
+                (RowCallbackHandler) rs -> consumer.accept(rs.getDate("session_date").toLocalDate(), rs.getLong("student_id")),
+                args);
+    }
+
+    public int[][] batchInsert(List<GeneratedSession> sessions, int batchSize) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.batchUpdate(
+                "INSERT INTO session_records (tutor_id, student_id, month, sessions, hours, price_per_hour, total_amount, " +
+                "paid, completed, status, version, session_date, start_time, end_time, subject, notes, created_at) " +
+                "VALUES (?, ?, ?, 1, ?, ?, ?, false, false, 'SCHEDULED', 0, ?, ?, ?, ?, ?, ?)",
+                sessions,
+                batchSize,
+                (ps, s) -> {
+                    ps.setLong(1, s.tutorId());
+                    ps.setLong(2, s.studentId());
+                    ps.setString(3, s.month());
+                    ps.setDouble(4, s.hours());
+                    ps.setLong(5, s.pricePerHour());
+                    ps.setLong(6, s.totalAmount());
+                    ps.setDate(7, Date.valueOf(s.sessionDate()));
+                    ps.setTime(8, s.startTime() != null ? Time.valueOf(s.startTime()) : null);
+                    ps.setTime(9, s.endTime() != null ? Time.valueOf(s.endTime()) : null);
+                    if (s.subject() != null) {
+                        ps.setString(10, s.subject());
+                    } else {
+                        ps.setNull(10, Types.VARCHAR);
+                    }
+                    ps.setString(11, s.notes());
+                    ps.setTimestamp(12, now);
+                });
+    }
+}
@@ -2,8 +2,6 @@ package com.tutor_management.backend.modules.schedule.service;
 
 import com.tutor_management.backend.exception.ResourceNotFoundException;
 import com.tutor_management.backend.modules.auth.Role;
-import com.tutor_management.backend.modules.auth.User;
-import com.tutor_management.backend.modules.finance.entity.SessionRecord;
 import com.tutor_management.backend.modules.finance.repository.SessionRecordRepository;
 import com.tutor_management.backend.modules.notification.event.ScheduleCreatedEvent;
 import com.tutor_management.backend.modules.notification.event.ScheduleUpdatedEvent;
@@ -13,18 +11,17 @@ import com.tutor_management.backend.modules.schedule.entity.RecurringSchedule;
 import com.tutor_management.backend.modules.schedule.repository.RecurringScheduleRepository;
 import com.tutor_management.backend.modules.student.entity.Student;
 import com.tutor_management.backend.modules.student.repository.StudentRepository;
+import com.tutor_management.backend.util.SecurityContextUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.DayOfWeek;
-import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.TemporalAdjusters;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -45,10 +42,10 @@ public class RecurringScheduleService {
     private final StudentRepository studentRepository;
     private final SessionRecordRepository sessionRecordRepository;
     private final ApplicationEventPublisher eventPublisher;
+    private final SessionGenerationEngine sessionGenerationEngine;
     
     // Dependencies for isolation
-    private final com.tutor_management.backend.modules.auth.UserRepository userRepository;
-    private final com.tutor_management.backend.modules.tutor.repository.TutorRepository tutorRepository;
+    private final SecurityContextUtils securityContextUtils;
 
     /**
      * Retrieves all recurring schedules.
@@ -217,27 +214,23 @@ public class RecurringScheduleService {
 
     /**
      * Generates session records for a given month based on active schedules.
+     * Runs without a transaction: the engine commits each month on its own.
      */
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public int generateSessionsForMonth(String month, List<Long> studentIds) {
         List<RecurringSchedule> schedules = getTargetSchedules(studentIds);
         if (schedules.isEmpty()) return 0;
 
-        Set<String> existingLookup = buildExistingSessionLookup(month, schedules);
-        List<SessionRecord> toSave = new ArrayList<>();
-
-        for (RecurringSchedule schedule : schedules) {
-            if (isApplicable(schedule, month)) {
-                toSave.addAll(generateDatesForSchedule(schedule, month, existingLookup));
-            }
-        }
+        YearMonth ym = YearMonth.parse(month);
+        return sessionGenerationEngine.generate(schedules, ym, ym);
+    }
 
-        if (!toSave.isEmpty()) {
-            sessionRecordRepository.saveAll(toSave);
-            log.info("Successfully generated {} sessions for {}", toSave.size(), month);
-            return toSave.size();
-        }
-        return 0;
+    /**
+     * Generates session records for every tutor's active schedules over a range of months.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int generateSessionsForRange(String fromMonth, String toMonth) {
+        return sessionGenerationEngine.generateForAllTutors(YearMonth.parse(fromMonth), YearMonth.parse(toMonth));
     }
 
     @Transactional(readOnly = true)
@@ -250,7 +243,7 @@ public class RecurringScheduleService {
     public int countSessionsToGenerate(String month, List<Long> studentIds) {
         return getTargetSchedules(studentIds).stream()
                 .filter(s -> isApplicable(s, month))
-                .mapToInt(s -> countOccurrences(s.getDaysOfWeekArray(), month))
+                .mapToInt(s -> SessionGenerationEngine.countOccurrences(s, YearMonth.parse(month)))
                 .sum();
     }
 
@@ -259,23 +252,13 @@ public class RecurringScheduleService {
 
 
     private Long getCurrentTutorId() {
-        org.springframework.security.core.Authentication auth = org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated()) {
-            return null;
+        Long tutorId = securityContextUtils.getCurrentTutorId();
+        // Only admins work unscoped here; any other role without a tutor profile is rejected
+        if (tutorId == null && securityContextUtils.getCurrentUser()
+                .filter(user -> user.getRole() != Role.ADMIN).isPresent()) {
+            throw new IllegalStateException("Tutor profile not found for current user");
         }
-        String email = auth.getName();
-        
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        if (user.getRole() == Role.ADMIN) {
-            return null;
-        }
-        
-        com.tutor_management.backend.modules.tutor.entity.Tutor tutor = tutorRepository.findByUserId(user.getId())
-            .orElseThrow(() -> new RuntimeException("Tutor profile not found for user: " + user.getId()));
-        
-        return tutor.getId();
+        return tutorId;
     }
 
     private void deactivateExistingSchedules(Long studentId) {
@@ -324,53 +307,6 @@ public class RecurringScheduleService {
                (s.getEndMonth() == null || s.getEndMonth().compareTo(month) >= 0);
     }
 
-    private List<SessionRecord> generateDatesForSchedule(RecurringSchedule s, String month, Set<String> lookup) {
-        List<SessionRecord> sessions = new ArrayList<>();
-        YearMonth ym = YearMonth.parse(month);
-        LocalDate start = ym.atDay(1);
-        LocalDate end = ym.atEndOfMonth();
-
-        for (int day : s.getDaysOfWeekArray()) {
-            LocalDate date = start.with(TemporalAdjusters.nextOrSame(DayOfWeek.of(day)));
-            while (!date.isAfter(end)) {
-                String key = s.getStudent().getId() + "_" + date;
-                if (!lookup.contains(key)) {
-                    sessions.add(createSessionRecord(s, date, month));
-                    lookup.add(key);
-                }
-                date = date.plusWeeks(1);
-            }
-        }
-        return sessions;
-    }
-
-    private SessionRecord createSessionRecord(RecurringSchedule s, LocalDate date, String month) {
-        Student std = s.getStudent();
-        return SessionRecord.builder()
-                .student(std).tutorId(std.getTutorId()).month(month).sessions(1).hours(s.getHoursPerSession())
-                .pricePerHour(std.getPricePerHour()).totalAmount((long)(std.getPricePerHour() * s.getHoursPerSession()))
-                .paid(false).sessionDate(date).startTime(s.getStartTime()).endTime(s.getEndTime())
-                .subject(s.getSubject()).status(com.tutor_management.backend.modules.finance.LessonStatus.SCHEDULED)
-                .notes("Tự động tạo từ lịch học cố định").build();
-    }
-
-    private Set<String> buildExistingSessionLookup(String month, List<RecurringSchedule> schedules) {
-        List<Long> ids = schedules.stream().map(s -> s.getStudent().getId()).distinct().toList();
-        return sessionRecordRepository.findByMonthAndStudentIdIn(month, ids).stream()
-                .map(r -> r.getStudent().getId() + "_" + r.getSessionDate())
-                .collect(Collectors.toSet());
-    }
-
-    private int countOccurrences(Integer[] days, String month) {
-        int count = 0;
-        YearMonth ym = YearMonth.parse(month);
-        for (int day : days) {
-            LocalDate d = ym.atDay(1).with(TemporalAdjusters.nextOrSame(DayOfWeek.of(day)));
-            while (!d.isAfter(ym.atEndOfMonth())) { count++; d = d.plusWeeks(1); }
-        }
-        return count;
-    }
-
     private void publishEvent(Object event) {
         try { eventPublisher.publishEvent(event); }
         catch (Exception e) { log.error("Failed to publish schedule event: {}", e.getMessage()); }
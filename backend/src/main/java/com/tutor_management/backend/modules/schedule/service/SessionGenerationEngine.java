@@ -0,0 +1,305 @@
+package com.tutor_management.backend.modules.schedule.service;
+
+import com.tutor_management.backend.modules.finance.service.RevenueRollupService;
+import com.tutor_management.backend.modules.finance.service.RevenueRollupService.Contribution;
+import com.tutor_management.backend.modules.schedule.entity.RecurringSchedule;
+import com.tutor_management.backend.modules.schedule.repository.RecurringScheduleRepository;
+import com.tutor_management.backend.modules.schedule.repository.SessionGenerationRepository;
+import com.tutor_management.backend.modules.schedule.repository.SessionGenerationRepository.GeneratedSession;
+import com.tutor_management.backend.modules.student.entity.Student;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Generates session records from recurring schedules for a range of months, across tutors.
+ * <p>
+ * For each month, the days falling on each weekday are precomputed as a bitset, so a
+ * schedule's occurrences are the OR of its weekdays' bitsets. Existing sessions are
+ * loaded once per month as packed (student, day) keys into a primitive set, and the new
+ * sessions are inserted through one JDBC batch per month, together with their revenue
+ * rollup deltas. Each month commits in its own transaction while the run still holds
+ * the lock, so the scheduled job and manual generation cannot insert the same session twice.
+ */
+@Component
+@Slf4j
+public class SessionGenerationEngine {
+
+    static final String GENERATED_NOTE = "Tự động tạo từ lịch học cố định";
+    /** Students per existing-session lookup, keeps the IN list well below driver limits */
+    private static final int STUDENT_CHUNK = 1000;
+
+    private final RecurringScheduleRepository recurringScheduleRepository;
+    private final SessionGenerationRepository generationRepository;
+    private final RevenueRollupService revenueRollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    private final Counter generatedCounter;
+    private final Counter duplicateCounter;
+    private final Timer runTimer;
+
+    @Value("${app.schedule.generation.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${app.schedule.generation.max-months:24}")
+    private int maxMonths = 24;
+
+    public SessionGenerationEngine(RecurringScheduleRepository recurringScheduleRepository,
+                                   SessionGenerationRepository generationRepository,
+                                   RevenueRollupService revenueRollupService,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.recurringScheduleRepository = recurringScheduleRepository;
+        this.generationRepository = generationRepository;
+        this.revenueRollupService = revenueRollupService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Never join a caller's transaction: its commit would come after the lock is released
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.generatedCounter = meterRegistry.counter("schedule.generation.sessions");
+        this.duplicateCounter = meterRegistry.counter("schedule.generation.duplicates");
+        this.runTimer = meterRegistry.timer("schedule.generation.run");
+    }
+
+    /**
+     * Pre-generates next month's sessions for every tutor's active schedules.
+     * Runs once a month, so sessions a tutor deletes afterwards are not recreated.
+     */
+    @Scheduled(cron = "${app.schedule.generation.cron:0 0 2 25 * *}")
+    public void pregenerateNextMonth() {
+        YearMonth next = YearMonth.now().plusMonths(1);
+        try {
+            int created = generateForAllTutors(next, next);
+            log.info("Pre-generated {} sessions for {}", created, next);
+        } catch (Exception e) {
+            log.error("Pre-generating sessions for {} failed: {}", next, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Generates the sessions of every active schedule, of every tutor, in the month range.
+     */
+    public int generateForAllTutors(YearMonth from, YearMonth to) {
+        return generate(recurringScheduleRepository.findAllActiveWithStudent(), from, to);
+    }
+
+    /**
+     * Generates the missing sessions of the given schedules for each month from {@code from}
+     * to {@code to}, inclusive. A student never gets two sessions on the same date.
+     *
+     * @return number of sessions created
+     */
+    public int generate(List<RecurringSchedule> schedules, YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Tháng bắt đầu phải trước tháng kết thúc");
+        }
+        if (from.plusMonths(maxMonths).isBefore(to.plusMonths(1))) {
+            throw new IllegalArgumentException("Chỉ có thể tạo tối đa " + maxMonths + " tháng một lần");
+        }
+
+        runLock.lock();
+        try {
+            Integer created = runTimer.record(() -> {
+                int total = 0;
+                for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+                    total += generateMonth(schedules, month);
+                }
+                return total;
+            });
+            return created != null ? created : 0;
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private int generateMonth(List<RecurringSchedule> schedules, YearMonth month) {
+        String monthKey = month.toString();
+        List<RecurringSchedule> applicable = schedules.stream()
+                .filter(s -> isApplicable(s, monthKey))
+                .toList();
+        if (applicable.isEmpty()) {
+            return 0;
+        }
+
+        LongHashSet taken = loadExistingSessions(applicable, month);
+        long[] daysByWeekday = daysByWeekday(month);
+        List<GeneratedSession> sessions = new ArrayList<>();
+        List<Contribution> contributions = new ArrayList<>();
+        int duplicates = 0;
+
+        for (RecurringSchedule schedule : applicable) {
+            Student student = schedule.getStudent();
+            if (student.getTutorId() == null) {
+                log.warn("Skipping schedule {}: student {} has no tutor", schedule.getId(), student.getId());
+                continue;
+            }
+            long price = student.getPricePerHour() != null ? student.getPricePerHour() : 0L;
+            long amount = (long) (price * schedule.getHoursPerSession());
+
+            long days = occurrences(weekdayMask(schedule.getDaysOfWeekArray()), daysByWeekday);
+            while (days != 0) {
+                int dayIndex = Long.numberOfTrailingZeros(days);
+                days &= days - 1;
+                if (!taken.add(key(student.getId(), dayIndex))) {
+                    duplicates++;
+                    continue;
+                }
+                sessions.add(new GeneratedSession(student.getTutorId(), student.getId(), monthKey,
+                        month.atDay(dayIndex + 1), schedule.getStartTime(), schedule.getEndTime(),
+                        schedule.getHoursPerSession(), price, amount, schedule.getSubject(), GENERATED_NOTE));
+                contributions.add(new Contribution(student.getTutorId(), monthKey, 0L, amount, 1));
+            }
+        }
+
+        duplicateCounter.increment(duplicates);
+        if (sessions.isEmpty()) {
+            return 0;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            generationRepository.batchInsert(sessions, batchSize);
+            revenueRollupService.recordCreatedInBulk(contributions);
+        });
+        generatedCounter.increment(sessions.size());
+        log.info("Generated {} sessions for {} ({} already existed)", sessions.size(), monthKey, duplicates);
+        return sessions.size();
+    }
+
+    private LongHashSet loadExistingSessions(List<RecurringSchedule> schedules, YearMonth month) {
+        List<Long> studentIds = schedules.stream().map(s -> s.getStudent().getId()).distinct().toList();
+        LongHashSet taken = new LongHashSet(studentIds.size() * 16);
+        for (int from = 0; from < studentIds.size(); from += STUDENT_CHUNK) {
+            generationRepository.forEachExistingSession(month.atDay(1), month.atEndOfMonth(),
+                    studentIds.subList(from, Math.min(from + STUDENT_CHUNK, studentIds.size())),
+                    (date, studentId) -> taken.add(key(studentId, date.getDayOfMonth() - 1)));
+        }
+        return taken;
+    }
+
+    private static boolean isApplicable(RecurringSchedule s, String month) {
+        return s.getStartMonth().compareTo(month) <= 0
+                && (s.getEndMonth() == null || s.getEndMonth().compareTo(month) >= 0);
+    }
+
+    /**
+     * Number of sessions a schedule has in a month, whether or not they exist yet.
+     */
+    public static int countOccurrences(RecurringSchedule schedule, YearMonth month) {
+        return Long.bitCount(occurrences(weekdayMask(schedule.getDaysOfWeekArray()), daysByWeekday(month)));
+    }
+
+    /**
+     * Packs (student, zero-based day of month) into one key; a day needs 5 bits.
+     */
+    static long key(long studentId, int dayIndex) {
+        return (studentId << 5) | dayIndex;
+    }
+
+    /**
+     * Bit {@code d - 1} is set for each ISO weekday {@code d} (1 = Monday ... 7 = Sunday).
+     */
+    static int weekdayMask(Integer[] days) {
+        int mask = 0;
+        for (Integer day : days) {
+            if (day != null && day >= 1 && day <= 7) {
+                mask |= 1 << (day - 1);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * For each ISO weekday (index 1-7), the days of the month falling on it: bit {@code n}
+     * stands for day {@code n + 1}.
+     */
+    static long[] daysByWeekday(YearMonth month) {
+        long[] days = new long[8];
+        int firstWeekday = month.atDay(1).getDayOfWeek().getValue();
+        for (int dayIndex = 0; dayIndex < month.lengthOfMonth(); dayIndex++) {
+            int weekday = (firstWeekday - 1 + dayIndex) % 7 + 1;
+            days[weekday] |= 1L << dayIndex;
+        }
+        return days;
+    }
+
+    static long occurrences(int weekdayMask, long[] daysByWeekday) {
+        long days = 0;
+        for (DayOfWeek weekday : DayOfWeek.values()) {
+            if ((weekdayMask & (1 << (weekday.getValue() - 1))) != 0) {
+                days |= daysByWeekday[weekday.getValue()];
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Open-addressing set of positive longs, without boxing a {@code Long} per entry.
+     */
+    static final class LongHashSet {
+
+        private long[] table;
+        private int size;
+
+        LongHashSet(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(expected, 8) * 2 - 1) << 1;
+            table = new long[capacity];
+        }
+
+        /**
+         * @return true if the key was not in the set yet
+         */
+        boolean add(long key) {
+            if ((size + 1) * 2 > table.length) {
+                grow();
+            }
+            int mask = table.length - 1;
+            int i = slot(key, mask);
+            while (table[i] != 0) {
+                if (table[i] == key) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            table[i] = key;
+            size++;
+            return true;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void grow() {
+            long[] old = table;
+            table = new long[old.length * 2];
+            int mask = table.length - 1;
+            for (long key : old) {
+                if (key != 0) {
+                    int i = slot(key, mask);
+                    while (table[i] != 0) {
+                        i = (i + 1) & mask;
+                    }
+                    table[i] = key;
+                }
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.tutor_management.backend.modules.shared.repository;
+
+import com.tutor_management.backend.modules.shared.entity.EmailOutboxMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    /**
+     * Pending emails whose next attempt is due, oldest first.
+     */
+    @Query("SELECT m FROM EmailOutboxMessage m " +
+           "WHERE m.status = com.tutor_management.backend.modules.shared.entity.EmailOutboxMessage.Status.PENDING " +
+           "AND m.nextAttemptAt <= :now ORDER BY m.id")
+    List<EmailOutboxMessage> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    long countByStatus(EmailOutboxMessage.Status status);
+}
@@ -0,0 +1,196 @@
+package com.tutor_management.backend.modules.shared.service;
+
+import com.tutor_management.backend.modules.shared.entity.EmailOutboxMessage;
+import com.tutor_management.backend.modules.shared.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers queued emails from the outbox.
+ * <p>
+ * Due emails are sent in batches through a single {@code JavaMailSender.send(MimeMessage...)}
+ * call, which reuses one SMTP connection for the whole batch. An email that fails is retried
+ * with exponential backoff and marked FAILED once it runs out of attempts; a failing email
+ * never blocks the rest of its batch.
+ */
+@Component
+@Slf4j
+public class EmailOutboxSender {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailService emailService;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong pendingDepth = new AtomicLong();
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final Timer deliveryLatency;
+
+    @Value("${app.mail.outbox.batch-size:20}")
+    private int batchSize = 20;
+
+    @Value("${app.mail.outbox.max-attempts:6}")
+    private int maxAttempts = 6;
+
+    /** Delay before the first retry; doubled on every further attempt */
+    @Value("${app.mail.outbox.initial-backoff-ms:30000}")
+    private long initialBackoffMillis = 30000;
+
+    @Value("${app.mail.outbox.max-backoff-ms:3600000}")
+    private long maxBackoffMillis = 3600000;
+
+    public EmailOutboxSender(EmailOutboxRepository outboxRepository,
+                             EmailService emailService,
+                             JavaMailSender mailSender,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.emailService = emailService;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sentCounter = meterRegistry.counter("email.outbox.sent");
+        this.retriedCounter = meterRegistry.counter("email.outbox.retried");
+        this.failedCounter = meterRegistry.counter("email.outbox.failed");
+        this.batchTimer = meterRegistry.timer("email.outbox.batch");
+        this.deliveryLatency = meterRegistry.timer("email.outbox.latency");
+        Gauge.builder("email.outbox.pending", pendingDepth, AtomicLong::get)
+                .description("Emails waiting in the outbox, as of the last drain")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sends every due email, a batch at a time.
+     */
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:2000}")
+    public void drain() {
+        try {
+            int sent;
+            do {
+                sent = sendBatch();
+            } while (sent == batchSize);
+        } catch (Exception e) {
+            log.error("Email outbox drain failed", e);
+        } finally {
+            pendingDepth.set(outboxRepository.countByStatus(EmailOutboxMessage.Status.PENDING));
+        }
+    }
+
+    /**
+     * Sends one batch of due emails and records the outcome of each.
+     *
+     * @return the number of emails attempted
+     */
+    int sendBatch() {
+        List<EmailOutboxMessage> due = outboxRepository.findDue(LocalDateTime.now(), PageRequest.of(0, batchSize));
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        Map<EmailOutboxMessage, Exception> failures = new IdentityHashMap<>();
+        Map<MimeMessage, EmailOutboxMessage> messages = new LinkedHashMap<>();
+        for (EmailOutboxMessage email : due) {
+            try {
+                messages.put(emailService.toMimeMessage(email), email);
+            } catch (Exception e) {
+                failures.put(email, e);
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            batchTimer.record(() -> send(messages, failures));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (EmailOutboxMessage email : due) {
+            Exception failure = failures.get(email);
+            if (failure == null) {
+                markSent(email, now);
+            } else {
+                markFailedAttempt(email, failure, now);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.saveAll(due));
+        return due.size();
+    }
+
+    private void send(Map<MimeMessage, EmailOutboxMessage> messages, Map<EmailOutboxMessage, Exception> failures) {
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            // Per-message failures; a connection failure lists every message
+            e.getFailedMessages().forEach((message, error) -> {
+                EmailOutboxMessage email = messages.get(message);
+                if (email != null) {
+                    failures.put(email, error);
+                }
+            });
+            if (e.getFailedMessages().isEmpty()) {
+                messages.values().forEach(email -> failures.put(email, e));
+            }
+        } catch (MailException e) {
+            messages.values().forEach(email -> failures.put(email, e));
+        }
+    }
+
+    private void markSent(EmailOutboxMessage email, LocalDateTime now) {
+        email.setStatus(EmailOutboxMessage.Status.SENT);
+        email.setAttempts(email.getAttempts() + 1);
+        email.setSentAt(now);
+        email.setAttachment(null);
+        sentCounter.increment();
+        if (email.getCreatedAt() != null) {
+            deliveryLatency.record(Duration.between(email.getCreatedAt(), now));
+        }
+    }
+
+    private void markFailedAttempt(EmailOutboxMessage email, Exception error, LocalDateTime now) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        String message = String.valueOf(error.getMessage());
+        email.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        if (attempts >= maxAttempts) {
+            email.setStatus(EmailOutboxMessage.Status.FAILED);
+            failedCounter.increment();
+            log.error("Giving up on email {} to {} after {} attempts: {}", email.getId(), email.getRecipient(), attempts, message);
+        } else {
+            email.setNextAttemptAt(now.plus(backoff(attempts)));
+            retriedCounter.increment();
+            log.warn("Email {} to {} failed (attempt {}), retrying at {}: {}",
+                    email.getId(), email.getRecipient(), attempts, email.getNextAttemptAt(), message);
+        }
+    }
+
+    /**
+     * Delay after the given number of failed attempts: initial, 2x, 4x ... capped at the maximum.
+     */
+    Duration backoff(int attempts) {
+        long multiplier = 1L << Math.min(attempts - 1, 30);
+        return Duration.ofMillis(Math.min(maxBackoffMillis, initialBackoffMillis * multiplier));
+    }
+}
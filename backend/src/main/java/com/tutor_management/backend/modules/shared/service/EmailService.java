@@ -1,5 +1,8 @@
 package com.tutor_management.backend.modules.shared.service;
 
+import com.tutor_management.backend.modules.shared.entity.EmailOutboxMessage;
+import com.tutor_management.backend.modules.shared.repository.EmailOutboxRepository;
+import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,10 +11,17 @@ import org.springframework.core.io.ByteArrayResource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UnsupportedEncodingException;
 
 /**
  * Service for managing automated email communications.
  * Handles HTML email construction and attachment of financial documents.
+ * <p>
+ * Emails are not sent inline: they are written to the outbox in the caller's transaction
+ * and delivered by {@link EmailOutboxSender}, so a slow or failing SMTP server neither
+ * delays the request nor loses the email.
  */
 @Service
 @RequiredArgsConstructor
@@ -19,6 +29,7 @@ import org.springframework.stereotype.Service;
 public class EmailService {
 
     private final JavaMailSender mailSender;
+    private final EmailOutboxRepository outboxRepository;
 
     @Value("${app.mail.from}")
     private String fromEmail;
@@ -27,7 +38,8 @@ public class EmailService {
     private String fromName;
 
     /**
-     * Sends an invoice email to a parent with an attached PDF.
+     * Queues an invoice email to a parent with an attached PDF.
+     * Joins the caller's transaction, so the email is only sent if that transaction commits.
      *
      * @param toEmail       Recipient email address.
      * @param parentName    Recipient's name for personalization.
@@ -36,34 +48,39 @@ public class EmailService {
      * @param pdfData       The binary PDF content.
      * @param invoiceNumber The unique invoice identifier.
      */
+    @Transactional
     public void sendInvoiceEmail(String toEmail, String parentName,
             String studentName, String month,
             byte[] pdfData, String invoiceNumber) {
-        log.info("Preparing invoice email for {}, Student: {}, Month: {}", toEmail, studentName, month);
-        
-        try {
-            validateInputs(toEmail, pdfData);
-
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom(fromEmail, fromName);
-            helper.setTo(toEmail);
-            helper.setSubject(String.format("Hóa đơn học phí tháng %s - %s", month, studentName));
-
-            String htmlContent = buildEmailContent(parentName, studentName, month, invoiceNumber);
-            helper.setText(htmlContent, true);
+        log.info("Queueing invoice email for {}, Student: {}, Month: {}", toEmail, studentName, month);
+        validateInputs(toEmail, pdfData);
 
-            String fileName = String.format("Hoa-don-%s.pdf", invoiceNumber);
-            helper.addAttachment(fileName, new ByteArrayResource(pdfData));
+        outboxRepository.save(EmailOutboxMessage.builder()
+                .recipient(toEmail)
+                .subject(String.format("Hóa đơn học phí tháng %s - %s", month, studentName))
+                .htmlBody(buildEmailContent(parentName, studentName, month, invoiceNumber))
+                .attachmentName(String.format("Hoa-don-%s.pdf", invoiceNumber))
+                .attachment(pdfData)
+                .status(EmailOutboxMessage.Status.PENDING)
+                .attempts(0)
+                .build());
+    }
 
-            mailSender.send(message);
-            log.info("Invoice email sent successfully to: {}", toEmail);
+    /**
+     * Builds the MIME message for a queued email.
+     */
+    MimeMessage toMimeMessage(EmailOutboxMessage email) throws MessagingException, UnsupportedEncodingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, email.getAttachment() != null, "UTF-8");
 
-        } catch (Exception e) {
-            log.error("Failed to send invoice email to: {}", toEmail, e);
-            throw new RuntimeException("Không thể gửi email đến " + toEmail + ": " + e.getMessage(), e);
+        helper.setFrom(fromEmail, fromName);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getHtmlBody(), true);
+        if (email.getAttachment() != null) {
+            helper.addAttachment(email.getAttachmentName(), new ByteArrayResource(email.getAttachment()));
         }
+        return message;
     }
 
     private void validateInputs(String toEmail, byte[] pdfData) {
@@ -1,12 +1,19 @@
 package com.tutor_management.backend.modules.shared.service;
 
 import com.tutor_management.backend.modules.finance.dto.response.SessionRecordResponse;
+import com.tutor_management.backend.modules.finance.repository.SessionRecordExportRepository;
+import com.tutor_management.backend.modules.finance.repository.SessionRecordExportRepository.ExportRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 /**
@@ -14,8 +21,25 @@ import java.util.List;
  * Utilizes Apache POI for spreadsheet generation.
  */
 @Service
+@RequiredArgsConstructor
+@Slf4j
 public class ExportService {
 
+    private static final String[] SESSION_COLUMNS = { "ID", "Ngày", "Học sinh", "Môn học", "Số giờ", "Đơn giá", "Thành tiền", "Trạng thái", "Ghi chú" };
+
+    /** Excel's limit for a column width, in characters */
+    private static final int MAX_COLUMN_CHARS = 255;
+
+    private final SessionRecordExportRepository sessionRecordExportRepository;
+
+    /** Rows kept in memory by SXSSF; older rows are flushed to a temp file */
+    @Value("${app.export.excel.row-window:200}")
+    private int rowWindow = 200;
+
+    /** Session records read per keyset page */
+    @Value("${app.export.excel.page-size:1000}")
+    private int pageSize = 1000;
+
     /**
      * Exports a list of session records to an Excel workbook.
      *
@@ -27,25 +51,7 @@ public class ExportService {
         try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
             Sheet sheet = workbook.createSheet("Sessions");
 
-            // Header Style: Professional dark blue background with white bold text
-            CellStyle headerStyle = workbook.createCellStyle();
-            headerStyle.setFillForegroundColor(IndexedColors.BLUE_GREY.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            Font font = workbook.createFont();
-            font.setColor(IndexedColors.WHITE.getIndex());
-            font.setBold(true);
-            headerStyle.setFont(font);
-            headerStyle.setAlignment(HorizontalAlignment.CENTER);
-            headerStyle.setBorderBottom(BorderStyle.THIN);
-
-            // Column Headers
-            Row headerRow = sheet.createRow(0);
-            String[] columns = { "ID", "Ngày", "Học sinh", "Môn học", "Số giờ", "Đơn giá", "Thành tiền", "Trạng thái", "Ghi chú" };
-            for (int i = 0; i < columns.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(columns[i]);
-                cell.setCellStyle(headerStyle);
-            }
+            writeHeader(workbook, sheet);
 
             // Cell Styles for data types
             CellStyle dateStyle = createDateStyle(workbook);
@@ -81,7 +87,7 @@ public class ExportService {
             }
 
             // Auto-size columns for better readability
-            for (int i = 0; i < columns.length; i++) {
+            for (int i = 0; i < SESSION_COLUMNS.length; i++) {
                 sheet.autoSizeColumn(i);
             }
 
@@ -90,6 +96,129 @@ public class ExportService {
         }
     }
 
+    /**
+     * Streams session records matching the filter into an Excel workbook written to {@code out}.
+     * <p>
+     * Records are read page by page with a keyset cursor and written through SXSSF, so memory
+     * stays bounded by one page plus the row window regardless of the export size. Column
+     * widths are estimated from the longest value per column instead of {@code autoSizeColumn},
+     * which would need every row in memory.
+     */
+    public void streamSessionsToExcel(SessionRecordExportRepository.Filter filter, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(true);
+        try {
+            Sheet sheet = workbook.createSheet("Sessions");
+            writeHeader(workbook, sheet);
+            CellStyle dateStyle = createDateStyle(workbook);
+            CellStyle currencyStyle = createCurrencyStyle(workbook);
+
+            int[] widths = new int[SESSION_COLUMNS.length];
+            for (int i = 0; i < SESSION_COLUMNS.length; i++) {
+                widths[i] = SESSION_COLUMNS[i].length();
+            }
+
+            int rowIdx = 1;
+            ExportRow last = null;
+            List<ExportRow> page;
+            do {
+                page = sessionRecordExportRepository.findPage(filter, last, pageSize);
+                for (ExportRow session : page) {
+                    writeRow(sheet.createRow(rowIdx++), session, dateStyle, currencyStyle, widths);
+                }
+                if (!page.isEmpty()) {
+                    last = page.get(page.size() - 1);
+                }
+            } while (page.size() == pageSize);
+
+            for (int i = 0; i < widths.length; i++) {
+                // Width unit is 1/256 of a character; +2 for padding
+                sheet.setColumnWidth(i, Math.min(widths[i] + 2, MAX_COLUMN_CHARS) * 256);
+            }
+            workbook.write(out);
+            log.info("Streamed {} session records to Excel", rowIdx - 1);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private void writeRow(Row row, ExportRow session, CellStyle dateStyle, CellStyle currencyStyle, int[] widths) {
+        row.createCell(0).setCellValue(session.id());
+        fit(widths, 0, String.valueOf(session.id()));
+
+        if (session.sessionDate() != null) {
+            Cell dateCell = row.createCell(1);
+            dateCell.setCellValue(session.sessionDate());
+            dateCell.setCellStyle(dateStyle);
+        }
+        fit(widths, 1, "yyyy-mm-dd");
+
+        String studentName = session.studentName() != null ? session.studentName() : "N/A";
+        row.createCell(2).setCellValue(studentName);
+        fit(widths, 2, studentName);
+
+        String subject = session.subject() != null ? session.subject() : "";
+        row.createCell(3).setCellValue(subject);
+        fit(widths, 3, subject);
+
+        double hours = session.hours() != null ? session.hours() : 0.0;
+        row.createCell(4).setCellValue(hours);
+        fit(widths, 4, String.valueOf(hours));
+
+        long price = session.pricePerHour() != null ? session.pricePerHour() : 0L;
+        Cell priceCell = row.createCell(5);
+        priceCell.setCellValue(price);
+        priceCell.setCellStyle(currencyStyle);
+        fit(widths, 5, currencyText(price));
+
+        long total = session.totalAmount() != null ? session.totalAmount() : 0L;
+        Cell totalCell = row.createCell(6);
+        totalCell.setCellValue(total);
+        totalCell.setCellStyle(currencyStyle);
+        fit(widths, 6, currencyText(total));
+
+        String status = session.status() != null ? session.status() : "SCHEDULED";
+        row.createCell(7).setCellValue(status);
+        fit(widths, 7, status);
+
+        String notes = session.notes() != null ? session.notes() : "";
+        row.createCell(8).setCellValue(notes);
+        fit(widths, 8, notes);
+    }
+
+    private static void fit(int[] widths, int column, String text) {
+        widths[column] = Math.max(widths[column], text.length());
+    }
+
+    /**
+     * Length of a value in the "#,##0 ₫" format: digits, thousands separators and the suffix.
+     */
+    private static String currencyText(long amount) {
+        return String.format("%,d ₫", amount);
+    }
+
+    private void writeHeader(Workbook workbook, Sheet sheet) {
+        // Header Style: Professional dark blue background with white bold text
+        CellStyle headerStyle = workbook.createCellStyle();
+        headerStyle.setFillForegroundColor(IndexedColors.BLUE_GREY.getIndex());
+        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        Font font = workbook.createFont();
+        font.setColor(IndexedColors.WHITE.getIndex());
+        font.setBold(true);
+        headerStyle.setFont(font);
+        headerStyle.setAlignment(HorizontalAlignment.CENTER);
+        headerStyle.setBorderBottom(BorderStyle.THIN);
+
+        // Column Headers
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < SESSION_COLUMNS.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(SESSION_COLUMNS[i]);
+            cell.setCellStyle(headerStyle);
+        }
+    }
+
     private CellStyle createDateStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         CreationHelper createHelper = workbook.getCreationHelper();
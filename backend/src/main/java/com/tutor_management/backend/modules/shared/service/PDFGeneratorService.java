@@ -1,5 +1,6 @@
 package com.tutor_management.backend.modules.shared.service;
 
+import com.itextpdf.barcodes.BarcodeQRCode;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.canvas.draw.SolidLine;
@@ -7,20 +8,27 @@ import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.*;
 import com.itextpdf.layout.properties.*;
 import com.itextpdf.kernel.colors.*;
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
 import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
 import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.kernel.font.PdfFontFactory;
-import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.font.PdfFontFactory.EmbeddingStrategy;
 import com.tutor_management.backend.modules.finance.dto.response.InvoiceItem;
 import com.tutor_management.backend.modules.finance.dto.response.InvoiceResponse;
 import com.tutor_management.backend.modules.finance.dto.response.MonthlyStats;
+import com.tutor_management.backend.modules.finance.service.PaymentQrService;
 import com.tutor_management.backend.modules.dashboard.dto.response.DashboardStats;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
-import java.net.URL;
+import java.io.IOException;
+import java.io.InputStream;
 import java.text.NumberFormat;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -30,12 +38,88 @@ import java.util.Locale;
 /**
  * Service for generating professional PDF documents.
  * Supports system dashboard reports and student invoices with full Unicode (Vietnamese) support.
+ * <p>
+ * Font files are parsed once into {@link FontProgram}s shared by all documents; each document
+ * gets its own pair of {@link PdfFont}s on top of them, since a PdfFont belongs to the document
+ * it is embedded in. Payment QR codes are encoded locally, so rendering does no network I/O.
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class PDFGeneratorService {
 
+    private static final Locale VIETNAMESE = new Locale("vi", "VN");
 
+    // NumberFormat is not thread-safe; one per rendering thread instead of one per value
+    private static final ThreadLocal<NumberFormat> CURRENCY_FORMAT =
+            ThreadLocal.withInitial(() -> NumberFormat.getInstance(VIETNAMESE));
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private static final Color MUTED_TEXT = new DeviceRgb(100, 100, 100);
+    private static final Color LABEL_TEXT = new DeviceRgb(107, 114, 128);
+    private static final Color FOOTER_TEXT = new DeviceRgb(156, 163, 175);
+    private static final Color CARD_BORDER = new DeviceRgb(229, 231, 235);
+    private static final Color TOTAL_BACKGROUND = new DeviceRgb(243, 244, 246);
+    private static final Color DASHBOARD_HEADER = new DeviceRgb(75, 85, 99);
+    private static final Color INVOICE_HEADER = new DeviceRgb(59, 130, 246);
+    private static final Color DIVIDER = new DeviceRgb(200, 200, 200);
+    private static final Color STUDENTS_ACCENT = INVOICE_HEADER;
+    private static final Color REVENUE_ACCENT = new DeviceRgb(16, 185, 129);
+    private static final Color PAID_ACCENT = new DeviceRgb(34, 197, 94);
+    private static final Color UNPAID_ACCENT = new DeviceRgb(239, 68, 68);
+
+    private static final String[] MONTHLY_HEADERS = {"Tháng", "Đã Thu", "Chưa Thu", "Số Buổi"};
+    private static final String[] INVOICE_HEADERS = { "Ngày", "Nội dung", "Buổi", "Giờ", "Đơn giá", "Thành tiền" };
+
+    /**
+     * A parsed font file and the encoding to use it with.
+     */
+    private record FontSource(FontProgram program, String encoding) {
+    }
+
+    /**
+     * The fonts of one document.
+     */
+    private record Fonts(PdfFont regular, PdfFont bold) {
+    }
+
+    private final PaymentQrService paymentQrService;
+
+    private FontSource regularFontSource;
+    private FontSource boldFontSource;
+
+    /**
+     * Parses the Unicode fonts once, falling back to the standard Times fonts (no Vietnamese
+     * diacritics) when they are missing.
+     */
+    @PostConstruct
+    void loadFonts() throws IOException {
+        regularFontSource = loadFont("fonts/DejaVuSans.ttf", StandardFonts.TIMES_ROMAN);
+        boldFontSource = loadFont("fonts/DejaVuSans-Bold.ttf", StandardFonts.TIMES_BOLD);
+    }
+
+    private FontSource loadFont(String path, String fallback) throws IOException {
+        ClassPathResource resource = new ClassPathResource(path);
+        if (resource.exists()) {
+            try (InputStream in = resource.getInputStream()) {
+                return new FontSource(FontProgramFactory.createFont(in.readAllBytes()), PdfEncodings.IDENTITY_H);
+            } catch (Exception e) {
+                log.error("Failed to load font {}", path, e);
+            }
+        } else {
+            log.warn("Unicode font not found: {}", path);
+        }
+        return new FontSource(FontProgramFactory.createFont(fallback), PdfEncodings.WINANSI);
+    }
+
+    private Fonts createFonts() {
+        return new Fonts(createFont(regularFontSource), createFont(boldFontSource));
+    }
+
+    private PdfFont createFont(FontSource source) {
+        return PdfFontFactory.createFont(source.program(), source.encoding(), EmbeddingStrategy.PREFER_EMBEDDED);
+    }
 
     /**
      * Generates a PDF report for the system dashboard.
@@ -52,15 +136,15 @@ public class PDFGeneratorService {
         PdfDocument pdf = new PdfDocument(writer);
         Document document = new Document(pdf);
 
-        loadVietnameseFonts();
+        Fonts fonts = createFonts();
         document.setMargins(30, 40, 30, 40);
-        document.setFont(getRegularFont());
+        document.setFont(fonts.regular());
 
-        addDashboardHeader(document);
-        addDashboardSummary(document, stats);
+        addDashboardHeader(document, fonts);
+        addDashboardSummary(document, fonts, stats);
         document.add(new Paragraph(" ").setFontSize(5));
-        addMonthlyStatsTable(document, monthlyStats);
-        addDashboardFooter(document);
+        addMonthlyStatsTable(document, fonts, monthlyStats);
+        addDashboardFooter(document, fonts);
 
         document.close();
         return baos.toByteArray();
@@ -80,16 +164,16 @@ public class PDFGeneratorService {
         PdfDocument pdf = new PdfDocument(writer);
         Document document = new Document(pdf);
 
-        loadVietnameseFonts();
+        Fonts fonts = createFonts();
         document.setMargins(30, 40, 30, 40);
-        document.setFont(getRegularFont());
+        document.setFont(fonts.regular());
 
-        addInvoiceHeader(document, invoice);
-        addInvoiceRecipientInfo(document, invoice);
+        addInvoiceHeader(document, fonts, invoice);
+        addInvoiceRecipientInfo(document, fonts, invoice);
         addVerticalSpacing(document, 15);
-        addInvoiceItemsTable(document, invoice);
-        addPaymentInformation(document, invoice);
-        addInvoiceFooter(document);
+        addInvoiceItemsTable(document, fonts, invoice);
+        addPaymentInformation(document, fonts, invoice);
+        addInvoiceFooter(document, fonts);
 
         document.close();
         return baos.toByteArray();
@@ -97,169 +181,167 @@ public class PDFGeneratorService {
 
     // --- Dashboard Private Components ---
 
-    private void addDashboardHeader(Document document) {
+    private void addDashboardHeader(Document document, Fonts fonts) {
         Paragraph title = new Paragraph("BÁO CÁO TỔNG QUAN HỆ THỐNG")
-                .setFont(getBoldFont())
+                .setFont(fonts.bold())
                 .setFontSize(24)
                 .setTextAlignment(TextAlignment.CENTER)
                 .setMarginBottom(5);
         document.add(title);
 
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
+        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
         Paragraph date = new Paragraph("Ngày xuất báo cáo: " + timestamp)
-                .setFont(getRegularFont())
+                .setFont(fonts.regular())
                 .setFontSize(9)
                 .setTextAlignment(TextAlignment.CENTER)
                 .setMarginBottom(15)
-                .setFontColor(new DeviceRgb(100, 100, 100));
+                .setFontColor(MUTED_TEXT);
         document.add(date);
 
         addHorizontalLine(document);
     }
 
-    private void addDashboardSummary(Document document, DashboardStats stats) {
+    private void addDashboardSummary(Document document, Fonts fonts, DashboardStats stats) {
         Table table = new Table(4).useAllAvailableWidth();
         table.setMarginTop(10);
 
-        table.addCell(createSummaryCell("HỌC SINH", String.valueOf(stats.getTotalStudents()), new DeviceRgb(59, 130, 246)));
-        table.addCell(createSummaryCell("DOANH THU", stats.getCurrentMonthTotal(), new DeviceRgb(16, 185, 129)));
-        table.addCell(createSummaryCell("ĐÃ THU", stats.getTotalPaidAllTime(), new DeviceRgb(34, 197, 94)));
-        table.addCell(createSummaryCell("CHƯA THU", stats.getTotalUnpaidAllTime(), new DeviceRgb(239, 68, 68)));
+        table.addCell(createSummaryCell(fonts, "HỌC SINH", String.valueOf(stats.getTotalStudents()), STUDENTS_ACCENT));
+        table.addCell(createSummaryCell(fonts, "DOANH THU", stats.getCurrentMonthTotal(), REVENUE_ACCENT));
+        table.addCell(createSummaryCell(fonts, "ĐÃ THU", stats.getTotalPaidAllTime(), PAID_ACCENT));
+        table.addCell(createSummaryCell(fonts, "CHƯA THU", stats.getTotalUnpaidAllTime(), UNPAID_ACCENT));
 
         document.add(table);
     }
 
-    private Cell createSummaryCell(String label, String value, Color color) {
+    private Cell createSummaryCell(Fonts fonts, String label, String value, Color color) {
         Cell cell = new Cell()
-                .setBorder(new com.itextpdf.layout.borders.SolidBorder(new DeviceRgb(229, 231, 235), 1))
+                .setBorder(new com.itextpdf.layout.borders.SolidBorder(CARD_BORDER, 1))
                 .setPadding(8)
                 .setMargin(2);
 
         cell.add(new Paragraph(label)
-                .setFont(getBoldFont())
+                .setFont(fonts.bold())
                 .setFontSize(10)
-                .setFontColor(new DeviceRgb(107, 114, 128))
+                .setFontColor(LABEL_TEXT)
                 .setMarginBottom(5));
         
         cell.add(new Paragraph(value)
-                .setFont(getBoldFont())
+                .setFont(fonts.bold())
                 .setFontSize(14)
                 .setFontColor(color));
 
         return cell;
     }
 
-    private void addMonthlyStatsTable(Document document, List<MonthlyStats> monthlyStats) {
+    private void addMonthlyStatsTable(Document document, Fonts fonts, List<MonthlyStats> monthlyStats) {
         document.add(new Paragraph("CHI TIẾT DOANH THU THEO THÁNG")
-                .setFont(getBoldFont())
+                .setFont(fonts.bold())
                 .setFontSize(14)
                 .setMarginBottom(10));
 
         Table table = new Table(new float[]{3, 3, 3, 2}).useAllAvailableWidth();
 
-        String[] headers = {"Tháng", "Đã Thu", "Chưa Thu", "Số Buổi"};
-        for (String header : headers) {
+        for (String header : MONTHLY_HEADERS) {
             table.addHeaderCell(new Cell()
-                    .add(new Paragraph(header).setFont(getBoldFont()).setFontSize(10).setFontColor(ColorConstants.WHITE))
-                    .setBackgroundColor(new DeviceRgb(75, 85, 99))
+                    .add(new Paragraph(header).setFont(fonts.bold()).setFontSize(10).setFontColor(ColorConstants.WHITE))
+                    .setBackgroundColor(DASHBOARD_HEADER)
                     .setTextAlignment(TextAlignment.CENTER)
                     .setPadding(8));
         }
 
         for (MonthlyStats ms : monthlyStats) {
-            table.addCell(createTableCell(formatMonth(ms.getMonth())));
-            table.addCell(createTableCellRight(formatCurrency(ms.getTotalPaid())));
-            table.addCell(createTableCellRight(formatCurrency(ms.getTotalUnpaid())));
-            table.addCell(createTableCellCenter(String.valueOf(ms.getTotalSessions())));
+            table.addCell(createTableCell(fonts, formatMonth(ms.getMonth())));
+            table.addCell(createTableCellRight(fonts, formatCurrency(ms.getTotalPaid())));
+            table.addCell(createTableCellRight(fonts, formatCurrency(ms.getTotalUnpaid())));
+            table.addCell(createTableCellCenter(fonts, String.valueOf(ms.getTotalSessions())));
         }
 
         document.add(table);
     }
 
-    private void addDashboardFooter(Document document) {
+    private void addDashboardFooter(Document document, Fonts fonts) {
         document.add(new Paragraph("\nTutor Pro Management System - Báo cáo tự động")
-                .setFont(getRegularFont())
+                .setFont(fonts.regular())
                 .setFontSize(8)
-                .setFontColor(new DeviceRgb(156, 163, 175))
+                .setFontColor(FOOTER_TEXT)
                 .setTextAlignment(TextAlignment.CENTER)
                 .setMarginTop(15));
     }
 
     // --- Invoice Private Components ---
 
-    private void addInvoiceHeader(Document document, InvoiceResponse invoice) {
+    private void addInvoiceHeader(Document document, Fonts fonts, InvoiceResponse invoice) {
         document.add(new Paragraph("BÁO GIÁ HỌC PHÍ")
-                .setFont(getBoldFont())
+                .setFont(fonts.bold())
                 .setFontSize(28)
                 .setTextAlignment(TextAlignment.CENTER)
                 .setMarginBottom(5));
 
         document.add(new Paragraph("ENGLISH TUTORING")
-                .setFont(getRegularFont())
+                .setFont(fonts.regular())
                 .setFontSize(16)
                 .setTextAlignment(TextAlignment.CENTER)
                 .setMarginBottom(30)
-                .setFontColor(new DeviceRgb(100, 100, 100)));
+                .setFontColor(MUTED_TEXT));
 
         Table headerTable = new Table(2).useAllAvailableWidth();
         headerTable.setMarginBottom(20);
         headerTable.addCell(new Cell().setBorder(null)); // Left padding
 
         Paragraph invoiceInfo = new Paragraph()
-                .setFont(getRegularFont())
+                .setFont(fonts.regular())
                 .setTextAlignment(TextAlignment.RIGHT);
-        invoiceInfo.add(new Text("Số: ").setFont(getBoldFont())).add(invoice.getInvoiceNumber() + "\n");
-        invoiceInfo.add(new Text("Ngày: ").setFont(getBoldFont())).add(invoice.getCreatedDate());
+        invoiceInfo.add(new Text("Số: ").setFont(fonts.bold())).add(invoice.getInvoiceNumber() + "\n");
+        invoiceInfo.add(new Text("Ngày: ").setFont(fonts.bold())).add(invoice.getCreatedDate());
 
         headerTable.addCell(new Cell().add(invoiceInfo).setBorder(null).setTextAlignment(TextAlignment.RIGHT));
         document.add(headerTable);
         addHorizontalLine(document);
     }
 
-    private void addInvoiceRecipientInfo(Document document, InvoiceResponse invoice) {
+    private void addInvoiceRecipientInfo(Document document, Fonts fonts, InvoiceResponse invoice) {
         Table infoTable = new Table(1).useAllAvailableWidth().setMarginBottom(10);
         Paragraph studentInfo = new Paragraph()
-                .setFont(getRegularFont())
-                .add(new Text("Học sinh: ").setFont(getBoldFont()))
+                .setFont(fonts.regular())
+                .add(new Text("Học sinh: ").setFont(fonts.bold()))
                 .add(invoice.getStudentName() + "\n")
-                .add(new Text("Thời gian: ").setFont(getBoldFont()))
+                .add(new Text("Thời gian: ").setFont(fonts.bold()))
                 .add(invoice.getMonth());
 
         infoTable.addCell(new Cell().add(studentInfo).setBorder(null));
         document.add(infoTable);
     }
 
-    private void addInvoiceItemsTable(Document document, InvoiceResponse invoice) {
+    private void addInvoiceItemsTable(Document document, Fonts fonts, InvoiceResponse invoice) {
         Table table = new Table(new float[] { 2, 4, 1.5f, 1.5f, 2, 2.5f }).useAllAvailableWidth().setMarginBottom(10);
 
-        String[] headers = { "Ngày", "Nội dung", "Buổi", "Giờ", "Đơn giá", "Thành tiền" };
-        for (String header : headers) {
+        for (String header : INVOICE_HEADERS) {
             table.addHeaderCell(new Cell()
-                    .add(new Paragraph(header).setFont(getBoldFont()).setFontSize(10))
-                    .setBackgroundColor(new DeviceRgb(59, 130, 246))
+                    .add(new Paragraph(header).setFont(fonts.bold()).setFontSize(10))
+                    .setBackgroundColor(INVOICE_HEADER)
                     .setFontColor(ColorConstants.WHITE)
                     .setTextAlignment(TextAlignment.CENTER)
                     .setPadding(8));
         }
 
         for (InvoiceItem item : invoice.getItems()) {
-            table.addCell(createTableCell(item.getDate()));
-            table.addCell(createTableCell(item.getDescription()));
-            table.addCell(createTableCellCenter(String.valueOf(item.getSessions())));
-            table.addCell(createTableCellCenter(String.valueOf(item.getHours())));
-            table.addCell(createTableCellRight(formatCurrency(item.getPricePerHour())));
-            table.addCell(createTableCellRight(formatCurrency(item.getAmount())));
+            table.addCell(createTableCell(fonts, item.getDate()));
+            table.addCell(createTableCell(fonts, item.getDescription()));
+            table.addCell(createTableCellCenter(fonts, String.valueOf(item.getSessions())));
+            table.addCell(createTableCellCenter(fonts, String.valueOf(item.getHours())));
+            table.addCell(createTableCellRight(fonts, formatCurrency(item.getPricePerHour())));
+            table.addCell(createTableCellRight(fonts, formatCurrency(item.getAmount())));
         }
 
-        table.addCell(new Cell(1, 5).add(new Paragraph("TỔNG CỘNG").setFont(getBoldFont()).setFontSize(11))
-                .setTextAlignment(TextAlignment.RIGHT).setBackgroundColor(new DeviceRgb(243, 244, 246)).setPadding(10));
-        table.addCell(new Cell().add(new Paragraph(formatCurrency(invoice.getTotalAmount())).setFont(getBoldFont()).setFontSize(11))
-                .setBackgroundColor(new DeviceRgb(243, 244, 246)).setTextAlignment(TextAlignment.RIGHT).setPadding(10));
+        table.addCell(new Cell(1, 5).add(new Paragraph("TỔNG CỘNG").setFont(fonts.bold()).setFontSize(11))
+                .setTextAlignment(TextAlignment.RIGHT).setBackgroundColor(TOTAL_BACKGROUND).setPadding(10));
+        table.addCell(new Cell().add(new Paragraph(formatCurrency(invoice.getTotalAmount())).setFont(fonts.bold()).setFontSize(11))
+                .setBackgroundColor(TOTAL_BACKGROUND).setTextAlignment(TextAlignment.RIGHT).setPadding(10));
 
         document.add(table);
     }
 
-    private void addPaymentInformation(Document document, InvoiceResponse invoice) {
+    private void addPaymentInformation(Document document, Fonts fonts, InvoiceResponse invoice) {
         boolean isCompact = invoice.getItems().size() > 3;
         
         // Create table with appropriate column configuration
@@ -270,10 +352,10 @@ public class PDFGeneratorService {
             bankTable = new Table(new float[]{1f, 1.1f}).useAllAvailableWidth();
         }
 
-        Paragraph bankDetails = new Paragraph().setFont(getRegularFont()).setFontSize(10)
-                .add(new Text("THÔNG TIN CHUYỂN KHOẢN\n").setFont(getBoldFont()).setFontSize(12))
+        Paragraph bankDetails = new Paragraph().setFont(fonts.regular()).setFontSize(10)
+                .add(new Text("THÔNG TIN CHUYỂN KHOẢN\n").setFont(fonts.bold()).setFontSize(12))
                 .add("Ngân hàng: " + invoice.getBankInfo().getBankName() + "\n")
-                .add("Số tài khoản: 1041819355\n")
+                .add("Số tài khoản: " + invoice.getBankInfo().getAccountNumber() + "\n")
                 .add("Tên tài khoản: " + invoice.getBankInfo().getAccountName() + "\n")
                 .add("Nội dung: " + invoice.getInvoiceNumber());
 
@@ -281,11 +363,14 @@ public class PDFGeneratorService {
         Cell qrCell = new Cell().setBorder(null).setTextAlignment(TextAlignment.RIGHT);
 
         try {
-            Image qrImage = new Image(ImageDataFactory.create(new URL(invoice.getQrCodeUrl())));
-            qrImage.setWidth(isCompact ? 160 : 211).setHeight(isCompact ? 160 : 243).setHorizontalAlignment(HorizontalAlignment.RIGHT);
+            BarcodeQRCode qrCode = paymentQrService.qrCode(invoice.getBankInfo(), invoice.getTotalAmount(), invoice.getInvoiceNumber());
+            Image qrImage = new Image(qrCode.createFormXObject(ColorConstants.BLACK, document.getPdfDocument()));
+            float qrSize = isCompact ? 150 : 180;
+            qrImage.setWidth(qrSize).setHeight(qrSize).setHorizontalAlignment(HorizontalAlignment.RIGHT);
             qrCell.add(qrImage);
         } catch (Exception e) {
-            qrCell.add(new Paragraph("QR Code không khả dụng").setFont(getRegularFont()).setFontSize(9));
+            log.warn("Failed to render payment QR code for invoice {}", invoice.getInvoiceNumber(), e);
+            qrCell.add(new Paragraph("QR Code không khả dụng").setFont(fonts.regular()).setFontSize(9));
         }
 
         if (isCompact) {
@@ -300,81 +385,32 @@ public class PDFGeneratorService {
         document.add(bankTable);
     }
 
-    private void addInvoiceFooter(Document document) {
+    private void addInvoiceFooter(Document document, Fonts fonts) {
         document.add(new Paragraph("Lưu ý: Vui lòng chuyển khoản đúng nội dung để xác nhận thanh toán nhanh chóng.")
-                .setFont(getRegularFont()).setFontSize(9).setFontColor(new DeviceRgb(107, 114, 128))
+                .setFont(fonts.regular()).setFontSize(9).setFontColor(LABEL_TEXT)
                 .setTextAlignment(TextAlignment.CENTER).setMarginTop(20));
 
         document.add(new Paragraph("Cảm ơn quý phụ huynh đã tin tưởng!")
-                .setFont(getBoldFont()).setFontSize(11)
+                .setFont(fonts.bold()).setFontSize(11)
                 .setTextAlignment(TextAlignment.CENTER).setMarginTop(5));
     }
 
     // --- Internal Helpers ---
 
-    private byte[] regularFontBytes;
-    private byte[] boldFontBytes;
-
-    private void loadVietnameseFonts() throws Exception {
-        if (regularFontBytes != null) return;
-        try {
-            ClassPathResource regularFont = new ClassPathResource("fonts/DejaVuSans.ttf");
-            ClassPathResource boldFont = new ClassPathResource("fonts/DejaVuSans-Bold.ttf");
-            
-            if (regularFont.exists() && boldFont.exists()) {
-                regularFontBytes = regularFont.getInputStream().readAllBytes();
-                boldFontBytes = boldFont.getInputStream().readAllBytes();
-            } else {
-                log.warn("Unicode fonts not found");
-                // Fallback handled in getters
-            }
-        } catch (Exception e) {
-            log.error("Failed to load fonts", e);
-        }
-    }
-
-    private PdfFont getRegularFont() {
-        try {
-            if (regularFontBytes != null) {
-                return PdfFontFactory.createFont(regularFontBytes, PdfEncodings.IDENTITY_H);
-            }
-            return PdfFontFactory.createFont(com.itextpdf.io.font.constants.StandardFonts.TIMES_ROMAN);
-        } catch (Exception e) {
-            log.error("Error creating regular font", e);
-            try {
-                return PdfFontFactory.createFont(com.itextpdf.io.font.constants.StandardFonts.TIMES_ROMAN);
-            } catch (Exception ex) { return null; }
-        }
-    }
-
-    private PdfFont getBoldFont() {
-        try {
-            if (boldFontBytes != null) {
-                return PdfFontFactory.createFont(boldFontBytes, PdfEncodings.IDENTITY_H);
-            }
-            return PdfFontFactory.createFont(com.itextpdf.io.font.constants.StandardFonts.TIMES_BOLD);
-        } catch (Exception e) {
-            log.error("Error creating bold font", e);
-            try {
-                return PdfFontFactory.createFont(com.itextpdf.io.font.constants.StandardFonts.TIMES_BOLD);
-            } catch (Exception ex) { return null; }
-        }
-    }
-
-    private Cell createTableCell(String text) {
-        return new Cell().add(new Paragraph(text != null ? text : "").setFont(getRegularFont()).setFontSize(10)).setPadding(4);
+    private Cell createTableCell(Fonts fonts, String text) {
+        return new Cell().add(new Paragraph(text != null ? text : "").setFont(fonts.regular()).setFontSize(10)).setPadding(4);
     }
 
-    private Cell createTableCellCenter(String text) {
-        return createTableCell(text).setTextAlignment(TextAlignment.CENTER);
+    private Cell createTableCellCenter(Fonts fonts, String text) {
+        return createTableCell(fonts, text).setTextAlignment(TextAlignment.CENTER);
     }
 
-    private Cell createTableCellRight(String text) {
-        return createTableCell(text).setTextAlignment(TextAlignment.RIGHT);
+    private Cell createTableCellRight(Fonts fonts, String text) {
+        return createTableCell(fonts, text).setTextAlignment(TextAlignment.RIGHT);
     }
 
     private void addHorizontalLine(Document document) {
-        document.add(new LineSeparator(new SolidLine()).setStrokeColor(new DeviceRgb(200, 200, 200)).setMarginTop(10).setMarginBottom(10));
+        document.add(new LineSeparator(new SolidLine()).setStrokeColor(DIVIDER).setMarginTop(10).setMarginBottom(10));
     }
 
     private void addVerticalSpacing(Document document, float space) {
@@ -382,7 +418,7 @@ public class PDFGeneratorService {
     }
 
     private String formatCurrency(Long amount) {
-        return NumberFormat.getInstance(new Locale("vi", "VN")).format(amount != null ? amount : 0) + " đ";
+        return CURRENCY_FORMAT.get().format(amount != null ? amount : 0) + " đ";
     }
 
     private String formatMonth(String month) {
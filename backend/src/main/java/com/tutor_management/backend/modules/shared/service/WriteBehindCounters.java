@@ -0,0 +1,185 @@
+package com.tutor_management.backend.modules.shared.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind counters for hot "+1" columns such as download and view counts.
+ * <p>
+ * Increments only merge into a pending delta per row; the flush takes each delta out under
+ * the same per-row lock, so no increment is lost between reading and removing it. Pending
+ * deltas are flushed on a timer, and on
+ * shutdown, as one JDBC batch of {@code UPDATE ... SET count = count + ?} per counter;
+ * the database applies each delta atomically, so no entity is read or rewritten.
+ * <p>
+ * Counts read through JPA lag behind by at most one flush interval.
+ */
+@Component
+@Slf4j
+public class WriteBehindCounters {
+
+    /**
+     * A counted column.
+     *
+     * @param name          Metric tag and log name
+     * @param table         Table holding the counter, keyed by {@code id}
+     * @param countColumn   Column incremented by the pending delta
+     * @param touchedColumn Optional timestamp column set to the flush time, or {@code null}
+     */
+    public record Target(String name, String table, String countColumn, String touchedColumn) {
+
+        String updateSql() {
+            return "UPDATE " + table + " SET " + countColumn + " = " + countColumn + " + ?"
+                    + (touchedColumn != null ? ", " + touchedColumn + " = ?" : "")
+                    + " WHERE id = ?";
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Target, PendingCounts> counters = new ConcurrentHashMap<>();
+    /** Keeps the scheduled flush and the shutdown flush from writing the same deltas twice. */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Counter flushFailureCounter;
+    private final Timer flushTimer;
+
+    @Value("${app.counters.batch-size:500}")
+    private int batchSize = 500;
+
+    public WriteBehindCounters(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Callers may increment from inside their own (read-only) transaction
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.flushFailureCounter = meterRegistry.counter("counters.write_behind.flush_failures");
+        this.flushTimer = meterRegistry.timer("counters.write_behind.flush");
+    }
+
+    /**
+     * Counts one event for the given row; it reaches the database with the next flush.
+     */
+    public void increment(Target target, Long id) {
+        counters.computeIfAbsent(target, this::register).increment(id);
+    }
+
+    private PendingCounts register(Target target) {
+        PendingCounts pending = new PendingCounts(target,
+                meterRegistry.counter("counters.write_behind.flushed", "counter", target.name()));
+        Gauge.builder("counters.write_behind.pending", pending.deltas, Map::size)
+                .tag("counter", target.name())
+                .description("Rows with increments waiting to be flushed")
+                .register(meterRegistry);
+        return pending;
+    }
+
+    @Scheduled(fixedDelayString = "${app.counters.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushTimer.record(() -> counters.values().forEach(this::flush));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing write-behind counters before shutdown");
+        flush();
+    }
+
+    private void flush(PendingCounts pending) {
+        List<Drained> drained = pending.drain();
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        boolean touches = pending.target.touchedColumn() != null;
+        List<Object[]> rows = new ArrayList<>(drained.size());
+        for (Drained d : drained) {
+            rows.add(touches ? new Object[]{d.delta, now, d.id} : new Object[]{d.delta, d.id});
+        }
+
+        try {
+            String sql = pending.target.updateSql();
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < rows.size(); from += batchSize) {
+                    jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + batchSize, rows.size())));
+                }
+            });
+            pending.flushedCounter.increment(drained.size());
+        } catch (Exception e) {
+            // Put the deltas back so the next flush retries them
+            drained.forEach(d -> pending.add(d.id, d.delta));
+            flushFailureCounter.increment();
+            log.error("Failed to flush {} pending {} counts", drained.size(), pending.target.name(), e);
+        }
+    }
+
+    private record Drained(Long id, long delta) {
+    }
+
+    /**
+     * Pending deltas of one counter, one entry per row.
+     */
+    private static final class PendingCounts {
+
+        private final Target target;
+        private final Counter flushedCounter;
+        private final Map<Long, Long> deltas = new ConcurrentHashMap<>();
+
+        PendingCounts(Target target, Counter flushedCounter) {
+            this.target = target;
+            this.flushedCounter = flushedCounter;
+        }
+
+        void increment(Long id) {
+            add(id, 1L);
+        }
+
+        void add(Long id, long delta) {
+            deltas.merge(id, delta, Long::sum);
+        }
+
+        /**
+         * Takes every pending delta. Each row is read and removed in one atomic step, so an
+         * increment racing with the drain either makes it into this flush or starts a fresh
+         * delta for the next one.
+         */
+        List<Drained> drain() {
+            List<Drained> drained = new ArrayList<>();
+            for (Long id : deltas.keySet()) {
+                deltas.computeIfPresent(id, (key, delta) -> {
+                    drained.add(new Drained(key, delta));
+                    return null;
+                });
+            }
+            return drained;
+        }
+    }
+}
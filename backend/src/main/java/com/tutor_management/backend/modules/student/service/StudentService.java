@@ -21,8 +21,10 @@ import org.springframework.transaction.annotation.Transactional;
 import com.tutor_management.backend.modules.auth.Role;
 import com.tutor_management.backend.modules.auth.User;
 import com.tutor_management.backend.modules.auth.UserRepository;
+import com.tutor_management.backend.modules.finance.dto.response.StudentBillingStats;
 import com.tutor_management.backend.modules.finance.entity.SessionRecord;
 import com.tutor_management.backend.modules.finance.repository.SessionRecordRepository;
+import com.tutor_management.backend.modules.finance.service.RevenueRollupService;
 import com.tutor_management.backend.modules.parent.entity.Parent;
 import com.tutor_management.backend.modules.parent.repository.ParentRepository;
 import com.tutor_management.backend.modules.student.dto.request.StudentRequest;
@@ -47,6 +49,7 @@ public class StudentService {
     private final StudentRepository studentRepository;
     private final TutorRepository tutorRepository;
     private final SessionRecordRepository sessionRecordRepository;
+    private final RevenueRollupService revenueRollupService;
     private final ParentRepository parentRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
@@ -74,15 +77,15 @@ public class StudentService {
 
         List<Long> studentIds = students.stream().map(Student::getId).toList();
 
-        // Batch load dependencies
-        Map<Long, List<SessionRecord>> recordsMap = sessionRecordRepository.findByStudentIdIn(studentIds)
-                .stream().collect(Collectors.groupingBy(r -> r.getStudent().getId()));
+        // Batch load dependencies; billing figures are aggregated in the database
+        Map<Long, StudentBillingStats> billingMap = sessionRecordRepository.findBillingStatsByStudentIdIn(studentIds)
+                .stream().collect(Collectors.toMap(StudentBillingStats::getStudentId, b -> b));
 
         Map<Long, User> usersMap = userRepository.findByStudentIdIn(studentIds)
                 .stream().collect(Collectors.toMap(User::getStudentId, u -> u, (u1, u2) -> u1));
 
         return students.stream()
-                .map(s -> convertToResponseOptimized(s, recordsMap.getOrDefault(s.getId(), Collections.emptyList()), usersMap.get(s.getId())))
+                .map(s -> convertToResponseOptimized(s, billingMap.get(s.getId()), usersMap.get(s.getId())))
                 .collect(Collectors.toList());
     }
 
@@ -231,7 +234,9 @@ public class StudentService {
                 .orElseThrow(() -> new ResourceNotFoundException("Không tìm thấy học sinh với ID: " + id + " hoặc bạn không có quyền truy cập"));
         }
 
-        sessionRecordRepository.deleteAll(sessionRecordRepository.findByStudentId(id));
+        List<SessionRecord> records = sessionRecordRepository.findByStudentId(id);
+        sessionRecordRepository.deleteAll(records);
+        revenueRollupService.recordDeleted(records);
         userRepository.findByStudentId(id).ifPresent(userRepository::delete);
         studentRepository.delete(student);
     }
@@ -356,19 +361,21 @@ public class StudentService {
     // --- Converters ---
 
     public StudentResponse convertToResponse(Student student) {
-        List<SessionRecord> records = sessionRecordRepository.findByStudentId(student.getId());
+        StudentBillingStats billing = sessionRecordRepository.findBillingStatsByStudentIdIn(List.of(student.getId()))
+                .stream().findFirst().orElse(null);
         User user = userRepository.findByStudentId(student.getId()).orElse(null);
-        return convertToResponseOptimized(student, records, user);
+        return convertToResponseOptimized(student, billing, user);
     }
 
-    private StudentResponse convertToResponseOptimized(Student student, List<SessionRecord> records, User user) {
-        long totalPaid = records.stream().filter(SessionRecord::getPaid).mapToLong(SessionRecord::getTotalAmount).sum();
-        long totalUnpaid = records.stream().filter(r -> !r.getPaid()).mapToLong(SessionRecord::getTotalAmount).sum();
-        long totalUnpaidTaught = records.stream()
-                .filter(r -> !r.getPaid() && r.getStatus() != null && r.getStatus().isCompleted())
-                .mapToLong(SessionRecord::getTotalAmount).sum();
+    /**
+     * @param billing The student's aggregated billing figures, or null if they have no session records
+     */
+    private StudentResponse convertToResponseOptimized(Student student, StudentBillingStats billing, User user) {
+        long totalPaid = billing != null ? billing.getTotalPaid() : 0L;
+        long totalUnpaid = billing != null ? billing.getTotalUnpaid() : 0L;
+        long totalUnpaidTaught = billing != null ? billing.getTotalUnpaidTaught() : 0L;
 
-        String lastActiveMonth = records.stream().map(SessionRecord::getMonth).max(String::compareTo).orElse(null);
+        String lastActiveMonth = billing != null ? billing.getLastActiveMonth() : null;
         Integer monthsLearned = calculateMonthsLearned(student.getStartMonth(), lastActiveMonth);
 
         StudentResponse response = StudentResponse.builder()
@@ -17,6 +17,8 @@ import com.tutor_management.backend.modules.document.entity.Document;
 import com.tutor_management.backend.modules.document.repository.DocumentRepository;
 import com.tutor_management.backend.modules.student.entity.Student;
 import com.tutor_management.backend.modules.finance.entity.SessionRecord;
+import com.tutor_management.backend.modules.finance.dto.response.MonthlyStats;
+import com.tutor_management.backend.modules.finance.service.RevenueRollupService;
 import com.tutor_management.backend.modules.finance.service.SessionRecordService;
 import com.tutor_management.backend.modules.student.service.StudentService;
 import com.tutor_management.backend.modules.document.service.DocumentService;
@@ -29,6 +31,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -50,6 +53,7 @@ public class TutorService {
     // Inject services for mapping/logic reuse
     private final StudentService studentService;
     private final SessionRecordService sessionRecordService;
+    private final RevenueRollupService revenueRollupService;
     private final DocumentService documentService;
 
     /**
@@ -221,10 +225,16 @@ public class TutorService {
 
         long studentCount = studentRepository.countByTutorIdAndActiveTrue(id);
         String currentMonth = java.time.LocalDate.now().format(java.time.format.DateTimeFormatter.ofPattern("MM/yyyy"));
-        Integer sessionCount = sessionRecordRepository.sumSessionsByMonthAndTutorId(currentMonth, id);
+        // Both figures come from the tutor's monthly rollup rows
+        List<MonthlyStats> months = revenueRollupService.getMonthlyStats(id);
+        Integer sessionCount = months.stream()
+                .filter(m -> m.getMonth().equals(currentMonth))
+                .map(MonthlyStats::getTotalSessions)
+                .findFirst()
+                .orElse(0);
         
         com.tutor_management.backend.modules.dashboard.dto.response.DashboardStats financeStats = 
-                sessionRecordRepository.getFinanceSummaryByTutorId(currentMonth, id);
+                RevenueRollupService.summarize(months, currentMonth);
         
         double totalRevenue = 0.0;
         if (financeStats != null) {
@@ -299,7 +309,7 @@ public class TutorService {
         if (!tutorRepository.existsById(tutorId)) {
             throw new TutorNotFoundException(tutorId);
         }
-        return documentRepository.findAllWithStudent(tutorId, null, pageable)
+        return documentRepository.findAllWithStudentByTutorId(tutorId, null, pageable)
                 .map(this::mapToDocumentResponse);
     }
 
@@ -1,5 +1,7 @@
 package com.tutor_management.backend.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.tutor_management.backend.modules.auth.Role;
 import com.tutor_management.backend.modules.auth.User;
 import com.tutor_management.backend.modules.auth.UserRepository;
@@ -11,11 +13,16 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.Optional;
 
 /**
  * Centralized utility for resolving identities from the SecurityContext.
  * Enforces multi-tenancy isolation by strictly mapping Users to their respective Roles and IDs.
+ *
+ * The Tutor ID is resolved once and carried on the authenticated {@link User} principal
+ * (see {@link #attachTenantIds(User)}), so the hot path needs no query. A short-lived
+ * userId -> tutorId cache covers principals that were built without it.
  */
 @Component
 @RequiredArgsConstructor
@@ -25,6 +32,12 @@ public class SecurityContextUtils {
     private final UserRepository userRepository;
     private final TutorRepository tutorRepository;
 
+    /** Only found profiles are cached; a missing profile is looked up again next time */
+    private final Cache<Long, Long> tutorIdsByUserId = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .maximumSize(10_000)
+            .build();
+
     /**
      * Resolves the current Tutor ID.
      * - Returns NULL if the user is an ADMIN (Admins have global access).
@@ -58,18 +71,37 @@ public class SecurityContextUtils {
         }
 
         if (Role.TUTOR.equals(user.getRole())) {
-            return tutorRepository.findByUserId(user.getId())
-                    .map(Tutor::getId)
-                    .orElseThrow(() -> {
-                        log.error("CRITICAL: Tutor profile missing for authenticated user: {}", user.getEmail());
-                        return new IllegalStateException("Hồ sơ Gia sư chưa được khởi tạo. Vui lòng đăng nhập lại.");
-                    });
+            if (user.getTutorId() != null) {
+                return user.getTutorId();
+            }
+            Long tutorId = lookupTutorId(user.getId());
+            if (tutorId == null) {
+                log.error("CRITICAL: Tutor profile missing for authenticated user: {}", user.getEmail());
+                throw new IllegalStateException("Hồ sơ Gia sư chưa được khởi tạo. Vui lòng đăng nhập lại.");
+            }
+            return tutorId;
         }
 
         // Default: Students or other roles don't have a tutorId in this context
         return null;
     }
 
+    /**
+     * Embeds the tenant identity (Tutor ID) in a principal at authentication time.
+     * Role and Student ID are already columns of the User. A TUTOR without a profile
+     * is left unresolved so that {@link #getCurrentTutorId()} reports it.
+     */
+    public void attachTenantIds(User user) {
+        if (Role.TUTOR.equals(user.getRole()) && user.getTutorId() == null) {
+            user.setTutorId(lookupTutorId(user.getId()));
+        }
+    }
+
+    private Long lookupTutorId(Long userId) {
+        // A null result from the loader is not stored
+        return tutorIdsByUserId.get(userId, id -> tutorRepository.findByUserId(id).map(Tutor::getId).orElse(null));
+    }
+
     /**
      * Resolves the current User entity.
      */
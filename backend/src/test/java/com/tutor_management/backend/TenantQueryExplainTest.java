@@ -0,0 +1,183 @@
+package com.tutor_management.backend;
+
+import com.tutor_management.backend.modules.document.repository.DocumentRepository;
+import com.tutor_management.backend.modules.exercise.repository.ExerciseAssignmentRepository;
+import com.tutor_management.backend.modules.finance.repository.SessionRecordRepository;
+import com.tutor_management.backend.modules.lesson.repository.LessonRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the tutor-scoped queries against falling back to full scans.
+ * <p>
+ * Calls the tenant query methods of the repositories, captures the SQL Hibernate generates
+ * for them and runs EXPLAIN on it, checking that a tutor-leading index is usable. Needs a
+ * MySQL schema created by the application (ddl-auto), so it only runs when
+ * {@code EXPLAIN_DB_URL} (and optionally {@code EXPLAIN_DB_USER}/{@code EXPLAIN_DB_PASSWORD})
+ * point at one, e.g. a local dev database. Against an empty database, set
+ * {@code EXPLAIN_DB_DDL_AUTO=update} to have the schema created first. With MariaDB, also pass
+ * {@code -Dspring.jpa.database-platform=org.hibernate.dialect.MySQLDialect}: the MySQL driver
+ * cannot read its metadata.
+ */
+@EnabledIfEnvironmentVariable(named = "EXPLAIN_DB_URL", matches = ".+")
+@DataJpaTest(properties = {
+        "spring.datasource.url=${EXPLAIN_DB_URL}",
+        "spring.datasource.username=${EXPLAIN_DB_USER:}",
+        "spring.datasource.password=${EXPLAIN_DB_PASSWORD:}",
+        "spring.jpa.hibernate.ddl-auto=${EXPLAIN_DB_DDL_AUTO:none}",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.tutor_management.backend.TenantQueryExplainTest$SqlCapture"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DisplayName("Tenant query EXPLAIN regression tests")
+class TenantQueryExplainTest {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+
+    @Autowired
+    private SessionRecordRepository sessionRecordRepository;
+    @Autowired
+    private DocumentRepository documentRepository;
+    @Autowired
+    private LessonRepository lessonRepository;
+    @Autowired
+    private ExerciseAssignmentRepository exerciseAssignmentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Queries that join-fetch the tutor (or look the category up by code) filter on a unique key.
+     * Against an empty table MySQL reads that const row, finds nothing and reports "Impossible
+     * WHERE" without any key, so tutor 1 and category GRAMMAR exist for the duration of each
+     * (rolled-back) test.
+     */
+    @BeforeEach
+    void seedLookupRows() {
+        jdbcTemplate.execute("SET FOREIGN_KEY_CHECKS = 0");
+        jdbcTemplate.update("INSERT INTO tutors (id, created_at, email, full_name, phone, subscription_plan, "
+                + "subscription_status, user_id) VALUES (1, NOW(), 'explain@test.com', 'Explain', '0', 'FREE', 'ACTIVE', 1)");
+        jdbcTemplate.update("INSERT INTO document_categories (id, active, code, created_at, display_order, name, updated_at) "
+                + "VALUES (1, TRUE, 'GRAMMAR', NOW(), 0, 'Grammar', NOW())");
+    }
+
+    @AfterEach
+    void restoreForeignKeyChecks() {
+        jdbcTemplate.execute("SET FOREIGN_KEY_CHECKS = 1");
+    }
+
+    /**
+     * Records every statement Hibernate prepares.
+     */
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    /**
+     * @return the first SELECT the repository call issued
+     */
+    private String sqlOf(Runnable repositoryCall) {
+        SqlCapture.STATEMENTS.clear();
+        repositoryCall.run();
+        return SqlCapture.STATEMENTS.stream()
+                .filter(sql -> sql.stripLeading().toLowerCase().startsWith("select"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No SELECT captured"));
+    }
+
+    /**
+     * EXPLAINs the SQL with its JDBC parameters bound in order of appearance.
+     *
+     * @return possible_keys of every table access in the plan
+     */
+    private List<String> possibleKeys(String sql, Object... parameters) {
+        long placeholders = sql.chars().filter(c -> c == '?').count();
+        assertEquals(parameters.length, placeholders, () -> "Parameters do not match the generated SQL: " + sql);
+        return jdbcTemplate.query("EXPLAIN " + sql,
+                (rs, rowNum) -> String.valueOf(rs.getString("possible_keys")), parameters);
+    }
+
+    private void assertIndexUsable(String index, String sql, Object... parameters) {
+        List<String> keys = possibleKeys(sql, parameters);
+        assertTrue(keys.stream().anyMatch(k -> k.contains(index)),
+                () -> "Expected " + index + " to be usable for: " + sql + " but possible_keys were " + keys);
+    }
+
+    @Test
+    @DisplayName("Session records of a tutor's month")
+    void sessionRecords_ByTutorAndMonth() {
+        String sql = sqlOf(() -> sessionRecordRepository.findByMonthAndTutorIdOrderByCreatedAtDesc("2024-01", 1L, FIRST_PAGE));
+        assertIndexUsable("idx_session_tutor_month_created", sql, "2024-01", 1L, 20);
+    }
+
+    @Test
+    @DisplayName("All session records of a tutor")
+    void sessionRecords_ByTutor() {
+        String sql = sqlOf(() -> sessionRecordRepository.findAllByTutorIdOrderByCreatedAtDesc(1L, FIRST_PAGE));
+        assertIndexUsable("idx_session_tutor_created", sql, 1L, 20);
+    }
+
+    @Test
+    @DisplayName("Unpaid session records of a tutor")
+    void sessionRecords_UnpaidByTutor() {
+        String sql = sqlOf(() -> sessionRecordRepository.findByPaidFalseAndTutorIdOrderBySessionDateDesc(1L, FIRST_PAGE));
+        assertIndexUsable("idx_session_tutor_paid_date", sql, 1L, 20);
+    }
+
+    @Test
+    @DisplayName("Documents of a tutor visible to a student")
+    void documents_ByTutor() {
+        String sql = sqlOf(() -> documentRepository.findAllWithStudentByTutorId(1L, 5L, FIRST_PAGE));
+        // :studentId appears twice in the query
+        assertIndexUsable("idx_document_tutor", sql, 1L, 5L, 5L, 20);
+    }
+
+    @Test
+    @DisplayName("Documents of a tutor in a category")
+    void documents_ByTutorAndCategory() {
+        String sql = sqlOf(() -> documentRepository.findByCategoryCodeAndTutorId("GRAMMAR", 1L, 5L, FIRST_PAGE));
+        assertIndexUsable("idx_document_tutor_category", sql, 1L, "GRAMMAR", 5L, 5L, 20);
+    }
+
+    @Test
+    @DisplayName("Library lessons of a tutor")
+    void lessons_ByTutor() {
+        String sql = sqlOf(() -> lessonRepository.findByIsLibraryTrueAndTutorIdOrderByCreatedAtDesc(1L, FIRST_PAGE));
+        assertIndexUsable("idx_lesson_tutor_created", sql, 1L, 20);
+    }
+
+    @Test
+    @DisplayName("Exercise assignments of a student, by a tutor")
+    void exerciseAssignments_ByStudentAndTutor() {
+        String sql = sqlOf(() -> exerciseAssignmentRepository.findByStudentIdAndTutorId("5", 1L, FIRST_PAGE));
+        assertIndexUsable("idx_assignment_student_id", sql, "5", 1L, 20);
+    }
+
+    @Test
+    @DisplayName("Assignment status counts of students, by a tutor")
+    void exerciseAssignments_CountByTutor() {
+        String sql = sqlOf(() -> exerciseAssignmentRepository.countAssignmentsWithSubmissionStatusByTutorId(List.of("5", "6"), 1L));
+        assertIndexUsable("idx_assignment_student_id", sql, "5", "6", 1L);
+    }
+}
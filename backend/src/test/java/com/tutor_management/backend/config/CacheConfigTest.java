@@ -0,0 +1,77 @@
+package com.tutor_management.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CacheConfig Unit Tests")
+class CacheConfigTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CacheManager cacheManager(MockEnvironment environment) {
+        return new CacheConfig(environment).cacheManager(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should declare every cache used by the services, and no others")
+    void cacheManager_DeclaredCaches() {
+        CacheManager cacheManager = cacheManager(new MockEnvironment());
+
+        assertNotNull(cacheManager.getCache("userNames"));
+        assertNotNull(cacheManager.getCache("dashboardStats"));
+        assertNull(cacheManager.getCache("dashbaordStats"));
+    }
+
+    @Test
+    @DisplayName("Should apply a per-cache spec override")
+    void cacheManager_SpecOverride() {
+        CacheManager cacheManager = cacheManager(new MockEnvironment()
+                .withProperty("app.cache.courseDetail.spec", "maximumSize=1"));
+        CaffeineCache courseDetail = (CaffeineCache) cacheManager.getCache("courseDetail");
+
+        long maximum = courseDetail.getNativeCache().policy().eviction().orElseThrow().getMaximum();
+
+        assertEquals(1L, maximum);
+    }
+
+    @Test
+    @DisplayName("Should weigh list values by their size")
+    void cacheManager_WeighsCollections() {
+        CacheManager cacheManager = cacheManager(new MockEnvironment()
+                .withProperty("app.cache.monthlyStats.spec", "maximumWeight=5"));
+        Cache monthlyStats = cacheManager.getCache("monthlyStats");
+
+        monthlyStats.put(CacheKeys.tenant(1L), List.of(1, 2, 3));
+        monthlyStats.put(CacheKeys.tenant(2L), List.of(1, 2, 3));
+        ((CaffeineCache) monthlyStats).getNativeCache().cleanUp();
+
+        assertEquals(1L, ((CaffeineCache) monthlyStats).getNativeCache().estimatedSize());
+    }
+
+    @Test
+    @DisplayName("Should publish Caffeine statistics per cache")
+    void cacheManager_PublishesStats() {
+        Cache users = cacheManager(new MockEnvironment()).getCache("users");
+
+        users.get("missing");
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "users", "result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should reject refreshAfterWrite, which has no loader to refresh with")
+    void buildCache_RefreshRejected() {
+        assertThrows(IllegalStateException.class,
+                () -> CacheConfig.buildCache("dashboardStats", "maximumSize=10,refreshAfterWrite=1m"));
+    }
+}
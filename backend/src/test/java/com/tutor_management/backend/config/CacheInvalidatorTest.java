@@ -0,0 +1,87 @@
+package com.tutor_management.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CacheInvalidator Unit Tests")
+class CacheInvalidatorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CacheManager cacheManager;
+    private CacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new CacheConfig(new StandardEnvironment()).cacheManager(meterRegistry);
+        invalidator = new CacheInvalidator(cacheManager, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should evict only the affected tutor and the global view")
+    void evictRevenue_KeepsOtherTutors() {
+        Cache dashboard = cacheManager.getCache("dashboardStats");
+        dashboard.put(CacheKeys.tenant(1L, "2024-01"), "tutor 1, january");
+        dashboard.put(CacheKeys.tenant(1L, "2024-02"), "tutor 1, february");
+        dashboard.put(CacheKeys.tenant(2L, "2024-01"), "tutor 2");
+        dashboard.put(CacheKeys.tenant(null, "2024-01"), "admin");
+
+        invalidator.evictRevenue(1L);
+
+        assertNull(dashboard.get(CacheKeys.tenant(1L, "2024-01")));
+        assertNull(dashboard.get(CacheKeys.tenant(1L, "2024-02")));
+        assertNull(dashboard.get(CacheKeys.tenant(null, "2024-01")));
+        assertNotNull(dashboard.get(CacheKeys.tenant(2L, "2024-01")));
+        assertEquals(3.0, meterRegistry.get("cache.evictions.targeted").tag("cache", "dashboardStats").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should keep other students' document stats for a student document")
+    void evictDocumentStats_StudentDocument() {
+        Cache stats = cacheManager.getCache("documentStats");
+        stats.put(CacheKeys.tenant(1L, 10L), "student 10");
+        stats.put(CacheKeys.tenant(1L, 11L), "student 11");
+        stats.put(CacheKeys.tenant(1L, null), "all students");
+
+        invalidator.evictDocumentStats(1L, 10L);
+
+        assertNull(stats.get(CacheKeys.tenant(1L, 10L)));
+        assertNull(stats.get(CacheKeys.tenant(1L, null)));
+        assertNotNull(stats.get(CacheKeys.tenant(1L, 11L)));
+    }
+
+    @Test
+    @DisplayName("Should evict a lesson for the given students only")
+    void evictLesson_Students() {
+        Cache lessons = cacheManager.getCache("lessons");
+        lessons.put(CacheKeys.lesson(5L, 10L), "a");
+        lessons.put(CacheKeys.lesson(5L, 11L), "b");
+        lessons.put(CacheKeys.lesson(6L, 10L), "c");
+
+        invalidator.evictLesson(5L, List.of(10L));
+
+        assertNull(lessons.get(CacheKeys.lesson(5L, 10L)));
+        assertNotNull(lessons.get(CacheKeys.lesson(5L, 11L)));
+        assertNotNull(lessons.get(CacheKeys.lesson(6L, 10L)));
+    }
+
+    @Test
+    @DisplayName("Should publish a hit ratio per cache")
+    void hitRatio_PerCache() {
+        Cache lessons = cacheManager.getCache("lessons");
+        lessons.put(CacheKeys.lesson(5L, 10L), "a");
+        lessons.get(CacheKeys.lesson(5L, 10L));
+        lessons.get(CacheKeys.lesson(5L, 11L));
+
+        assertEquals(0.5, meterRegistry.get("cache.hit.ratio").tag("cache", "lessons").gauge().value());
+    }
+}
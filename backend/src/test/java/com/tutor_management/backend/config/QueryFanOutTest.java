@@ -0,0 +1,88 @@
+package com.tutor_management.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("QueryFanOut Unit Tests")
+class QueryFanOutTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ThreadPoolTaskExecutor executor;
+    private QueryFanOut fanOut;
+
+    @BeforeEach
+    void setUp() {
+        executor = new AsyncConfig().queryFanOutExecutor(3, 10);
+        executor.initialize();
+        fanOut = new QueryFanOut(executor, transactionManager, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should run queries concurrently with the caller's security context")
+    void submit_RunsInParallelWithSecurityContext() throws InterruptedException {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("tutor@test.com", null, List.of()));
+        CountDownLatch allStarted = new CountDownLatch(3);
+
+        List<CompletableFuture<String>> queries = List.of(
+                fanOut.submit(() -> awaitOthers(allStarted)),
+                fanOut.submit(() -> awaitOthers(allStarted)),
+                fanOut.submit(() -> awaitOthers(allStarted)));
+
+        for (CompletableFuture<String> query : queries) {
+            assertEquals("tutor@test.com", fanOut.await(query));
+        }
+        verify(transactionManager, times(3)).getTransaction(argThat(definition -> definition.isReadOnly()));
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    private String awaitOthers(CountDownLatch allStarted) {
+        allStarted.countDown();
+        try {
+            // Only completes if all three queries are running at the same time
+            assertTrue(allStarted.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
+    @Test
+    @DisplayName("Should rethrow a query's exception unwrapped")
+    void await_RethrowsQueryException() {
+        CompletableFuture<Object> failing = fanOut.submit(() -> {
+            throw new IllegalArgumentException("bad month");
+        });
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> fanOut.await(failing));
+        assertEquals("bad month", thrown.getMessage());
+    }
+}
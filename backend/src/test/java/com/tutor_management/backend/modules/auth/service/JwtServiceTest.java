@@ -0,0 +1,116 @@
+package com.tutor_management.backend.modules.auth.service;
+
+import com.tutor_management.backend.modules.auth.Role;
+import com.tutor_management.backend.modules.auth.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.*;
+
+@DisplayName("JwtService Unit Tests")
+class JwtServiceTest {
+
+    private final String testSecret = Base64.getEncoder().encodeToString(
+            "test-secret-key-min-256-bits-long-for-hs256-algorithm".getBytes());
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = newService(3600000L);
+    }
+
+    private JwtService newService(long expiration) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secretKey", testSecret);
+        ReflectionTestUtils.setField(service, "jwtExpiration", expiration);
+        return service;
+    }
+
+    private User tutor() {
+        return User.builder().id(7L).email("tutor@test.com").fullName("Tutor").role(Role.TUTOR).tutorId(70L).build();
+    }
+
+    @Test
+    @DisplayName("Should build the principal from signed claims")
+    void verify_ToPrincipal_CarriesIdentity() {
+        String token = jwtService.generateToken(tutor());
+
+        User principal = jwtService.toPrincipal(jwtService.verify(token));
+
+        assertNotNull(principal);
+        assertEquals(7L, principal.getId());
+        assertEquals("tutor@test.com", principal.getUsername());
+        assertEquals(Role.TUTOR, principal.getRole());
+        assertEquals(70L, principal.getTutorId());
+        assertNull(principal.getStudentId());
+        assertTrue(principal.isEnabled());
+    }
+
+    @Test
+    @DisplayName("Should return the cached claims for a token already verified")
+    void verify_Cached() {
+        String token = jwtService.generateToken(tutor());
+
+        Claims first = jwtService.verify(token);
+
+        assertSame(first, jwtService.verify(token));
+    }
+
+    @Test
+    @DisplayName("Should reject a tampered token")
+    void verify_Tampered_Throws() {
+        String token = jwtService.generateToken(tutor());
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.verify(tampered));
+    }
+
+    @Test
+    @DisplayName("Should reject an expired token")
+    void verify_Expired_Throws() {
+        JwtService expiring = newService(-1000L);
+        String token = expiring.generateToken(tutor());
+
+        assertThrows(ExpiredJwtException.class, () -> expiring.verify(token));
+    }
+
+    @Test
+    @DisplayName("Should fall back for tokens issued without identity claims")
+    void toPrincipal_LegacyToken_Null() {
+        UserDetails details = tutor();
+        String subjectOnly = jwtService.generateToken(details);
+
+        assertNull(jwtService.toPrincipal(jwtService.verify(subjectOnly)));
+    }
+
+    @Test
+    @DisplayName("Should verify the signature of a token only once")
+    void verify_SecondCall_DoesNotReparse() {
+        JwtParser parser = mock(JwtParser.class, delegatesTo(Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(testSecret))).build()));
+        ReflectionTestUtils.setField(jwtService, "parser", parser);
+        String token = jwtService.generateToken(tutor());
+
+        User first = jwtService.toPrincipal(jwtService.verify(token));
+        User second = jwtService.toPrincipal(jwtService.verify(token));
+
+        verify(parser, times(1)).parseSignedClaims(token);
+        assertEquals(first.getId(), second.getId());
+        assertEquals(first.getTutorId(), second.getTutorId());
+    }
+}
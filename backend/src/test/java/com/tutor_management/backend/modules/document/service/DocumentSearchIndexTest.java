@@ -0,0 +1,143 @@
+package com.tutor_management.backend.modules.document.service;
+
+import com.tutor_management.backend.modules.document.repository.DocumentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DocumentSearchIndex Unit Tests")
+class DocumentSearchIndexTest {
+
+    private static final DocumentSearchIndex.Filter ALL = new DocumentSearchIndex.Filter(null, null, null);
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    private DocumentSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new DocumentSearchIndex(documentRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Should fold Vietnamese accents, đ and case")
+    void tokenize_FoldsAccents() {
+        assertEquals(List.of("ngu", "phap", "tieng", "anh", "dong", "tu", "11"),
+                SearchTokenizer.tokenize("Ngữ pháp Tiếng Anh - ĐỘNG TỪ (11)"));
+    }
+
+    @Test
+    @DisplayName("Should rank title matches first and match accent-free prefixes")
+    void search_RanksAndMatchesPrefixes() {
+        index.add(1L, "Bài tập về nhà", "homework.pdf", "Ôn tập ngữ pháp", 1L, null, 5L);
+        index.add(2L, "Ngữ pháp nâng cao", "grammar.pdf", null, 1L, null, 5L);
+        index.add(3L, "Từ vựng", "vocab.pdf", null, 1L, null, 6L);
+
+        assertEquals(List.of(2L, 1L), index.search("ngu phap", ALL, 0, 10).ids());
+        assertEquals(List.of(2L, 1L), index.search("NGỮ PH", ALL, 0, 10).ids());
+        assertEquals(List.of(3L), index.search("vocab", ALL, 0, 10).ids());
+        assertTrue(index.search("ngu vung", ALL, 0, 10).ids().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should apply the tenant, student and category filters")
+    void search_Filters() {
+        index.add(1L, "Ngữ pháp", "a.pdf", null, 1L, null, 5L);
+        index.add(2L, "Ngữ pháp", "b.pdf", null, 1L, 10L, 5L);
+        index.add(3L, "Ngữ pháp", "c.pdf", null, 1L, 11L, 6L);
+        index.add(4L, "Ngữ pháp", "d.pdf", null, 2L, null, 5L);
+
+        assertEquals(List.of(3L, 2L, 1L), index.search("ngu phap", new DocumentSearchIndex.Filter(1L, null, null), 0, 10).ids());
+        assertEquals(List.of(2L, 1L), index.search("ngu phap", new DocumentSearchIndex.Filter(1L, 10L, null), 0, 10).ids());
+        assertEquals(List.of(2L, 1L), index.search("ngu phap", new DocumentSearchIndex.Filter(1L, null, 5L), 0, 10).ids());
+
+        DocumentSearchIndex.Hits page = index.search("ngu phap", ALL, 1, 2);
+        assertEquals(4, page.total());
+        assertEquals(List.of(3L, 2L), page.ids());
+    }
+
+    @Test
+    @DisplayName("Should drop removed documents and replace re-indexed ones")
+    void removeAndReindex() {
+        index.add(1L, "Ngữ pháp", "a.pdf", null, 1L, null, null);
+        index.add(1L, "Từ vựng", "a.pdf", null, 1L, null, null);
+        assertTrue(index.search("ngu phap", ALL, 0, 10).ids().isEmpty());
+
+        index.remove(1L);
+        assertTrue(index.search("tu vung", ALL, 0, 10).ids().isEmpty());
+        assertEquals(0, index.termCount());
+    }
+
+    @Test
+    @DisplayName("Should load the index from the database in ID batches")
+    void rebuild_LoadsAllBatches() {
+        when(documentRepository.findSearchRowsAfter(eq(0L), any())).thenReturn(List.<Object[]>of(
+                new Object[]{1L, "Ngữ pháp", "a.pdf", null, 1L, null, 5L}));
+
+        assertFalse(index.isReady());
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(1L), index.search("ngu", ALL, 0, 10).ids());
+    }
+
+    @Test
+    @DisplayName("Should return the same documents as a linear scan over a generated corpus")
+    void search_GeneratedCorpus_MatchesLinearScan() {
+        String[] words = {"ngữ", "pháp", "từ", "vựng", "bài", "tập", "đề", "thi", "tiếng", "anh", "toán", "hình",
+                "học", "đại", "số", "lý", "hóa", "văn", "nghị", "luận", "ôn", "kiểm", "tra", "giữa", "kỳ", "cuối"};
+        Random random = new Random(42);
+        int count = 5_000;
+        List<List<String>> documentTerms = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            StringBuilder title = new StringBuilder();
+            for (int w = 0; w < 5; w++) {
+                title.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            String fileName = "file-" + id + ".pdf";
+            String description = "Tài liệu số " + id;
+            index.add(id, title.toString(), fileName, description, id % 50, null, id % 8);
+            documentTerms.add(SearchTokenizer.tokenize(title + " " + fileName + " " + description));
+        }
+
+        long matched = 0;
+        for (String query : List.of("ngu phap", "de thi toan", "tieng anh", "kiem tra cuoi ky", "hinh hoc", "van ngh")) {
+            List<String> queryTerms = SearchTokenizer.tokenize(query);
+            for (long tutorId = 0; tutorId < 50; tutorId += 7) {
+                Set<Long> expected = new HashSet<>();
+                for (int i = 0; i < count; i++) {
+                    List<String> terms = documentTerms.get(i);
+                    long id = i + 1;
+                    if (id % 50 == tutorId && queryTerms.stream().allMatch(q -> terms.stream().anyMatch(t -> t.startsWith(q)))) {
+                        expected.add(id);
+                    }
+                }
+
+                DocumentSearchIndex.Hits hits = index.search(query, new DocumentSearchIndex.Filter(tutorId, null, null), 0, 20);
+
+                assertEquals(expected.size(), hits.total(), query);
+                assertEquals(Math.min(20, expected.size()), hits.ids().size(), query);
+                assertTrue(expected.containsAll(hits.ids()), query);
+                matched += hits.total();
+            }
+        }
+        assertTrue(matched > 0);
+        assertEquals(count, index.size());
+    }
+}
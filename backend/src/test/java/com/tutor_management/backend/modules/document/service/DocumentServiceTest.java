@@ -1,5 +1,6 @@
 package com.tutor_management.backend.modules.document.service;
 
+import com.tutor_management.backend.config.CacheInvalidator;
 import com.tutor_management.backend.modules.auth.Role;
 import com.tutor_management.backend.modules.auth.User;
 import com.tutor_management.backend.modules.document.DocumentCategoryType;
@@ -11,10 +12,12 @@ import com.tutor_management.backend.modules.document.repository.DocumentCategory
 import com.tutor_management.backend.modules.document.repository.DocumentRepository;
 import com.tutor_management.backend.modules.finance.repository.SessionRecordRepository;
 import com.tutor_management.backend.modules.shared.service.CloudinaryService;
+import com.tutor_management.backend.modules.shared.service.WriteBehindCounters;
 import com.tutor_management.backend.modules.student.entity.Student;
 import com.tutor_management.backend.modules.student.repository.StudentRepository;
 import com.tutor_management.backend.modules.tutor.entity.Tutor;
 import com.tutor_management.backend.modules.tutor.repository.TutorRepository;
+import com.tutor_management.backend.util.SecurityContextUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -55,6 +58,14 @@ class DocumentServiceTest {
     private SessionRecordRepository sessionRecordRepository;
     @Mock
     private CloudinaryService cloudinaryService;
+    @Mock
+    private CacheInvalidator cacheInvalidator;
+    @Mock
+    private WriteBehindCounters writeBehindCounters;
+    @Mock
+    private DocumentSearchIndex searchIndex;
+    @Mock
+    private SecurityContextUtils securityContextUtils;
 
     @InjectMocks
     private DocumentService documentService;
@@ -91,53 +102,55 @@ class DocumentServiceTest {
     @DisplayName("Admin should see all documents")
     void getAllDocuments_Admin_Success() {
         mockAuthentication(adminUser);
+        when(securityContextUtils.getCurrentTutorId()).thenReturn(null);
         Pageable pageable = PageRequest.of(0, 10);
         Page<Document> page = new PageImpl<>(List.of());
         
-        when(documentRepository.findAllWithStudent(null, null, pageable)).thenReturn(page);
+        when(documentRepository.findAllWithStudent(null, pageable)).thenReturn(page);
 
         documentService.getAllDocuments(pageable);
 
-        verify(documentRepository).findAllWithStudent(null, null, pageable);
+        verify(documentRepository).findAllWithStudent(null, pageable);
     }
 
     @Test
     @DisplayName("Tutor should only see their own documents")
     void getAllDocuments_Tutor_Success() {
         mockAuthentication(tutorUser);
-        when(tutorRepository.findByUserId(2L)).thenReturn(Optional.of(tutor));
+        when(securityContextUtils.getCurrentTutorId()).thenReturn(20L);
         
         Pageable pageable = PageRequest.of(0, 10);
         Page<Document> page = new PageImpl<>(List.of());
         
-        when(documentRepository.findAllWithStudent(20L, null, pageable)).thenReturn(page);
+        when(documentRepository.findAllWithStudentByTutorId(20L, null, pageable)).thenReturn(page);
 
         documentService.getAllDocuments(pageable);
 
-        verify(documentRepository).findAllWithStudent(20L, null, pageable);
+        verify(documentRepository).findAllWithStudentByTutorId(20L, null, pageable);
     }
 
     @Test
     @DisplayName("Student should see public documents and their own private ones from their tutor")
     void getAllDocuments_Student_Success() {
         mockAuthentication(studentUser);
+        when(securityContextUtils.getCurrentTutorId()).thenReturn(null);
         when(studentRepository.findById(10L)).thenReturn(Optional.of(student));
         
         Pageable pageable = PageRequest.of(0, 10);
         Page<Document> page = new PageImpl<>(List.of());
         
-        when(documentRepository.findAllWithStudent(20L, 10L, pageable)).thenReturn(page);
+        when(documentRepository.findAllWithStudentByTutorId(20L, 10L, pageable)).thenReturn(page);
 
         documentService.getAllDocuments(pageable);
 
-        verify(documentRepository).findAllWithStudent(20L, 10L, pageable);
+        verify(documentRepository).findAllWithStudentByTutorId(20L, 10L, pageable);
     }
 
     @Test
     @DisplayName("Upload should set tutor ownership")
     void uploadDocument_Tutor_Success() throws Exception {
         mockAuthentication(tutorUser);
-        when(tutorRepository.findByUserId(2L)).thenReturn(Optional.of(tutor));
+        when(securityContextUtils.getCurrentTutorId()).thenReturn(20L);
         when(tutorRepository.findById(20L)).thenReturn(Optional.of(tutor));
         
         DocumentRequest request = new DocumentRequest();
@@ -167,8 +180,7 @@ class DocumentServiceTest {
     @Test
     @DisplayName("Tutor should be able to delete their own document")
     void deleteDocument_Owner_Success() {
-        mockAuthentication(tutorUser);
-        when(tutorRepository.findByUserId(2L)).thenReturn(Optional.of(tutor));
+        when(securityContextUtils.getCurrentTutorId()).thenReturn(20L);
         
         Document document = Document.builder()
                 .id(100L)
@@ -181,13 +193,36 @@ class DocumentServiceTest {
         documentService.deleteDocument(100L);
 
         verify(documentRepository).delete(document);
+        verify(searchIndex).removeAfterCommit(100L);
+        verify(cacheInvalidator).evictDocumentStats(tutor.getId(), null);
+    }
+
+    @Test
+    @DisplayName("Search should return index hits in rank order, scoped to the tutor")
+    void searchDocuments_UsesIndexRanking() {
+        mockAuthentication(tutorUser);
+        when(securityContextUtils.getCurrentTutorId()).thenReturn(20L);
+        when(searchIndex.isReady()).thenReturn(true);
+        when(searchIndex.search("ngu phap", new DocumentSearchIndex.Filter(20L, null, null), 0, 10))
+                .thenReturn(new DocumentSearchIndex.Hits(List.of(2L, 1L), 2));
+        LocalDateTime now = LocalDateTime.now();
+        Document first = Document.builder().id(1L).title("Ngữ pháp cơ bản").fileSize(1024L).tutor(tutor)
+                .createdAt(now).updatedAt(now).build();
+        Document second = Document.builder().id(2L).title("Ngữ pháp").fileSize(1024L).tutor(tutor)
+                .createdAt(now).updatedAt(now).build();
+        when(documentRepository.findAllWithDetailsByIdIn(List.of(2L, 1L))).thenReturn(List.of(first, second));
+
+        Page<DocumentResponse> result = documentService.searchDocuments("ngu phap", null, PageRequest.of(0, 10));
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals(List.of(2L, 1L), result.getContent().stream().map(DocumentResponse::getId).toList());
+        verify(documentRepository, never()).findByTitleContainingIgnoreCaseAndTutorId(any(), any(), any(), any(), any());
     }
 
     @Test
     @DisplayName("Tutor should NOT be able to delete another tutor's document")
     void deleteDocument_NotOwner_ThrowsException() {
-        mockAuthentication(tutorUser);
-        when(tutorRepository.findByUserId(2L)).thenReturn(Optional.of(tutor));
+        when(securityContextUtils.getCurrentTutorId()).thenReturn(20L);
         
         Tutor otherTutor = Tutor.builder().id(99L).build();
         Document document = Document.builder()
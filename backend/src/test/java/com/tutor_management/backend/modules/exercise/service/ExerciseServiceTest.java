@@ -63,7 +63,7 @@ class ExerciseServiceTest {
         stats.add(new Object[]{student.getId().toString(), com.tutor_management.backend.modules.submission.entity.SubmissionStatus.GRADED, 1L});
         stats.add(new Object[]{student.getId().toString(), com.tutor_management.backend.modules.submission.entity.SubmissionStatus.PENDING, 2L});
         
-        when(assignmentRepository.countAssignmentsWithSubmissionStatus(anyList(), anyLong())).thenReturn(stats);
+        when(assignmentRepository.countAssignmentsWithSubmissionStatusByTutorId(anyList(), anyLong())).thenReturn(stats);
 
         // Act
         Page<TutorStudentSummaryResponse> result = exerciseService.getStudentSummaries(tutorId, pageable);
@@ -78,6 +78,6 @@ class ExerciseServiceTest {
         assertEquals(3, summary.getTotalAssigned());
         
         verify(studentRepository).findByTutorIdAndActiveTrueWithParent(eq(tutorId), eq(pageable));
-        verify(assignmentRepository).countAssignmentsWithSubmissionStatus(anyList(), eq(tutorId));
+        verify(assignmentRepository).countAssignmentsWithSubmissionStatusByTutorId(anyList(), eq(tutorId));
     }
 }
@@ -0,0 +1,160 @@
+package com.tutor_management.backend.modules.finance.service;
+
+import com.tutor_management.backend.modules.finance.dto.request.InvoiceRequest;
+import com.tutor_management.backend.modules.finance.dto.response.InvoiceJobResponse;
+import com.tutor_management.backend.modules.finance.dto.response.InvoiceResponse;
+import com.tutor_management.backend.modules.finance.entity.InvoiceJob;
+import com.tutor_management.backend.modules.finance.entity.InvoiceJobItem;
+import com.tutor_management.backend.modules.finance.repository.InvoiceJobItemRepository;
+import com.tutor_management.backend.modules.finance.repository.InvoiceJobRepository;
+import com.tutor_management.backend.modules.finance.repository.SessionRecordRepository;
+import com.tutor_management.backend.modules.parent.entity.Parent;
+import com.tutor_management.backend.modules.shared.service.EmailService;
+import com.tutor_management.backend.modules.shared.service.PDFGeneratorService;
+import com.tutor_management.backend.modules.student.entity.Student;
+import com.tutor_management.backend.modules.student.repository.StudentRepository;
+import com.tutor_management.backend.util.SecurityContextUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("InvoiceJobService Unit Tests")
+class InvoiceJobServiceTest {
+
+    @Mock
+    private InvoiceJobRepository jobRepository;
+    @Mock
+    private InvoiceJobItemRepository itemRepository;
+    @Mock
+    private SessionRecordRepository sessionRecordRepository;
+    @Mock
+    private StudentRepository studentRepository;
+    @Mock
+    private InvoiceService invoiceService;
+    @Mock
+    private PDFGeneratorService pdfGeneratorService;
+    @Mock
+    private EmailService emailService;
+    @Mock
+    private SecurityContextUtils securityContextUtils;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private InvoiceJobService service;
+
+    /** In-memory stand-in for the job and item tables */
+    private final Map<Long, InvoiceJobItem> items = new LinkedHashMap<>();
+    private InvoiceJob job;
+
+    @BeforeEach
+    void setUp() {
+        service = new InvoiceJobService(jobRepository, itemRepository, sessionRecordRepository, studentRepository,
+                invoiceService, pdfGeneratorService, emailService, securityContextUtils, new SyncTaskExecutor(),
+                transactionManager, new SimpleMeterRegistry());
+
+        when(jobRepository.save(any())).thenAnswer(inv -> {
+            job = inv.getArgument(0);
+            job.setId(7L);
+            return job;
+        });
+        when(jobRepository.findById(7L)).thenAnswer(inv -> Optional.ofNullable(job));
+        when(itemRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<InvoiceJobItem> saved = inv.getArgument(0);
+            saved.forEach(item -> {
+                item.setId((long) items.size() + 1);
+                items.put(item.getId(), item);
+            });
+            return saved;
+        });
+        when(itemRepository.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(items.get((Long) inv.getArgument(0))));
+        when(itemRepository.findIdsByJobIdAndStatus(7L, InvoiceJobItem.Status.PENDING)).thenAnswer(inv ->
+                items.values().stream().filter(i -> i.getStatus() == InvoiceJobItem.Status.PENDING).map(InvoiceJobItem::getId).toList());
+    }
+
+    private Student student(long id, String name, Parent parent) {
+        return Student.builder().id(id).name(name).parent(parent).build();
+    }
+
+    @Test
+    @DisplayName("Should send one invoice per parent and skip students without a parent email")
+    void start_GroupsSiblingsAndSkipsMissingEmail() throws Exception {
+        Parent withEmail = Parent.builder().id(1L).name("Phụ huynh A").email("a@example.com").build();
+        Parent withoutEmail = Parent.builder().id(2L).name("Phụ huynh B").build();
+        when(securityContextUtils.getCurrentTutorId()).thenReturn(3L);
+        when(sessionRecordRepository.findStudentIdsWithUnpaidByMonthAndTutorId("2024-01", 3L)).thenReturn(List.of(10L, 11L, 12L));
+        when(studentRepository.findByIdInWithParent(List.of(10L, 11L, 12L))).thenReturn(List.of(
+                student(10L, "An", withEmail), student(11L, "Bình", withEmail), student(12L, "Chi", withoutEmail)));
+        when(invoiceService.generateInvoice(any())).thenReturn(
+                InvoiceResponse.builder().invoiceNumber("INV-202401-001").month("Tháng 01/2024").build());
+        when(pdfGeneratorService.generateInvoicePDF(any())).thenReturn(new byte[]{1});
+
+        InvoiceJobResponse response = service.start("2024-01");
+
+        assertEquals(2, response.getTotal());
+        assertEquals(3L, job.getTutorId());
+        verify(invoiceService).generateInvoice(argThat((InvoiceRequest r) ->
+                Boolean.TRUE.equals(r.getMultipleStudents()) && r.getSelectedStudentIds().equals(List.of(10L, 11L))));
+        verify(emailService).sendInvoiceEmail("a@example.com", "Phụ huynh A", "An, Bình", "Tháng 01/2024",
+                new byte[]{1}, "INV-202401-001");
+        assertEquals(InvoiceJobItem.Status.SKIPPED, items.get(1L).getStatus());
+        assertEquals(InvoiceJobItem.Status.SENT, items.get(2L).getStatus());
+        verify(jobRepository).completeIfDone(eq(7L), any());
+    }
+
+    @Test
+    @DisplayName("Should mark an invoice failed and keep going when sending fails")
+    void process_SendFails_MarksFailed() throws Exception {
+        Parent parent = Parent.builder().id(1L).name("Phụ huynh A").email("a@example.com").build();
+        // Admin: no tutor scope
+        when(securityContextUtils.getCurrentTutorId()).thenReturn(null);
+        when(sessionRecordRepository.findStudentIdsWithUnpaidByMonth("2024-01")).thenReturn(List.of(10L));
+        when(studentRepository.findByIdInWithParent(List.of(10L))).thenReturn(List.of(student(10L, "An", parent)));
+        when(invoiceService.generateInvoice(any())).thenReturn(
+                InvoiceResponse.builder().invoiceNumber("INV-202401-001").month("Tháng 01/2024").build());
+        when(pdfGeneratorService.generateInvoicePDF(any())).thenReturn(new byte[]{1});
+        doThrow(new RuntimeException("SMTP down")).when(emailService)
+                .sendInvoiceEmail(any(), any(), any(), any(), any(), any());
+
+        service.start("2024-01");
+
+        verify(invoiceService).generateInvoice(argThat((InvoiceRequest r) -> r.getStudentId().equals(10L)));
+        InvoiceJobItem item = items.get(1L);
+        assertEquals(InvoiceJobItem.Status.FAILED, item.getStatus());
+        assertEquals("SMTP down", item.getError());
+    }
+
+    @Test
+    @DisplayName("Should resubmit pending items of running jobs on startup")
+    void resumeRunningJobs_ProcessesPendingItems() {
+        job = InvoiceJob.builder().id(7L).month("2024-01").status(InvoiceJob.Status.RUNNING).totalItems(1).build();
+        InvoiceJobItem pending = InvoiceJobItem.builder().id(1L).jobId(7L).studentIds("10").email("a@example.com")
+                .status(InvoiceJobItem.Status.PENDING).build();
+        items.put(1L, pending);
+        when(jobRepository.findByStatus(InvoiceJob.Status.RUNNING)).thenReturn(List.of(job));
+        when(invoiceService.generateInvoice(any())).thenThrow(new RuntimeException("Không tìm thấy buổi học"));
+
+        service.resumeRunningJobs();
+
+        assertEquals(InvoiceJobItem.Status.FAILED, pending.getStatus());
+        verify(jobRepository).completeIfDone(eq(7L), any());
+    }
+}
@@ -0,0 +1,76 @@
+package com.tutor_management.backend.modules.finance.service;
+
+import com.itextpdf.barcodes.BarcodeQRCode;
+import com.tutor_management.backend.modules.finance.dto.response.BankInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PaymentQrService Unit Tests")
+class PaymentQrServiceTest {
+
+    private final PaymentQrService paymentQrService = new PaymentQrService();
+
+    @Test
+    @DisplayName("Should compute CRC-16/CCITT-FALSE")
+    void crc16_CheckValue() {
+        assertEquals("29B1", PaymentQrService.crc16("123456789"));
+    }
+
+    @Test
+    @DisplayName("Should build a VietQR payload with amount, memo and checksum")
+    void payload_Fields() {
+        String payload = PaymentQrService.payload("970436", "1041819355", 300000, "INV202401001");
+
+        assertEquals("000201010212"
+                + "3854" + "0010A000000727" + "0124" + "0006970436" + "01101041819355" + "0208QRIBFTTA"
+                + "5303704" + "5406300000" + "5802VN" + "6216" + "0812INV202401001" + "6304",
+                payload.substring(0, payload.length() - 4));
+        assertEquals(PaymentQrService.crc16(payload.substring(0, payload.length() - 4)),
+                payload.substring(payload.length() - 4));
+    }
+
+    @Test
+    @DisplayName("Should encode the invoice number without separators")
+    void qrCode_FromInvoice() {
+        BarcodeQRCode qrCode = paymentQrService.qrCode(BankInfo.getDefault(), 300000, "INV-202401-001");
+
+        assertEquals(PaymentQrService.payload("970436", "1041819355", 300000, "INV202401001"), qrCode.getCode());
+        assertTrue(qrCode.getBarcodeSize().getWidth() > 0);
+    }
+
+    @Test
+    @DisplayName("Should reuse the cached code when called through the Spring proxy")
+    void qrCode_CachedThroughProxy() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(CachingConfig.class)) {
+            PaymentQrService proxied = context.getBean(PaymentQrService.class);
+
+            BarcodeQRCode first = proxied.qrCode(BankInfo.getDefault(), 300000, "INV-202401-001");
+
+            assertSame(first, proxied.qrCode(BankInfo.getDefault(), 300000, "INV-202401-001"));
+            assertNotSame(first, proxied.qrCode(BankInfo.getDefault(), 400000, "INV-202401-001"));
+        }
+    }
+
+    @Configuration
+    @EnableCaching
+    static class CachingConfig {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager("paymentQrCodes");
+        }
+
+        @Bean
+        PaymentQrService paymentQrService() {
+            return new PaymentQrService();
+        }
+    }
+}
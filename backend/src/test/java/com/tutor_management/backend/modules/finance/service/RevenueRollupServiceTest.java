@@ -0,0 +1,113 @@
+package com.tutor_management.backend.modules.finance.service;
+
+import com.tutor_management.backend.config.CacheInvalidator;
+import com.tutor_management.backend.modules.dashboard.dto.response.DashboardStats;
+import com.tutor_management.backend.modules.finance.LessonStatus;
+import com.tutor_management.backend.modules.finance.dto.response.MonthlyStats;
+import com.tutor_management.backend.modules.finance.entity.SessionRecord;
+import com.tutor_management.backend.modules.finance.repository.MonthlyRevenueRollupRepository;
+import com.tutor_management.backend.modules.finance.repository.SessionRecordRepository;
+import com.tutor_management.backend.modules.finance.service.RevenueRollupService.Contribution;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RevenueRollupService Unit Tests")
+class RevenueRollupServiceTest {
+
+    @Mock
+    private MonthlyRevenueRollupRepository rollupRepository;
+
+    @Mock
+    private SessionRecordRepository sessionRecordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CacheInvalidator cacheInvalidator;
+
+    private RevenueRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RevenueRollupService(rollupRepository, sessionRecordRepository, transactionManager,
+                cacheInvalidator, new SimpleMeterRegistry());
+    }
+
+    private SessionRecord record(String month, long amount, boolean paid, LessonStatus status) {
+        return SessionRecord.builder().tutorId(1L).month(month).sessions(1).totalAmount(amount)
+                .paid(paid).status(status).build();
+    }
+
+    @Test
+    @DisplayName("Should count cancelled records without amounts or sessions")
+    void contribution_Cancelled() {
+        Contribution contribution = Contribution.of(record("2024-01", 200_000L, false, LessonStatus.CANCELLED_BY_TUTOR));
+
+        assertEquals(new Contribution(1L, "2024-01", 0L, 0L, 0), contribution);
+    }
+
+    @Test
+    @DisplayName("Should move the amount from unpaid to paid in one statement when a payment is toggled")
+    void recordChange_SameMonth_SingleDelta() {
+        Contribution before = Contribution.of(record("2024-01", 200_000L, false, LessonStatus.COMPLETED));
+        Contribution after = Contribution.of(record("2024-01", 200_000L, true, LessonStatus.PAID));
+
+        service.recordChange(before, after);
+
+        verify(rollupRepository).addDelta(1L, "2024-01", 200_000L, -200_000L, 0, 0);
+        verifyNoMoreInteractions(rollupRepository);
+        verify(cacheInvalidator, atLeastOnce()).evictRevenue(1L);
+    }
+
+    @Test
+    @DisplayName("Should move the record between months when its month changes")
+    void recordChange_MonthChanged_TwoDeltas() {
+        Contribution before = Contribution.of(record("2024-01", 150_000L, false, LessonStatus.SCHEDULED));
+        Contribution after = Contribution.of(record("2024-02", 150_000L, false, LessonStatus.SCHEDULED));
+
+        service.recordChange(before, after);
+
+        verify(rollupRepository).addDelta(1L, "2024-01", 0L, -150_000L, -1, -1);
+        verify(rollupRepository).addDelta(1L, "2024-02", 0L, 150_000L, 1, 1);
+    }
+
+    @Test
+    @DisplayName("Should skip writes that do not change the contribution")
+    void recordChange_Unchanged_NoWrite() {
+        Contribution same = Contribution.of(record("2024-01", 100_000L, false, LessonStatus.SCHEDULED));
+
+        service.recordChange(same, Contribution.of(record("2024-01", 100_000L, false, LessonStatus.CONFIRMED)));
+
+        verify(rollupRepository, never()).addDelta(anyLong(), anyString(), anyLong(), anyLong(), anyInt(), anyInt());
+        verifyNoInteractions(cacheInvalidator);
+    }
+
+    @Test
+    @DisplayName("Should fold monthly rows into all-time and current-month figures")
+    void summarize_MatchesFinanceSummary() {
+        List<MonthlyStats> months = List.of(
+                new MonthlyStats("2024-02", 300L, 100L, 4),
+                new MonthlyStats("2024-01", 500L, 50L, 6));
+
+        DashboardStats stats = RevenueRollupService.summarize(months, "2024-02");
+
+        assertEquals(800L, stats.getTotalPaidRaw());
+        assertEquals(150L, stats.getTotalUnpaidRaw());
+        assertEquals(400L, stats.getCurrentMonthTotalRaw());
+        assertEquals(100L, stats.getCurrentMonthUnpaid());
+    }
+}
@@ -1,22 +1,12 @@
 package com.tutor_management.backend.modules.finance.service;
 
-import com.tutor_management.backend.modules.auth.Role;
-import com.tutor_management.backend.modules.auth.User;
-import com.tutor_management.backend.modules.auth.UserRepository;
 import com.tutor_management.backend.modules.finance.repository.SessionRecordRepository;
-import com.tutor_management.backend.modules.tutor.entity.Tutor;
-import com.tutor_management.backend.modules.tutor.repository.TutorRepository;
-import org.junit.jupiter.api.BeforeEach;
+import com.tutor_management.backend.util.SecurityContextUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
-import org.springframework.security.core.context.SecurityContextHolder;
-
-import java.util.Optional;
 
 import static org.mockito.Mockito.*;
 
@@ -26,33 +16,18 @@ class SessionRecordServiceTest {
     @Mock
     private SessionRecordRepository sessionRecordRepository;
     @Mock
-    private UserRepository userRepository;
-    @Mock
-    private TutorRepository tutorRepository;
+    private SecurityContextUtils securityContextUtils;
     @Mock
-    private SecurityContext securityContext;
-    @Mock
-    private Authentication authentication;
+    private RevenueRollupService revenueRollupService;
 
     @InjectMocks
     private SessionRecordService sessionRecordService;
 
-    @BeforeEach
-    void setUp() {
-        SecurityContextHolder.setContext(securityContext);
-    }
-
     @Test
     void deleteSessionsByMonth_Admin_ShouldDeleteAll() {
         // Arrange
         String month = "2024-01";
-        String adminEmail = "admin@test.com";
-        User admin = User.builder().id(1L).email(adminEmail).role(Role.ADMIN).build();
-
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn(adminEmail);
-        when(userRepository.findByEmail(adminEmail)).thenReturn(Optional.of(admin));
+        when(securityContextUtils.getCurrentTutorId()).thenReturn(null);
 
         // Act
         sessionRecordService.deleteSessionsByMonth(month);
@@ -60,22 +35,15 @@ class SessionRecordServiceTest {
         // Assert
         verify(sessionRecordRepository, times(1)).deleteByMonth(month);
         verify(sessionRecordRepository, never()).deleteByMonthAndTutorId(anyString(), anyLong());
+        verify(revenueRollupService).monthDeleted(month, null);
     }
 
     @Test
     void deleteSessionsByMonth_Tutor_ShouldDeleteOnlyOwn() {
         // Arrange
         String month = "2024-01";
-        String tutorEmail = "tutor@test.com";
         Long tutorId = 100L;
-        User tutorUser = User.builder().id(2L).email(tutorEmail).role(Role.TUTOR).build();
-        Tutor tutorProfile = Tutor.builder().id(tutorId).user(tutorUser).build();
-
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.isAuthenticated()).thenReturn(true);
-        when(authentication.getName()).thenReturn(tutorEmail);
-        when(userRepository.findByEmail(tutorEmail)).thenReturn(Optional.of(tutorUser));
-        when(tutorRepository.findByUserId(2L)).thenReturn(Optional.of(tutorProfile));
+        when(securityContextUtils.getCurrentTutorId()).thenReturn(tutorId);
 
         // Act
         sessionRecordService.deleteSessionsByMonth(month);
@@ -83,5 +51,6 @@ class SessionRecordServiceTest {
         // Assert
         verify(sessionRecordRepository, times(1)).deleteByMonthAndTutorId(month, tutorId);
         verify(sessionRecordRepository, never()).deleteByMonth(anyString());
+        verify(revenueRollupService).monthDeleted(month, tutorId);
     }
 }
@@ -0,0 +1,131 @@
+package com.tutor_management.backend.modules.notification.service;
+
+import com.tutor_management.backend.modules.auth.User;
+import com.tutor_management.backend.modules.auth.UserRepository;
+import com.tutor_management.backend.modules.notification.dto.response.NotificationResponse;
+import com.tutor_management.backend.modules.notification.entity.Notification;
+import com.tutor_management.backend.modules.notification.enums.NotificationType;
+import com.tutor_management.backend.modules.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationDispatcher Unit Tests")
+class NotificationDispatcherTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SseEmittersManager sseEmittersManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new NotificationDispatcher(notificationRepository, userRepository, sseEmittersManager,
+                transactionManager, new SimpleMeterRegistry(), 2, 100);
+        lenient().when(userRepository.getReferenceById(anyLong()))
+                .thenAnswer(inv -> User.builder().id(inv.getArgument(0)).build());
+    }
+
+    private NotificationDispatcher.PendingNotification pending(long recipientId) {
+        return new NotificationDispatcher.PendingNotification(recipientId, "title", "content",
+                NotificationType.EXAM_ASSIGNED, System.nanoTime());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void echoSaveAll() {
+        when(notificationRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Notification> saved = new ArrayList<>((List<Notification>) inv.getArgument(0));
+            for (int i = 0; i < saved.size(); i++) {
+                saved.get(i).setId((long) i + 1);
+            }
+            return saved;
+        });
+    }
+
+    @Test
+    @DisplayName("Should persist a batch with one saveAll and push every notification")
+    void process_PersistsBatchOnce() {
+        echoSaveAll();
+
+        dispatcher.process(List.of(pending(1L), pending(2L), pending(3L)));
+
+        verify(notificationRepository, times(1)).saveAll(argThat(list -> ((List<?>) list).size() == 3));
+        verify(sseEmittersManager).send(eq(1L), any(NotificationResponse.class));
+        verify(sseEmittersManager).send(eq(2L), any(NotificationResponse.class));
+        verify(sseEmittersManager).send(eq(3L), any(NotificationResponse.class));
+    }
+
+    @Test
+    @DisplayName("Should retry notifications individually when the batch fails")
+    @SuppressWarnings("unchecked")
+    void process_FailedBatch_RetriesIndividually() {
+        when(notificationRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Notification> entities = inv.getArgument(0);
+            if (entities.size() > 1 || entities.get(0).getRecipient().getId() == 2L) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return entities;
+        });
+
+        dispatcher.process(List.of(pending(1L), pending(2L), pending(3L)));
+
+        verify(sseEmittersManager).send(eq(1L), any(NotificationResponse.class));
+        verify(sseEmittersManager, never()).send(eq(2L), any());
+        verify(sseEmittersManager).send(eq(3L), any(NotificationResponse.class));
+    }
+
+    @Test
+    @DisplayName("Should write on the caller thread when the queue is full")
+    void submit_QueueFull_CallerRuns() {
+        echoSaveAll();
+
+        dispatcher.submit(1L, "t", "c", NotificationType.EXAM_ASSIGNED);
+        dispatcher.submit(2L, "t", "c", NotificationType.EXAM_ASSIGNED);
+        verifyNoInteractions(notificationRepository);
+        assertEquals(2, dispatcher.queueDepth());
+
+        dispatcher.submit(3L, "t", "c", NotificationType.EXAM_ASSIGNED);
+
+        verify(notificationRepository, times(1)).saveAll(anyList());
+        verify(sseEmittersManager).send(eq(3L), any(NotificationResponse.class));
+        assertEquals(2, dispatcher.queueDepth());
+    }
+
+    @Test
+    @DisplayName("Should insert a bulk fan-out in a single batch")
+    void dispatchAll_SingleBatch() {
+        echoSaveAll();
+
+        dispatcher.dispatchAll(List.of(10L, 11L, 12L, 13L), "t", "c", NotificationType.EXAM_UPDATED);
+
+        verify(notificationRepository, times(1)).saveAll(argThat(list -> ((List<?>) list).size() == 4));
+        verify(sseEmittersManager, times(4)).send(anyLong(), any(NotificationResponse.class));
+        assertEquals(0, dispatcher.queueDepth());
+    }
+}
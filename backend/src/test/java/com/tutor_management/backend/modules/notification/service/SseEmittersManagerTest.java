@@ -0,0 +1,191 @@
+package com.tutor_management.backend.modules.notification.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SseEmittersManager Unit Tests")
+class SseEmittersManagerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SseEmittersManager manager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        manager = new SseEmittersManager(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.shutdown();
+    }
+
+    /**
+     * Emitter that records sends instead of writing to a response; optionally blocks to simulate a slow client.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        final AtomicInteger sent = new AtomicInteger();
+        /** Raw text of each event, e.g. "event:notification\nid:...\ndata:payload\n\n" */
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch delivered;
+        final CountDownLatch release;
+
+        RecordingEmitter(int expected, boolean blocking) {
+            this.delivered = new CountDownLatch(expected);
+            this.release = new CountDownLatch(blocking ? 1 : 0);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            events.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+            sent.incrementAndGet();
+            delivered.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should deliver to every connection of a user")
+    void send_MultipleConnections() throws InterruptedException {
+        RecordingEmitter tab1 = new RecordingEmitter(2, false);
+        RecordingEmitter tab2 = new RecordingEmitter(2, false);
+        manager.addEmitter(1L, tab1);
+        manager.addEmitter(1L, tab2);
+
+        manager.send(1L, "payload");
+
+        assertTrue(tab1.delivered.await(2, TimeUnit.SECONDS));
+        assertTrue(tab2.delivered.await(2, TimeUnit.SECONDS));
+        assertEquals(2, manager.connectionCount(1L));
+        assertEquals(2.0, meterRegistry.get("sse.connections.active").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should not let a blocked client delay other users")
+    void send_SlowClientIsolated() throws InterruptedException {
+        RecordingEmitter slow = new RecordingEmitter(2, true);
+        RecordingEmitter fast = new RecordingEmitter(2, false);
+        manager.addEmitter(1L, slow);
+        manager.addEmitter(2L, fast);
+
+        manager.send(1L, "payload");
+        manager.send(2L, "payload");
+
+        assertTrue(fast.delivered.await(2, TimeUnit.SECONDS));
+        assertEquals(0, slow.sent.get());
+        slow.release.countDown();
+        assertTrue(slow.delivered.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Should close the oldest connection when the per-user limit is reached")
+    void addEmitter_LimitEvictsOldest() {
+        for (int i = 0; i < 6; i++) {
+            manager.addEmitter(1L, new RecordingEmitter(0, false));
+        }
+
+        assertEquals(5, manager.connectionCount(1L));
+        assertEquals(5, manager.activeConnections());
+    }
+
+    @Test
+    @DisplayName("Should remove only the given connection")
+    void removeEmitter_KeepsOtherTabs() {
+        RecordingEmitter tab1 = new RecordingEmitter(0, false);
+        RecordingEmitter tab2 = new RecordingEmitter(0, false);
+        manager.addEmitter(1L, tab1);
+        manager.addEmitter(1L, tab2);
+
+        manager.removeEmitter(1L, tab1);
+        manager.removeEmitter(1L, tab1);
+
+        assertEquals(1, manager.connectionCount(1L));
+        assertEquals(1, manager.activeConnections());
+    }
+
+    private static String idOf(String event) {
+        return event.lines().filter(line -> line.startsWith("id:")).findFirst()
+                .map(line -> line.substring(3)).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Should replay notifications missed since Last-Event-ID")
+    void addEmitter_ReplaysAfterLastEventId() throws InterruptedException {
+        RecordingEmitter first = new RecordingEmitter(3, false);
+        manager.addEmitter(1L, first);
+        manager.send(1L, "one");
+        manager.send(1L, "two");
+        assertTrue(first.delivered.await(2, TimeUnit.SECONDS));
+        // Index 0 is the connected event, so "two" is the last one seen
+        String lastSeen = idOf(first.events.get(2));
+        manager.removeEmitter(1L, first);
+
+        manager.send(1L, "three");
+        manager.send(2L, "other user");
+        RecordingEmitter reconnected = new RecordingEmitter(3, false);
+        manager.addEmitter(1L, reconnected, lastSeen);
+        manager.send(1L, "four");
+
+        assertTrue(reconnected.delivered.await(2, TimeUnit.SECONDS));
+        List<String> events = reconnected.events;
+        assertTrue(events.get(0).contains("event:connected"));
+        assertTrue(events.get(1).contains("data:three"));
+        assertTrue(events.get(2).contains("data:four"));
+        assertEquals(1.0, meterRegistry.get("sse.replay.events").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should let a client resume from the connected event before any notification")
+    void addEmitter_ResumesFromConnectedEventId() throws InterruptedException {
+        manager.send(1L, "before connecting");
+        RecordingEmitter first = new RecordingEmitter(1, false);
+        manager.addEmitter(1L, first);
+        assertTrue(first.delivered.await(2, TimeUnit.SECONDS));
+        String position = idOf(first.events.get(0));
+        manager.removeEmitter(1L, first);
+
+        manager.send(1L, "while disconnected");
+        RecordingEmitter reconnected = new RecordingEmitter(2, false);
+        manager.addEmitter(1L, reconnected, position);
+
+        assertTrue(reconnected.delivered.await(2, TimeUnit.SECONDS));
+        assertEquals(position, idOf(reconnected.events.get(0)));
+        assertTrue(reconnected.events.get(1).contains("data:while disconnected"));
+        assertEquals(2, reconnected.events.size());
+        assertEquals(0.0, meterRegistry.get("sse.replay.resync").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should ask for a resync when the missed events are no longer buffered")
+    void addEmitter_UnknownLastEventId_Resync() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter(2, false);
+
+        manager.addEmitter(1L, emitter, "previous-boot-42");
+
+        assertTrue(emitter.delivered.await(2, TimeUnit.SECONDS));
+        assertTrue(emitter.events.get(1).contains("event:resync"));
+        assertEquals(1.0, meterRegistry.get("sse.replay.resync").counter().count());
+    }
+}
@@ -0,0 +1,169 @@
+package com.tutor_management.backend.modules.onlinesession.service;
+
+import com.tutor_management.backend.modules.auth.User;
+import com.tutor_management.backend.modules.onlinesession.entity.OnlineSession;
+import com.tutor_management.backend.modules.onlinesession.enums.RoomStatus;
+import com.tutor_management.backend.modules.student.entity.Student;
+import com.tutor_management.backend.modules.tutor.entity.Tutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("HeartbeatEngine Unit Tests")
+class HeartbeatEngineTest {
+
+    @Mock
+    private PresenceService presenceService;
+
+    @Mock
+    private OnlineSessionService onlineSessionService;
+
+    private RoomRosterRegistry rosterRegistry;
+    private HeartbeatEngine heartbeatEngine;
+
+    private final String roomId = "room-hb";
+    private final Long tutorUserId = 1L;
+    private final Long studentUserId = 2L;
+    private OnlineSession session;
+
+    @BeforeEach
+    void setUp() {
+        rosterRegistry = new RoomRosterRegistry();
+        heartbeatEngine = new HeartbeatEngine(rosterRegistry, presenceService, onlineSessionService, new SimpleMeterRegistry());
+
+        User tutorUser = User.builder().id(tutorUserId).build();
+        session = OnlineSession.builder()
+                .roomId(roomId)
+                .roomStatus(RoomStatus.ACTIVE)
+                .tutor(Tutor.builder().id(10L).user(tutorUser).build())
+                .student(Student.builder().id(20L).build())
+                .tutorJoinedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should fall back to database path when room is not in roster")
+    void onHeartbeat_RosterMiss_UsesDatabase() {
+        heartbeatEngine.onHeartbeat(roomId, tutorUserId);
+
+        verify(onlineSessionService).updateHeartbeat(roomId, tutorUserId);
+        verifyNoInteractions(presenceService);
+    }
+
+    @Test
+    @DisplayName("Should update presence in memory without touching the database")
+    void onHeartbeat_SteadyState_InMemoryOnly() {
+        rosterRegistry.sync(session, studentUserId);
+
+        heartbeatEngine.onHeartbeat(roomId, tutorUserId);
+        heartbeatEngine.onHeartbeat(roomId, studentUserId);
+
+        verify(presenceService).updateHeartbeat(roomId, tutorUserId);
+        verify(presenceService).updateHeartbeat(roomId, studentUserId);
+        verifyNoInteractions(onlineSessionService);
+    }
+
+    @Test
+    @DisplayName("Should route rejoin after being marked left through the database")
+    void onHeartbeat_MarkedLeft_UsesDatabase() {
+        session.setTutorLeftAt(LocalDateTime.now());
+        rosterRegistry.sync(session, studentUserId);
+
+        heartbeatEngine.onHeartbeat(roomId, tutorUserId);
+        heartbeatEngine.onHeartbeat(roomId, studentUserId);
+
+        verify(onlineSessionService).updateHeartbeat(roomId, tutorUserId);
+        verify(onlineSessionService, never()).updateHeartbeat(roomId, studentUserId);
+    }
+
+    @Test
+    @DisplayName("Should route heartbeat through the database while an inactivity warning is pending")
+    void onHeartbeat_WarningSent_UsesDatabase() {
+        session.setInactivityWarningSentAt(LocalDateTime.now());
+        rosterRegistry.sync(session, studentUserId);
+
+        heartbeatEngine.onHeartbeat(roomId, studentUserId);
+
+        verify(onlineSessionService).updateHeartbeat(roomId, studentUserId);
+    }
+
+    @Test
+    @DisplayName("Should reject non-members once the roster is complete")
+    void onHeartbeat_NonMember_Rejected() {
+        rosterRegistry.sync(session, studentUserId);
+
+        heartbeatEngine.onHeartbeat(roomId, 99L);
+
+        verifyNoInteractions(onlineSessionService);
+        verifyNoInteractions(presenceService);
+    }
+
+    @Test
+    @DisplayName("Should defer to database when student user is not yet known")
+    void onHeartbeat_StudentUnknown_UsesDatabase() {
+        rosterRegistry.sync(session, null);
+
+        heartbeatEngine.onHeartbeat(roomId, studentUserId);
+
+        verify(onlineSessionService).updateHeartbeat(roomId, studentUserId);
+    }
+
+    @Test
+    @DisplayName("Should evict roster when the room is no longer active")
+    void sync_EndedRoom_Evicts() {
+        rosterRegistry.sync(session, studentUserId);
+        session.setRoomStatus(RoomStatus.ENDED);
+
+        rosterRegistry.sync(session, studentUserId);
+
+        assertNull(rosterRegistry.get(roomId));
+    }
+
+    @Test
+    @DisplayName("Should apply a transactional roster sync only after commit")
+    void sync_InTransaction_AppliedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            rosterRegistry.sync(session, studentUserId);
+            assertNull(rosterRegistry.get(roomId));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertNotNull(rosterRegistry.get(roomId));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve a steady stream of heartbeats entirely from memory")
+    void onHeartbeat_ManyHeartbeats_CountedOnMemoryPath() {
+        rosterRegistry.sync(session, studentUserId);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PresenceService realPresence = new PresenceService();
+        HeartbeatEngine engine = new HeartbeatEngine(rosterRegistry, realPresence, onlineSessionService, meterRegistry);
+
+        for (int i = 0; i < 1_000; i++) {
+            engine.onHeartbeat(roomId, (i & 1) == 0 ? tutorUserId : studentUserId);
+        }
+
+        assertEquals(1_000, meterRegistry.counter("online_session.heartbeat", "path", "memory").count());
+        assertEquals(0, meterRegistry.counter("online_session.heartbeat", "path", "database").count());
+        verify(onlineSessionService, never()).updateHeartbeat(anyString(), anyLong());
+        assertTrue(realPresence.isUserActive(roomId, tutorUserId, 60));
+        assertTrue(realPresence.isUserActive(roomId, studentUserId, 60));
+    }
+}
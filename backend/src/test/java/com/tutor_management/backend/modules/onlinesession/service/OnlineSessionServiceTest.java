@@ -31,6 +31,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -92,6 +93,9 @@ class OnlineSessionServiceTest {
     @Mock
     private PresenceService presenceService;
 
+    @Spy
+    private RoomRosterRegistry roomRosterRegistry = new RoomRosterRegistry();
+
     @Mock
     private SimpMessagingTemplate messagingTemplate;
 
@@ -0,0 +1,86 @@
+package com.tutor_management.backend.modules.onlinesession.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PresenceService Timing Wheel Tests")
+class PresenceServiceTest {
+
+    private PresenceService presenceService;
+    private long t0;
+
+    @BeforeEach
+    void setUp() {
+        presenceService = new PresenceService();
+        t0 = System.currentTimeMillis();
+    }
+
+    @Test
+    @DisplayName("Should report a room once its participant stops sending heartbeats")
+    void advance_ReportsExpiredParticipant() {
+        presenceService.updateHeartbeat("room-1", 1L, t0);
+
+        assertTrue(presenceService.advance(t0 + 30_000).isEmpty());
+        assertEquals(Set.of("room-1"), presenceService.advance(t0 + 66_000));
+        // Reported only once per expiry
+        assertTrue(presenceService.advance(t0 + 70_000).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should lazily re-arm participants that kept sending heartbeats")
+    void advance_RearmsActiveParticipant() {
+        presenceService.updateHeartbeat("room-1", 1L, t0);
+        presenceService.updateHeartbeat("room-1", 1L, t0 + 60_000);
+
+        assertTrue(presenceService.advance(t0 + 66_000).isEmpty());
+        assertEquals(Set.of("room-1"), presenceService.advance(t0 + 126_000));
+    }
+
+    @Test
+    @DisplayName("Should report again after a participant came back and expired a second time")
+    void advance_ReportsAgainAfterReturn() {
+        presenceService.updateHeartbeat("room-1", 1L, t0);
+        assertEquals(Set.of("room-1"), presenceService.advance(t0 + 66_000));
+
+        presenceService.updateHeartbeat("room-1", 1L, t0 + 80_000);
+        assertEquals(Set.of("room-1"), presenceService.advance(t0 + 146_000));
+    }
+
+    @Test
+    @DisplayName("Should drop participants after the retention period")
+    void advance_RetiresStaleParticipants() {
+        presenceService.updateHeartbeat("room-1", 1L, t0);
+        presenceService.advance(t0 + 66_000);
+        assertNotNull(presenceService.getLastActivity("room-1", 1L));
+
+        presenceService.advance(t0 + 121_000);
+
+        assertNull(presenceService.getLastActivity("room-1", 1L));
+        assertEquals(0, presenceService.trackedParticipants());
+    }
+
+    @Test
+    @DisplayName("Should ignore expirations of evicted rooms")
+    void evictRoom_DiscardsPendingEntries() {
+        presenceService.updateHeartbeat("room-1", 1L, t0);
+        presenceService.evictRoom("room-1");
+
+        assertTrue(presenceService.advance(t0 + 66_000).isEmpty());
+        assertFalse(presenceService.isUserActive("room-1", 1L, 60));
+    }
+
+    @Test
+    @DisplayName("Should track users of different rooms independently")
+    void isUserActive_PerRoom() {
+        presenceService.updateHeartbeat("room-1", 1L);
+
+        assertTrue(presenceService.isUserActive("room-1", 1L, 60));
+        assertFalse(presenceService.isUserActive("room-2", 1L, 60));
+        assertFalse(presenceService.isUserActive("room-1", 2L, 60));
+    }
+}
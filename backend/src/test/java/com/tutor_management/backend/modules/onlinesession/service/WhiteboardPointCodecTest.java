@@ -0,0 +1,142 @@
+package com.tutor_management.backend.modules.onlinesession.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tutor_management.backend.modules.onlinesession.dto.request.WhiteboardDeltaMessage;
+import com.tutor_management.backend.modules.onlinesession.dto.request.WhiteboardStrokeMessage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WhiteboardPointCodec Unit Tests")
+class WhiteboardPointCodecTest {
+
+    private static final double PRECISION = 0.5 / WhiteboardPointCodec.SCALE + 1e-12;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Pen-like path: small random steps from a random start inside the unit square.
+     */
+    private List<WhiteboardStrokeMessage.Point> path(int size, long seed) {
+        Random random = new Random(seed);
+        List<WhiteboardStrokeMessage.Point> points = new ArrayList<>(size);
+        double x = random.nextDouble();
+        double y = random.nextDouble();
+        for (int i = 0; i < size; i++) {
+            x = Math.min(1, Math.max(0, x + (random.nextDouble() - 0.5) * 0.01));
+            y = Math.min(1, Math.max(0, y + (random.nextDouble() - 0.5) * 0.01));
+            points.add(new WhiteboardStrokeMessage.Point(x, y));
+        }
+        return points;
+    }
+
+    private void assertSamePoints(List<WhiteboardStrokeMessage.Point> expected, List<WhiteboardStrokeMessage.Point> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getX(), actual.get(i).getX(), PRECISION, "x of point " + i);
+            assertEquals(expected.get(i).getY(), actual.get(i).getY(), PRECISION, "y of point " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Should round-trip points within the quantization step")
+    void roundTrip_Path() {
+        List<WhiteboardStrokeMessage.Point> points = path(500, 42);
+
+        assertSamePoints(points, WhiteboardPointCodec.decode(WhiteboardPointCodec.encode(points)));
+    }
+
+    @Test
+    @DisplayName("Should round-trip empty lists, large jumps and out-of-range coordinates")
+    void roundTrip_EdgeCases() {
+        assertTrue(WhiteboardPointCodec.decode(WhiteboardPointCodec.encode(List.of())).isEmpty());
+
+        List<WhiteboardStrokeMessage.Point> points = List.of(
+                new WhiteboardStrokeMessage.Point(0.0, 1.0),
+                new WhiteboardStrokeMessage.Point(1.0, 0.0),
+                new WhiteboardStrokeMessage.Point(-3.5, 1250.25),
+                new WhiteboardStrokeMessage.Point(0.123456, 0.654321));
+        assertSamePoints(points, WhiteboardPointCodec.decodeFromString(WhiteboardPointCodec.encodeToString(points)));
+    }
+
+    @Test
+    @DisplayName("Should encode null coordinates as zero")
+    void encode_NullCoordinate() {
+        List<WhiteboardStrokeMessage.Point> decoded = WhiteboardPointCodec.decode(
+                WhiteboardPointCodec.encode(List.of(new WhiteboardStrokeMessage.Point(null, 0.5))));
+
+        assertEquals(0.0, decoded.get(0).getX());
+        assertEquals(0.5, decoded.get(0).getY(), PRECISION);
+    }
+
+    @Test
+    @DisplayName("Should reject truncated data and unknown versions")
+    void decode_InvalidData() {
+        byte[] data = WhiteboardPointCodec.encode(path(10, 7));
+
+        assertThrows(IllegalArgumentException.class, () -> WhiteboardPointCodec.decode(Arrays.copyOf(data, data.length - 1)));
+        assertThrows(IllegalArgumentException.class, () -> WhiteboardPointCodec.decode(new byte[0]));
+        byte[] wrongVersion = data.clone();
+        wrongVersion[0] = 9;
+        assertThrows(IllegalArgumentException.class, () -> WhiteboardPointCodec.decode(wrongVersion));
+        // Claims far more points than the payload holds
+        assertThrows(IllegalArgumentException.class, () -> WhiteboardPointCodec.decode(new byte[]{1, (byte) 0xFF, 0x7F}));
+    }
+
+    @Test
+    @DisplayName("Should round-trip stroke and delta messages through JSON")
+    void compactAndExpand_Messages() throws Exception {
+        WhiteboardStrokeMessage.StrokeData stroke = WhiteboardStrokeMessage.StrokeData.builder()
+                .id("s1").points(path(50, 1)).color("#000000").width(2).tool("pen").timestamp(10L).userId("7")
+                .build();
+
+        String json = objectMapper.writeValueAsString(WhiteboardPointCodec.compact(stroke));
+        assertFalse(json.contains("\"points\":["));
+        WhiteboardStrokeMessage.StrokeData restored = WhiteboardPointCodec.expand(
+                objectMapper.readValue(json, WhiteboardStrokeMessage.StrokeData.class));
+        assertNull(restored.getEncodedPoints());
+        assertEquals("7", restored.getUserId());
+        assertSamePoints(stroke.getPoints(), restored.getPoints());
+
+        WhiteboardDeltaMessage delta = WhiteboardDeltaMessage.builder()
+                .type("STROKE_DELTA").strokeId("s1").points(path(5, 2)).startIndex(10).userId("7")
+                .build();
+        WhiteboardDeltaMessage restoredDelta = WhiteboardPointCodec.expand(objectMapper.readValue(
+                objectMapper.writeValueAsString(WhiteboardPointCodec.compact(delta)), WhiteboardDeltaMessage.class));
+        assertEquals(10, restoredDelta.getStartIndex());
+        assertSamePoints(delta.getPoints(), restoredDelta.getPoints());
+    }
+
+    @Test
+    @DisplayName("Should leave plain JSON strokes untouched on expand")
+    void expand_PlainStroke() throws Exception {
+        WhiteboardStrokeMessage.StrokeData stroke = objectMapper.readValue(
+                "{\"id\":\"s1\",\"points\":[{\"x\":0.1,\"y\":0.2}]}", WhiteboardStrokeMessage.StrokeData.class);
+
+        assertSame(stroke, WhiteboardPointCodec.expand(stroke));
+        assertEquals(0.1, stroke.getPoints().get(0).getX());
+        assertFalse(objectMapper.writeValueAsString(stroke).contains("encodedPoints"));
+    }
+
+    @Test
+    @DisplayName("Should be at least 4x smaller than JSON points")
+    void encodedSize_VersusJson() throws Exception {
+        long jsonBytes = 0;
+        long compactBytes = 0;
+        for (int i = 0; i < 200; i++) {
+            List<WhiteboardStrokeMessage.Point> points = path(150, i);
+            jsonBytes += objectMapper.writeValueAsString(points).getBytes(StandardCharsets.UTF_8).length;
+            compactBytes += WhiteboardPointCodec.encodeToString(points).length();
+        }
+
+        assertTrue(compactBytes * 4 < jsonBytes,
+                "compact " + compactBytes + " bytes vs JSON " + jsonBytes + " bytes");
+    }
+}
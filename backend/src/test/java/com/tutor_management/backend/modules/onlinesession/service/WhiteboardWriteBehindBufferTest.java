@@ -0,0 +1,196 @@
+package com.tutor_management.backend.modules.onlinesession.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tutor_management.backend.modules.onlinesession.dto.request.WhiteboardStrokeMessage;
+import com.tutor_management.backend.modules.onlinesession.repository.WhiteboardStrokeBatchRepository;
+import com.tutor_management.backend.modules.onlinesession.repository.WhiteboardStrokeBatchRepository.StrokeRow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WhiteboardWriteBehindBuffer Unit Tests")
+class WhiteboardWriteBehindBufferTest {
+
+    @Mock
+    private WhiteboardStrokeBatchRepository batchRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private WhiteboardSnapshotStore snapshotStore;
+
+    private WhiteboardBoardCache boardCache;
+    private WhiteboardWriteBehindBuffer buffer;
+
+    private final String roomId = "room-wb";
+
+    @BeforeEach
+    void setUp() {
+        boardCache = new WhiteboardBoardCache();
+        buffer = new WhiteboardWriteBehindBuffer(batchRepository, snapshotStore, boardCache,
+                new ObjectMapper(), transactionManager, new SimpleMeterRegistry());
+    }
+
+    private WhiteboardStrokeMessage.StrokeData stroke(String id, String userId) {
+        return WhiteboardStrokeMessage.StrokeData.builder()
+                .id(id)
+                .userId(userId)
+                .points(List.of(new WhiteboardStrokeMessage.Point(1.0, 2.0)))
+                .timestamp(1L)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should insert buffered strokes in a single batch on flush")
+    @SuppressWarnings("unchecked")
+    void flushRoom_BatchesInserts() {
+        buffer.enqueueStroke(roomId, stroke("s1", "u1"));
+        buffer.enqueueStroke(roomId, stroke("s2", "u1"));
+        assertEquals(2, buffer.pendingOperations());
+
+        buffer.flushRoom(roomId);
+
+        ArgumentCaptor<List<StrokeRow>> captor = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository, times(1)).batchInsert(captor.capture());
+        assertEquals(List.of("s1", "s2"), captor.getValue().stream().map(StrokeRow::strokeId).toList());
+        assertEquals(0, buffer.pendingOperations());
+    }
+
+    @Test
+    @DisplayName("Should drop a pending stroke that is undone before flush")
+    void enqueueUndo_CoalescesPendingStroke() {
+        buffer.enqueueStroke(roomId, stroke("s1", "u1"));
+        buffer.enqueueUndo(roomId, "s1");
+
+        buffer.flushRoom(roomId);
+
+        verifyNoInteractions(batchRepository);
+        assertEquals(0, buffer.pendingOperations());
+    }
+
+    @Test
+    @DisplayName("Should delete already persisted strokes on undo")
+    void enqueueUndo_PersistedStroke_Deletes() {
+        buffer.enqueueUndo(roomId, "old-stroke");
+
+        buffer.flushRoom(roomId);
+
+        verify(batchRepository).batchDeleteByStrokeIds(roomId, List.of("old-stroke"));
+        verify(batchRepository, never()).batchInsert(anyList());
+    }
+
+    @Test
+    @DisplayName("Should drop pending strokes of a cleared user and delete persisted ones")
+    @SuppressWarnings("unchecked")
+    void enqueueClear_DropsPendingStrokesOfUser() {
+        buffer.enqueueStroke(roomId, stroke("s1", "u1"));
+        buffer.enqueueStroke(roomId, stroke("s2", "u2"));
+        buffer.enqueueClear(roomId, "u1");
+
+        buffer.flushRoom(roomId);
+
+        verify(batchRepository).batchDeleteByUserIds(roomId, List.of("u1"));
+        ArgumentCaptor<List<StrokeRow>> captor = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository).batchInsert(captor.capture());
+        assertEquals(List.of("s2"), captor.getValue().stream().map(StrokeRow::strokeId).toList());
+    }
+
+    @Test
+    @DisplayName("Should keep buffering after a failed flush without rethrowing")
+    void flushRoom_Failure_IsContained() {
+        when(batchRepository.batchInsert(anyList())).thenThrow(new RuntimeException("db down"));
+        buffer.enqueueStroke(roomId, stroke("s1", "u1"));
+
+        assertDoesNotThrow(() -> buffer.flushRoom(roomId));
+        assertDoesNotThrow(() -> buffer.enqueueStroke(roomId, stroke("s2", "u1")));
+        verify(batchRepository, never()).batchDeleteByStrokeIds(anyString(), any());
+        verify(batchRepository, never()).batchDeleteByUserIds(eq(roomId), anyList());
+    }
+
+    @Test
+    @DisplayName("Should requeue a failed batch and retry it with operations enqueued since")
+    @SuppressWarnings("unchecked")
+    void flushRoom_Failure_RequeuesBatch() {
+        when(batchRepository.batchInsert(anyList()))
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(new int[0][]);
+        buffer.enqueueStroke(roomId, stroke("s1", "u1"));
+        buffer.enqueueStroke(roomId, stroke("s2", "u2"));
+        buffer.enqueueUndo(roomId, "old-stroke");
+
+        buffer.flushRoom(roomId);
+        assertEquals(3, buffer.pendingOperations());
+
+        buffer.enqueueUndo(roomId, "s1");
+        buffer.enqueueStroke(roomId, stroke("s3", "u1"));
+        buffer.flushRoom(roomId);
+
+        ArgumentCaptor<List<StrokeRow>> captor = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository, times(2)).batchInsert(captor.capture());
+        assertEquals(List.of("s2", "s3"), captor.getValue().stream().map(StrokeRow::strokeId).toList());
+        verify(batchRepository, times(2)).batchDeleteByStrokeIds(roomId, List.of("old-stroke"));
+        assertEquals(0, buffer.pendingOperations());
+    }
+
+    @Test
+    @DisplayName("Should invalidate the snapshot when deletions are flushed")
+    void flushRoom_Deletes_InvalidateSnapshot() {
+        buffer.enqueueUndo(roomId, "old-stroke");
+
+        buffer.flushRoom(roomId);
+
+        verify(snapshotStore).delete(roomId);
+    }
+
+    @Test
+    @DisplayName("Should keep the loaded live board in step and snapshot it on flush")
+    @SuppressWarnings("unchecked")
+    void flushAndSnapshot_WritesLiveBoard() {
+        WhiteboardBoardCache.LiveBoard board = boardCache.getOrCreate(roomId);
+        assertTrue(board.claimLoad());
+        board.install(List.of(stroke("s0", "u2")), false);
+        when(batchRepository.findMaxId(roomId)).thenReturn(42L);
+
+        buffer.enqueueStroke(roomId, stroke("s1", "u1"));
+        buffer.enqueueStroke(roomId, stroke("s2", "u1"));
+        buffer.enqueueUndo(roomId, "s1");
+        buffer.flushAndSnapshot(roomId);
+
+        assertEquals(List.of("s0", "s2"), board.copy().stream().map(WhiteboardStrokeMessage.StrokeData::getId).toList());
+        ArgumentCaptor<List<WhiteboardStrokeMessage.StrokeData>> captor = ArgumentCaptor.forClass(List.class);
+        verify(snapshotStore).write(eq(roomId), captor.capture(), eq(42L));
+        assertEquals(2, captor.getValue().size());
+        assertFalse(board.isDirty());
+    }
+
+    @Test
+    @DisplayName("Should replay operations that raced with a board load")
+    void liveBoard_ReplaysMutationsDuringLoad() {
+        WhiteboardBoardCache.LiveBoard board = boardCache.getOrCreate(roomId);
+        assertTrue(board.claimLoad());
+
+        buffer.enqueueStroke(roomId, stroke("s2", "u1"));
+        buffer.enqueueUndo(roomId, "s0");
+        board.install(List.of(stroke("s0", "u1"), stroke("s1", "u1")), false);
+
+        assertEquals(List.of("s1", "s2"), board.awaitStrokes().stream().map(WhiteboardStrokeMessage.StrokeData::getId).toList());
+        assertTrue(board.isDirty());
+    }
+}
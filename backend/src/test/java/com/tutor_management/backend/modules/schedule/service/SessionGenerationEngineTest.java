@@ -0,0 +1,132 @@
+package com.tutor_management.backend.modules.schedule.service;
+
+import com.tutor_management.backend.modules.finance.service.RevenueRollupService;
+import com.tutor_management.backend.modules.finance.service.RevenueRollupService.Contribution;
+import com.tutor_management.backend.modules.schedule.entity.RecurringSchedule;
+import com.tutor_management.backend.modules.schedule.repository.RecurringScheduleRepository;
+import com.tutor_management.backend.modules.schedule.repository.SessionGenerationRepository;
+import com.tutor_management.backend.modules.schedule.repository.SessionGenerationRepository.GeneratedSession;
+import com.tutor_management.backend.modules.student.entity.Student;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SessionGenerationEngine Unit Tests")
+class SessionGenerationEngineTest {
+
+    @Mock
+    private RecurringScheduleRepository recurringScheduleRepository;
+    @Mock
+    private SessionGenerationRepository generationRepository;
+    @Mock
+    private RevenueRollupService revenueRollupService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SessionGenerationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new SessionGenerationEngine(recurringScheduleRepository, generationRepository,
+                revenueRollupService, transactionManager, new SimpleMeterRegistry());
+    }
+
+    private RecurringSchedule schedule(long studentId, String endMonth, Integer... days) {
+        Student student = Student.builder().id(studentId).tutorId(7L).name("Học sinh " + studentId)
+                .pricePerHour(200_000L).build();
+        RecurringSchedule schedule = RecurringSchedule.builder()
+                .id(studentId).student(student)
+                .startTime(LocalTime.of(18, 0)).endTime(LocalTime.of(19, 30)).hoursPerSession(1.5)
+                .startMonth("2024-01").endMonth(endMonth).subject("Toán").build();
+        schedule.setDaysOfWeekArray(days);
+        return schedule;
+    }
+
+    @Test
+    @DisplayName("Should count a month's occurrences from weekday bitsets")
+    void countOccurrences_UsesWeekdayBitsets() {
+        // January 2024 starts on a Monday: five Mondays and five Wednesdays
+        assertEquals(10, SessionGenerationEngine.countOccurrences(schedule(1L, null, 1, 3), YearMonth.of(2024, 1)));
+        // February 2024 has 29 days: five Thursdays, four Sundays
+        assertEquals(5, SessionGenerationEngine.countOccurrences(schedule(1L, null, 4), YearMonth.of(2024, 2)));
+        assertEquals(4, SessionGenerationEngine.countOccurrences(schedule(1L, null, 7), YearMonth.of(2024, 2)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should skip existing sessions and schedules outside their months, inserting the rest in one batch")
+    void generate_DedupsAndBatchInserts() {
+        doAnswer(invocation -> {
+            ObjLongConsumer<LocalDate> consumer = invocation.getArgument(3);
+            consumer.accept(LocalDate.of(2024, 1, 8), 1L);
+            return null;
+        }).when(generationRepository).forEachExistingSession(
+                eq(LocalDate.of(2024, 1, 1)), eq(LocalDate.of(2024, 1, 31)), eq(List.of(1L)), any());
+
+        int created = engine.generate(List.of(schedule(1L, "2024-01", 1, 3)), YearMonth.of(2024, 1), YearMonth.of(2024, 2));
+
+        assertEquals(9, created);
+        ArgumentCaptor<List<GeneratedSession>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(generationRepository, times(1)).batchInsert(inserted.capture(), eq(500));
+        List<GeneratedSession> sessions = inserted.getValue();
+        assertTrue(sessions.stream().noneMatch(s -> s.sessionDate().equals(LocalDate.of(2024, 1, 8))));
+        assertTrue(sessions.stream().allMatch(s -> s.month().equals("2024-01") && s.totalAmount() == 300_000L));
+
+        ArgumentCaptor<Collection<Contribution>> contributions = ArgumentCaptor.forClass(Collection.class);
+        verify(revenueRollupService).recordCreatedInBulk(contributions.capture());
+        assertEquals(9, contributions.getValue().size());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should commit each month in a new transaction of its own")
+    void generate_CommitsEachMonthSeparately() {
+        int created = engine.generate(List.of(schedule(1L, null, 4)), YearMonth.of(2024, 1), YearMonth.of(2024, 2));
+
+        // Thursdays: four in January 2024, five in February 2024
+        assertEquals(9, created);
+        verify(transactionManager, times(2)).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should reject a reversed month range")
+    void generate_RejectsReversedRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.generate(List.of(), YearMonth.of(2024, 3), YearMonth.of(2024, 1)));
+        verifyNoInteractions(generationRepository);
+    }
+
+    @Test
+    @DisplayName("Should keep distinct keys in the primitive set across resizes")
+    void longHashSet_GrowsWithoutLosingKeys() {
+        SessionGenerationEngine.LongHashSet set = new SessionGenerationEngine.LongHashSet(8);
+        for (long studentId = 1; studentId <= 2_000; studentId++) {
+            for (int day = 0; day < 31; day += 10) {
+                assertTrue(set.add(SessionGenerationEngine.key(studentId, day)));
+            }
+        }
+        assertFalse(set.add(SessionGenerationEngine.key(1_500, 20)));
+        assertEquals(8_000, set.size());
+    }
+}
@@ -0,0 +1,122 @@
+package com.tutor_management.backend.modules.shared.service;
+
+import com.tutor_management.backend.modules.shared.entity.EmailOutboxMessage;
+import com.tutor_management.backend.modules.shared.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EmailOutboxSender Unit Tests")
+class EmailOutboxSenderTest {
+
+    @Mock
+    private EmailOutboxRepository outboxRepository;
+    @Mock
+    private JavaMailSender mailSender;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmailOutboxSender sender;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        EmailService emailService = new EmailService(mailSender, outboxRepository);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "noreply@example.com");
+        ReflectionTestUtils.setField(emailService, "fromName", "Tutor Pro");
+        lenient().when(mailSender.createMimeMessage()).thenAnswer(inv -> new MimeMessage(Session.getInstance(new Properties())));
+
+        sender = new EmailOutboxSender(outboxRepository, emailService, mailSender, transactionManager, meterRegistry);
+    }
+
+    private EmailOutboxMessage email(long id, String recipient, int attempts) {
+        return EmailOutboxMessage.builder()
+                .id(id)
+                .recipient(recipient)
+                .subject("Hóa đơn học phí")
+                .htmlBody("<p>Xin chào</p>")
+                .attachmentName("Hoa-don.pdf")
+                .attachment(new byte[]{1, 2, 3})
+                .status(EmailOutboxMessage.Status.PENDING)
+                .attempts(attempts)
+                .createdAt(LocalDateTime.now().minusSeconds(5))
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should send a batch over one connection and retry only the failed email")
+    void sendBatch_PartialFailure() throws MessagingException {
+        EmailOutboxMessage ok = email(1L, "a@example.com", 0);
+        EmailOutboxMessage bad = email(2L, "b@example.com", 0);
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(ok, bad));
+        doAnswer(inv -> {
+            // Mockito expands varargs: each message is its own argument
+            Object[] messages = inv.getArguments();
+            throw new MailSendException(Map.of(messages[1], new MessagingException("550 mailbox unavailable")));
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        assertEquals(2, sender.sendBatch());
+
+        ArgumentCaptor<MimeMessage[]> batch = ArgumentCaptor.forClass(MimeMessage[].class);
+        verify(mailSender, times(1)).send(batch.capture());
+        assertEquals(2, batch.getValue().length);
+        assertEquals("a@example.com", batch.getValue()[0].getAllRecipients()[0].toString());
+
+        assertEquals(EmailOutboxMessage.Status.SENT, ok.getStatus());
+        assertNull(ok.getAttachment());
+        assertEquals(EmailOutboxMessage.Status.PENDING, bad.getStatus());
+        assertEquals(1, bad.getAttempts());
+        assertTrue(bad.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+        assertEquals(1.0, meterRegistry.get("email.outbox.sent").counter().count());
+        assertEquals(1.0, meterRegistry.get("email.outbox.retried").counter().count());
+        verify(outboxRepository).saveAll(List.of(ok, bad));
+    }
+
+    @Test
+    @DisplayName("Should give up after the last attempt")
+    void sendBatch_LastAttempt_MarksFailed() {
+        EmailOutboxMessage email = email(1L, "a@example.com", 5);
+        when(outboxRepository.findDue(any(), any())).thenReturn(List.of(email));
+        doThrow(new MailSendException("Connection refused")).when(mailSender).send(any(MimeMessage[].class));
+
+        sender.sendBatch();
+
+        assertEquals(EmailOutboxMessage.Status.FAILED, email.getStatus());
+        assertEquals("Connection refused", email.getLastError());
+        assertEquals(1.0, meterRegistry.get("email.outbox.failed").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should double the backoff up to the maximum")
+    void backoff_Exponential() {
+        assertEquals(Duration.ofSeconds(30), sender.backoff(1));
+        assertEquals(Duration.ofSeconds(60), sender.backoff(2));
+        assertEquals(Duration.ofSeconds(120), sender.backoff(3));
+        assertEquals(Duration.ofHours(1), sender.backoff(20));
+    }
+}
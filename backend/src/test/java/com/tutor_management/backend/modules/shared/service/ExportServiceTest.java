@@ -0,0 +1,86 @@
+package com.tutor_management.backend.modules.shared.service;
+
+import com.tutor_management.backend.modules.finance.repository.SessionRecordExportRepository;
+import com.tutor_management.backend.modules.finance.repository.SessionRecordExportRepository.ExportRow;
+import com.tutor_management.backend.modules.finance.repository.SessionRecordExportRepository.Filter;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExportService Unit Tests")
+class ExportServiceTest {
+
+    @Mock
+    private SessionRecordExportRepository sessionRecordExportRepository;
+
+    @InjectMocks
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(exportService, "pageSize", 2);
+        ReflectionTestUtils.setField(exportService, "rowWindow", 1);
+    }
+
+    private ExportRow row(long id, String notes) {
+        return new ExportRow(id, LocalDate.of(2024, 1, 10), "Student " + id, "Toán", 1.5,
+                200000L, 300000L, null, notes, LocalDateTime.of(2024, 1, 10, 8, 0).minusMinutes(id));
+    }
+
+    @Test
+    @DisplayName("Should page with the last row as cursor and write every row")
+    void streamSessionsToExcel_PagesWithKeyset() throws Exception {
+        Filter filter = new Filter(1L, "2024-01", null);
+        ExportRow r1 = row(3, "a");
+        ExportRow r2 = row(2, "a much longer note than the header");
+        ExportRow r3 = row(1, "");
+        when(sessionRecordExportRepository.findPage(eq(filter), isNull(), eq(2))).thenReturn(List.of(r1, r2));
+        when(sessionRecordExportRepository.findPage(filter, r2, 2)).thenReturn(List.of(r3));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.streamSessionsToExcel(filter, out);
+
+        verify(sessionRecordExportRepository, times(2)).findPage(any(), any(), anyInt());
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals(3, sheet.getLastRowNum());
+            assertEquals("Học sinh", sheet.getRow(0).getCell(2).getStringCellValue());
+            assertEquals(3.0, sheet.getRow(1).getCell(0).getNumericCellValue());
+            assertEquals("SCHEDULED", sheet.getRow(2).getCell(7).getStringCellValue());
+            assertEquals(LocalDate.of(2024, 1, 10), sheet.getRow(3).getCell(1).getLocalDateTimeCellValue().toLocalDate());
+            assertTrue(sheet.getColumnWidth(8) > sheet.getColumnWidth(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Should write only the header when nothing matches")
+    void streamSessionsToExcel_Empty() throws Exception {
+        Filter filter = new Filter(null, null, 5L);
+        when(sessionRecordExportRepository.findPage(eq(filter), isNull(), eq(2))).thenReturn(List.of());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.streamSessionsToExcel(filter, out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals(0, workbook.getSheetAt(0).getLastRowNum());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.tutor_management.backend.modules.shared.service;
+
+import com.tutor_management.backend.modules.finance.dto.response.BankInfo;
+import com.tutor_management.backend.modules.finance.dto.response.InvoiceItem;
+import com.tutor_management.backend.modules.finance.dto.response.InvoiceResponse;
+import com.tutor_management.backend.modules.finance.service.PaymentQrService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PDFGeneratorService Unit Tests")
+class PDFGeneratorServiceTest {
+
+    private PDFGeneratorService pdfGeneratorService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pdfGeneratorService = new PDFGeneratorService(new PaymentQrService());
+        pdfGeneratorService.loadFonts();
+    }
+
+    private InvoiceResponse invoice(int items) {
+        List<InvoiceItem> lines = new ArrayList<>();
+        for (int i = 1; i <= items; i++) {
+            lines.add(InvoiceItem.builder()
+                    .date(String.format("%02d/01/2024", i))
+                    .description("Buổi học tiếng Anh " + i)
+                    .sessions(1)
+                    .hours(1.5)
+                    .pricePerHour(200000L)
+                    .amount(300000L)
+                    .build());
+        }
+        return InvoiceResponse.builder()
+                .invoiceNumber("INV-2024-01-001")
+                .studentName("Nguyễn Văn Á")
+                .month("Tháng 01/2024")
+                .items(lines)
+                .totalAmount(300000L * items)
+                .bankInfo(BankInfo.getDefault())
+                .createdDate("31/01/2024")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should render an invoice with a locally encoded QR code")
+    void generateInvoicePDF_WithQrCode() throws Exception {
+        byte[] pdf = pdfGeneratorService.generateInvoicePDF(invoice(5));
+
+        assertTrue(new String(pdf, 0, 5, StandardCharsets.US_ASCII).startsWith("%PDF-"));
+    }
+
+    @Test
+    @DisplayName("Should render consecutive invoices with shared font programs")
+    void generateInvoicePDF_Consecutive_ReusesFontPrograms() throws Exception {
+        Object regularFont = ReflectionTestUtils.getField(pdfGeneratorService, "regularFontSource");
+        Object boldFont = ReflectionTestUtils.getField(pdfGeneratorService, "boldFontSource");
+        InvoiceResponse invoice = invoice(8);
+
+        for (int i = 0; i < 3; i++) {
+            byte[] pdf = pdfGeneratorService.generateInvoicePDF(invoice);
+
+            assertTrue(new String(pdf, 0, 5, StandardCharsets.US_ASCII).startsWith("%PDF-"));
+            assertTrue(new String(pdf, StandardCharsets.ISO_8859_1).stripTrailing().endsWith("%%EOF"));
+        }
+        assertSame(regularFont, ReflectionTestUtils.getField(pdfGeneratorService, "regularFontSource"));
+        assertSame(boldFont, ReflectionTestUtils.getField(pdfGeneratorService, "boldFontSource"));
+    }
+}
@@ -0,0 +1,140 @@
+package com.tutor_management.backend.modules.shared.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("WriteBehindCounters Unit Tests")
+class WriteBehindCountersTest {
+
+    private static final WriteBehindCounters.Target DOWNLOADS =
+            new WriteBehindCounters.Target("downloads", "documents", "download_count", null);
+    private static final WriteBehindCounters.Target VIEWS =
+            new WriteBehindCounters.Target("views", "lesson_assignments", "view_count", "last_viewed_at");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WriteBehindCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        counters = new WriteBehindCounters(jdbcTemplate, transactionManager, meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> flushedRows(String sql) {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(sql), rows.capture());
+        return rows.getValue();
+    }
+
+    @Test
+    @DisplayName("Should flush concurrent increments as one additive update per row")
+    void flush_CoalescesConcurrentIncrements() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            pool.execute(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    counters.increment(DOWNLOADS, 1L);
+                }
+            });
+        }
+        counters.increment(DOWNLOADS, 2L);
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        counters.flush();
+
+        List<Object[]> rows = flushedRows("UPDATE documents SET download_count = download_count + ? WHERE id = ?");
+        assertEquals(2, rows.size());
+        assertTrue(rows.stream().anyMatch(r -> r[0].equals(8000L) && r[1].equals(1L)));
+        assertTrue(rows.stream().anyMatch(r -> r[0].equals(1L) && r[1].equals(2L)));
+        assertEquals(2.0, meterRegistry.get("counters.write_behind.flushed").tag("counter", "downloads").counter().count());
+
+        counters.flush();
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should not lose increments that race with a flush")
+    @SuppressWarnings("unchecked")
+    void flush_ConcurrentWithIncrements_LosesNothing() throws InterruptedException {
+        AtomicLong flushed = new AtomicLong();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            ((List<Object[]>) invocation.getArgument(1)).forEach(row -> flushed.addAndGet((Long) row[0]));
+            return new int[0];
+        });
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            pool.execute(() -> {
+                for (int j = 0; j < 20_000; j++) {
+                    counters.increment(DOWNLOADS, (long) (j % 3));
+                }
+            });
+        }
+        pool.shutdown();
+        while (!pool.awaitTermination(1, TimeUnit.MILLISECONDS)) {
+            counters.flush();
+        }
+
+        counters.flush();
+
+        assertEquals(80_000L, flushed.get());
+    }
+
+    @Test
+    @DisplayName("Should set the timestamp column when the target has one")
+    void flush_TouchedColumn() {
+        counters.increment(VIEWS, 5L);
+
+        counters.flush();
+
+        Object[] row = flushedRows("UPDATE lesson_assignments SET view_count = view_count + ?, last_viewed_at = ? WHERE id = ?").get(0);
+        assertEquals(3, row.length);
+        assertEquals(1L, row[0]);
+        assertEquals(5L, row[2]);
+    }
+
+    @Test
+    @DisplayName("Should keep the deltas for the next flush when the update fails")
+    void flush_Failure_RetriesDeltas() {
+        counters.increment(DOWNLOADS, 1L);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("Connection lost"))
+                .thenReturn(new int[]{1});
+
+        counters.flush();
+        counters.increment(DOWNLOADS, 1L);
+        counters.flushOnShutdown();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), rows.capture());
+        assertEquals(2L, rows.getAllValues().get(1).get(0)[0]);
+        assertEquals(1.0, meterRegistry.get("counters.write_behind.flush_failures").counter().count());
+    }
+}
@@ -0,0 +1,70 @@
+package com.tutor_management.backend.modules.student.service;
+
+import com.tutor_management.backend.modules.auth.UserRepository;
+import com.tutor_management.backend.modules.finance.dto.response.StudentBillingStats;
+import com.tutor_management.backend.modules.finance.repository.SessionRecordRepository;
+import com.tutor_management.backend.modules.student.dto.response.StudentResponse;
+import com.tutor_management.backend.modules.student.entity.Student;
+import com.tutor_management.backend.modules.student.repository.StudentRepository;
+import com.tutor_management.backend.util.SecurityContextUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StudentService Unit Tests")
+class StudentServiceTest {
+
+    @Mock
+    private StudentRepository studentRepository;
+    @Mock
+    private SessionRecordRepository sessionRecordRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private SecurityContextUtils securityContextUtils;
+
+    @InjectMocks
+    private StudentService studentService;
+
+    private Student student(long id, String startMonth) {
+        return Student.builder().id(id).name("Học sinh " + id).startMonth(startMonth)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 8, 0)).build();
+    }
+
+    @Test
+    @DisplayName("Should list students with billing figures from one grouped query")
+    void getAllStudents_UsesBillingProjection() {
+        when(securityContextUtils.getCurrentTutorId()).thenReturn(5L);
+        when(studentRepository.findAllByTutorIdWithParentOrderByCreatedAtDesc(5L))
+                .thenReturn(List.of(student(1L, "2024-01"), student(2L, "2024-03")));
+        when(sessionRecordRepository.findBillingStatsByStudentIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(new StudentBillingStats(1L, 800_000L, 300_000L, 200_000L, "2024-04")));
+
+        List<StudentResponse> students = studentService.getAllStudents();
+
+        StudentResponse withHistory = students.get(0);
+        assertEquals(800_000L, withHistory.getTotalPaid());
+        assertEquals(300_000L, withHistory.getTotalUnpaid());
+        assertEquals(200_000L, withHistory.getTotalUnpaidTaught());
+        assertEquals("2024-04", withHistory.getLastActiveMonth());
+        assertEquals(4, withHistory.getMonthsLearned());
+
+        StudentResponse withoutHistory = students.get(1);
+        assertEquals(0L, withoutHistory.getTotalPaid());
+        assertEquals(0L, withoutHistory.getTotalUnpaid());
+        assertNull(withoutHistory.getLastActiveMonth());
+
+        verify(sessionRecordRepository, never()).findByStudentIdIn(any());
+    }
+}
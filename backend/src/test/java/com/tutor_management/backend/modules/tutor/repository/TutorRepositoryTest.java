@@ -11,7 +11,9 @@ import com.tutor_management.backend.modules.tutor.dto.response.TutorResponse;
 import com.tutor_management.backend.modules.tutor.entity.Tutor;
 import com.tutor_management.backend.modules.tutor.service.TutorService;
 import com.tutor_management.backend.modules.student.repository.StudentRepository;
+import com.tutor_management.backend.modules.finance.dto.response.MonthlyStats;
 import com.tutor_management.backend.modules.finance.repository.SessionRecordRepository;
+import com.tutor_management.backend.modules.finance.service.RevenueRollupService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,6 +29,7 @@ import org.springframework.data.domain.Pageable;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -52,6 +55,9 @@ class TutorServiceTest {
     @Mock
     private SessionRecordRepository sessionRecordRepository;
 
+    @Mock
+    private RevenueRollupService revenueRollupService;
+
     @InjectMocks
     private TutorService tutorService;
 
@@ -298,10 +304,8 @@ class TutorServiceTest {
         when(studentRepository.countByTutorIdAndActiveTrue(1L)).thenReturn(5L);
         
         String currentMonth = java.time.LocalDate.now().format(java.time.format.DateTimeFormatter.ofPattern("MM/yyyy"));
-        when(sessionRecordRepository.sumSessionsByMonthAndTutorId(eq(currentMonth), eq(1L)))
-                .thenReturn(10);
-        when(sessionRecordRepository.getFinanceSummaryByTutorId(eq(currentMonth), eq(1L)))
-                .thenReturn(null); // Simple case for revenue
+        when(revenueRollupService.getMonthlyStats(1L))
+                .thenReturn(List.of(new MonthlyStats(currentMonth, 0L, 0L, 10))); // Simple case for revenue
 
         // When
         TutorStatsDTO result = tutorService.getTutorStats(1L);
@@ -314,7 +318,7 @@ class TutorServiceTest {
         
         verify(tutorRepository).existsById(1L);
         verify(studentRepository).countByTutorIdAndActiveTrue(1L);
-        verify(sessionRecordRepository).sumSessionsByMonthAndTutorId(anyString(), eq(1L));
+        verify(revenueRollupService).getMonthlyStats(1L);
     }
 
     @Test
@@ -0,0 +1,99 @@
+package com.tutor_management.backend.util;
+
+import com.tutor_management.backend.modules.auth.Role;
+import com.tutor_management.backend.modules.auth.User;
+import com.tutor_management.backend.modules.auth.UserRepository;
+import com.tutor_management.backend.modules.tutor.entity.Tutor;
+import com.tutor_management.backend.modules.tutor.repository.TutorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SecurityContextUtils Unit Tests")
+class SecurityContextUtilsTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TutorRepository tutorRepository;
+
+    private SecurityContextUtils securityContextUtils;
+
+    @BeforeEach
+    void setUp() {
+        // Other tests may leave a mocked context installed on this thread
+        SecurityContextHolder.clearContext();
+        securityContextUtils = new SecurityContextUtils(userRepository, tutorRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticate(User user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @Test
+    @DisplayName("Should use the tutor ID embedded in the principal without querying")
+    void getCurrentTutorId_Embedded_NoQuery() {
+        User user = User.builder().id(2L).email("tutor@test.com").role(Role.TUTOR).build();
+        when(tutorRepository.findByUserId(2L)).thenReturn(Optional.of(Tutor.builder().id(100L).build()));
+
+        securityContextUtils.attachTenantIds(user);
+        authenticate(user);
+
+        assertEquals(100L, securityContextUtils.getCurrentTutorId());
+        assertEquals(100L, securityContextUtils.getCurrentTutorId());
+        verify(tutorRepository, times(1)).findByUserId(2L);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Should cache the lookup for principals without an embedded tutor ID")
+    void getCurrentTutorId_Fallback_CachedPerUser() {
+        when(tutorRepository.findByUserId(2L)).thenReturn(Optional.of(Tutor.builder().id(100L).build()));
+
+        for (int i = 0; i < 3; i++) {
+            authenticate(User.builder().id(2L).email("tutor@test.com").role(Role.TUTOR).build());
+            assertEquals(100L, securityContextUtils.getCurrentTutorId());
+        }
+
+        verify(tutorRepository, times(1)).findByUserId(2L);
+    }
+
+    @Test
+    @DisplayName("Should not cache a missing tutor profile")
+    void getCurrentTutorId_MissingProfile_Throws() {
+        authenticate(User.builder().id(3L).email("new@test.com").role(Role.TUTOR).build());
+        when(tutorRepository.findByUserId(3L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class, () -> securityContextUtils.getCurrentTutorId());
+        assertThrows(IllegalStateException.class, () -> securityContextUtils.getCurrentTutorId());
+        verify(tutorRepository, times(2)).findByUserId(3L);
+    }
+
+    @Test
+    @DisplayName("Should return null for admins")
+    void getCurrentTutorId_Admin_Null() {
+        authenticate(User.builder().id(1L).email("admin@test.com").role(Role.ADMIN).build());
+
+        assertNull(securityContextUtils.getCurrentTutorId());
+        verifyNoInteractions(tutorRepository);
+    }
+}
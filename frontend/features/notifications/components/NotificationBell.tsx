@@ -38,7 +38,11 @@ export const NotificationBell = () => {
         });
     }, [queryClient]);
 
-    useSSE(handleNotification);
+    const handleResync = useCallback(() => {
+        queryClient.invalidateQueries({ queryKey: ['notifications'] });
+    }, [queryClient]);
+
+    useSSE(handleNotification, handleResync);
 
     return (
         <Popover>
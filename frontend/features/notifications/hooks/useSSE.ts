@@ -17,15 +17,24 @@ interface UseSSEReturn {
  * Handles real-time notification streaming with automatic reconnection logic,
  * exponential backoff, and browser online-state detection.
  * 
+ * On reconnect the ID of the last received event is sent along so the backend replays
+ * anything missed in between; if it cannot, it emits a 'resync' event instead. The
+ * 'connected' event carries the stream position, so this works before any notification.
+ * 
  * @param onNotification Optional callback executed whenever a new notification is pushed.
+ * @param onResync Optional callback executed when missed notifications must be reloaded.
  * @returns Connection state and any encountered errors.
  */
-export const useSSE = (onNotification?: (notification: Notification) => void): UseSSEReturn => {
+export const useSSE = (
+    onNotification?: (notification: Notification) => void,
+    onResync?: () => void
+): UseSSEReturn => {
     const [isConnected, setIsConnected] = useState(false);
     const [connectionError, setConnectionError] = useState<string | null>(null);
     const eventSourceRef = useRef<EventSource | null>(null);
     const reconnectTimeoutRef = useRef<NodeJS.Timeout | null>(null);
     const retryAttemptsRef = useRef(0);
+    const lastEventIdRef = useRef<string | null>(null);
 
     /**
      * Initiates the SSE connection to the backend.
@@ -47,7 +56,11 @@ export const useSSE = (onNotification?: (notification: Notification) => void): U
         const apiUrl = process.env.NEXT_PUBLIC_API_URL || 'http://localhost:8080';
         const sanitizedUrl = apiUrl.replace(/\/$/, '');
         const apiBase = sanitizedUrl.endsWith('/api') ? sanitizedUrl : `${sanitizedUrl}/api`;
-        const streamEndpoint = `${apiBase}/notifications/stream?token=${accessToken}`;
+        // A recreated EventSource does not send Last-Event-ID by itself, so pass it explicitly
+        const resumeParam = lastEventIdRef.current
+            ? `&lastEventId=${encodeURIComponent(lastEventIdRef.current)}`
+            : '';
+        const streamEndpoint = `${apiBase}/notifications/stream?token=${accessToken}${resumeParam}`;
 
         // Close existing stream before opening a new one
         if (eventSourceRef.current) {
@@ -58,6 +71,13 @@ export const useSSE = (onNotification?: (notification: Notification) => void): U
         const stream = new EventSource(streamEndpoint);
         eventSourceRef.current = stream;
 
+        // Remember the stream position of every event that carries one
+        const trackEventId = (event: MessageEvent) => {
+            if (event.lastEventId) {
+                lastEventIdRef.current = event.lastEventId;
+            }
+        };
+
         stream.onopen = () => {
             console.info('SSE stream established successfully');
             setIsConnected(true);
@@ -67,6 +87,7 @@ export const useSSE = (onNotification?: (notification: Notification) => void): U
 
         // Listen for new notification payloads
         stream.addEventListener('notification', (event) => {
+            trackEventId(event);
             try {
                 const payload = JSON.parse(event.data) as Notification;
                 console.debug('Real-time notification received:', payload);
@@ -80,9 +101,19 @@ export const useSSE = (onNotification?: (notification: Notification) => void): U
 
         // Backend confirmation event
         stream.addEventListener('connected', (event) => {
+            trackEventId(event);
             console.debug('Server connection confirmation:', event.data);
         });
 
+        // Backend could not replay what was missed while disconnected
+        // The preceding 'connected' event already carries the position to resume from
+        stream.addEventListener('resync', () => {
+            console.info('SSE replay unavailable, reloading notifications');
+            if (onResync) {
+                onResync();
+            }
+        });
+
         // Periodic heartbeat to prevent idle disconnects
         stream.addEventListener('heartbeat', () => {
             console.debug('SSE heartbeat received');
@@ -106,7 +137,7 @@ export const useSSE = (onNotification?: (notification: Notification) => void): U
                 establishConnection();
             }, backoffDelay);
         };
-    }, [onNotification]);
+    }, [onNotification, onResync]);
 
     useEffect(() => {
         establishConnection();
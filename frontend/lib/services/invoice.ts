@@ -1,5 +1,5 @@
 import api from './axios-instance';
-import type { InvoiceRequest, InvoiceResponse } from '../types';
+import type { InvoiceJobResponse, InvoiceRequest, InvoiceResponse } from '../types';
 
 export const invoicesApi = {
   /** * TẠO DỮ LIỆU HÓA ĐƠN (XEM TRƯỚC)
@@ -66,12 +66,21 @@ export const invoicesApi = {
     return response.data;
   },
 
-  /** * GỬI EMAIL HÓA ĐƠN CHO TOÀN BỘ PHỤ HUYNH TRONG THÁNG
+  /** * GỬI EMAIL HÓA ĐƠN CHO TOÀN BỘ PHỤ HUYNH TRONG THÁNG (CHẠY NỀN)
    * @param {InvoiceRequest} request - Chứa thông tin tháng cần gửi
-   * @returns {Promise<any>}
+   * @returns {Promise<any>} Phản hồi chứa tiến trình gửi vừa tạo (data: InvoiceJobResponse)
    */
   sendInvoiceEmailAll: async (request: InvoiceRequest): Promise<any> => {
     const response = await api.post('/invoices/send-email-all', request);
     return response.data;
   },
+
+  /** * LẤY TIẾN ĐỘ CỦA TIẾN TRÌNH GỬI EMAIL HÀNG LOẠT
+   * @param {number} jobId - ID tiến trình trả về từ sendInvoiceEmailAll
+   * @returns {Promise<InvoiceJobResponse>} Số hóa đơn đã gửi, lỗi, bỏ qua và đang chờ
+   */
+  getInvoiceJob: async (jobId: number): Promise<InvoiceJobResponse> => {
+    const response = await api.get(`/invoices/jobs/${jobId}`);
+    return response.data.data;
+  },
 };
\ No newline at end of file
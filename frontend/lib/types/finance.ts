@@ -102,6 +102,28 @@ export interface InvoiceResponse {
   createdDate: string; // NGÀY TẠO HÓA ĐƠN
 }
 
+export interface InvoiceJobItemResult {
+  parent: string | null; // TÊN PHỤ HUYNH
+  email: string | null; // EMAIL NHẬN
+  students: string; // TÊN CÁC HỌC SINH TRONG HÓA ĐƠN
+  status: 'FAILED' | 'SKIPPED'; // KẾT QUẢ
+  error: string | null; // LÝ DO LỖI HOẶC BỎ QUA
+}
+
+export interface InvoiceJobResponse {
+  id: number; // ID TIẾN TRÌNH GỬI HÀNG LOẠT
+  month: string; // THÁNG GỬI HÓA ĐƠN
+  status: 'RUNNING' | 'COMPLETED'; // TRẠNG THÁI TIẾN TRÌNH
+  total: number; // TỔNG SỐ HÓA ĐƠN CẦN GỬI
+  pending: number; // SỐ HÓA ĐƠN ĐANG CHỜ
+  sent: number; // SỐ HÓA ĐƠN ĐÃ GỬI
+  failed: number; // SỐ HÓA ĐƠN GỬI LỖI
+  skipped: number; // SỐ HÓA ĐƠN BỎ QUA
+  createdAt: string; // THỜI ĐIỂM BẮT ĐẦU
+  finishedAt: string | null; // THỜI ĐIỂM HOÀN TẤT
+  problems: InvoiceJobItemResult[]; // CÁC HÓA ĐƠN LỖI HOẶC BỎ QUA
+}
+
 export interface InvoiceItem {
   date: string; // NGÀY HỌC CỦA MỤC NÀY
   description: string; // MÔ TẢ BUỔI HỌC